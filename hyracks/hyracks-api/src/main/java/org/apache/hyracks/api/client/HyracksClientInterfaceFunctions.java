@@ -22,12 +22,14 @@ import java.io.Serializable;
 import java.net.URL;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.hyracks.api.dataset.DatasetDirectoryRecord;
 import org.apache.hyracks.api.dataset.ResultSetId;
 import org.apache.hyracks.api.deployment.DeploymentId;
 import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.PreparedJobId;
 
 public class HyracksClientInterfaceFunctions {
     public enum FunctionId {
@@ -37,6 +39,9 @@ public class HyracksClientInterfaceFunctions {
         GET_JOB_STATUS,
         GET_JOB_INFO,
         START_JOB,
+        PREPARE_JOB,
+        START_PREPARED_JOB,
+        UNPREPARE_JOB,
         GET_DATASET_DIRECTORY_SERIVICE_INFO,
         GET_DATASET_RESULT_STATUS,
         GET_DATASET_RECORD_DESCRIPTOR,
@@ -138,6 +143,81 @@ public class HyracksClientInterfaceFunctions {
         }
     }
 
+    public static class PrepareJobFunction extends Function {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] acggfBytes;
+        private final EnumSet<JobFlag> jobFlags;
+        private final DeploymentId deploymentId;
+
+        public PrepareJobFunction(DeploymentId deploymentId, byte[] acggfBytes, EnumSet<JobFlag> jobFlags) {
+            this.acggfBytes = acggfBytes;
+            this.jobFlags = jobFlags;
+            this.deploymentId = deploymentId;
+        }
+
+        @Override
+        public FunctionId getFunctionId() {
+            return FunctionId.PREPARE_JOB;
+        }
+
+        public byte[] getACGGFBytes() {
+            return acggfBytes;
+        }
+
+        public EnumSet<JobFlag> getJobFlags() {
+            return jobFlags;
+        }
+
+        public DeploymentId getDeploymentId() {
+            return deploymentId;
+        }
+    }
+
+    public static class StartPreparedJobFunction extends Function {
+        private static final long serialVersionUID = 1L;
+
+        private final PreparedJobId preparedJobId;
+        private final Map<String, byte[]> jobParameters;
+
+        public StartPreparedJobFunction(PreparedJobId preparedJobId, Map<String, byte[]> jobParameters) {
+            this.preparedJobId = preparedJobId;
+            this.jobParameters = jobParameters;
+        }
+
+        @Override
+        public FunctionId getFunctionId() {
+            return FunctionId.START_PREPARED_JOB;
+        }
+
+        public PreparedJobId getPreparedJobId() {
+            return preparedJobId;
+        }
+
+        public Map<String, byte[]> getJobParameters() {
+            return jobParameters;
+        }
+    }
+
+    public static class UnprepareJobFunction extends Function {
+        private static final long serialVersionUID = 1L;
+
+        private final PreparedJobId preparedJobId;
+
+        public UnprepareJobFunction(PreparedJobId preparedJobId) {
+            this.preparedJobId = preparedJobId;
+        }
+
+        @Override
+        public FunctionId getFunctionId() {
+            return FunctionId.UNPREPARE_JOB;
+        }
+
+        public PreparedJobId getPreparedJobId() {
+            return preparedJobId;
+        }
+    }
+
     public static class GetDatasetDirectoryServiceInfoFunction extends Function {
         private static final long serialVersionUID = 1L;
 
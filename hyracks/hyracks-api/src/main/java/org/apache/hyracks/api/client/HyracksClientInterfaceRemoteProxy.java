@@ -29,6 +29,7 @@ import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobInfo;
 import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.PreparedJobId;
 import org.apache.hyracks.api.topology.ClusterTopology;
 import org.apache.hyracks.ipc.api.IIPCHandle;
 import org.apache.hyracks.ipc.api.RPCInterface;
@@ -71,6 +72,28 @@ public class HyracksClientInterfaceRemoteProxy implements IHyracksClientInterfac
         return (JobId) rpci.call(ipcHandle, sjf);
     }
 
+    @Override
+    public PreparedJobId prepareJob(DeploymentId deploymentId, byte[] acggfBytes, EnumSet<JobFlag> jobFlags)
+            throws Exception {
+        HyracksClientInterfaceFunctions.PrepareJobFunction pjf = new HyracksClientInterfaceFunctions.PrepareJobFunction(
+                deploymentId, acggfBytes, jobFlags);
+        return (PreparedJobId) rpci.call(ipcHandle, pjf);
+    }
+
+    @Override
+    public JobId startJob(PreparedJobId preparedJobId, Map<String, byte[]> jobParameters) throws Exception {
+        HyracksClientInterfaceFunctions.StartPreparedJobFunction spjf = new HyracksClientInterfaceFunctions.StartPreparedJobFunction(
+                preparedJobId, jobParameters);
+        return (JobId) rpci.call(ipcHandle, spjf);
+    }
+
+    @Override
+    public void unprepareJob(PreparedJobId preparedJobId) throws Exception {
+        HyracksClientInterfaceFunctions.UnprepareJobFunction upjf = new HyracksClientInterfaceFunctions.UnprepareJobFunction(
+                preparedJobId);
+        rpci.call(ipcHandle, upjf);
+    }
+
     @Override
     public NetworkAddress getDatasetDirectoryServiceInfo() throws Exception {
         HyracksClientInterfaceFunctions.GetDatasetDirectoryServiceInfoFunction gddsf = new HyracksClientInterfaceFunctions.GetDatasetDirectoryServiceInfoFunction();
@@ -43,6 +43,7 @@ import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobInfo;
 import org.apache.hyracks.api.job.JobSpecification;
 import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.PreparedJobId;
 import org.apache.hyracks.api.topology.ClusterTopology;
 import org.apache.hyracks.api.util.JavaSerializationUtils;
 import org.apache.hyracks.ipc.api.IIPCHandle;
@@ -107,6 +108,34 @@ public final class HyracksConnection implements IHyracksClientConnection {
         return hci.startJob(JavaSerializationUtils.serialize(acggf), jobFlags);
     }
 
+    @Override
+    public PreparedJobId prepareJob(JobSpecification jobSpec) throws Exception {
+        return prepareJob(jobSpec, EnumSet.noneOf(JobFlag.class));
+    }
+
+    @Override
+    public PreparedJobId prepareJob(JobSpecification jobSpec, EnumSet<JobFlag> jobFlags) throws Exception {
+        return prepareJob(null, jobSpec, jobFlags);
+    }
+
+    @Override
+    public PreparedJobId prepareJob(DeploymentId deploymentId, JobSpecification jobSpec, EnumSet<JobFlag> jobFlags)
+            throws Exception {
+        JobSpecificationActivityClusterGraphGeneratorFactory jsacggf = new JobSpecificationActivityClusterGraphGeneratorFactory(
+                jobSpec);
+        return hci.prepareJob(deploymentId, JavaSerializationUtils.serialize(jsacggf), jobFlags);
+    }
+
+    @Override
+    public JobId startJob(PreparedJobId preparedJobId, Map<String, byte[]> jobParameters) throws Exception {
+        return hci.startJob(preparedJobId, jobParameters);
+    }
+
+    @Override
+    public void unprepareJob(PreparedJobId preparedJobId) throws Exception {
+        hci.unprepareJob(preparedJobId);
+    }
+
     public NetworkAddress getDatasetDirectoryServiceInfo() throws Exception {
         return hci.getDatasetDirectoryServiceInfo();
     }
@@ -30,6 +30,7 @@ import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobInfo;
 import org.apache.hyracks.api.job.JobSpecification;
 import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.PreparedJobId;
 import org.apache.hyracks.api.topology.ClusterTopology;
 
 /**
@@ -95,6 +96,65 @@ public interface IHyracksClientConnection {
      */
     public JobId startJob(IActivityClusterGraphGeneratorFactory acggf, EnumSet<JobFlag> jobFlags) throws Exception;
 
+    /**
+     * Prepare the specified Job. The cluster keeps the activity cluster graph of a prepared job, so that it can be
+     * started repeatedly without being shipped, deserialized and planned again for every run.
+     *
+     * @param jobSpec
+     *            Job Specification
+     * @return the handle to start the prepared job with
+     * @throws Exception
+     */
+    public PreparedJobId prepareJob(JobSpecification jobSpec) throws Exception;
+
+    /**
+     * Prepare the specified Job.
+     *
+     * @param jobSpec
+     *            Job Specification
+     * @param jobFlags
+     *            Flags, used for every run of the prepared job
+     * @return the handle to start the prepared job with
+     * @throws Exception
+     */
+    public PreparedJobId prepareJob(JobSpecification jobSpec, EnumSet<JobFlag> jobFlags) throws Exception;
+
+    /**
+     * Prepare the specified Job.
+     *
+     * @param deploymentId
+     *            the id of the specific deployment
+     * @param jobSpec
+     *            Job Specification
+     * @param jobFlags
+     *            Flags, used for every run of the prepared job
+     * @return the handle to start the prepared job with
+     * @throws Exception
+     */
+    public PreparedJobId prepareJob(DeploymentId deploymentId, JobSpecification jobSpec, EnumSet<JobFlag> jobFlags)
+            throws Exception;
+
+    /**
+     * Start a run of a prepared Job.
+     *
+     * @param preparedJobId
+     *            the handle returned by prepareJob
+     * @param jobParameters
+     *            parameter bindings of this run, made available to the tasks through
+     *            {@link org.apache.hyracks.api.context.IHyracksJobletContext#getJobParameter(String)}
+     * @throws Exception
+     */
+    public JobId startJob(PreparedJobId preparedJobId, Map<String, byte[]> jobParameters) throws Exception;
+
+    /**
+     * Release a prepared Job on the cluster. Runs that have already been started are not affected.
+     *
+     * @param preparedJobId
+     *            the handle returned by prepareJob
+     * @throws Exception
+     */
+    public void unprepareJob(PreparedJobId preparedJobId) throws Exception;
+
     /**
      * Gets the IP Address and port for the DatasetDirectoryService wrapped in NetworkAddress
      *
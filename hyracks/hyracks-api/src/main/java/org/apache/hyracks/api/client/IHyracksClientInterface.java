@@ -29,6 +29,7 @@ import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobInfo;
 import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.PreparedJobId;
 import org.apache.hyracks.api.topology.ClusterTopology;
 
 public interface IHyracksClientInterface {
@@ -52,6 +53,13 @@ public interface IHyracksClientInterface {
 
     public JobId startJob(DeploymentId deploymentId, byte[] acggfBytes, EnumSet<JobFlag> jobFlags) throws Exception;
 
+    public PreparedJobId prepareJob(DeploymentId deploymentId, byte[] acggfBytes, EnumSet<JobFlag> jobFlags)
+            throws Exception;
+
+    public JobId startJob(PreparedJobId preparedJobId, Map<String, byte[]> jobParameters) throws Exception;
+
+    public void unprepareJob(PreparedJobId preparedJobId) throws Exception;
+
     public JobInfo getJobInfo(JobId jobId) throws Exception;
 
     public void stopCluster() throws Exception;
@@ -74,11 +74,14 @@ public class JobSpecificationActivityClusterGraphGeneratorFactory implements IAc
         final ActivityClusterGraph acg = acgb.inferActivityClusters(jobId, jag);
         acg.setFrameSize(spec.getFrameSize());
         acg.setMaxReattempts(spec.getMaxReattempts());
+        acg.setMaxThreadsPerTask(spec.getMaxThreadsPerTask());
         acg.setJobletEventListenerFactory(spec.getJobletEventListenerFactory());
         acg.setGlobalJobDataFactory(spec.getGlobalJobDataFactory());
         acg.setConnectorPolicyAssignmentPolicy(spec.getConnectorPolicyAssignmentPolicy());
         acg.setUseConnectorPolicyForScheduling(spec.isUseConnectorPolicyForScheduling());
         acg.setReportTaskDetails(spec.isReportTaskDetails());
+        acg.setCompressNetworkFrames(spec.isCompressNetworkFrames());
+        acg.setCompressRunFiles(spec.isCompressRunFiles());
         final Set<Constraint> constraints = new HashSet<Constraint>();
         final IConstraintAcceptor acceptor = new IConstraintAcceptor() {
             @Override
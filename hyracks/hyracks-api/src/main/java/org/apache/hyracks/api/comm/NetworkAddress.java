@@ -85,7 +85,7 @@ public final class NetworkAddress implements IWritable, Serializable {
             return false;
         }
         NetworkAddress on = (NetworkAddress) o;
-        return on.port == port && on.address == address;
+        return on.port == port && on.address.equals(address);
     }
 
     @Override
@@ -33,6 +33,22 @@ public interface IHyracksJobletContext extends IWorkspaceFileFactory, IDeallocat
 
     public Object getGlobalJobData();
 
+    /**
+     * @return the number of threads each task of the job may use, see JobSpecification#setMaxThreadsPerTask.
+     */
+    public int getMaxThreadsPerTask();
+
+    /**
+     * @return whether run files are to be compressed and checksummed, see JobSpecification#setCompressRunFiles.
+     */
+    public boolean isCompressRunFiles();
+
+    /**
+     * @return the value bound to the named parameter when the job was started from a prepared job, or null, see
+     *         IHyracksClientConnection#startJob(PreparedJobId, Map).
+     */
+    public byte[] getJobParameter(String name);
+
     public Class<?> loadClass(String className);
 
     public ClassLoader getClassLoader();
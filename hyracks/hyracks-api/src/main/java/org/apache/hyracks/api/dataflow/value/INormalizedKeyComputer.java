@@ -20,4 +20,13 @@ package org.apache.hyracks.api.dataflow.value;
 
 public interface INormalizedKeyComputer {
     public int normalize(byte[] bytes, int start, int length);
+
+    /**
+     * Writes the normalized key of the given value into {@code keys[keyStart]} and the following
+     * {@link INormalizedKeyComputerFactory#getNormalizedKeyLength()} - 1 ints, most significant word
+     * first. Normalized keys are compared word by word as unsigned ints.
+     */
+    public default void normalize(byte[] bytes, int start, int length, int[] keys, int keyStart) {
+        keys[keyStart] = normalize(bytes, start, length);
+    }
 }
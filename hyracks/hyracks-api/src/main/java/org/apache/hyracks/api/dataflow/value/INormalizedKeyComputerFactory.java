@@ -22,4 +22,20 @@ import java.io.Serializable;
 
 public interface INormalizedKeyComputerFactory extends Serializable {
     public INormalizedKeyComputer createNormalizedKeyComputer();
+
+    /**
+     * @return the number of ints written by
+     *         {@link INormalizedKeyComputer#normalize(byte[], int, int, int[], int)}
+     */
+    public default int getNormalizedKeyLength() {
+        return 1;
+    }
+
+    /**
+     * @return true if values with equal normalized keys are also equal under the key's comparator,
+     *         so that the normalized key alone decides the order of two values
+     */
+    public default boolean isDecisive() {
+        return false;
+    }
 }
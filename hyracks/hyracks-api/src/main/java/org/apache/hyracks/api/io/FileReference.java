@@ -26,15 +26,33 @@ public final class FileReference implements Serializable {
 
     private final File file;
     private final IODeviceHandle dev;
+    private final FileReference[] stripes;
+    private final int stripeSize;
 
     public FileReference(IODeviceHandle dev, String devRelPath) {
         file = new File(dev.getPath(), devRelPath);
         this.dev = dev;
+        this.stripes = null;
+        this.stripeSize = 0;
     }
 
     public FileReference(File file) {
         this.file = file;
         this.dev = null;
+        this.stripes = null;
+        this.stripeSize = 0;
+    }
+
+    /**
+     * Creates a reference to a file whose bytes are spread over the given files, usually on different devices, in
+     * units of stripeSize bytes: unit i of the file is unit i / stripes.length of stripe i % stripes.length. The file
+     * is named by its first stripe.
+     */
+    public FileReference(FileReference[] stripes, int stripeSize) {
+        this.file = stripes[0].file;
+        this.dev = stripes[0].dev;
+        this.stripes = stripes;
+        this.stripeSize = stripeSize;
     }
 
     public File getFile() {
@@ -45,6 +63,18 @@ public final class FileReference implements Serializable {
         return dev;
     }
 
+    public boolean isStriped() {
+        return stripes != null;
+    }
+
+    public FileReference[] getStripes() {
+        return stripes;
+    }
+
+    public int getStripeSize() {
+        return stripeSize;
+    }
+
     @Override
     public String toString() {
         return file.getAbsolutePath();
@@ -64,6 +94,12 @@ public final class FileReference implements Serializable {
     }
 
     public void delete() {
+        if (stripes != null) {
+            for (FileReference stripe : stripes) {
+                stripe.delete();
+            }
+            return;
+        }
         file.delete();
     }
 }
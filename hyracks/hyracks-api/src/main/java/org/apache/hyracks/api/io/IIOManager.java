@@ -20,7 +20,6 @@ package org.apache.hyracks.api.io;
 
 import java.nio.ByteBuffer;
 import java.util.List;
-import java.util.concurrent.Executor;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 
@@ -49,12 +48,21 @@ public interface IIOManager {
 
     public IIOFuture asyncRead(IFileHandle fHandle, long offset, ByteBuffer data);
 
+    /**
+     * Like {@link #asyncWrite(IFileHandle, long, ByteBuffer)}, but calls {@code callback} on completion.
+     */
+    public IIOFuture asyncWrite(IFileHandle fHandle, long offset, ByteBuffer data, IIOCallback callback);
+
+    /**
+     * Like {@link #asyncRead(IFileHandle, long, ByteBuffer)}, but calls {@code callback} on completion.
+     * Outstanding reads of adjacent ranges of the same file may be serviced by a single read.
+     */
+    public IIOFuture asyncRead(IFileHandle fHandle, long offset, ByteBuffer data, IIOCallback callback);
+
     public void close(IFileHandle fHandle) throws HyracksDataException;
 
     public void sync(IFileHandle fileHandle, boolean metadata) throws HyracksDataException;
 
-    public void setExecutor(Executor executor);
-
     public long getSize(IFileHandle fileHandle);
 
     public void deleteWorkspaceFiles();
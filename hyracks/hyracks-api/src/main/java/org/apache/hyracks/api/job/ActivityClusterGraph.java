@@ -48,6 +48,8 @@ public class ActivityClusterGraph implements Serializable {
 
     private int maxReattempts;
 
+    private int maxThreadsPerTask;
+
     private IJobletEventListenerFactory jobletEventListenerFactory;
 
     private IGlobalJobDataFactory globalJobDataFactory;
@@ -58,13 +60,20 @@ public class ActivityClusterGraph implements Serializable {
 
     private boolean reportTaskDetails;
 
+    private boolean compressNetworkFrames;
+
+    private boolean compressRunFiles;
+
     public ActivityClusterGraph() {
         version = 0;
         activityClusterMap = new HashMap<ActivityClusterId, ActivityCluster>();
         activityMap = new HashMap<ActivityId, ActivityCluster>();
         connectorMap = new HashMap<ConnectorDescriptorId, ActivityCluster>();
         frameSize = 32768;
+        maxThreadsPerTask = 1;
         reportTaskDetails = true;
+        compressNetworkFrames = false;
+        compressRunFiles = false;
     }
 
     public Map<ActivityId, ActivityCluster> getActivityMap() {
@@ -112,6 +121,14 @@ public class ActivityClusterGraph implements Serializable {
         return maxReattempts;
     }
 
+    public void setMaxThreadsPerTask(int maxThreadsPerTask) {
+        this.maxThreadsPerTask = maxThreadsPerTask;
+    }
+
+    public int getMaxThreadsPerTask() {
+        return maxThreadsPerTask;
+    }
+
     public IJobletEventListenerFactory getJobletEventListenerFactory() {
         return jobletEventListenerFactory;
     }
@@ -152,6 +169,29 @@ public class ActivityClusterGraph implements Serializable {
         this.reportTaskDetails = reportTaskDetails;
     }
 
+    public boolean isCompressNetworkFrames() {
+        return compressNetworkFrames;
+    }
+
+    /**
+     * Sets whether the frames exchanged between node controllers are compressed on the wire.
+     */
+    public void setCompressNetworkFrames(boolean compressNetworkFrames) {
+        this.compressNetworkFrames = compressNetworkFrames;
+    }
+
+    public boolean isCompressRunFiles() {
+        return compressRunFiles;
+    }
+
+    /**
+     * Sets whether the runs that sorts, groupings and joins spill to workspace files are compressed and
+     * checksummed.
+     */
+    public void setCompressRunFiles(boolean compressRunFiles) {
+        this.compressRunFiles = compressRunFiles;
+    }
+
     public List<IConnectorDescriptor> getActivityInputs(ActivityId activityId) {
         ActivityCluster ac = activityMap.get(activityId);
         return ac.getActivityInputMap().get(activityId);
@@ -73,6 +73,8 @@ public class JobSpecification implements Serializable, IOperatorDescriptorRegist
 
     private int maxReattempts;
 
+    private int maxThreadsPerTask;
+
     private IJobletEventListenerFactory jobletEventListenerFactory;
 
     private IGlobalJobDataFactory globalJobDataFactory;
@@ -81,6 +83,10 @@ public class JobSpecification implements Serializable, IOperatorDescriptorRegist
 
     private boolean reportTaskDetails;
 
+    private boolean compressNetworkFrames;
+
+    private boolean compressRunFiles;
+
     private transient int operatorIdCounter;
 
     private transient int connectorIdCounter;
@@ -104,8 +110,11 @@ public class JobSpecification implements Serializable, IOperatorDescriptorRegist
         operatorIdCounter = 0;
         connectorIdCounter = 0;
         maxReattempts = 2;
+        maxThreadsPerTask = 1;
         useConnectorPolicyForScheduling = false;
         reportTaskDetails = true;
+        compressNetworkFrames = false;
+        compressRunFiles = false;
         setFrameSize(frameSize);
     }
 
@@ -263,6 +272,18 @@ public class JobSpecification implements Serializable, IOperatorDescriptorRegist
         return maxReattempts;
     }
 
+    /**
+     * Sets how many threads a single task may use for work it can split, such as sorting an in-memory run.
+     * The budget is per task, so the default of 1 never puts more threads on a node than there are tasks.
+     */
+    public void setMaxThreadsPerTask(int maxThreadsPerTask) {
+        this.maxThreadsPerTask = maxThreadsPerTask;
+    }
+
+    public int getMaxThreadsPerTask() {
+        return maxThreadsPerTask;
+    }
+
     public void addUserConstraint(Constraint constraint) {
         userConstraints.add(constraint);
     }
@@ -303,6 +324,29 @@ public class JobSpecification implements Serializable, IOperatorDescriptorRegist
         this.reportTaskDetails = reportTaskDetails;
     }
 
+    public boolean isCompressNetworkFrames() {
+        return compressNetworkFrames;
+    }
+
+    /**
+     * Sets whether the frames exchanged between node controllers are compressed on the wire.
+     */
+    public void setCompressNetworkFrames(boolean compressNetworkFrames) {
+        this.compressNetworkFrames = compressNetworkFrames;
+    }
+
+    public boolean isCompressRunFiles() {
+        return compressRunFiles;
+    }
+
+    /**
+     * Sets whether the runs that sorts, groupings and joins spill to workspace files are compressed and
+     * checksummed.
+     */
+    public void setCompressRunFiles(boolean compressRunFiles) {
+        this.compressRunFiles = compressRunFiles;
+    }
+
     private <K, V> void insertIntoIndexedMap(Map<K, List<V>> map, K key, int index, V value) {
         List<V> vList = map.get(key);
         if (vList == null) {
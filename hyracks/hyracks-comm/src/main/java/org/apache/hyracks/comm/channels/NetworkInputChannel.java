@@ -21,6 +21,7 @@ package org.apache.hyracks.comm.channels;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Queue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -33,11 +34,18 @@ import org.apache.hyracks.api.partitions.PartitionId;
 import org.apache.hyracks.net.buffers.IBufferAcceptor;
 import org.apache.hyracks.net.buffers.ICloseableBufferAcceptor;
 import org.apache.hyracks.net.protocols.muxdemux.ChannelControlBlock;
+import org.apache.hyracks.util.compression.LZBlockCodec;
 
 public class NetworkInputChannel implements IInputChannel {
     private static final Logger LOGGER = Logger.getLogger(NetworkInputChannel.class.getName());
 
-    static final int INITIAL_MESSAGE_SIZE = 20;
+    static final int INITIAL_MESSAGE_SIZE = 24;
+
+    /**
+     * Set in the flags of the partition request to ask the sender for the frames in compressed blocks, as
+     * described in {@link NetworkOutputChannel}.
+     */
+    public static final int COMPRESS_FRAMES_FLAG = 0x1;
 
     private final IChannelConnectionFactory netManager;
 
@@ -49,19 +57,42 @@ public class NetworkInputChannel implements IInputChannel {
 
     private final int nBuffers;
 
+    private final boolean compressFrames;
+
     private ChannelControlBlock ccb;
 
+    private int frameSize;
+
+    // bytes of the current block that the network thread has not seen yet
+    private int unseenBlockBytes;
+
+    // the received buffer the next block is decoded from
+    private ByteBuffer inputBuffer;
+
+    private final Deque<ByteBuffer> emptyFrames = new ArrayDeque<ByteBuffer>();
+
+    // received buffers whose blocks have all been decoded, given back to the network outside of the lock
+    private final Deque<ByteBuffer> drainedBuffers = new ArrayDeque<ByteBuffer>();
+
+    private byte[] storedBlock;
+
     private IInputChannelMonitor monitor;
 
     private Object attachment;
 
     public NetworkInputChannel(IChannelConnectionFactory netManager, SocketAddress remoteAddress,
             PartitionId partitionId, int nBuffers) {
+        this(netManager, remoteAddress, partitionId, nBuffers, false);
+    }
+
+    public NetworkInputChannel(IChannelConnectionFactory netManager, SocketAddress remoteAddress,
+            PartitionId partitionId, int nBuffers, boolean compressFrames) {
         this.netManager = netManager;
         this.remoteAddress = remoteAddress;
         this.partitionId = partitionId;
         fullQueue = new ArrayDeque<ByteBuffer>(nBuffers);
         this.nBuffers = nBuffers;
+        this.compressFrames = compressFrames;
     }
 
     @Override
@@ -80,16 +111,123 @@ public class NetworkInputChannel implements IInputChannel {
     }
 
     @Override
-    public synchronized ByteBuffer getNextBuffer() {
-        return fullQueue.poll();
+    public ByteBuffer getNextBuffer() {
+        if (compressFrames) {
+            ByteBuffer frame;
+            synchronized (this) {
+                frame = decodeBlock();
+            }
+            while (!drainedBuffers.isEmpty()) {
+                recycleReceivedBuffer(drainedBuffers.poll());
+            }
+            return frame;
+        }
+        synchronized (this) {
+            return fullQueue.poll();
+        }
     }
 
     @Override
     public void recycleBuffer(ByteBuffer buffer) {
+        if (compressFrames) {
+            synchronized (this) {
+                emptyFrames.push(buffer);
+            }
+            return;
+        }
+        recycleReceivedBuffer(buffer);
+    }
+
+    private void recycleReceivedBuffer(ByteBuffer buffer) {
         buffer.clear();
         ccb.getReadInterface().getEmptyBufferAcceptor().accept(buffer);
     }
 
+    /*
+     * Called by the network thread for every received buffer. Walks the block headers to count the blocks that
+     * end in the buffer, since only those can be decoded.
+     */
+    private int countCompleteBlocks(ByteBuffer buffer) {
+        int nBlocks = 0;
+        int position = buffer.position();
+        int limit = buffer.limit();
+        while (true) {
+            if (unseenBlockBytes > 0) {
+                int length = Math.min(unseenBlockBytes, limit - position);
+                position += length;
+                unseenBlockBytes -= length;
+                if (unseenBlockBytes > 0) {
+                    return nBlocks;
+                }
+                ++nBlocks;
+            }
+            if (limit - position < NetworkOutputChannel.BLOCK_HEADER_SIZE || buffer.getInt(position) == 0) {
+                return nBlocks;
+            }
+            unseenBlockBytes = buffer.getInt(position);
+            position += NetworkOutputChannel.BLOCK_HEADER_SIZE;
+        }
+    }
+
+    private ByteBuffer decodeBlock() {
+        ByteBuffer input = nextBlockHeader();
+        int storedLength = input.getInt();
+        int rawLength = input.getInt();
+        ByteBuffer frame = emptyFrames.poll();
+        if (frame == null) {
+            frame = ByteBuffer.allocate(frameSize);
+        }
+        frame.clear();
+        byte[] src;
+        int offset;
+        if (input.remaining() >= storedLength) {
+            src = input.array();
+            offset = input.arrayOffset() + input.position();
+            input.position(input.position() + storedLength);
+        } else {
+            // the block continues in the next buffers
+            if (storedBlock == null) {
+                storedBlock = new byte[LZBlockCodec.maxCompressedLength(frameSize)];
+            }
+            for (int copied = 0; copied < storedLength;) {
+                if (!input.hasRemaining()) {
+                    drainedBuffers.add(input);
+                    input = inputBuffer = fullQueue.poll();
+                }
+                int length = Math.min(storedLength - copied, input.remaining());
+                input.get(storedBlock, copied, length);
+                copied += length;
+            }
+            src = storedBlock;
+            offset = 0;
+        }
+        if (storedLength == rawLength) {
+            System.arraycopy(src, offset, frame.array(), 0, rawLength);
+        } else {
+            LZBlockCodec.decompress(src, offset, storedLength, frame.array(), 0, rawLength);
+        }
+        frame.limit(rawLength);
+        // give the buffer back to the network as soon as it holds no more blocks
+        nextBlockHeader();
+        return frame;
+    }
+
+    private ByteBuffer nextBlockHeader() {
+        while (inputBuffer != null) {
+            if (inputBuffer.remaining() >= NetworkOutputChannel.BLOCK_HEADER_SIZE
+                    && inputBuffer.getInt(inputBuffer.position()) != 0) {
+                return inputBuffer;
+            }
+            drainedBuffers.add(inputBuffer);
+            inputBuffer = null;
+        }
+        if (!fullQueue.isEmpty()) {
+            inputBuffer = fullQueue.poll();
+            return nextBlockHeader();
+        }
+        return null;
+    }
+
     @Override
     public void open(IHyracksCommonContext ctx) throws HyracksDataException {
         try {
@@ -99,12 +237,14 @@ public class NetworkInputChannel implements IInputChannel {
         }
         ccb.getReadInterface().setFullBufferAcceptor(new ReadFullBufferAcceptor());
         ccb.getWriteInterface().setEmptyBufferAcceptor(new WriteEmptyBufferAcceptor());
-        ccb.getReadInterface().setBufferFactory(new ReadBufferFactory(nBuffers, ctx), nBuffers, ctx.getInitialFrameSize());
+        frameSize = ctx.getInitialFrameSize();
+        ccb.getReadInterface().setBufferFactory(new ReadBufferFactory(nBuffers, ctx), nBuffers, frameSize);
         ByteBuffer writeBuffer = ByteBuffer.allocate(INITIAL_MESSAGE_SIZE);
         writeBuffer.putLong(partitionId.getJobId().getId());
         writeBuffer.putInt(partitionId.getConnectorDescriptorId().getId());
         writeBuffer.putInt(partitionId.getSenderIndex());
         writeBuffer.putInt(partitionId.getReceiverIndex());
+        writeBuffer.putInt(compressFrames ? COMPRESS_FRAMES_FLAG : 0);
         writeBuffer.flip();
         if (LOGGER.isLoggable(Level.FINE)) {
             LOGGER.fine("Sending partition request: " + partitionId + " on channel: " + ccb);
@@ -121,8 +261,14 @@ public class NetworkInputChannel implements IInputChannel {
     private class ReadFullBufferAcceptor implements ICloseableBufferAcceptor {
         @Override
         public void accept(ByteBuffer buffer) {
-            fullQueue.add(buffer);
-            monitor.notifyDataAvailability(NetworkInputChannel.this, 1);
+            int nFrames;
+            synchronized (NetworkInputChannel.this) {
+                fullQueue.add(buffer);
+                nFrames = compressFrames ? countCompleteBlocks(buffer) : 1;
+            }
+            if (nFrames > 0) {
+                monitor.notifyDataAvailability(NetworkInputChannel.this, nFrames);
+            }
         }
 
         @Override
@@ -24,10 +24,28 @@ import java.util.Deque;
 
 import org.apache.hyracks.api.comm.IFrameWriter;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.profiling.counters.ICounter;
 import org.apache.hyracks.net.buffers.IBufferAcceptor;
 import org.apache.hyracks.net.protocols.muxdemux.ChannelControlBlock;
+import org.apache.hyracks.util.compression.LZBlockCodec;
 
+/**
+ * Sends the frames of a partition over a channel.
+ * When the receiver asks for compressed frames, every block of frameSize bytes of a frame is sent as a header of
+ * two ints, the stored length and the original length, followed by the stored bytes, which are compressed unless
+ * both lengths are equal. A stored length of zero marks the rest of the buffer as padding. Headers never cross a
+ * buffer, while stored bytes do, and every buffer but the last one is sent full, so the buffers of the receiver,
+ * which are frameSize bytes as well, line up with the buffers sent. Blocks that do not compress well are sent as
+ * they are, and compression is then skipped for a number of blocks that doubles with every failed attempt.
+ */
 public class NetworkOutputChannel implements IFrameWriter {
+    static final int BLOCK_HEADER_SIZE = 8;
+
+    // a block is only sent compressed if that saves at least 1/8 of it
+    private static final int MIN_SAVING_SHIFT = 3;
+
+    private static final int MAX_COMPRESSION_BACKOFF = 64;
+
     private final ChannelControlBlock ccb;
 
     private final int nBuffers;
@@ -40,9 +58,32 @@ public class NetworkOutputChannel implements IFrameWriter {
 
     private int allocateCounter = 0;
 
+    private final boolean compressFrames;
+
+    private LZBlockCodec codec;
+
+    private byte[] compressedBlock;
+
+    private ByteBuffer currentBuffer;
+
+    private int compressionBackoff = 1;
+
+    private int blocksToSkip;
+
+    private ICounter rawBytesCounter;
+
+    private ICounter sentBytesCounter;
+
+    private ICounter compressTimeCounter;
+
     public NetworkOutputChannel(ChannelControlBlock ccb, int nBuffers) {
+        this(ccb, nBuffers, false);
+    }
+
+    public NetworkOutputChannel(ChannelControlBlock ccb, int nBuffers, boolean compressFrames) {
         this.ccb = ccb;
         this.nBuffers = nBuffers;
+        this.compressFrames = compressFrames;
         emptyStack = new ArrayDeque<ByteBuffer>(nBuffers);
         ccb.getWriteInterface().setEmptyBufferAcceptor(new WriteEmptyBufferAcceptor());
     }
@@ -51,35 +92,34 @@ public class NetworkOutputChannel implements IFrameWriter {
         this.frameSize = frameSize;
     }
 
+    public boolean isCompressingFrames() {
+        return compressFrames;
+    }
+
+    /**
+     * Sets the counters that collect the bytes given to this channel, the bytes actually sent for them and the
+     * nanoseconds spent compressing.
+     */
+    public void setCompressionCounters(ICounter rawBytesCounter, ICounter sentBytesCounter,
+            ICounter compressTimeCounter) {
+        this.rawBytesCounter = rawBytesCounter;
+        this.sentBytesCounter = sentBytesCounter;
+        this.compressTimeCounter = compressTimeCounter;
+    }
+
     @Override
     public void open() throws HyracksDataException {
     }
 
     @Override
     public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+        if (compressFrames) {
+            compressFrame(buffer);
+            return;
+        }
         ByteBuffer destBuffer = null;
         while (buffer.hasRemaining()) {
-            synchronized (this) {
-                while (true) {
-                    if (aborted) {
-                        throw new HyracksDataException("Connection has been aborted");
-                    }
-                    destBuffer = emptyStack.poll();
-                    if (destBuffer == null && allocateCounter < nBuffers) {
-                        destBuffer = ByteBuffer.allocateDirect(frameSize);
-                        allocateCounter++;
-                    }
-                    if (destBuffer != null) {
-                        break;
-                    }
-                    try {
-                        wait();
-                    } catch (InterruptedException e) {
-                        throw new HyracksDataException(e);
-                    }
-                }
-            }
-            destBuffer.clear();
+            destBuffer = getEmptyBuffer();
             if (destBuffer.capacity() < buffer.remaining()) {
                 destBuffer.put(buffer.array(), buffer.position(), destBuffer.capacity());
                 buffer.position(buffer.position() + destBuffer.capacity());
@@ -98,9 +138,116 @@ public class NetworkOutputChannel implements IFrameWriter {
 
     @Override
     public void close() throws HyracksDataException {
+        if (currentBuffer != null && currentBuffer.position() > 0) {
+            currentBuffer.flip();
+            sendCurrentBuffer();
+        }
         ccb.getWriteInterface().getFullBufferAcceptor().close();
     }
 
+    private ByteBuffer getEmptyBuffer() throws HyracksDataException {
+        ByteBuffer destBuffer;
+        synchronized (this) {
+            while (true) {
+                if (aborted) {
+                    throw new HyracksDataException("Connection has been aborted");
+                }
+                destBuffer = emptyStack.poll();
+                if (destBuffer == null && allocateCounter < nBuffers) {
+                    destBuffer = ByteBuffer.allocateDirect(frameSize);
+                    allocateCounter++;
+                }
+                if (destBuffer != null) {
+                    break;
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    throw new HyracksDataException(e);
+                }
+            }
+        }
+        destBuffer.clear();
+        return destBuffer;
+    }
+
+    private void compressFrame(ByteBuffer buffer) throws HyracksDataException {
+        if (codec == null) {
+            codec = new LZBlockCodec();
+            compressedBlock = new byte[LZBlockCodec.maxCompressedLength(frameSize)];
+        }
+        byte[] src = buffer.array();
+        int offset = buffer.arrayOffset() + buffer.position();
+        int end = offset + buffer.remaining();
+        long rawBytes = buffer.remaining();
+        long sentBytes = 0;
+        long compressTime = 0;
+        while (offset < end) {
+            int rawLength = Math.min(frameSize, end - offset);
+            int storedLength = rawLength;
+            if (blocksToSkip > 0) {
+                --blocksToSkip;
+            } else {
+                long start = System.nanoTime();
+                int compressedLength = codec.compress(src, offset, rawLength, compressedBlock, 0);
+                compressTime += System.nanoTime() - start;
+                if (compressedLength < rawLength - (rawLength >>> MIN_SAVING_SHIFT)) {
+                    storedLength = compressedLength;
+                    compressionBackoff = 1;
+                } else {
+                    blocksToSkip = compressionBackoff;
+                    compressionBackoff = Math.min(compressionBackoff * 2, MAX_COMPRESSION_BACKOFF);
+                }
+            }
+            if (storedLength < rawLength) {
+                writeBlock(compressedBlock, 0, storedLength, rawLength);
+            } else {
+                writeBlock(src, offset, rawLength, rawLength);
+            }
+            sentBytes += BLOCK_HEADER_SIZE + storedLength;
+            offset += rawLength;
+        }
+        buffer.position(buffer.limit());
+        if (rawBytesCounter != null) {
+            rawBytesCounter.update(rawBytes);
+            sentBytesCounter.update(sentBytes);
+            compressTimeCounter.update(compressTime);
+        }
+    }
+
+    private void writeBlock(byte[] bytes, int offset, int storedLength, int rawLength) throws HyracksDataException {
+        if (currentBuffer == null) {
+            currentBuffer = getEmptyBuffer();
+        } else if (currentBuffer.remaining() < BLOCK_HEADER_SIZE) {
+            sendFullBuffer();
+            currentBuffer = getEmptyBuffer();
+        }
+        currentBuffer.putInt(storedLength);
+        currentBuffer.putInt(rawLength);
+        while (storedLength > 0) {
+            if (!currentBuffer.hasRemaining()) {
+                sendFullBuffer();
+                currentBuffer = getEmptyBuffer();
+            }
+            int length = Math.min(storedLength, currentBuffer.remaining());
+            currentBuffer.put(bytes, offset, length);
+            offset += length;
+            storedLength -= length;
+        }
+    }
+
+    private void sendFullBuffer() {
+        currentBuffer.position(0);
+        currentBuffer.limit(currentBuffer.capacity());
+        sendCurrentBuffer();
+    }
+
+    private void sendCurrentBuffer() {
+        ByteBuffer buffer = currentBuffer;
+        currentBuffer = null;
+        ccb.getWriteInterface().getFullBufferAcceptor().accept(buffer);
+    }
+
     public void abort() {
         ccb.getWriteInterface().getFullBufferAcceptor().error(1);
         synchronized (NetworkOutputChannel.this) {
@@ -122,6 +269,12 @@ public class NetworkOutputChannel implements IFrameWriter {
     @Override
     public void flush() throws HyracksDataException {
         // At the network boundary.
-        // This frame writer always pushes its content
+        // This frame writer always pushes its content, padding the last buffer when it compresses
+        if (currentBuffer != null && currentBuffer.position() > 0) {
+            if (currentBuffer.remaining() >= BLOCK_HEADER_SIZE) {
+                currentBuffer.putInt(0);
+            }
+            sendFullBuffer();
+        }
     }
 }
@@ -0,0 +1,356 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.comm.channels;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.hyracks.api.channels.IInputChannel;
+import org.apache.hyracks.api.channels.IInputChannelMonitor;
+import org.apache.hyracks.api.context.IHyracksCommonContext;
+import org.apache.hyracks.api.dataflow.ConnectorDescriptorId;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.profiling.counters.ICounter;
+import org.apache.hyracks.api.partitions.PartitionId;
+import org.apache.hyracks.net.buffers.ICloseableBufferAcceptor;
+import org.apache.hyracks.net.exceptions.NetException;
+import org.apache.hyracks.net.protocols.muxdemux.ChannelControlBlock;
+import org.apache.hyracks.net.protocols.muxdemux.IChannelOpenListener;
+import org.apache.hyracks.net.protocols.muxdemux.MuxDemux;
+
+/**
+ * Sends frames through a compressing NetworkOutputChannel to a NetworkInputChannel over a real connection and
+ * checks that the receiver gets back the bytes that were sent.
+ */
+public class NetworkChannelCompressionTest {
+    private static final int FRAME_SIZE = 4096;
+
+    private static final int N_BUFFERS = 4;
+
+    private static final long TIMEOUT = 10000;
+
+    private interface ISender {
+        public void send(NetworkOutputChannel channel) throws Exception;
+    }
+
+    private final Random random = new Random(17);
+
+    private final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+
+    private final AtomicLong receivedBytes = new AtomicLong();
+
+    private final Counter rawBytesCounter = new Counter();
+
+    private final Counter sentBytesCounter = new Counter();
+
+    @Test
+    public void framesSpanningSeveralBlocks() throws Exception {
+        runTest(new ISender() {
+            @Override
+            public void send(NetworkOutputChannel channel) throws Exception {
+                sendFrame(channel, compressibleBytes(3 * FRAME_SIZE + 100));
+                sendFrame(channel, randomBytes(2 * FRAME_SIZE + FRAME_SIZE / 2));
+                sendFrame(channel, compressibleBytes(5 * FRAME_SIZE));
+            }
+        });
+    }
+
+    @Test
+    public void flushPadsTheLastBuffer() throws Exception {
+        runTest(new ISender() {
+            @Override
+            public void send(NetworkOutputChannel channel) throws Exception {
+                // a random block is stored as it is, so its size decides what is left of the buffer
+                // room for a padding header after the block
+                sendFrame(channel, randomBytes(100));
+                flushAndWait(channel);
+                // less than a header left after the block
+                sendFrame(channel, randomBytes(FRAME_SIZE - NetworkOutputChannel.BLOCK_HEADER_SIZE - 4));
+                flushAndWait(channel);
+                // a full buffer, nothing to pad
+                sendFrame(channel, randomBytes(FRAME_SIZE - NetworkOutputChannel.BLOCK_HEADER_SIZE));
+                flushAndWait(channel);
+                sendFrame(channel, compressibleBytes(FRAME_SIZE / 2));
+                flushAndWait(channel);
+                // nothing buffered
+                flushAndWait(channel);
+                sendFrame(channel, compressibleBytes(2 * FRAME_SIZE));
+            }
+        });
+    }
+
+    @Test
+    public void incompressibleFramesBackOff() throws Exception {
+        final long[] compressibleRawBytes = new long[1];
+        final long[] compressibleSentBytes = new long[1];
+        runTest(new ISender() {
+            @Override
+            public void send(NetworkOutputChannel channel) throws Exception {
+                for (int i = 0; i < 100; ++i) {
+                    sendFrame(channel, randomBytes(FRAME_SIZE));
+                }
+                // incompressible blocks only cost their headers
+                Assert.assertEquals(rawBytesCounter.get() + 100 * NetworkOutputChannel.BLOCK_HEADER_SIZE,
+                        sentBytesCounter.get());
+                long rawBefore = rawBytesCounter.get();
+                long sentBefore = sentBytesCounter.get();
+                for (int i = 0; i < 200; ++i) {
+                    sendFrame(channel, compressibleBytes(FRAME_SIZE));
+                }
+                compressibleRawBytes[0] = rawBytesCounter.get() - rawBefore;
+                compressibleSentBytes[0] = sentBytesCounter.get() - sentBefore;
+            }
+        });
+        // the channel tries again once the skipped blocks are sent, and keeps compressing
+        Assert.assertTrue(compressibleSentBytes[0] < compressibleRawBytes[0] / 2);
+    }
+
+    @Test
+    public void blocksSplitAcrossBuffers() throws Exception {
+        runTest(new ISender() {
+            @Override
+            public void send(NetworkOutputChannel channel) throws Exception {
+                for (int i = 0; i < 300; ++i) {
+                    int length = 1 + random.nextInt(3 * FRAME_SIZE);
+                    sendFrame(channel, random.nextBoolean() ? randomBytes(length) : compressibleBytes(length));
+                }
+            }
+        });
+    }
+
+    private void runTest(final ISender sender) throws Exception {
+        final AtomicReference<Throwable> senderFailure = new AtomicReference<Throwable>();
+        final Thread[] senderThread = new Thread[1];
+        MuxDemux serverMd = new MuxDemux(new InetSocketAddress("127.0.0.1", 0), new IChannelOpenListener() {
+            @Override
+            public void channelOpened(final ChannelControlBlock channel) {
+                channel.getReadInterface().setFullBufferAcceptor(new ICloseableBufferAcceptor() {
+                    @Override
+                    public void accept(ByteBuffer buffer) {
+                        buffer.position(NetworkInputChannel.INITIAL_MESSAGE_SIZE - 4);
+                        boolean compressFrames = (buffer.getInt() & NetworkInputChannel.COMPRESS_FRAMES_FLAG) != 0;
+                        final NetworkOutputChannel noc = new NetworkOutputChannel(channel, N_BUFFERS,
+                                compressFrames);
+                        noc.setFrameSize(FRAME_SIZE);
+                        noc.setCompressionCounters(rawBytesCounter, sentBytesCounter, new Counter());
+                        senderThread[0] = new Thread() {
+                            @Override
+                            public void run() {
+                                try {
+                                    noc.open();
+                                    sender.send(noc);
+                                    noc.close();
+                                } catch (Throwable e) {
+                                    senderFailure.set(e);
+                                    noc.abort();
+                                }
+                            }
+                        };
+                        senderThread[0].start();
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+
+                    @Override
+                    public void error(int ecode) {
+                    }
+                });
+                channel.getReadInterface().getEmptyBufferAcceptor()
+                        .accept(ByteBuffer.allocate(NetworkInputChannel.INITIAL_MESSAGE_SIZE));
+            }
+        }, 1, 5);
+        serverMd.start();
+        final InetSocketAddress serverAddress = serverMd.getLocalAddress();
+        final MuxDemux clientMd = new MuxDemux(new InetSocketAddress("127.0.0.1", 0), new IChannelOpenListener() {
+            @Override
+            public void channelOpened(ChannelControlBlock channel) {
+            }
+        }, 1, 5);
+        clientMd.start();
+
+        NetworkInputChannel nic = new NetworkInputChannel(new IChannelConnectionFactory() {
+            @Override
+            public ChannelControlBlock connect(SocketAddress remoteAddress) throws InterruptedException,
+                    NetException {
+                return clientMd.connect((InetSocketAddress) remoteAddress).openChannel();
+            }
+        }, serverAddress, new PartitionId(new JobId(1), new ConnectorDescriptorId(0), 0, 0), N_BUFFERS, true);
+        Monitor monitor = new Monitor();
+        nic.registerMonitor(monitor);
+        nic.open(new CommonContext());
+
+        while (monitor.nextFrame()) {
+            ByteBuffer frame = nic.getNextBuffer();
+            Assert.assertNotNull(frame);
+            Assert.assertTrue(frame.remaining() <= FRAME_SIZE);
+            received.write(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+            receivedBytes.addAndGet(frame.remaining());
+            nic.recycleBuffer(frame);
+        }
+        Assert.assertFalse("the channel failed", monitor.failed);
+        senderThread[0].join();
+        if (senderFailure.get() != null) {
+            throw new Exception(senderFailure.get());
+        }
+        Assert.assertArrayEquals(sent.toByteArray(), received.toByteArray());
+        Assert.assertEquals(sent.size(), rawBytesCounter.get());
+    }
+
+    private void sendFrame(NetworkOutputChannel channel, byte[] bytes) throws HyracksDataException {
+        channel.nextFrame(ByteBuffer.wrap(bytes));
+        sent.write(bytes, 0, bytes.length);
+    }
+
+    /*
+     * Flushes the channel and waits until the receiver has decoded everything sent so far, which it can only do
+     * if the flush pushed the buffered blocks.
+     */
+    private void flushAndWait(NetworkOutputChannel channel) throws Exception {
+        channel.flush();
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (receivedBytes.get() < sent.size()) {
+            Assert.assertTrue("flushed blocks did not arrive", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private byte[] compressibleBytes(int length) {
+        byte[] bytes = new byte[length];
+        int base = random.nextInt(100);
+        for (int i = 0; i < length; ++i) {
+            bytes[i] = (byte) ('a' + (base + i / 16) % 7);
+        }
+        return bytes;
+    }
+
+    private static class Monitor implements IInputChannelMonitor {
+        private int availableFrames;
+
+        private boolean eos;
+
+        private boolean failed;
+
+        @Override
+        public synchronized void notifyFailure(IInputChannel channel) {
+            failed = true;
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void notifyDataAvailability(IInputChannel channel, int nFrames) {
+            availableFrames += nFrames;
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void notifyEndOfStream(IInputChannel channel) {
+            eos = true;
+            notifyAll();
+        }
+
+        synchronized boolean nextFrame() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while (availableFrames == 0 && !eos && !failed) {
+                long wait = deadline - System.currentTimeMillis();
+                Assert.assertTrue("no frame arrived", wait > 0);
+                wait(wait);
+            }
+            if (availableFrames == 0 || failed) {
+                return false;
+            }
+            --availableFrames;
+            return true;
+        }
+    }
+
+    private static class Counter implements ICounter {
+        private final AtomicLong value = new AtomicLong();
+
+        @Override
+        public String getName() {
+            return "counter";
+        }
+
+        @Override
+        public long update(long delta) {
+            return value.addAndGet(delta);
+        }
+
+        @Override
+        public long set(long value) {
+            return this.value.getAndSet(value);
+        }
+
+        @Override
+        public long get() {
+            return value.get();
+        }
+    }
+
+    private static class CommonContext implements IHyracksCommonContext {
+        @Override
+        public int getInitialFrameSize() {
+            return FRAME_SIZE;
+        }
+
+        @Override
+        public ByteBuffer allocateFrame() {
+            return ByteBuffer.allocate(FRAME_SIZE);
+        }
+
+        @Override
+        public ByteBuffer allocateFrame(int bytes) {
+            return ByteBuffer.allocate(bytes);
+        }
+
+        @Override
+        public ByteBuffer reallocateFrame(ByteBuffer tobeDeallocate, int newSizeInBytes, boolean copyOldData) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deallocateFrames(int bytes) {
+        }
+
+        @Override
+        public IIOManager getIOManager() {
+            return null;
+        }
+    }
+}
@@ -22,6 +22,9 @@ import java.io.File;
 import java.io.FileReader;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -29,9 +32,11 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,6 +52,7 @@ import org.apache.hyracks.api.deployment.DeploymentId;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobInfo;
 import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.PreparedJobId;
 import org.apache.hyracks.api.service.IControllerService;
 import org.apache.hyracks.api.topology.ClusterTopology;
 import org.apache.hyracks.api.topology.TopologyDefinitionParser;
@@ -54,6 +60,7 @@ import org.apache.hyracks.control.cc.application.CCApplicationContext;
 import org.apache.hyracks.control.cc.dataset.DatasetDirectoryService;
 import org.apache.hyracks.control.cc.dataset.IDatasetDirectoryService;
 import org.apache.hyracks.control.cc.job.JobRun;
+import org.apache.hyracks.control.cc.job.PreparedJob;
 import org.apache.hyracks.control.cc.web.WebServer;
 import org.apache.hyracks.control.cc.work.ApplicationMessageWork;
 import org.apache.hyracks.control.cc.work.CliDeployBinaryWork;
@@ -67,7 +74,10 @@ import org.apache.hyracks.control.cc.work.GetJobStatusWork;
 import org.apache.hyracks.control.cc.work.GetNodeControllersInfoWork;
 import org.apache.hyracks.control.cc.work.GetResultPartitionLocationsWork;
 import org.apache.hyracks.control.cc.work.GetResultStatusWork;
+import org.apache.hyracks.control.cc.work.JobPrepareWork;
+import org.apache.hyracks.control.cc.work.JobShardedWorkQueue;
 import org.apache.hyracks.control.cc.work.JobStartWork;
+import org.apache.hyracks.control.cc.work.JobUnprepareWork;
 import org.apache.hyracks.control.cc.work.JobletCleanupNotificationWork;
 import org.apache.hyracks.control.cc.work.NodeHeartbeatWork;
 import org.apache.hyracks.control.cc.work.NotifyDeployBinaryWork;
@@ -78,7 +88,7 @@ import org.apache.hyracks.control.cc.work.RegisterPartitionAvailibilityWork;
 import org.apache.hyracks.control.cc.work.RegisterPartitionRequestWork;
 import org.apache.hyracks.control.cc.work.RegisterResultPartitionLocationWork;
 import org.apache.hyracks.control.cc.work.RemoveDeadNodesWork;
-import org.apache.hyracks.control.cc.work.ReportProfilesWork;
+import org.apache.hyracks.control.cc.work.ReportProfileWork;
 import org.apache.hyracks.control.cc.work.ReportResultPartitionFailureWork;
 import org.apache.hyracks.control.cc.work.ReportResultPartitionWriteCompletionWork;
 import org.apache.hyracks.control.cc.work.TaskCompleteWork;
@@ -92,6 +102,7 @@ import org.apache.hyracks.control.common.ipc.CCNCFunctions;
 import org.apache.hyracks.control.common.ipc.CCNCFunctions.Function;
 import org.apache.hyracks.control.common.ipc.CCNCFunctions.ShutdownResponseFunction;
 import org.apache.hyracks.control.common.ipc.CCNCFunctions.StateDumpResponseFunction;
+import org.apache.hyracks.control.common.job.profiling.om.JobProfile;
 import org.apache.hyracks.control.common.logs.LogFile;
 import org.apache.hyracks.control.common.shutdown.ShutdownRun;
 import org.apache.hyracks.control.common.work.IPCResponder;
@@ -117,6 +128,8 @@ public class ClusterControllerService implements IControllerService {
 
     private final Map<String, NodeControllerState> nodeRegistry;
 
+    private final AtomicLong nodeRegistrationSequence;
+
     private final Map<InetAddress, Set<String>> ipAddressNodeNameMap;
 
     private final ServerContext serverCtx;
@@ -133,6 +146,8 @@ public class ClusterControllerService implements IControllerService {
 
     private final Map<JobId, List<Exception>> runMapHistory;
 
+    private final Map<PreparedJobId, PreparedJob> preparedJobMap;
+
     private final WorkQueue workQueue;
 
     private ExecutorService executor;
@@ -147,6 +162,8 @@ public class ClusterControllerService implements IControllerService {
 
     private long jobCounter;
 
+    private long preparedJobCounter;
+
     private final Map<DeploymentId, DeploymentRun> deploymentRunMap;
 
     private final Map<String, StateDumpRun> stateDumpRunMap;
@@ -159,7 +176,9 @@ public class ClusterControllerService implements IControllerService {
         this.ccConfig = ccConfig;
         File jobLogFolder = new File(ccConfig.ccRoot, "logs/jobs");
         jobLog = new LogFile(jobLogFolder);
-        nodeRegistry = new LinkedHashMap<String, NodeControllerState>();
+        // read by the job threads of the work queue; getOrderedNodeMap() gives the registration order
+        nodeRegistry = new ConcurrentHashMap<String, NodeControllerState>();
+        nodeRegistrationSequence = new AtomicLong();
         ipAddressNodeNameMap = new HashMap<InetAddress, Set<String>>();
         serverCtx = new ServerContext(ServerContext.ServerType.CLUSTER_CONTROLLER, new File(ccConfig.ccRoot));
         IIPCI ccIPCI = new ClusterControllerIPCI();
@@ -169,16 +188,17 @@ public class ClusterControllerService implements IControllerService {
         clientIPC = new IPCSystem(new InetSocketAddress(ccConfig.clientNetIpAddress, ccConfig.clientNetPort), ciIPCI,
                 new JavaSerializationBasedPayloadSerializerDeserializer());
         webServer = new WebServer(this);
-        activeRunMap = new HashMap<JobId, JobRun>();
-        runMapArchive = new LinkedHashMap<JobId, JobRun>() {
+        activeRunMap = new ConcurrentHashMap<JobId, JobRun>();
+        preparedJobMap = new ConcurrentHashMap<PreparedJobId, PreparedJob>();
+        runMapArchive = Collections.synchronizedMap(new LinkedHashMap<JobId, JobRun>() {
             private static final long serialVersionUID = 1L;
 
             @Override
             protected boolean removeEldestEntry(Map.Entry<JobId, JobRun> eldest) {
                 return size() > ccConfig.jobHistorySize;
             }
-        };
-        runMapHistory = new LinkedHashMap<JobId, List<Exception>>() {
+        });
+        runMapHistory = Collections.synchronizedMap(new LinkedHashMap<JobId, List<Exception>>() {
             private static final long serialVersionUID = 1L;
             /** history size + 1 is for the case when history size = 0 */
             private int allowedSize = 100 * (ccConfig.jobHistorySize + 1);
@@ -187,8 +207,9 @@ public class ClusterControllerService implements IControllerService {
             protected boolean removeEldestEntry(Map.Entry<JobId, List<Exception>> eldest) {
                 return size() > allowedSize;
             }
-        };
-        workQueue = new WorkQueue(Thread.MAX_PRIORITY); // WorkQueue is in charge of heartbeat as well as other events.
+        });
+        // The cluster thread is in charge of heartbeats and other cluster-wide events, the job threads of job events.
+        workQueue = new JobShardedWorkQueue(ccConfig.jobWorkThreads, Thread.MAX_PRIORITY);
         this.timer = new Timer(true);
         final ClusterTopology topology = computeClusterTopology(ccConfig);
         ccContext = new ICCContext() {
@@ -298,6 +319,10 @@ public class ClusterControllerService implements IControllerService {
         return runMapHistory;
     }
 
+    public Map<PreparedJobId, PreparedJob> getPreparedJobMap() {
+        return preparedJobMap;
+    }
+
     public Map<InetAddress, Set<String>> getIpAddressNodeNameMap() {
         return ipAddressNodeNameMap;
     }
@@ -318,6 +343,29 @@ public class ClusterControllerService implements IControllerService {
         return nodeRegistry;
     }
 
+    /**
+     * @return a snapshot of the registered nodes in the order in which they registered
+     */
+    public Map<String, NodeControllerState> getOrderedNodeMap() {
+        List<Map.Entry<String, NodeControllerState>> entries = new ArrayList<Map.Entry<String, NodeControllerState>>(
+                nodeRegistry.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, NodeControllerState>>() {
+            @Override
+            public int compare(Map.Entry<String, NodeControllerState> e1, Map.Entry<String, NodeControllerState> e2) {
+                return Long.compare(e1.getValue().getRegistrationSequence(), e2.getValue().getRegistrationSequence());
+            }
+        });
+        Map<String, NodeControllerState> ordered = new LinkedHashMap<String, NodeControllerState>();
+        for (Map.Entry<String, NodeControllerState> e : entries) {
+            ordered.put(e.getKey(), e.getValue());
+        }
+        return ordered;
+    }
+
+    public long nextNodeRegistrationSequence() {
+        return nodeRegistrationSequence.getAndIncrement();
+    }
+
     public CCConfig getConfig() {
         return ccConfig;
     }
@@ -330,6 +378,10 @@ public class ClusterControllerService implements IControllerService {
         return new JobId(jobCounter++);
     }
 
+    private PreparedJobId createPreparedJobId() {
+        return new PreparedJobId(preparedJobCounter++);
+    }
+
     public ClusterControllerInfo getClusterControllerInfo() {
         return info;
     }
@@ -394,6 +446,29 @@ public class ClusterControllerService implements IControllerService {
                     return;
                 }
 
+                case PREPARE_JOB: {
+                    HyracksClientInterfaceFunctions.PrepareJobFunction pjf = (HyracksClientInterfaceFunctions.PrepareJobFunction) fn;
+                    workQueue.schedule(new JobPrepareWork(ClusterControllerService.this, pjf.getDeploymentId(),
+                            pjf.getACGGFBytes(), pjf.getJobFlags(), createPreparedJobId(), createJobId(),
+                            new IPCResponder<PreparedJobId>(handle, mid)));
+                    return;
+                }
+
+                case START_PREPARED_JOB: {
+                    HyracksClientInterfaceFunctions.StartPreparedJobFunction spjf = (HyracksClientInterfaceFunctions.StartPreparedJobFunction) fn;
+                    JobId jobId = createJobId();
+                    workQueue.schedule(new JobStartWork(ClusterControllerService.this, spjf.getPreparedJobId(),
+                            spjf.getJobParameters(), jobId, new IPCResponder<JobId>(handle, mid)));
+                    return;
+                }
+
+                case UNPREPARE_JOB: {
+                    HyracksClientInterfaceFunctions.UnprepareJobFunction upjf = (HyracksClientInterfaceFunctions.UnprepareJobFunction) fn;
+                    workQueue.schedule(new JobUnprepareWork(ClusterControllerService.this, upjf.getPreparedJobId(),
+                            new IPCResponder<PreparedJobId>(handle, mid)));
+                    return;
+                }
+
                 case GET_DATASET_DIRECTORY_SERIVICE_INFO: {
                     workQueue.schedule(new GetDatasetDirectoryServiceInfoWork(ClusterControllerService.this,
                             new IPCResponder<NetworkAddress>(handle, mid)));
@@ -505,7 +580,9 @@ public class ClusterControllerService implements IControllerService {
 
                 case REPORT_PROFILE: {
                     CCNCFunctions.ReportProfileFunction rpf = (CCNCFunctions.ReportProfileFunction) fn;
-                    workQueue.schedule(new ReportProfilesWork(ClusterControllerService.this, rpf.getProfiles()));
+                    for (JobProfile profile : rpf.getProfiles()) {
+                        workQueue.schedule(new ReportProfileWork(ClusterControllerService.this, profile));
+                    }
                     return;
                 }
 
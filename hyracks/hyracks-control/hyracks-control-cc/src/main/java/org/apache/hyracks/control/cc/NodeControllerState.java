@@ -18,10 +18,11 @@
  */
 package org.apache.hyracks.control.cc;
 
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -29,6 +30,7 @@ import org.json.JSONObject;
 
 import org.apache.hyracks.api.comm.NetworkAddress;
 import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.PreparedJobId;
 import org.apache.hyracks.control.common.base.INodeController;
 import org.apache.hyracks.control.common.controllers.NCConfig;
 import org.apache.hyracks.control.common.controllers.NodeRegistration;
@@ -49,6 +51,8 @@ public class NodeControllerState {
 
     private final Set<JobId> activeJobIds;
 
+    private final Set<PreparedJobId> preparedJobIds;
+
     private final String osName;
 
     private final String arch;
@@ -137,12 +141,17 @@ public class NodeControllerState {
 
     private int lastHeartbeatDuration;
 
-    public NodeControllerState(INodeController nodeController, NodeRegistration reg) {
+    private final long registrationSequence;
+
+    public NodeControllerState(INodeController nodeController, NodeRegistration reg, long registrationSequence) {
         this.nodeController = nodeController;
+        this.registrationSequence = registrationSequence;
         ncConfig = reg.getNCConfig();
         dataPort = reg.getDataPort();
         datasetPort = reg.getDatasetPort();
-        activeJobIds = new HashSet<JobId>();
+        // updated by the job threads of the work queue
+        activeJobIds = Collections.newSetFromMap(new ConcurrentHashMap<JobId, Boolean>());
+        preparedJobIds = Collections.newSetFromMap(new ConcurrentHashMap<PreparedJobId, Boolean>());
 
         osName = reg.getOSName();
         arch = reg.getArch();
@@ -244,6 +253,10 @@ public class NodeControllerState {
         return lastHeartbeatDuration;
     }
 
+    public long getRegistrationSequence() {
+        return registrationSequence;
+    }
+
     public INodeController getNodeController() {
         return nodeController;
     }
@@ -256,6 +269,13 @@ public class NodeControllerState {
         return activeJobIds;
     }
 
+    /**
+     * @return the prepared jobs whose graph the node has cached
+     */
+    public Set<PreparedJobId> getPreparedJobIds() {
+        return preparedJobIds;
+    }
+
     public NetworkAddress getDataPort() {
         return dataPort;
     }
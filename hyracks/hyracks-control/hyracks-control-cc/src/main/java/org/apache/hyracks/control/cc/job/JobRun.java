@@ -95,8 +95,24 @@ public class JobRun implements IJobStatusConditionVariable {
 
     private Map<OperatorDescriptorId, Map<Integer, String>> operatorLocations;
 
+    private final PreparedJob preparedJob;
+
+    private final Map<String, byte[]> jobParameters;
+
     public JobRun(ClusterControllerService ccs, DeploymentId deploymentId, JobId jobId,
             IActivityClusterGraphGenerator acgg, EnumSet<JobFlag> jobFlags) {
+        this(ccs, deploymentId, jobId, acgg, jobFlags, null, null);
+    }
+
+    public JobRun(ClusterControllerService ccs, JobId jobId, PreparedJob preparedJob,
+            Map<String, byte[]> jobParameters) {
+        this(ccs, preparedJob.getDeploymentId(), jobId, preparedJob.getActivityClusterGraphGenerator(),
+                preparedJob.getFlags(), preparedJob, jobParameters);
+    }
+
+    private JobRun(ClusterControllerService ccs, DeploymentId deploymentId, JobId jobId,
+            IActivityClusterGraphGenerator acgg, EnumSet<JobFlag> jobFlags, PreparedJob preparedJob,
+            Map<String, byte[]> jobParameters) {
         this.deploymentId = deploymentId;
         this.jobId = jobId;
         this.acgg = acgg;
@@ -110,6 +126,8 @@ public class JobRun implements IJobStatusConditionVariable {
         profile = new JobProfile(jobId);
         connectorPolicyMap = new HashMap<ConnectorDescriptorId, IConnectorPolicy>();
         operatorLocations = new HashMap<OperatorDescriptorId, Map<Integer, String>>();
+        this.preparedJob = preparedJob;
+        this.jobParameters = jobParameters;
     }
 
     public DeploymentId getDeploymentId() {
@@ -128,6 +146,17 @@ public class JobRun implements IJobStatusConditionVariable {
         return jobFlags;
     }
 
+    /**
+     * @return the prepared job this is a run of, or null
+     */
+    public PreparedJob getPreparedJob() {
+        return preparedJob;
+    }
+
+    public Map<String, byte[]> getJobParameters() {
+        return jobParameters;
+    }
+
     public Map<ActivityClusterId, ActivityClusterPlan> getActivityClusterPlanMap() {
         return activityClusterPlanMap;
     }
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.cc.job;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.apache.hyracks.api.constraints.Constraint;
+import org.apache.hyracks.api.deployment.DeploymentId;
+import org.apache.hyracks.api.job.ActivityClusterGraph;
+import org.apache.hyracks.api.job.IActivityClusterGraphGenerator;
+import org.apache.hyracks.api.job.IActivityClusterGraphGeneratorFactory;
+import org.apache.hyracks.api.job.JobFlag;
+import org.apache.hyracks.api.job.PreparedJobId;
+
+/**
+ * A job specification that has been turned into an activity cluster graph once, to be started any number of times.
+ * The graph is shared by all runs of the job, and its serialized form is kept so that it is only shipped to a node
+ * for the first run that node takes part in.
+ */
+public class PreparedJob {
+    private final PreparedJobId preparedJobId;
+
+    private final DeploymentId deploymentId;
+
+    private final IActivityClusterGraphGeneratorFactory acggf;
+
+    private final ActivityClusterGraph acg;
+
+    private final Set<Constraint> constraints;
+
+    private final EnumSet<JobFlag> jobFlags;
+
+    private final byte[] acgBytes;
+
+    public PreparedJob(PreparedJobId preparedJobId, DeploymentId deploymentId,
+            IActivityClusterGraphGeneratorFactory acggf, ActivityClusterGraph acg, Set<Constraint> constraints,
+            EnumSet<JobFlag> jobFlags, byte[] acgBytes) {
+        this.preparedJobId = preparedJobId;
+        this.deploymentId = deploymentId;
+        this.acggf = acggf;
+        this.acg = acg;
+        this.constraints = constraints;
+        this.jobFlags = jobFlags;
+        this.acgBytes = acgBytes;
+    }
+
+    public PreparedJobId getPreparedJobId() {
+        return preparedJobId;
+    }
+
+    public DeploymentId getDeploymentId() {
+        return deploymentId;
+    }
+
+    public IActivityClusterGraphGeneratorFactory getActivityClusterGraphGeneratorFactory() {
+        return acggf;
+    }
+
+    public EnumSet<JobFlag> getFlags() {
+        return jobFlags;
+    }
+
+    public byte[] getActivityClusterGraphBytes() {
+        return acgBytes;
+    }
+
+    /**
+     * @return a generator that hands out the prepared graph instead of building a new one
+     */
+    public IActivityClusterGraphGenerator getActivityClusterGraphGenerator() {
+        return new IActivityClusterGraphGenerator() {
+            @Override
+            public Set<Constraint> getConstraints() {
+                return constraints;
+            }
+
+            @Override
+            public ActivityClusterGraph initialize() {
+                return acg;
+            }
+        };
+    }
+}
@@ -51,6 +51,7 @@ import org.apache.hyracks.api.job.ActivityCluster;
 import org.apache.hyracks.api.job.ActivityClusterGraph;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.PreparedJobId;
 import org.apache.hyracks.api.partitions.PartitionId;
 import org.apache.hyracks.api.util.JavaSerializationUtils;
 import org.apache.hyracks.control.cc.ClusterControllerService;
@@ -58,12 +59,14 @@ import org.apache.hyracks.control.cc.NodeControllerState;
 import org.apache.hyracks.control.cc.application.CCApplicationContext;
 import org.apache.hyracks.control.cc.job.ActivityClusterPlan;
 import org.apache.hyracks.control.cc.job.JobRun;
+import org.apache.hyracks.control.cc.job.PreparedJob;
 import org.apache.hyracks.control.cc.job.Task;
 import org.apache.hyracks.control.cc.job.TaskAttempt;
 import org.apache.hyracks.control.cc.job.TaskCluster;
 import org.apache.hyracks.control.cc.job.TaskClusterAttempt;
 import org.apache.hyracks.control.cc.partitions.PartitionMatchMaker;
 import org.apache.hyracks.control.cc.work.JobCleanupWork;
+import org.apache.hyracks.control.cc.work.NotifyNodeFailuresWork;
 import org.apache.hyracks.control.common.job.PartitionState;
 import org.apache.hyracks.control.common.job.TaskAttemptDescriptor;
 
@@ -80,12 +83,19 @@ public class JobScheduler {
 
     private final Set<TaskCluster> inProgressTaskClusters;
 
+    /**
+     * Activity clusters whose dependencies and sink task clusters have all completed. They are skipped when looking
+     * for runnable task clusters until a task cluster is aborted.
+     */
+    private final Set<ActivityCluster> completedActivityClusters;
+
     public JobScheduler(ClusterControllerService ccs, JobRun jobRun, Collection<Constraint> constraints) {
         this.ccs = ccs;
         this.jobRun = jobRun;
         solver = new PartitionConstraintSolver();
         partitionProducingTaskClusterMap = new HashMap<PartitionId, TaskCluster>();
         inProgressTaskClusters = new HashSet<TaskCluster>();
+        completedActivityClusters = new HashSet<ActivityCluster>();
         solver.addConstraints(constraints);
     }
 
@@ -104,18 +114,25 @@ public class JobScheduler {
 
     private void findRunnableTaskClusterRoots(Set<TaskCluster> frontier, Collection<ActivityCluster> roots)
             throws HyracksException {
+        Set<ActivityCluster> visited = new HashSet<ActivityCluster>();
         for (ActivityCluster root : roots) {
-            findRunnableTaskClusterRoots(frontier, root);
+            findRunnableTaskClusterRoots(frontier, root, visited);
         }
     }
 
-    private void findRunnableTaskClusterRoots(Set<TaskCluster> frontier, ActivityCluster candidate)
-            throws HyracksException {
+    private void findRunnableTaskClusterRoots(Set<TaskCluster> frontier, ActivityCluster candidate,
+            Set<ActivityCluster> visited) throws HyracksException {
+        if (completedActivityClusters.contains(candidate) || !visited.add(candidate)) {
+            return;
+        }
         boolean depsComplete = true;
         for (ActivityCluster depAC : candidate.getDependencies()) {
+            if (completedActivityClusters.contains(depAC)) {
+                continue;
+            }
             if (!isPlanned(depAC)) {
                 depsComplete = false;
-                findRunnableTaskClusterRoots(frontier, depAC);
+                findRunnableTaskClusterRoots(frontier, depAC, visited);
             } else {
                 boolean tcRootsComplete = true;
                 for (TaskCluster tc : getActivityClusterPlan(depAC).getTaskClusters()) {
@@ -129,7 +146,7 @@ public class JobScheduler {
                 }
                 if (!tcRootsComplete) {
                     depsComplete = false;
-                    findRunnableTaskClusterRoots(frontier, depAC);
+                    findRunnableTaskClusterRoots(frontier, depAC, visited);
                 }
             }
         }
@@ -140,17 +157,42 @@ public class JobScheduler {
                 jobRun.getActivityClusterPlanMap().put(candidate.getId(), acPlan);
                 partitionProducingTaskClusterMap.putAll(acp.getPartitionProducingTaskClusterMap());
             }
+            boolean complete = true;
             for (TaskCluster tc : getActivityClusterPlan(candidate).getTaskClusters()) {
                 if (tc.getProducedPartitions().isEmpty()) {
                     TaskClusterAttempt tca = findLastTaskClusterAttempt(tc);
                     if (tca == null || tca.getStatus() != TaskClusterAttempt.TaskClusterStatus.COMPLETED) {
                         frontier.add(tc);
+                        complete = false;
                     }
                 }
             }
+            if (complete) {
+                completedActivityClusters.add(candidate);
+            }
         }
     }
 
+    /**
+     * A completed sink task cluster (one that produces no partitions) can only make other task clusters runnable if
+     * one of them depends on it or if it was the last incomplete sink of its activity cluster. In all other cases the
+     * search for runnable task clusters would find nothing new.
+     */
+    private boolean mayEnableTaskClusters(TaskCluster completedTC) {
+        if (!completedTC.getProducedPartitions().isEmpty() || !completedTC.getDependentTaskClusters().isEmpty()) {
+            return true;
+        }
+        for (TaskCluster tc : getActivityClusterPlan(completedTC.getActivityCluster()).getTaskClusters()) {
+            if (tc != completedTC && tc.getProducedPartitions().isEmpty()) {
+                TaskClusterAttempt tca = findLastTaskClusterAttempt(tc);
+                if (tca == null || tca.getStatus() != TaskClusterAttempt.TaskClusterStatus.COMPLETED) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     private ActivityClusterPlan getActivityClusterPlan(ActivityCluster ac) {
         return jobRun.getActivityClusterPlanMap().get(ac.getId());
     }
@@ -464,21 +506,68 @@ public class JobScheduler {
         final ActivityClusterGraph acg = jobRun.getActivityClusterGraph();
         final Map<ConnectorDescriptorId, IConnectorPolicy> connectorPolicies = new HashMap<ConnectorDescriptorId, IConnectorPolicy>(
                 jobRun.getConnectorPolicyMap());
+        final PreparedJob preparedJob = jobRun.getPreparedJob();
+        if (preparedJob == null) {
+            startTasks(taskAttemptMap, deploymentId, jobId, acg, connectorPolicies, null, null);
+            return;
+        }
+        // the unpreparation of the job drops the graph from the nodes under the same lock
+        synchronized (preparedJob) {
+            PreparedJobId preparedJobId = null;
+            if (ccs.getPreparedJobMap().get(preparedJob.getPreparedJobId()) == preparedJob) {
+                // a run that outlives the unpreparation of its job ships its graph like any other job
+                preparedJobId = preparedJob.getPreparedJobId();
+            }
+            startTasks(taskAttemptMap, deploymentId, jobId, acg, connectorPolicies,
+                    preparedJob.getActivityClusterGraphBytes(), preparedJobId);
+        }
+    }
+
+    private void startTasks(Map<String, List<TaskAttemptDescriptor>> taskAttemptMap, DeploymentId deploymentId,
+            JobId jobId, ActivityClusterGraph acg, Map<ConnectorDescriptorId, IConnectorPolicy> connectorPolicies,
+            byte[] preparedAcgBytes, PreparedJobId preparedJobId) throws HyracksException {
         try {
-            byte[] acgBytes = JavaSerializationUtils.serialize(acg);
+            byte[] acgBytes = preparedAcgBytes != null ? preparedAcgBytes : JavaSerializationUtils.serialize(acg);
             for (Map.Entry<String, List<TaskAttemptDescriptor>> entry : taskAttemptMap.entrySet()) {
                 String nodeId = entry.getKey();
                 final List<TaskAttemptDescriptor> taskDescriptors = entry.getValue();
                 final NodeControllerState node = ccs.getNodeMap().get(nodeId);
                 if (node != null) {
-                    node.getActiveJobIds().add(jobRun.getJobId());
+                    node.getActiveJobIds().add(jobId);
+                    if (ccs.getNodeMap().get(nodeId) != node) {
+                        /*
+                         * The node was removed while the job was being added to it, so the removal may have missed
+                         * the job. Report the failure to the job ourselves.
+                         */
+                        ccs.getWorkQueue().schedule(
+                                new NotifyNodeFailuresWork(ccs, jobId, Collections.singleton(nodeId)));
+                        continue;
+                    }
                     boolean changed = jobRun.getParticipatingNodeIds().add(nodeId);
                     if (LOGGER.isLoggable(Level.FINE)) {
                         LOGGER.fine("Starting: " + taskDescriptors + " at " + entry.getKey());
                     }
                     byte[] jagBytes = changed ? acgBytes : null;
-                    node.getNodeController().startTasks(deploymentId, jobId, jagBytes, taskDescriptors,
-                            connectorPolicies, jobRun.getFlags());
+                    if (preparedJobId != null) {
+                        /*
+                         * The node keeps the graph from an earlier run of the prepared job. A node that lost it, by
+                         * failing tasks of a prepared run, is sent the graph again, even when it already takes part
+                         * in this run.
+                         */
+                        jagBytes = node.getPreparedJobIds().add(preparedJobId) ? acgBytes : null;
+                    }
+                    Map<String, byte[]> jobParameters = changed || jagBytes != null ? jobRun.getJobParameters()
+                            : null;
+                    try {
+                        node.getNodeController().startTasks(deploymentId, jobId, jagBytes, taskDescriptors,
+                                connectorPolicies, jobRun.getFlags(), preparedJobId, jobParameters);
+                    } catch (Exception e) {
+                        if (preparedJobId != null) {
+                            // the node may not have received the graph
+                            node.getPreparedJobIds().remove(preparedJobId);
+                        }
+                        throw e;
+                    }
                 }
             }
         } catch (Exception e) {
@@ -535,6 +624,7 @@ public class JobScheduler {
             }
         }
         inProgressTaskClusters.remove(tcAttempt.getTaskCluster());
+        completedActivityClusters.clear();
         TaskCluster tc = tcAttempt.getTaskCluster();
         PartitionMatchMaker pmm = jobRun.getPartitionMatchMaker();
         pmm.removeUncommittedPartitions(tc.getProducedPartitions(), abortTaskIds);
@@ -614,7 +704,9 @@ public class JobScheduler {
                     lastAttempt.setStatus(TaskClusterAttempt.TaskClusterStatus.COMPLETED);
                     lastAttempt.setEndTime(System.currentTimeMillis());
                     inProgressTaskClusters.remove(tc);
-                    startRunnableActivityClusters();
+                    if (mayEnableTaskClusters(tc)) {
+                        startRunnableActivityClusters();
+                    }
                 }
             } else {
                 LOGGER.warning("Spurious task complete notification: " + taId + " Current state = " + taStatus);
@@ -637,6 +729,14 @@ public class JobScheduler {
     public void notifyTaskFailure(TaskAttempt ta, ActivityCluster ac, List<Exception> exceptions) {
         try {
             LOGGER.fine("Received failure notification for TaskAttempt " + ta.getTaskAttemptId());
+            PreparedJob preparedJob = jobRun.getPreparedJob();
+            if (preparedJob != null) {
+                // the node may have failed the task because it does not hold the graph of the prepared job
+                NodeControllerState node = ccs.getNodeMap().get(ta.getNodeId());
+                if (node != null) {
+                    node.getPreparedJobIds().remove(preparedJob.getPreparedJobId());
+                }
+            }
             TaskAttemptId taId = ta.getTaskAttemptId();
             TaskCluster tc = ta.getTask().getTaskCluster();
             TaskClusterAttempt lastAttempt = findLastTaskClusterAttempt(tc);
@@ -34,7 +34,7 @@ import org.apache.hyracks.control.cc.job.TaskAttempt;
 import org.apache.hyracks.control.cc.job.TaskCluster;
 import org.apache.hyracks.control.cc.job.TaskClusterAttempt;
 
-public abstract class AbstractTaskLifecycleWork extends AbstractHeartbeatWork {
+public abstract class AbstractTaskLifecycleWork extends AbstractHeartbeatWork implements IJobWork {
     protected final ClusterControllerService ccs;
     protected final JobId jobId;
     protected final TaskAttemptId taId;
@@ -48,6 +48,11 @@ public abstract class AbstractTaskLifecycleWork extends AbstractHeartbeatWork {
         this.nodeId = nodeId;
     }
 
+    @Override
+    public JobId getJobId() {
+        return jobId;
+    }
+
     @Override
     public final void runWork() {
         JobRun run = ccs.getActiveRunMap().get(jobId);
@@ -25,7 +25,7 @@ import org.apache.hyracks.control.cc.job.JobRun;
 import org.apache.hyracks.control.common.work.IResultCallback;
 import org.apache.hyracks.control.common.work.SynchronizableWork;
 
-public class GetJobInfoWork extends SynchronizableWork {
+public class GetJobInfoWork extends SynchronizableWork implements IJobWork {
     private final ClusterControllerService ccs;
     private final JobId jobId;
     private final IResultCallback<JobInfo> callback;
@@ -36,6 +36,11 @@ public class GetJobInfoWork extends SynchronizableWork {
         this.callback = callback;
     }
 
+    @Override
+    public JobId getJobId() {
+        return jobId;
+    }
+
     @Override
     protected void doRun() throws Exception {
         try {
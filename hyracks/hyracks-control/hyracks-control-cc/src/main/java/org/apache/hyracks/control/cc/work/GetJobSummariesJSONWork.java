@@ -19,11 +19,13 @@
 package org.apache.hyracks.control.cc.work;
 
 import java.util.Collection;
+import java.util.Map;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.cc.job.JobRun;
 import org.apache.hyracks.control.common.work.SynchronizableWork;
@@ -40,7 +42,10 @@ public class GetJobSummariesJSONWork extends SynchronizableWork {
     protected void doRun() throws Exception {
         summaries = new JSONArray();
         populateJSON(ccs.getActiveRunMap().values());
-        populateJSON(ccs.getRunMapArchive().values());
+        Map<JobId, JobRun> runMapArchive = ccs.getRunMapArchive();
+        synchronized (runMapArchive) {
+            populateJSON(runMapArchive.values());
+        }
     }
 
     private void populateJSON(Collection<JobRun> jobRuns) throws JSONException {
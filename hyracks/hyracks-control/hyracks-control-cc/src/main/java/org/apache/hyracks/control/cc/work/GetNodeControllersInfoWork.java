@@ -41,7 +41,7 @@ public class GetNodeControllersInfoWork extends AbstractWork {
     @Override
     public void run() {
         Map<String, NodeControllerInfo> result = new LinkedHashMap<String, NodeControllerInfo>();
-        Map<String, NodeControllerState> nodeMap = ccs.getNodeMap();
+        Map<String, NodeControllerState> nodeMap = ccs.getOrderedNodeMap();
         for (Map.Entry<String, NodeControllerState> e : nodeMap.entrySet()) {
             result.put(e.getKey(), new NodeControllerInfo(e.getKey(), NodeStatus.ALIVE, e.getValue().getDataPort(), e
                     .getValue().getDatasetPort()));
@@ -35,7 +35,7 @@ public class GetNodeSummariesJSONWork extends SynchronizableWork {
     @Override
     protected void doRun() throws Exception {
         summaries = new JSONArray();
-        for (NodeControllerState ncs : ccs.getNodeMap().values()) {
+        for (NodeControllerState ncs : ccs.getOrderedNodeMap().values()) {
             summaries.put(ncs.toSummaryJSON());
         }
     }
@@ -29,7 +29,7 @@ import org.apache.hyracks.control.cc.dataset.IDatasetDirectoryService;
 import org.apache.hyracks.control.common.work.IResultCallback;
 import org.apache.hyracks.control.common.work.SynchronizableWork;
 
-public class GetResultPartitionLocationsWork extends SynchronizableWork {
+public class GetResultPartitionLocationsWork extends SynchronizableWork implements IJobWork {
     private final ClusterControllerService ccs;
 
     private final JobId jobId;
@@ -49,6 +49,11 @@ public class GetResultPartitionLocationsWork extends SynchronizableWork {
         this.callback = callback;
     }
 
+    @Override
+    public JobId getJobId() {
+        return jobId;
+    }
+
     @Override
     public void doRun() {
         final IDatasetDirectoryService dds = ccs.getDatasetDirectoryService();
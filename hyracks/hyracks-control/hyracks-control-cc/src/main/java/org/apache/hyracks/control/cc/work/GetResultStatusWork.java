@@ -26,7 +26,7 @@ import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.common.work.IResultCallback;
 import org.apache.hyracks.control.common.work.SynchronizableWork;
 
-public class GetResultStatusWork extends SynchronizableWork {
+public class GetResultStatusWork extends SynchronizableWork implements IJobWork {
     private final ClusterControllerService ccs;
 
     private final JobId jobId;
@@ -43,6 +43,11 @@ public class GetResultStatusWork extends SynchronizableWork {
         this.callback = callback;
     }
 
+    @Override
+    public JobId getJobId() {
+        return jobId;
+    }
+
     @Override
     public void doRun() {
         try {
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.cc.work;
+
+import org.apache.hyracks.api.exceptions.HyracksException;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.control.common.work.AbstractWork;
+import org.apache.hyracks.control.common.work.WorkQueue;
+
+/**
+ * A work queue that processes {@link IJobWork} on a fixed set of job queues, chosen by job id, and all other work on
+ * its own thread. Work of one job is therefore processed in the order it was scheduled, while different jobs and
+ * cluster-wide work such as heartbeats do not wait for each other. With no job queues, all work is processed on a
+ * single thread.
+ */
+public class JobShardedWorkQueue extends WorkQueue {
+    private final WorkQueue[] jobQueues;
+
+    public JobShardedWorkQueue(int nJobQueues, int threadPriority) {
+        super(threadPriority);
+        jobQueues = new WorkQueue[nJobQueues];
+        for (int i = 0; i < nJobQueues; ++i) {
+            jobQueues[i] = new WorkQueue(threadPriority);
+        }
+    }
+
+    @Override
+    public void start() throws HyracksException {
+        for (WorkQueue jobQueue : jobQueues) {
+            jobQueue.start();
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() throws HyracksException {
+        super.stop();
+        for (WorkQueue jobQueue : jobQueues) {
+            jobQueue.stop();
+        }
+    }
+
+    @Override
+    public void schedule(AbstractWork work) {
+        if (jobQueues.length > 0 && work instanceof IJobWork) {
+            JobId jobId = ((IJobWork) work).getJobId();
+            if (jobId != null) {
+                jobQueues[(int) ((jobId.getId() & Long.MAX_VALUE) % jobQueues.length)].schedule(work);
+                return;
+            }
+        }
+        super.schedule(work);
+    }
+}
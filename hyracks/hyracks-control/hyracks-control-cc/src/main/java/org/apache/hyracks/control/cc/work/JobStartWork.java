@@ -20,25 +20,31 @@ package org.apache.hyracks.control.cc.work;
 
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Map;
 
 import org.apache.hyracks.api.deployment.DeploymentId;
+import org.apache.hyracks.api.exceptions.HyracksException;
 import org.apache.hyracks.api.job.IActivityClusterGraphGenerator;
 import org.apache.hyracks.api.job.IActivityClusterGraphGeneratorFactory;
 import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.PreparedJobId;
 import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.cc.application.CCApplicationContext;
 import org.apache.hyracks.control.cc.job.JobRun;
+import org.apache.hyracks.control.cc.job.PreparedJob;
 import org.apache.hyracks.control.common.deployment.DeploymentUtils;
 import org.apache.hyracks.control.common.work.IResultCallback;
 import org.apache.hyracks.control.common.work.SynchronizableWork;
 
-public class JobStartWork extends SynchronizableWork {
+public class JobStartWork extends SynchronizableWork implements IJobWork {
     private final ClusterControllerService ccs;
     private final byte[] acggfBytes;
     private final EnumSet<JobFlag> jobFlags;
     private final DeploymentId deploymentId;
+    private final PreparedJobId preparedJobId;
+    private final Map<String, byte[]> jobParameters;
     private final JobId jobId;
     private final IResultCallback<JobId> callback;
 
@@ -49,6 +55,25 @@ public class JobStartWork extends SynchronizableWork {
         this.ccs = ccs;
         this.acggfBytes = acggfBytes;
         this.jobFlags = jobFlags;
+        this.preparedJobId = null;
+        this.jobParameters = null;
+        this.callback = callback;
+    }
+
+    @Override
+    public JobId getJobId() {
+        return jobId;
+    }
+
+    public JobStartWork(ClusterControllerService ccs, PreparedJobId preparedJobId, Map<String, byte[]> jobParameters,
+            JobId jobId, IResultCallback<JobId> callback) {
+        this.deploymentId = null;
+        this.jobId = jobId;
+        this.ccs = ccs;
+        this.acggfBytes = null;
+        this.jobFlags = null;
+        this.preparedJobId = preparedJobId;
+        this.jobParameters = jobParameters;
         this.callback = callback;
     }
 
@@ -56,10 +81,22 @@ public class JobStartWork extends SynchronizableWork {
     protected void doRun() throws Exception {
         try {
             final CCApplicationContext appCtx = ccs.getApplicationContext();
-            IActivityClusterGraphGeneratorFactory acggf = (IActivityClusterGraphGeneratorFactory) DeploymentUtils
-                    .deserialize(acggfBytes, deploymentId, appCtx);
-            IActivityClusterGraphGenerator acgg = acggf.createActivityClusterGraphGenerator(jobId, appCtx, jobFlags);
-            JobRun run = new JobRun(ccs, deploymentId, jobId, acgg, jobFlags);
+            IActivityClusterGraphGeneratorFactory acggf;
+            JobRun run;
+            if (preparedJobId != null) {
+                PreparedJob preparedJob = ccs.getPreparedJobMap().get(preparedJobId);
+                if (preparedJob == null) {
+                    throw new HyracksException("Unknown prepared job " + preparedJobId);
+                }
+                acggf = preparedJob.getActivityClusterGraphGeneratorFactory();
+                run = new JobRun(ccs, jobId, preparedJob, jobParameters);
+            } else {
+                acggf = (IActivityClusterGraphGeneratorFactory) DeploymentUtils.deserialize(acggfBytes, deploymentId,
+                        appCtx);
+                IActivityClusterGraphGenerator acgg = acggf.createActivityClusterGraphGenerator(jobId, appCtx,
+                        jobFlags);
+                run = new JobRun(ccs, deploymentId, jobId, acgg, jobFlags);
+            }
             run.setStatus(JobStatus.INITIALIZED, null);
             ccs.getActiveRunMap().put(jobId, run);
             appCtx.notifyJobCreation(jobId, acggf);
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.cc.work;
+
+import org.apache.hyracks.api.exceptions.HyracksException;
+import org.apache.hyracks.api.job.PreparedJobId;
+import org.apache.hyracks.control.cc.ClusterControllerService;
+import org.apache.hyracks.control.cc.NodeControllerState;
+import org.apache.hyracks.control.cc.job.PreparedJob;
+import org.apache.hyracks.control.common.work.IResultCallback;
+import org.apache.hyracks.control.common.work.SynchronizableWork;
+
+public class JobUnprepareWork extends SynchronizableWork {
+    private final ClusterControllerService ccs;
+    private final PreparedJobId preparedJobId;
+    private final IResultCallback<PreparedJobId> callback;
+
+    public JobUnprepareWork(ClusterControllerService ccs, PreparedJobId preparedJobId,
+            IResultCallback<PreparedJobId> callback) {
+        this.ccs = ccs;
+        this.preparedJobId = preparedJobId;
+        this.callback = callback;
+    }
+
+    @Override
+    protected void doRun() throws Exception {
+        try {
+            PreparedJob preparedJob = ccs.getPreparedJobMap().get(preparedJobId);
+            if (preparedJob == null) {
+                throw new HyracksException("Unknown prepared job " + preparedJobId);
+            }
+            /*
+             * Runs that are still in progress see that the job is no longer prepared and ship the graph to any
+             * further node they start tasks on, so the nodes can drop their copy right away. The job schedulers
+             * start tasks under the same lock, so a node cannot pick up the graph after it was told to drop it.
+             */
+            synchronized (preparedJob) {
+                ccs.getPreparedJobMap().remove(preparedJobId);
+                for (NodeControllerState node : ccs.getNodeMap().values()) {
+                    if (node.getPreparedJobIds().remove(preparedJobId)) {
+                        node.getNodeController().unprepareJob(preparedJobId);
+                    }
+                }
+            }
+            callback.setValue(preparedJobId);
+        } catch (Exception e) {
+            callback.setException(e);
+        }
+    }
+}
@@ -29,7 +29,7 @@ import org.apache.hyracks.control.cc.NodeControllerState;
 import org.apache.hyracks.control.cc.application.CCApplicationContext;
 import org.apache.hyracks.control.cc.job.JobRun;
 
-public class JobletCleanupNotificationWork extends AbstractHeartbeatWork {
+public class JobletCleanupNotificationWork extends AbstractHeartbeatWork implements IJobWork {
     private static final Logger LOGGER = Logger.getLogger(JobletCleanupNotificationWork.class.getName());
 
     private ClusterControllerService ccs;
@@ -43,6 +43,11 @@ public class JobletCleanupNotificationWork extends AbstractHeartbeatWork {
         this.nodeId = nodeId;
     }
 
+    @Override
+    public JobId getJobId() {
+        return jobId;
+    }
+
     @Override
     public void runWork() {
         final JobRun run = ccs.getActiveRunMap().get(jobId);
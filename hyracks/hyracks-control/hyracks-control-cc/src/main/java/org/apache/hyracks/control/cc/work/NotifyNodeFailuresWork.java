@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.cc.work;
+
+import java.util.Set;
+
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.control.cc.ClusterControllerService;
+import org.apache.hyracks.control.cc.job.JobRun;
+import org.apache.hyracks.control.common.work.AbstractWork;
+
+public class NotifyNodeFailuresWork extends AbstractWork implements IJobWork {
+    private final ClusterControllerService ccs;
+    private final JobId jobId;
+    private final Set<String> deadNodes;
+
+    public NotifyNodeFailuresWork(ClusterControllerService ccs, JobId jobId, Set<String> deadNodes) {
+        this.ccs = ccs;
+        this.jobId = jobId;
+        this.deadNodes = deadNodes;
+    }
+
+    @Override
+    public JobId getJobId() {
+        return jobId;
+    }
+
+    @Override
+    public void run() {
+        JobRun run = ccs.getActiveRunMap().get(jobId);
+        if (run != null) {
+            run.getScheduler().notifyNodeFailures(deadNodes);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getName() + ": " + jobId + " " + deadNodes;
+    }
+}
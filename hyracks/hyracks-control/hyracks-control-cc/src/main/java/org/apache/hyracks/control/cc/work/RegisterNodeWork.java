@@ -57,7 +57,8 @@ public class RegisterNodeWork extends SynchronizableWork {
         try {
             INodeController nodeController = new NodeControllerRemoteProxy(ncIPCHandle);
 
-            NodeControllerState state = new NodeControllerState(nodeController, reg);
+            NodeControllerState state = new NodeControllerState(nodeController, reg,
+                    ccs.nextNodeRegistrationSequence());
             Map<String, NodeControllerState> nodeMap = ccs.getNodeMap();
             if (nodeMap.containsKey(id)) {
                 throw new Exception("Node with this name already registered.");
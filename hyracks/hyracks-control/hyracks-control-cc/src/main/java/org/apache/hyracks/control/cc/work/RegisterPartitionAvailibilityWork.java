@@ -22,6 +22,7 @@ import java.util.List;
 
 import org.apache.commons.lang3.tuple.Pair;
 
+import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.partitions.PartitionId;
 import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.cc.job.JobRun;
@@ -31,7 +32,7 @@ import org.apache.hyracks.control.common.job.PartitionDescriptor;
 import org.apache.hyracks.control.common.job.PartitionRequest;
 import org.apache.hyracks.control.common.work.AbstractWork;
 
-public class RegisterPartitionAvailibilityWork extends AbstractWork {
+public class RegisterPartitionAvailibilityWork extends AbstractWork implements IJobWork {
     private final ClusterControllerService ccs;
     private final PartitionDescriptor partitionDescriptor;
 
@@ -40,6 +41,11 @@ public class RegisterPartitionAvailibilityWork extends AbstractWork {
         this.partitionDescriptor = partitionDescriptor;
     }
 
+    @Override
+    public JobId getJobId() {
+        return partitionDescriptor.getPartitionId().getJobId();
+    }
+
     @Override
     public void run() {
         final PartitionId pid = partitionDescriptor.getPartitionId();
@@ -27,7 +27,6 @@ import java.util.logging.Logger;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.cc.NodeControllerState;
-import org.apache.hyracks.control.cc.job.JobRun;
 import org.apache.hyracks.control.common.work.AbstractWork;
 
 public class RemoveDeadNodesWork extends AbstractWork {
@@ -63,10 +62,7 @@ public class RemoveDeadNodesWork extends AbstractWork {
                 LOGGER.info("Number of affected jobs: " + size);
             }
             for (JobId jobId : affectedJobIds) {
-                JobRun run = ccs.getActiveRunMap().get(jobId);
-                if (run != null) {
-                    run.getScheduler().notifyNodeFailures(deadNodes);
-                }
+                ccs.getWorkQueue().schedule(new NotifyNodeFailuresWork(ccs, jobId, deadNodes));
             }
         }
         if (deadNodes != null && deadNodes.size() > 0) {
@@ -18,8 +18,6 @@
  */
 package org.apache.hyracks.control.cc.work;
 
-import java.util.List;
-import java.util.Map;
 import java.util.logging.Level;
 
 import org.apache.hyracks.api.job.JobId;
@@ -28,24 +26,26 @@ import org.apache.hyracks.control.cc.job.JobRun;
 import org.apache.hyracks.control.common.job.profiling.om.JobProfile;
 import org.apache.hyracks.control.common.work.AbstractWork;
 
-public class ReportProfilesWork extends AbstractWork {
+public class ReportProfileWork extends AbstractWork implements IJobWork {
     private final ClusterControllerService ccs;
-    private final List<JobProfile> profiles;
+    private final JobProfile profile;
 
-    public ReportProfilesWork(ClusterControllerService ccs, List<JobProfile> profiles) {
+    public ReportProfileWork(ClusterControllerService ccs, JobProfile profile) {
         this.ccs = ccs;
-        this.profiles = profiles;
+        this.profile = profile;
+    }
+
+    @Override
+    public JobId getJobId() {
+        return profile.getJobId();
     }
 
     @Override
     public void run() {
-        Map<JobId, JobRun> runMap = ccs.getActiveRunMap();
-        for (JobProfile profile : profiles) {
-            JobRun run = runMap.get(profile.getJobId());
-            if (run != null) {
-                JobProfile jp = run.getJobProfile();
-                jp.merge(profile);
-            }
+        JobRun run = ccs.getActiveRunMap().get(profile.getJobId());
+        if (run != null) {
+            JobProfile jp = run.getJobProfile();
+            jp.merge(profile);
         }
     }
 
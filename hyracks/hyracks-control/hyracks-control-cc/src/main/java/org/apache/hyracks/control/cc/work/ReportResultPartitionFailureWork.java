@@ -23,7 +23,7 @@ import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.common.work.AbstractWork;
 
-public class ReportResultPartitionFailureWork extends AbstractWork {
+public class ReportResultPartitionFailureWork extends AbstractWork implements IJobWork {
     private final ClusterControllerService ccs;
 
     private final JobId jobId;
@@ -39,6 +39,11 @@ public class ReportResultPartitionFailureWork extends AbstractWork {
         this.partition = partition;
     }
 
+    @Override
+    public JobId getJobId() {
+        return jobId;
+    }
+
     @Override
     public void run() {
         ccs.getDatasetDirectoryService().reportResultPartitionFailure(jobId, rsId, partition);
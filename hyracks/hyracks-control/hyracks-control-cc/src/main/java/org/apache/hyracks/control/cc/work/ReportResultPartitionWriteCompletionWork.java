@@ -23,7 +23,7 @@ import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.common.work.AbstractWork;
 
-public class ReportResultPartitionWriteCompletionWork extends AbstractWork {
+public class ReportResultPartitionWriteCompletionWork extends AbstractWork implements IJobWork {
     private final ClusterControllerService ccs;
 
     private final JobId jobId;
@@ -40,6 +40,11 @@ public class ReportResultPartitionWriteCompletionWork extends AbstractWork {
         this.partition = partition;
     }
 
+    @Override
+    public JobId getJobId() {
+        return jobId;
+    }
+
     @Override
     public void run() {
         ccs.getDatasetDirectoryService().reportResultPartitionWriteCompletion(jobId, rsId, partition);
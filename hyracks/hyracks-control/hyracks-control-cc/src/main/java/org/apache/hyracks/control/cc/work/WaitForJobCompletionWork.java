@@ -26,7 +26,7 @@ import org.apache.hyracks.control.cc.job.IJobStatusConditionVariable;
 import org.apache.hyracks.control.common.work.IResultCallback;
 import org.apache.hyracks.control.common.work.SynchronizableWork;
 
-public class WaitForJobCompletionWork extends SynchronizableWork {
+public class WaitForJobCompletionWork extends SynchronizableWork implements IJobWork {
     private final ClusterControllerService ccs;
     private final JobId jobId;
     private final IResultCallback<Object> callback;
@@ -37,6 +37,11 @@ public class WaitForJobCompletionWork extends SynchronizableWork {
         this.callback = callback;
     }
 
+    @Override
+    public JobId getJobId() {
+        return jobId;
+    }
+
     @Override
     protected void doRun() throws Exception {
         final IJobStatusConditionVariable cRunningVar = ccs.getActiveRunMap().get(jobId);
@@ -56,6 +56,9 @@ public class CCConfig {
     @Option(name = "-job-history-size", usage = "Limits the number of historical jobs remembered by the system to the specified value. (default: 10)")
     public int jobHistorySize = 10;
 
+    @Option(name = "-job-work-threads", usage = "Sets the number of threads that process job events, such as task completions, in parallel with each other and with cluster events. 0 processes all events on a single thread. (default: 4)")
+    public int jobWorkThreads = 4;
+
     @Option(name = "-result-time-to-live", usage = "Limits the amount of time results for asynchronous jobs should be retained by the system in milliseconds. (default: 24 hours)")
     public long resultTTL = 86400000;
 
@@ -96,6 +99,8 @@ public class CCConfig {
         cList.add(String.valueOf(defaultMaxJobAttempts));
         cList.add("-job-history-size");
         cList.add(String.valueOf(jobHistorySize));
+        cList.add("-job-work-threads");
+        cList.add(String.valueOf(jobWorkThreads));
         cList.add("-result-time-to-live");
         cList.add(String.valueOf(resultTTL));
         cList.add("-result-sweep-threshold");
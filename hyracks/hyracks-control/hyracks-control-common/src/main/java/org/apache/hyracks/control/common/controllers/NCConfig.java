@@ -77,6 +77,12 @@ public class NCConfig implements Serializable {
     @Option(name = "-iodevices", usage = "Comma separated list of IO Device mount points (default: One device in default temp folder)", required = false)
     public String ioDevices = System.getProperty("java.io.tmpdir");
 
+    @Option(name = "-io-threads-per-device", usage = "Number of threads servicing the asynchronous I/O queue of each IO device (default: 2)", required = false)
+    public int ioThreadsPerDevice = 2;
+
+    @Option(name = "-workspace-stripe-size", usage = "Size in bytes of the units in which workspace files are striped over all IO devices with work areas (default: 0, no striping)", required = false)
+    public int workspaceStripeSize = 0;
+
     @Option(name = "-net-thread-count", usage = "Number of threads to use for Network I/O (default: 1)")
     public int nNetThreads = 1;
 
@@ -135,6 +141,10 @@ public class NCConfig implements Serializable {
         cList.add(String.valueOf(resultPublicPort));
         cList.add("-iodevices");
         cList.add(ioDevices);
+        cList.add("-io-threads-per-device");
+        cList.add(String.valueOf(ioThreadsPerDevice));
+        cList.add("-workspace-stripe-size");
+        cList.add(String.valueOf(workspaceStripeSize));
         cList.add("-net-thread-count");
         cList.add(String.valueOf(nNetThreads));
         cList.add("-net-buffer-count");
@@ -177,6 +187,8 @@ public class NCConfig implements Serializable {
         configuration.put("result-public-ip-address", resultPublicIPAddress);
         configuration.put("result-public-port", String.valueOf(resultPublicPort));
         configuration.put("iodevices", ioDevices);
+        configuration.put("io-threads-per-device", String.valueOf(ioThreadsPerDevice));
+        configuration.put("workspace-stripe-size", String.valueOf(workspaceStripeSize));
         configuration.put("net-thread-count", String.valueOf(nNetThreads));
         configuration.put("net-buffer-count", String.valueOf(nNetBuffers));
         configuration.put("max-memory", String.valueOf(maxMemory));
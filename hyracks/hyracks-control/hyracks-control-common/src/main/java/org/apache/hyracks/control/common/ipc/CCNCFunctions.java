@@ -20,7 +20,9 @@ package org.apache.hyracks.control.common.ipc;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
 import java.io.DataInputStream;
+import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -33,6 +35,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -50,6 +54,7 @@ import org.apache.hyracks.api.deployment.DeploymentId;
 import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.PreparedJobId;
 import org.apache.hyracks.api.partitions.PartitionId;
 import org.apache.hyracks.control.common.controllers.NodeParameters;
 import org.apache.hyracks.control.common.controllers.NodeRegistration;
@@ -69,6 +74,11 @@ public class CCNCFunctions {
 
     private static final int FID_CODE_SIZE = 1;
 
+    private static final int MAX_INTERNED_STRINGS = 4096;
+
+    // node names and addresses repeat in almost every message, so share one instance per distinct value
+    private static final ConcurrentMap<String, String> INTERNED_STRINGS = new ConcurrentHashMap<String, String>();
+
     public enum FunctionId {
         REGISTER_NODE,
         UNREGISTER_NODE,
@@ -87,6 +97,7 @@ public class CCNCFunctions {
         START_TASKS,
         ABORT_TASKS,
         CLEANUP_JOBLET,
+        UNPREPARE_JOB,
         REPORT_PARTITION_AVAILABILITY,
         SEND_APPLICATION_MESSAGE,
         GET_NODE_CONTROLLERS_INFO,
@@ -137,6 +148,37 @@ public class CCNCFunctions {
             return FunctionId.SEND_APPLICATION_MESSAGE;
         }
 
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            byte[] data = new byte[readVarInt(dis)];
+            dis.readFully(data);
+            DeploymentId deploymentId = null;
+            if (dis.readBoolean()) {
+                deploymentId = DeploymentId.create(dis);
+            }
+            String nodeId = null;
+            if (dis.readBoolean()) {
+                nodeId = readInternedString(dis);
+            }
+            return new SendApplicationMessageFunction(data, deploymentId, nodeId);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            SendApplicationMessageFunction fn = (SendApplicationMessageFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            writeVarInt(dos, fn.serializedMessage.length);
+            dos.write(fn.serializedMessage);
+            dos.writeBoolean(fn.deploymentId != null);
+            if (fn.deploymentId != null) {
+                fn.deploymentId.writeFields(dos);
+            }
+            dos.writeBoolean(fn.nodeId != null);
+            if (fn.nodeId != null) {
+                dos.writeUTF(fn.nodeId);
+            }
+        }
     }
 
     public static abstract class Function implements Serializable {
@@ -223,9 +265,9 @@ public class CCNCFunctions {
             ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
             DataInputStream dis = new DataInputStream(bais);
 
-            JobId jobId = JobId.create(dis);
-            String nodeId = dis.readUTF();
-            TaskAttemptId taskId = TaskAttemptId.create(dis);
+            JobId jobId = readJobId(dis);
+            String nodeId = readInternedString(dis);
+            TaskAttemptId taskId = readTaskAttemptId(dis);
             TaskProfile statistics = TaskProfile.create(dis);
             return new NotifyTaskCompleteFunction(jobId, taskId, nodeId, statistics);
         }
@@ -233,9 +275,9 @@ public class CCNCFunctions {
         public static void serialize(OutputStream out, Object object) throws Exception {
             NotifyTaskCompleteFunction fn = (NotifyTaskCompleteFunction) object;
             DataOutputStream dos = new DataOutputStream(out);
-            fn.jobId.writeFields(dos);
+            writeJobId(dos, fn.jobId);
             dos.writeUTF(fn.nodeId);
-            fn.taskId.writeFields(dos);
+            writeTaskAttemptId(dos, fn.taskId);
             fn.statistics.writeFields(dos);
         }
     }
@@ -305,8 +347,8 @@ public class CCNCFunctions {
             ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
             DataInputStream dis = new DataInputStream(bais);
 
-            JobId jobId = JobId.create(dis);
-            String nodeId = dis.readUTF();
+            JobId jobId = readJobId(dis);
+            String nodeId = readInternedString(dis);
 
             return new NotifyJobletCleanupFunction(jobId, nodeId);
         }
@@ -314,7 +356,7 @@ public class CCNCFunctions {
         public static void serialize(OutputStream out, Object object) throws Exception {
             NotifyJobletCleanupFunction fn = (NotifyJobletCleanupFunction) object;
             DataOutputStream dos = new DataOutputStream(out);
-            fn.jobId.writeFields(dos);
+            writeJobId(dos, fn.jobId);
             dos.writeUTF(fn.nodeId);
         }
     }
@@ -347,7 +389,7 @@ public class CCNCFunctions {
             ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
             DataInputStream dis = new DataInputStream(bais);
 
-            String nodeId = dis.readUTF();
+            String nodeId = readInternedString(dis);
             HeartbeatData hbData = new HeartbeatData();
             hbData.readFields(dis);
             return new NodeHeartbeatFunction(nodeId, hbData);
@@ -384,6 +426,29 @@ public class CCNCFunctions {
         public List<JobProfile> getProfiles() {
             return profiles;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            String nodeId = readInternedString(dis);
+            int size = readVarInt(dis);
+            List<JobProfile> profiles = new ArrayList<JobProfile>(size);
+            for (int i = 0; i < size; i++) {
+                profiles.add(JobProfile.create(dis));
+            }
+            return new ReportProfileFunction(nodeId, profiles);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            ReportProfileFunction fn = (ReportProfileFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            dos.writeUTF(fn.nodeId);
+            writeVarInt(dos, fn.profiles.size());
+            for (JobProfile profile : fn.profiles) {
+                profile.writeFields(dos);
+            }
+        }
     }
 
     public static class RegisterPartitionProviderFunction extends Function {
@@ -412,7 +477,7 @@ public class CCNCFunctions {
             PartitionId pid = readPartitionId(dis);
 
             // Read nodeId
-            String nodeId = dis.readUTF();
+            String nodeId = readInternedString(dis);
 
             // Read TaskAttemptId
             TaskAttemptId taId = readTaskAttemptId(dis);
@@ -478,7 +543,7 @@ public class CCNCFunctions {
             PartitionId pid = readPartitionId(dis);
 
             // Read nodeId
-            String nodeId = dis.readUTF();
+            String nodeId = readInternedString(dis);
 
             // Read TaskAttemptId
             TaskAttemptId taId = readTaskAttemptId(dis);
@@ -571,6 +636,33 @@ public class CCNCFunctions {
         public NetworkAddress getNetworkAddress() {
             return networkAddress;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            JobId jobId = readJobId(dis);
+            ResultSetId rsId = new ResultSetId(readVarLong(dis));
+            boolean orderedResult = dis.readBoolean();
+            boolean emptyResult = dis.readBoolean();
+            int partition = readVarInt(dis);
+            int nPartitions = readVarInt(dis);
+            NetworkAddress networkAddress = readNetworkAddress(dis);
+            return new RegisterResultPartitionLocationFunction(jobId, rsId, orderedResult, emptyResult, partition,
+                    nPartitions, networkAddress);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            RegisterResultPartitionLocationFunction fn = (RegisterResultPartitionLocationFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            writeJobId(dos, fn.jobId);
+            writeVarLong(dos, fn.rsId.getId());
+            dos.writeBoolean(fn.orderedResult);
+            dos.writeBoolean(fn.emptyResult);
+            writeVarInt(dos, fn.partition);
+            writeVarInt(dos, fn.nPartitions);
+            writeNetworkAddress(dos, fn.networkAddress);
+        }
     }
 
     public static class ReportResultPartitionWriteCompletionFunction extends Function {
@@ -604,6 +696,24 @@ public class CCNCFunctions {
         public int getPartition() {
             return partition;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            JobId jobId = readJobId(dis);
+            ResultSetId rsId = new ResultSetId(readVarLong(dis));
+            int partition = readVarInt(dis);
+            return new ReportResultPartitionWriteCompletionFunction(jobId, rsId, partition);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            ReportResultPartitionWriteCompletionFunction fn = (ReportResultPartitionWriteCompletionFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            writeJobId(dos, fn.jobId);
+            writeVarLong(dos, fn.rsId.getId());
+            writeVarInt(dos, fn.partition);
+        }
     }
 
     public static class ReportResultPartitionFailureFunction extends Function {
@@ -637,6 +747,24 @@ public class CCNCFunctions {
         public int getPartition() {
             return partition;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            JobId jobId = readJobId(dis);
+            ResultSetId rsId = new ResultSetId(readVarLong(dis));
+            int partition = readVarInt(dis);
+            return new ReportResultPartitionFailureFunction(jobId, rsId, partition);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            ReportResultPartitionFailureFunction fn = (ReportResultPartitionFailureFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            writeJobId(dos, fn.jobId);
+            writeVarLong(dos, fn.rsId.getId());
+            writeVarInt(dos, fn.partition);
+        }
     }
 
     public static class NodeRegistrationResult extends Function {
@@ -674,16 +802,21 @@ public class CCNCFunctions {
         private final List<TaskAttemptDescriptor> taskDescriptors;
         private final Map<ConnectorDescriptorId, IConnectorPolicy> connectorPolicies;
         private final EnumSet<JobFlag> flags;
+        private final PreparedJobId preparedJobId;
+        private final Map<String, byte[]> jobParameters;
 
         public StartTasksFunction(DeploymentId deploymentId, JobId jobId, byte[] planBytes,
                 List<TaskAttemptDescriptor> taskDescriptors,
-                Map<ConnectorDescriptorId, IConnectorPolicy> connectorPolicies, EnumSet<JobFlag> flags) {
+                Map<ConnectorDescriptorId, IConnectorPolicy> connectorPolicies, EnumSet<JobFlag> flags,
+                PreparedJobId preparedJobId, Map<String, byte[]> jobParameters) {
             this.deploymentId = deploymentId;
             this.jobId = jobId;
             this.planBytes = planBytes;
             this.taskDescriptors = taskDescriptors;
             this.connectorPolicies = connectorPolicies;
             this.flags = flags;
+            this.preparedJobId = preparedJobId;
+            this.jobParameters = jobParameters;
         }
 
         @Override
@@ -715,12 +848,20 @@ public class CCNCFunctions {
             return flags;
         }
 
+        public PreparedJobId getPreparedJobId() {
+            return preparedJobId;
+        }
+
+        public Map<String, byte[]> getJobParameters() {
+            return jobParameters;
+        }
+
         public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
             ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
             DataInputStream dis = new DataInputStream(bais);
 
             //read jobId and taskId
-            JobId jobId = JobId.create(dis);
+            JobId jobId = readJobId(dis);
             DeploymentId deploymentId = null;
             boolean hasDeployed = dis.readBoolean();
             if (hasDeployed) {
@@ -728,23 +869,22 @@ public class CCNCFunctions {
             }
 
             // read plan bytes
-            int planBytesSize = dis.readInt();
             byte[] planBytes = null;
-            if (planBytesSize >= 0) {
-                planBytes = new byte[planBytesSize];
-                dis.read(planBytes, 0, planBytesSize);
+            if (dis.readBoolean()) {
+                planBytes = new byte[readVarInt(dis)];
+                dis.readFully(planBytes);
             }
 
             // read task attempt descriptors
-            int tadSize = dis.readInt();
-            List<TaskAttemptDescriptor> taskDescriptors = new ArrayList<TaskAttemptDescriptor>();
+            int tadSize = readVarInt(dis);
+            List<TaskAttemptDescriptor> taskDescriptors = new ArrayList<TaskAttemptDescriptor>(tadSize);
             for (int i = 0; i < tadSize; i++) {
                 TaskAttemptDescriptor tad = TaskAttemptDescriptor.create(dis);
                 taskDescriptors.add(tad);
             }
 
             //read connector policies
-            int cpSize = dis.readInt();
+            int cpSize = readVarInt(dis);
             Map<ConnectorDescriptorId, IConnectorPolicy> connectorPolicies = new HashMap<ConnectorDescriptorId, IConnectorPolicy>();
             for (int i = 0; i < cpSize; i++) {
                 ConnectorDescriptorId cid = ConnectorDescriptorId.create(dis);
@@ -753,13 +893,31 @@ public class CCNCFunctions {
             }
 
             // read flags
-            int flagSize = dis.readInt();
+            int flagSize = readVarInt(dis);
             EnumSet<JobFlag> flags = EnumSet.noneOf(JobFlag.class);
             for (int i = 0; i < flagSize; i++) {
-                flags.add(JobFlag.values()[(dis.readInt())]);
+                flags.add(JobFlag.values()[dis.readByte()]);
+            }
+
+            // read prepared job id and job parameters
+            PreparedJobId preparedJobId = null;
+            if (dis.readBoolean()) {
+                preparedJobId = PreparedJobId.create(dis);
+            }
+            Map<String, byte[]> jobParameters = null;
+            if (dis.readBoolean()) {
+                int parameterSize = readVarInt(dis);
+                jobParameters = new HashMap<String, byte[]>();
+                for (int i = 0; i < parameterSize; i++) {
+                    String name = readInternedString(dis);
+                    byte[] value = new byte[readVarInt(dis)];
+                    dis.readFully(value);
+                    jobParameters.put(name, value);
+                }
             }
 
-            return new StartTasksFunction(deploymentId, jobId, planBytes, taskDescriptors, connectorPolicies, flags);
+            return new StartTasksFunction(deploymentId, jobId, planBytes, taskDescriptors, connectorPolicies, flags,
+                    preparedJobId, jobParameters);
         }
 
         public static void serialize(OutputStream out, Object object) throws Exception {
@@ -767,35 +925,51 @@ public class CCNCFunctions {
             DataOutputStream dos = new DataOutputStream(out);
 
             //write jobId and deploymentId
-            fn.jobId.writeFields(dos);
+            writeJobId(dos, fn.jobId);
             dos.writeBoolean(fn.deploymentId == null ? false : true);
             if (fn.deploymentId != null) {
                 fn.deploymentId.writeFields(dos);
             }
 
             //write plan bytes
-            dos.writeInt(fn.planBytes == null ? -1 : fn.planBytes.length);
+            dos.writeBoolean(fn.planBytes != null);
             if (fn.planBytes != null) {
+                writeVarInt(dos, fn.planBytes.length);
                 dos.write(fn.planBytes, 0, fn.planBytes.length);
             }
 
             //write task descriptors
-            dos.writeInt(fn.taskDescriptors.size());
+            writeVarInt(dos, fn.taskDescriptors.size());
             for (int i = 0; i < fn.taskDescriptors.size(); i++) {
                 fn.taskDescriptors.get(i).writeFields(dos);
             }
 
             //write connector policies
-            dos.writeInt(fn.connectorPolicies.size());
+            writeVarInt(dos, fn.connectorPolicies.size());
             for (Entry<ConnectorDescriptorId, IConnectorPolicy> entry : fn.connectorPolicies.entrySet()) {
                 entry.getKey().writeFields(dos);
                 ConnectorPolicyFactory.INSTANCE.writeConnectorPolicy(entry.getValue(), dos);
             }
 
             //write flags
-            dos.writeInt(fn.flags.size());
+            writeVarInt(dos, fn.flags.size());
             for (JobFlag flag : fn.flags) {
-                dos.writeInt(flag.ordinal());
+                dos.writeByte(flag.ordinal());
+            }
+
+            //write prepared job id and job parameters
+            dos.writeBoolean(fn.preparedJobId != null);
+            if (fn.preparedJobId != null) {
+                fn.preparedJobId.writeFields(dos);
+            }
+            dos.writeBoolean(fn.jobParameters != null);
+            if (fn.jobParameters != null) {
+                writeVarInt(dos, fn.jobParameters.size());
+                for (Entry<String, byte[]> entry : fn.jobParameters.entrySet()) {
+                    dos.writeUTF(entry.getKey());
+                    writeVarInt(dos, entry.getValue().length);
+                    dos.write(entry.getValue());
+                }
             }
         }
     }
@@ -823,6 +997,29 @@ public class CCNCFunctions {
         public List<TaskAttemptId> getTasks() {
             return tasks;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            JobId jobId = readJobId(dis);
+            int size = readVarInt(dis);
+            List<TaskAttemptId> tasks = new ArrayList<TaskAttemptId>(size);
+            for (int i = 0; i < size; i++) {
+                tasks.add(readTaskAttemptId(dis));
+            }
+            return new AbortTasksFunction(jobId, tasks);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            AbortTasksFunction fn = (AbortTasksFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            writeJobId(dos, fn.jobId);
+            writeVarInt(dos, fn.tasks.size());
+            for (TaskAttemptId taId : fn.tasks) {
+                writeTaskAttemptId(dos, taId);
+            }
+        }
     }
 
     public static class CleanupJobletFunction extends Function {
@@ -853,8 +1050,8 @@ public class CCNCFunctions {
             ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
             DataInputStream dis = new DataInputStream(bais);
 
-            JobId jobId = JobId.create(dis);
-            JobStatus status = JobStatus.values()[dis.readInt()];
+            JobId jobId = readJobId(dis);
+            JobStatus status = JobStatus.values()[dis.readByte()];
 
             return new CleanupJobletFunction(jobId, status);
         }
@@ -862,8 +1059,8 @@ public class CCNCFunctions {
         public static void serialize(OutputStream out, Object object) throws Exception {
             CleanupJobletFunction fn = (CleanupJobletFunction) object;
             DataOutputStream dos = new DataOutputStream(out);
-            fn.jobId.writeFields(dos);
-            dos.writeInt(fn.status.ordinal());
+            writeJobId(dos, fn.jobId);
+            dos.writeByte(fn.status.ordinal());
         }
     }
 
@@ -989,6 +1186,38 @@ public class CCNCFunctions {
         }
     }
 
+    public static class UnprepareJobFunction extends Function {
+        private static final long serialVersionUID = 1L;
+
+        private final PreparedJobId preparedJobId;
+
+        public UnprepareJobFunction(PreparedJobId preparedJobId) {
+            this.preparedJobId = preparedJobId;
+        }
+
+        @Override
+        public FunctionId getFunctionId() {
+            return FunctionId.UNPREPARE_JOB;
+        }
+
+        public PreparedJobId getPreparedJobId() {
+            return preparedJobId;
+        }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            return new UnprepareJobFunction(new PreparedJobId(readVarLong(dis)));
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            UnprepareJobFunction fn = (UnprepareJobFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            writeVarLong(dos, fn.preparedJobId.getId());
+        }
+    }
+
     public static class RequestShutdownFunction extends Function {
         private static final long serialVersionUID = 1L;
 
@@ -1219,6 +1448,34 @@ public class CCNCFunctions {
                 case CLEANUP_JOBLET:
                     CleanupJobletFunction.serialize(out, object);
                     return;
+
+                case ABORT_TASKS:
+                    AbortTasksFunction.serialize(out, object);
+                    return;
+
+                case REPORT_PROFILE:
+                    ReportProfileFunction.serialize(out, object);
+                    return;
+
+                case REGISTER_RESULT_PARTITION_LOCATION:
+                    RegisterResultPartitionLocationFunction.serialize(out, object);
+                    return;
+
+                case REPORT_RESULT_PARTITION_WRITE_COMPLETION:
+                    ReportResultPartitionWriteCompletionFunction.serialize(out, object);
+                    return;
+
+                case REPORT_RESULT_PARTITION_FAILURE:
+                    ReportResultPartitionFailureFunction.serialize(out, object);
+                    return;
+
+                case SEND_APPLICATION_MESSAGE:
+                    SendApplicationMessageFunction.serialize(out, object);
+                    return;
+
+                case UNPREPARE_JOB:
+                    UnprepareJobFunction.serialize(out, object);
+                    return;
             }
             JavaSerializationBasedPayloadSerializerDeserializer.serialize(out, object);
         }
@@ -1248,6 +1505,27 @@ public class CCNCFunctions {
 
                 case CLEANUP_JOBLET:
                     return CleanupJobletFunction.deserialize(buffer, length);
+
+                case ABORT_TASKS:
+                    return AbortTasksFunction.deserialize(buffer, length);
+
+                case REPORT_PROFILE:
+                    return ReportProfileFunction.deserialize(buffer, length);
+
+                case REGISTER_RESULT_PARTITION_LOCATION:
+                    return RegisterResultPartitionLocationFunction.deserialize(buffer, length);
+
+                case REPORT_RESULT_PARTITION_WRITE_COMPLETION:
+                    return ReportResultPartitionWriteCompletionFunction.deserialize(buffer, length);
+
+                case REPORT_RESULT_PARTITION_FAILURE:
+                    return ReportResultPartitionFailureFunction.deserialize(buffer, length);
+
+                case SEND_APPLICATION_MESSAGE:
+                    return SendApplicationMessageFunction.deserialize(buffer, length);
+
+                case UNPREPARE_JOB:
+                    return UnprepareJobFunction.deserialize(buffer, length);
             }
 
             return javaSerde.deserializeObject(buffer, length);
@@ -1255,26 +1533,26 @@ public class CCNCFunctions {
     }
 
     private static PartitionId readPartitionId(DataInputStream dis) throws IOException {
-        long jobId = dis.readLong();
-        int cdid = dis.readInt();
-        int senderIndex = dis.readInt();
-        int receiverIndex = dis.readInt();
+        long jobId = readVarLong(dis);
+        int cdid = readVarInt(dis);
+        int senderIndex = readVarInt(dis);
+        int receiverIndex = readVarInt(dis);
         PartitionId pid = new PartitionId(new JobId(jobId), new ConnectorDescriptorId(cdid), senderIndex, receiverIndex);
         return pid;
     }
 
     private static void writePartitionId(DataOutputStream dos, PartitionId pid) throws IOException {
-        dos.writeLong(pid.getJobId().getId());
-        dos.writeInt(pid.getConnectorDescriptorId().getId());
-        dos.writeInt(pid.getSenderIndex());
-        dos.writeInt(pid.getReceiverIndex());
+        writeVarLong(dos, pid.getJobId().getId());
+        writeVarInt(dos, pid.getConnectorDescriptorId().getId());
+        writeVarInt(dos, pid.getSenderIndex());
+        writeVarInt(dos, pid.getReceiverIndex());
     }
 
     private static TaskAttemptId readTaskAttemptId(DataInputStream dis) throws IOException {
-        int odid = dis.readInt();
-        int aid = dis.readInt();
-        int partition = dis.readInt();
-        int attempt = dis.readInt();
+        int odid = readVarInt(dis);
+        int aid = readVarInt(dis);
+        int partition = readVarInt(dis);
+        int attempt = readVarInt(dis);
         TaskAttemptId taId = new TaskAttemptId(new TaskId(new ActivityId(new OperatorDescriptorId(odid), aid),
                 partition), attempt);
         return taId;
@@ -1284,30 +1562,100 @@ public class CCNCFunctions {
         TaskId tid = taId.getTaskId();
         ActivityId aid = tid.getActivityId();
         OperatorDescriptorId odId = aid.getOperatorDescriptorId();
-        dos.writeInt(odId.getId());
-        dos.writeInt(aid.getLocalId());
-        dos.writeInt(tid.getPartition());
-        dos.writeInt(taId.getAttempt());
+        writeVarInt(dos, odId.getId());
+        writeVarInt(dos, aid.getLocalId());
+        writeVarInt(dos, tid.getPartition());
+        writeVarInt(dos, taId.getAttempt());
     }
 
     private static PartitionState readPartitionState(DataInputStream dis) throws IOException {
-        PartitionState state = PartitionState.values()[dis.readInt()];
+        PartitionState state = PartitionState.values()[dis.readByte()];
         return state;
     }
 
     private static void writePartitionState(DataOutputStream dos, PartitionState state) throws IOException {
-        dos.writeInt(state.ordinal());
+        dos.writeByte(state.ordinal());
     }
 
     private static NetworkAddress readNetworkAddress(DataInputStream dis) throws IOException {
-        String address = dis.readUTF();
-        int port = dis.readInt();
+        String address = readInternedString(dis);
+        int port = readVarInt(dis);
         NetworkAddress networkAddress = new NetworkAddress(address, port);
         return networkAddress;
     }
 
     private static void writeNetworkAddress(DataOutputStream dos, NetworkAddress networkAddress) throws IOException {
         dos.writeUTF(networkAddress.getAddress());
-        dos.writeInt(networkAddress.getPort());
+        writeVarInt(dos, networkAddress.getPort());
+    }
+
+    private static JobId readJobId(DataInput dis) throws IOException {
+        return new JobId(readVarLong(dis));
+    }
+
+    private static void writeJobId(DataOutput dos, JobId jobId) throws IOException {
+        writeVarLong(dos, jobId.getId());
+    }
+
+    /**
+     * Reads a string written with {@link DataOutput#writeUTF(String)} and returns the shared instance for its value.
+     * This is meant for the small set of node names and addresses that every message carries, so the number of
+     * shared instances is bounded.
+     */
+    private static String readInternedString(DataInput dis) throws IOException {
+        String value = dis.readUTF();
+        String interned = INTERNED_STRINGS.get(value);
+        if (interned != null) {
+            return interned;
+        }
+        if (INTERNED_STRINGS.size() >= MAX_INTERNED_STRINGS) {
+            return value;
+        }
+        interned = INTERNED_STRINGS.putIfAbsent(value, value);
+        return interned == null ? value : interned;
+    }
+
+    /**
+     * Writes an int in 7-bit groups, low group first, so that small non-negative values take a single byte.
+     * Negative values take five bytes.
+     */
+    private static void writeVarInt(DataOutput dos, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            dos.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        dos.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput dis) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = dis.readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length int");
+    }
+
+    private static void writeVarLong(DataOutput dos, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            dos.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        dos.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput dis) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = dis.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length long");
     }
 }
@@ -31,6 +31,7 @@ import org.apache.hyracks.api.deployment.DeploymentId;
 import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.PreparedJobId;
 import org.apache.hyracks.api.partitions.PartitionId;
 import org.apache.hyracks.control.common.base.INodeController;
 import org.apache.hyracks.control.common.job.TaskAttemptDescriptor;
@@ -46,9 +47,9 @@ public class NodeControllerRemoteProxy implements INodeController {
     @Override
     public void startTasks(DeploymentId deploymentId, JobId jobId, byte[] planBytes,
             List<TaskAttemptDescriptor> taskDescriptors, Map<ConnectorDescriptorId, IConnectorPolicy> connectorPolicies,
-            EnumSet<JobFlag> flags) throws Exception {
+            EnumSet<JobFlag> flags, PreparedJobId preparedJobId, Map<String, byte[]> jobParameters) throws Exception {
         CCNCFunctions.StartTasksFunction stf = new CCNCFunctions.StartTasksFunction(deploymentId, jobId, planBytes,
-                taskDescriptors, connectorPolicies, flags);
+                taskDescriptors, connectorPolicies, flags, preparedJobId, jobParameters);
         ipcHandle.send(-1, stf, null);
     }
 
@@ -83,6 +84,12 @@ public class NodeControllerRemoteProxy implements INodeController {
         ipcHandle.send(-1, rpaf, null);
     }
 
+    @Override
+    public void unprepareJob(PreparedJobId preparedJobId) throws Exception {
+        CCNCFunctions.UnprepareJobFunction upjf = new CCNCFunctions.UnprepareJobFunction(preparedJobId);
+        ipcHandle.send(-1, upjf, null);
+    }
+
     @Override
     public void dumpState(String stateDumpId) throws Exception {
         CCNCFunctions.StateDumpRequestFunction dsf = new CCNCFunctions.StateDumpRequestFunction(stateDumpId);
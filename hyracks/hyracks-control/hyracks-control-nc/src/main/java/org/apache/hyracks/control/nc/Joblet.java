@@ -75,6 +75,8 @@ public class Joblet implements IHyracksJobletContext, ICounterContext {
 
     private final ActivityClusterGraph acg;
 
+    private final Map<String, byte[]> jobParameters;
+
     private final Map<PartitionId, IPartitionCollector> partitionRequestMap;
 
     private final IOperatorEnvironment env;
@@ -102,7 +104,7 @@ public class Joblet implements IHyracksJobletContext, ICounterContext {
     private boolean cleanupPending;
 
     public Joblet(NodeControllerService nodeController, DeploymentId deploymentId, JobId jobId,
-            INCApplicationContext appCtx, ActivityClusterGraph acg) {
+            INCApplicationContext appCtx, ActivityClusterGraph acg, Map<String, byte[]> jobParameters) {
         this.nodeController = nodeController;
         this.appCtx = appCtx;
         this.deploymentId = deploymentId;
@@ -110,6 +112,7 @@ public class Joblet implements IHyracksJobletContext, ICounterContext {
         this.frameManager = new FrameManager(acg.getFrameSize());
         memoryAllocation = new AtomicLong();
         this.acg = acg;
+        this.jobParameters = jobParameters == null ? Collections.<String, byte[]> emptyMap() : jobParameters;
         partitionRequestMap = new HashMap<PartitionId, IPartitionCollector>();
         env = new OperatorEnvironmentImpl(nodeController.getId());
         stateObjectMap = new HashMap<Object, IStateObject>();
@@ -277,6 +280,21 @@ public class Joblet implements IHyracksJobletContext, ICounterContext {
         return counter;
     }
 
+    @Override
+    public int getMaxThreadsPerTask() {
+        return acg.getMaxThreadsPerTask();
+    }
+
+    @Override
+    public boolean isCompressRunFiles() {
+        return acg.isCompressRunFiles();
+    }
+
+    @Override
+    public byte[] getJobParameter(String name) {
+        return jobParameters.get(name);
+    }
+
     @Override
     public Object getGlobalJobData() {
         return globalJobData;
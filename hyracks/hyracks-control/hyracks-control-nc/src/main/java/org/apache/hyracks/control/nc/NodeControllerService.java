@@ -50,7 +50,9 @@ import org.apache.hyracks.api.context.IHyracksRootContext;
 import org.apache.hyracks.api.dataset.IDatasetPartitionManager;
 import org.apache.hyracks.api.deployment.DeploymentId;
 import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.api.job.ActivityClusterGraph;
 import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.PreparedJobId;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponentManager;
 import org.apache.hyracks.api.lifecycle.LifeCycleComponentManager;
 import org.apache.hyracks.api.service.IControllerService;
@@ -87,6 +89,7 @@ import org.apache.hyracks.control.nc.work.ShutdownWork;
 import org.apache.hyracks.control.nc.work.StartTasksWork;
 import org.apache.hyracks.control.nc.work.StateDumpWork;
 import org.apache.hyracks.control.nc.work.UnDeployBinaryWork;
+import org.apache.hyracks.control.nc.work.UnprepareJobWork;
 import org.apache.hyracks.ipc.api.IIPCHandle;
 import org.apache.hyracks.ipc.api.IIPCI;
 import org.apache.hyracks.ipc.api.IPCPerformanceCounters;
@@ -102,6 +105,8 @@ public class NodeControllerService implements IControllerService {
 
     private final String id;
 
+    private final IOManager ioManager;
+
     private final IHyracksRootContext ctx;
 
     private final IPCSystem ipc;
@@ -126,6 +131,8 @@ public class NodeControllerService implements IControllerService {
 
     private final Map<JobId, Joblet> jobletMap;
 
+    private final Map<PreparedJobId, ActivityClusterGraph> preparedJobMap;
+
     private ExecutorService executor;
 
     private NodeParameters nodeParameters;
@@ -165,7 +172,9 @@ public class NodeControllerService implements IControllerService {
         ipc = new IPCSystem(new InetSocketAddress(ncConfig.clusterNetIPAddress, ncConfig.clusterNetPort), ipci,
                 new CCNCFunctions.SerializerDeserializer());
 
-        this.ctx = new RootHyracksContext(this, new IOManager(getDevices(ncConfig.ioDevices)));
+        ioManager = new IOManager(getDevices(ncConfig.ioDevices), ncConfig.ioThreadsPerDevice,
+                ncConfig.workspaceStripeSize);
+        this.ctx = new RootHyracksContext(this, ioManager);
         if (id == null) {
             throw new Exception("id not set");
         }
@@ -176,6 +185,7 @@ public class NodeControllerService implements IControllerService {
         lccm = new LifeCycleComponentManager();
         queue = new WorkQueue(Thread.NORM_PRIORITY); // Reserves MAX_PRIORITY of the heartbeat thread.
         jobletMap = new Hashtable<JobId, Joblet>();
+        preparedJobMap = new Hashtable<PreparedJobId, ActivityClusterGraph>();
         timer = new Timer(true);
         serverCtx = new ServerContext(ServerContext.ServerType.NODE_CONTROLLER,
                 new File(new File(NodeControllerService.class.getName()), id));
@@ -242,7 +252,6 @@ public class NodeControllerService implements IControllerService {
     }
 
     private void init() throws Exception {
-        ctx.getIOManager().setExecutor(executor);
         datasetPartitionManager = new DatasetPartitionManager(this, executor, ncConfig.resultManagerMemory,
                 ncConfig.resultTTL, ncConfig.resultSweepThreshold);
         datasetNetworkManager = new DatasetNetworkManager(ncConfig.resultIPAddress, ncConfig.resultPort,
@@ -340,6 +349,7 @@ public class NodeControllerService implements IControllerService {
             datasetPartitionManager.close();
             netManager.stop();
             datasetNetworkManager.stop();
+            ioManager.stop();
             queue.stop();
             if (ncAppEntryPoint != null) {
                 ncAppEntryPoint.stop();
@@ -366,6 +376,10 @@ public class NodeControllerService implements IControllerService {
         return jobletMap;
     }
 
+    public Map<PreparedJobId, ActivityClusterGraph> getPreparedJobMap() {
+        return preparedJobMap;
+    }
+
     public NetworkManager getNetworkManager() {
         return netManager;
     }
@@ -500,7 +514,8 @@ public class NodeControllerService implements IControllerService {
                 case START_TASKS: {
                     CCNCFunctions.StartTasksFunction stf = (CCNCFunctions.StartTasksFunction) fn;
                     queue.schedule(new StartTasksWork(NodeControllerService.this, stf.getDeploymentId(), stf.getJobId(),
-                            stf.getPlanBytes(), stf.getTaskDescriptors(), stf.getConnectorPolicies(), stf.getFlags()));
+                            stf.getPlanBytes(), stf.getTaskDescriptors(), stf.getConnectorPolicies(), stf.getFlags(),
+                            stf.getPreparedJobId(), stf.getJobParameters()));
                     return;
                 }
 
@@ -516,6 +531,12 @@ public class NodeControllerService implements IControllerService {
                     return;
                 }
 
+                case UNPREPARE_JOB: {
+                    CCNCFunctions.UnprepareJobFunction upjf = (CCNCFunctions.UnprepareJobFunction) fn;
+                    queue.schedule(new UnprepareJobWork(NodeControllerService.this, upjf.getPreparedJobId()));
+                    return;
+                }
+
                 case REPORT_PARTITION_AVAILABILITY: {
                     CCNCFunctions.ReportPartitionAvailabilityFunction rpaf = (CCNCFunctions.ReportPartitionAvailabilityFunction) fn;
                     queue.schedule(new ReportPartitionAvailabilityWork(NodeControllerService.this,
@@ -24,30 +24,46 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.Executor;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.HyracksException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IFileHandle;
+import org.apache.hyracks.api.io.IIOCallback;
 import org.apache.hyracks.api.io.IIOFuture;
 import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.api.io.IODeviceHandle;
 
 public class IOManager implements IIOManager {
     private static final String WORKSPACE_FILE_SUFFIX = ".waf";
+    public static final int DEFAULT_IO_THREADS_PER_DEVICE = 2;
     private final List<IODeviceHandle> ioDevices;
-    private Executor executor;
     private final List<IODeviceHandle> workAreaIODevices;
-    private int workAreaDeviceIndex;
+    private final WorkspacePlacement workspacePlacement;
+    private final int workspaceStripeSize;
+    // one submission queue per device; files that are not on a device use the default queue
+    private final Map<IODeviceHandle, IOQueue> ioQueues;
+    private final IOQueue defaultIOQueue;
 
-    public IOManager(List<IODeviceHandle> devices, Executor executor) throws HyracksException {
-        this(devices);
-        this.executor = executor;
+    public IOManager(List<IODeviceHandle> devices) throws HyracksException {
+        this(devices, DEFAULT_IO_THREADS_PER_DEVICE);
     }
 
-    public IOManager(List<IODeviceHandle> devices) throws HyracksException {
+    public IOManager(List<IODeviceHandle> devices, int ioThreadsPerDevice) throws HyracksException {
+        this(devices, ioThreadsPerDevice, 0);
+    }
+
+    /**
+     * @param workspaceStripeSize
+     *            if positive, every workspace file is striped over all the work area devices in units of this many
+     *            bytes
+     */
+    public IOManager(List<IODeviceHandle> devices, int ioThreadsPerDevice, int workspaceStripeSize)
+            throws HyracksException {
         this.ioDevices = Collections.unmodifiableList(devices);
         workAreaIODevices = new ArrayList<IODeviceHandle>();
         for (IODeviceHandle d : ioDevices) {
@@ -59,11 +75,25 @@ public class IOManager implements IIOManager {
         if (workAreaIODevices.isEmpty()) {
             throw new HyracksException("No devices with work areas found");
         }
-        workAreaDeviceIndex = 0;
+        workspacePlacement = new WorkspacePlacement(ioDevices, workAreaIODevices);
+        this.workspaceStripeSize = workspaceStripeSize;
+        ioQueues = new HashMap<IODeviceHandle, IOQueue>();
+        for (IODeviceHandle d : ioDevices) {
+            ioQueues.put(d, new IOQueue(this, d.getPath().getPath(), ioThreadsPerDevice,
+                    workspacePlacement.getLoad(d)));
+        }
+        defaultIOQueue = new IOQueue(this, "default", ioThreadsPerDevice, null);
     }
 
-    public void setExecutor(Executor executor) {
-        this.executor = executor;
+    /**
+     * Stops the I/O threads of all the device queues once they have performed the requests submitted so far.
+     * Asynchronous requests submitted afterwards fail.
+     */
+    public void stop() throws InterruptedException {
+        for (IOQueue queue : ioQueues.values()) {
+            queue.stop();
+        }
+        defaultIOQueue.stop();
     }
 
     @Override
@@ -74,7 +104,7 @@ public class IOManager implements IIOManager {
     @Override
     public IFileHandle open(FileReference fileRef, FileReadWriteMode rwMode, FileSyncMode syncMode)
             throws HyracksDataException {
-        FileHandle fHandle = new FileHandle(fileRef);
+        FileHandle fHandle = fileRef.isStriped() ? new StripedFileHandle(fileRef) : new FileHandle(fileRef);
         try {
             fHandle.open(rwMode, syncMode);
         } catch (IOException e) {
@@ -85,17 +115,49 @@ public class IOManager implements IIOManager {
 
     @Override
     public int syncWrite(IFileHandle fHandle, long offset, ByteBuffer data) throws HyracksDataException {
-        try {
-            if (fHandle == null) {
-                throw new IllegalStateException("Trying to write to a deleted file.");
+        if (fHandle == null) {
+            throw new IllegalStateException("Trying to write to a deleted file.");
+        }
+        return write((FileHandle) fHandle, offset, data, true);
+    }
+
+    /**
+     * Writes all of data at the given offset of the file.
+     *
+     * @param account
+     *            whether to count the write in the load of the device; writes of the I/O queues are counted when
+     *            they are submitted
+     */
+    int write(FileHandle fHandle, long offset, ByteBuffer data, boolean account) throws HyracksDataException {
+        if (fHandle instanceof StripedFileHandle) {
+            StripedFileHandle striped = (StripedFileHandle) fHandle;
+            int limit = data.limit();
+            int n = 0;
+            try {
+                while (data.position() < limit) {
+                    int length = striped.getStripeLength(offset, limit - data.position());
+                    data.limit(data.position() + length);
+                    write(striped.getStripe(offset), striped.getStripeOffset(offset), data, account);
+                    offset += length;
+                    n += length;
+                }
+            } finally {
+                data.limit(limit);
             }
+            return n;
+        }
+        WorkspacePlacement.DeviceLoad load = account ? getLoad(fHandle) : null;
+        int length = data.remaining();
+        if (load != null) {
+            load.started(length);
+        }
+        try {
             int n = 0;
-            int remaining = data.remaining();
+            int remaining = length;
             while (remaining > 0) {
-                int len = ((FileHandle) fHandle).getFileChannel().write(data, offset);
+                int len = fHandle.getFileChannel().write(data, offset);
                 if (len < 0) {
-                    throw new HyracksDataException(
-                            "Error writing to file: " + ((FileHandle) fHandle).getFileReference().toString());
+                    throw new HyracksDataException("Error writing to file: " + fHandle.getFileReference().toString());
                 }
                 remaining -= len;
                 offset += len;
@@ -106,6 +168,10 @@ public class IOManager implements IIOManager {
             throw e;
         } catch (IOException e) {
             throw new HyracksDataException(e);
+        } finally {
+            if (load != null) {
+                load.completed(length);
+            }
         }
     }
 
@@ -120,11 +186,50 @@ public class IOManager implements IIOManager {
      */
     @Override
     public int syncRead(IFileHandle fHandle, long offset, ByteBuffer data) throws HyracksDataException {
+        return read((FileHandle) fHandle, offset, data, true);
+    }
+
+    /**
+     * Reads data from the given offset of the file, like {@link #syncRead(IFileHandle, long, ByteBuffer)}.
+     *
+     * @param account
+     *            whether to count the read in the load of the device; reads of the I/O queues are counted when
+     *            they are submitted
+     */
+    int read(FileHandle fHandle, long offset, ByteBuffer data, boolean account) throws HyracksDataException {
+        if (fHandle instanceof StripedFileHandle) {
+            StripedFileHandle striped = (StripedFileHandle) fHandle;
+            int limit = data.limit();
+            int n = 0;
+            try {
+                while (data.position() < limit) {
+                    int length = striped.getStripeLength(offset, limit - data.position());
+                    data.limit(data.position() + length);
+                    int len = read(striped.getStripe(offset), striped.getStripeOffset(offset), data, account);
+                    if (len > 0) {
+                        offset += len;
+                        n += len;
+                    }
+                    if (len < length) {
+                        // the end of the file
+                        return n == 0 ? -1 : n;
+                    }
+                }
+            } finally {
+                data.limit(limit);
+            }
+            return n;
+        }
+        WorkspacePlacement.DeviceLoad load = account ? getLoad(fHandle) : null;
+        int length = data.remaining();
+        if (load != null) {
+            load.started(length);
+        }
         try {
             int n = 0;
-            int remaining = data.remaining();
+            int remaining = length;
             while (remaining > 0) {
-                int len = ((FileHandle) fHandle).getFileChannel().read(data, offset);
+                int len = fHandle.getFileChannel().read(data, offset);
                 if (len < 0) {
                     return n == 0 ? -1 : n;
                 }
@@ -133,84 +238,152 @@ public class IOManager implements IIOManager {
                 n += len;
             }
             return n;
-        } catch (HyracksDataException e) {
-            throw e;
         } catch (IOException e) {
             throw new HyracksDataException(e);
+        } finally {
+            if (load != null) {
+                load.completed(length);
+            }
         }
     }
 
+    WorkspacePlacement getWorkspacePlacement() {
+        return workspacePlacement;
+    }
+
+    private WorkspacePlacement.DeviceLoad getLoad(FileHandle fHandle) {
+        return workspacePlacement.getLoad(fHandle.getFileReference().getDeviceHandle());
+    }
+
     @Override
     public IIOFuture asyncWrite(IFileHandle fHandle, long offset, ByteBuffer data) {
-        AsyncWriteRequest req = new AsyncWriteRequest((FileHandle) fHandle, offset, data);
-        executor.execute(req);
-        return req;
+        return asyncWrite(fHandle, offset, data, null);
     }
 
     @Override
     public IIOFuture asyncRead(IFileHandle fHandle, long offset, ByteBuffer data) {
-        AsyncReadRequest req = new AsyncReadRequest((FileHandle) fHandle, offset, data);
-        executor.execute(req);
-        return req;
+        return asyncRead(fHandle, offset, data, null);
     }
 
     @Override
-    public void close(IFileHandle fHandle) throws HyracksDataException {
-        try {
-            ((FileHandle) fHandle).close();
-        } catch (IOException e) {
-            throw new HyracksDataException(e);
+    public IIOFuture asyncWrite(IFileHandle fHandle, long offset, ByteBuffer data, IIOCallback callback) {
+        FileHandle fh = (FileHandle) fHandle;
+        if (fh instanceof StripedFileHandle) {
+            return submitStriped((StripedFileHandle) fh, offset, data, false, callback);
         }
+        return getIOQueue(fh).submit(new IOQueue.IORequest(fh, offset, data, false, callback));
     }
 
-    public synchronized FileReference createWorkspaceFile(String prefix) throws HyracksDataException {
-        IODeviceHandle dev = workAreaIODevices.get(workAreaDeviceIndex);
-        workAreaDeviceIndex = (workAreaDeviceIndex + 1) % workAreaIODevices.size();
-        String waPath = dev.getWorkAreaPath();
-        File waf;
-        try {
-            waf = File.createTempFile(prefix, WORKSPACE_FILE_SUFFIX, new File(dev.getPath(), waPath));
-        } catch (IOException e) {
-            throw new HyracksDataException(e);
+    @Override
+    public IIOFuture asyncRead(IFileHandle fHandle, long offset, ByteBuffer data, IIOCallback callback) {
+        FileHandle fh = (FileHandle) fHandle;
+        if (fh instanceof StripedFileHandle) {
+            return submitStriped((StripedFileHandle) fh, offset, data, true, callback);
         }
-        return dev.createFileReference(waPath + File.separator + waf.getName());
+        return getIOQueue(fh).submit(new IOQueue.IORequest(fh, offset, data, true, callback));
+    }
+
+    /**
+     * Splits a request on a striped file at the stripe unit boundaries, like the synchronous reads and writes, and
+     * submits every piece to the queue of the device of its stripe, which counts it in the load of that device.
+     */
+    private IIOFuture submitStriped(StripedFileHandle striped, long offset, ByteBuffer data, boolean read,
+            IIOCallback callback) {
+        List<IOQueue.IORequest> pieces = new ArrayList<IOQueue.IORequest>();
+        StripedIORequest req = new StripedIORequest(data, read, callback, pieces);
+        int position = data.position();
+        int limit = data.limit();
+        while (position < limit) {
+            int length = striped.getStripeLength(offset, limit - position);
+            ByteBuffer piece = data.duplicate();
+            piece.limit(position + length);
+            piece.position(position);
+            pieces.add(new IOQueue.IORequest(striped.getStripe(offset), striped.getStripeOffset(offset), piece, read,
+                    req));
+            offset += length;
+            position += length;
+        }
+        // every piece exists before any is submitted, so the last one to complete sees them all
+        req.remaining.set(pieces.size());
+        if (pieces.isEmpty()) {
+            req.complete();
+        }
+        for (IOQueue.IORequest piece : pieces) {
+            getIOQueue(piece.getFileHandle()).submit(piece);
+        }
+        return req;
     }
 
-    private abstract class AsyncRequest implements IIOFuture, Runnable {
-        protected final FileHandle fHandle;
-        protected final long offset;
-        protected final ByteBuffer data;
+    private IOQueue getIOQueue(FileHandle fHandle) {
+        IODeviceHandle dev = fHandle.getFileReference().getDeviceHandle();
+        IOQueue queue = dev == null ? null : ioQueues.get(dev);
+        return queue == null ? defaultIOQueue : queue;
+    }
+
+    /**
+     * An asynchronous request on a striped file, made of one request per stripe unit. It completes with the result
+     * that the synchronous read or write of the whole range would have.
+     */
+    private static class StripedIORequest implements IIOFuture, IIOCallback {
+        private final ByteBuffer data;
+        private final int position;
+        private final boolean read;
+        private final IIOCallback callback;
+        private final List<IOQueue.IORequest> pieces;
+        private final AtomicInteger remaining = new AtomicInteger();
         private boolean complete;
-        private HyracksDataException exception;
         private int result;
+        private HyracksDataException exception;
 
-        private AsyncRequest(FileHandle fHandle, long offset, ByteBuffer data) {
-            this.fHandle = fHandle;
-            this.offset = offset;
+        private StripedIORequest(ByteBuffer data, boolean read, IIOCallback callback,
+                List<IOQueue.IORequest> pieces) {
             this.data = data;
-            complete = false;
-            exception = null;
+            this.position = data.position();
+            this.read = read;
+            this.callback = callback;
+            this.pieces = pieces;
         }
 
         @Override
-        public void run() {
-            HyracksDataException hde = null;
-            int res = -1;
-            try {
-                res = performOperation();
-            } catch (HyracksDataException e) {
-                hde = e;
+        public void completed(IIOFuture piece) {
+            if (remaining.decrementAndGet() == 0) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            int n = 0;
+            HyracksDataException error = null;
+            for (IOQueue.IORequest piece : pieces) {
+                if (piece.getException() != null) {
+                    error = piece.getException();
+                    break;
+                }
+                int len = piece.getResult();
+                if (len > 0) {
+                    n += len;
+                }
+                if (read && len < piece.getLength()) {
+                    // the end of the file
+                    break;
+                }
             }
             synchronized (this) {
-                exception = hde;
-                result = res;
+                if (error == null) {
+                    data.position(position + n);
+                    result = read && n == 0 && !pieces.isEmpty() ? -1 : n;
+                } else {
+                    result = -1;
+                    exception = error;
+                }
                 complete = true;
                 notifyAll();
             }
+            if (callback != null) {
+                callback.completed(this);
+            }
         }
 
-        protected abstract int performOperation() throws HyracksDataException;
-
         @Override
         public synchronized int synchronize() throws HyracksDataException, InterruptedException {
             while (!complete) {
@@ -228,26 +401,40 @@ public class IOManager implements IIOManager {
         }
     }
 
-    private class AsyncReadRequest extends AsyncRequest {
-        private AsyncReadRequest(FileHandle fHandle, long offset, ByteBuffer data) {
-            super(fHandle, offset, data);
-        }
-
-        @Override
-        protected int performOperation() throws HyracksDataException {
-            return syncRead(fHandle, offset, data);
+    @Override
+    public void close(IFileHandle fHandle) throws HyracksDataException {
+        try {
+            ((FileHandle) fHandle).close();
+        } catch (IOException e) {
+            throw new HyracksDataException(e);
         }
     }
 
-    private class AsyncWriteRequest extends AsyncRequest {
-        private AsyncWriteRequest(FileHandle fHandle, long offset, ByteBuffer data) {
-            super(fHandle, offset, data);
+    /**
+     * Creates a workspace file on the least loaded work area device, or striped over all of them, least loaded
+     * first, if a workspace stripe size was given.
+     */
+    public FileReference createWorkspaceFile(String prefix) throws HyracksDataException {
+        if (workspaceStripeSize <= 0 || workAreaIODevices.size() == 1) {
+            return createWorkspaceFile(workspacePlacement.nextDevice(), prefix);
         }
+        List<IODeviceHandle> devices = workspacePlacement.rankDevices();
+        FileReference[] stripes = new FileReference[devices.size()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = createWorkspaceFile(devices.get(i), prefix);
+        }
+        return new FileReference(stripes, workspaceStripeSize);
+    }
 
-        @Override
-        protected int performOperation() throws HyracksDataException {
-            return syncWrite(fHandle, offset, data);
+    private static FileReference createWorkspaceFile(IODeviceHandle dev, String prefix) throws HyracksDataException {
+        String waPath = dev.getWorkAreaPath();
+        File waf;
+        try {
+            waf = File.createTempFile(prefix, WORKSPACE_FILE_SUFFIX, new File(dev.getPath(), waPath));
+        } catch (IOException e) {
+            throw new HyracksDataException(e);
         }
+        return dev.createFileReference(waPath + File.separator + waf.getName());
     }
 
     @Override
@@ -261,6 +448,9 @@ public class IOManager implements IIOManager {
 
     @Override
     public long getSize(IFileHandle fileHandle) {
+        if (fileHandle instanceof StripedFileHandle) {
+            return ((StripedFileHandle) fileHandle).getSize();
+        }
         return ((FileHandle) fileHandle).getFileReference().getFile().length();
     }
 
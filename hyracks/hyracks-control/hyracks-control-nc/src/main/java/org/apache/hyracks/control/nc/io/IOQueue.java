@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.nc.io;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IIOCallback;
+import org.apache.hyracks.api.io.IIOFuture;
+
+/**
+ * Submission queue of one I/O device. A small pool of I/O threads takes the queued requests in
+ * batches. Within a batch, reads are sorted by file and offset, and reads of adjacent ranges of the
+ * same file are serviced by a single read into a staging buffer, which is then copied out. No
+ * order is guaranteed between requests that are outstanding at the same time.
+ * The I/O threads run until the queue is stopped.
+ */
+class IOQueue {
+    private static final Logger LOGGER = Logger.getLogger(IOQueue.class.getName());
+
+    static final int MAX_BATCH_SIZE = 64;
+    static final int MAX_COALESCED_READ_SIZE = 256 * 1024;
+
+    private static final Comparator<IORequest> READ_ORDER = new Comparator<IORequest>() {
+        @Override
+        public int compare(IORequest r1, IORequest r2) {
+            int h1 = System.identityHashCode(r1.fHandle);
+            int h2 = System.identityHashCode(r2.fHandle);
+            if (h1 != h2) {
+                return h1 < h2 ? -1 : 1;
+            }
+            return Long.compare(r1.offset, r2.offset);
+        }
+    };
+
+    // queued once per I/O thread to make it exit
+    private static final IORequest STOP = new IORequest(null, 0, ByteBuffer.allocate(0), false, null);
+
+    private final IOManager ioManager;
+    private final String name;
+    private final int nThreads;
+    private final LinkedBlockingQueue<IORequest> queue;
+    // the load of the device, which counts the requests from submission to completion; null for the default queue
+    private final WorkspacePlacement.DeviceLoad load;
+    private final List<Thread> threads;
+    private volatile boolean started;
+    private volatile boolean stopped;
+
+    IOQueue(IOManager ioManager, String name, int nThreads, WorkspacePlacement.DeviceLoad load) {
+        this.ioManager = ioManager;
+        this.name = name;
+        this.nThreads = nThreads;
+        this.load = load;
+        queue = new LinkedBlockingQueue<IORequest>();
+        threads = new ArrayList<Thread>(nThreads);
+    }
+
+    IIOFuture submit(IORequest req) {
+        if (!started) {
+            start();
+        }
+        if (load != null) {
+            load.started(req.length);
+        }
+        boolean queued;
+        // not the lock of stop(), which is held while the I/O threads, and their completion callbacks, finish
+        synchronized (queue) {
+            queued = !stopped;
+            if (queued) {
+                queue.add(req);
+            }
+        }
+        if (!queued) {
+            complete(req, -1, new HyracksDataException("I/O queue " + name + " is stopped"));
+        }
+        return req;
+    }
+
+    private void complete(IORequest req, int result, HyracksDataException exception) {
+        if (load != null) {
+            load.completed(req.length);
+        }
+        req.complete(result, exception);
+    }
+
+    private synchronized void start() {
+        if (started || stopped) {
+            return;
+        }
+        for (int i = 0; i < nThreads; ++i) {
+            Thread t = new Thread(new Worker(), "IOQueue[" + name + "]-" + i);
+            t.setDaemon(true);
+            t.start();
+            threads.add(t);
+        }
+        started = true;
+    }
+
+    /**
+     * Lets the I/O threads finish the requests queued so far and waits for them to exit. Requests submitted
+     * afterwards fail.
+     */
+    synchronized void stop() throws InterruptedException {
+        synchronized (queue) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            for (int i = 0; i < threads.size(); ++i) {
+                queue.add(STOP);
+            }
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        threads.clear();
+        failQueued();
+    }
+
+    private void failQueued() {
+        IORequest req;
+        while ((req = queue.poll()) != null) {
+            if (req != STOP) {
+                complete(req, -1, new HyracksDataException("I/O queue " + name + " is stopped"));
+            }
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final List<IORequest> batch = new ArrayList<IORequest>(MAX_BATCH_SIZE);
+        private final List<IORequest> reads = new ArrayList<IORequest>(MAX_BATCH_SIZE);
+        private ByteBuffer staging;
+
+        @Override
+        public void run() {
+            boolean exit = false;
+            while (!exit) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    // only stop() ends the thread, so that no queued request is left behind
+                    continue;
+                }
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                int stops = 0;
+                for (int i = batch.size() - 1; i >= 0; --i) {
+                    if (batch.get(i) == STOP) {
+                        batch.remove(i);
+                        ++stops;
+                    }
+                }
+                try {
+                    process();
+                } finally {
+                    batch.clear();
+                    reads.clear();
+                }
+                if (stops > 0) {
+                    // leave the other stops to the other threads
+                    for (int i = 1; i < stops; ++i) {
+                        queue.add(STOP);
+                    }
+                    exit = true;
+                }
+            }
+        }
+
+        private void process() {
+            for (IORequest req : batch) {
+                if (req.read) {
+                    reads.add(req);
+                } else {
+                    perform(req);
+                }
+            }
+            if (reads.size() == 1) {
+                perform(reads.get(0));
+                return;
+            }
+            Collections.sort(reads, READ_ORDER);
+            int start = 0;
+            while (start < reads.size()) {
+                IORequest first = reads.get(start);
+                long end = first.offset + first.data.remaining();
+                int next = start + 1;
+                while (next < reads.size()) {
+                    IORequest req = reads.get(next);
+                    if (req.fHandle != first.fHandle || req.offset != end
+                            || end + req.data.remaining() - first.offset > MAX_COALESCED_READ_SIZE) {
+                        break;
+                    }
+                    end += req.data.remaining();
+                    ++next;
+                }
+                if (next - start == 1) {
+                    perform(first);
+                } else {
+                    performCoalesced(start, next, (int) (end - first.offset));
+                }
+                start = next;
+            }
+        }
+
+        private void perform(IORequest req) {
+            int result = -1;
+            HyracksDataException error = null;
+            try {
+                result = req.read ? ioManager.read(req.fHandle, req.offset, req.data, false) : ioManager.write(
+                        req.fHandle, req.offset, req.data, false);
+            } catch (HyracksDataException e) {
+                error = e;
+            } catch (RuntimeException e) {
+                error = new HyracksDataException(e);
+            }
+            complete(req, result, error);
+        }
+
+        private void performCoalesced(int start, int end, int length) {
+            if (staging == null) {
+                staging = ByteBuffer.allocateDirect(MAX_COALESCED_READ_SIZE);
+            }
+            staging.clear();
+            staging.limit(length);
+            IORequest first = reads.get(start);
+            int nRead = -1;
+            HyracksDataException error = null;
+            try {
+                nRead = ioManager.read(first.fHandle, first.offset, staging, false);
+            } catch (HyracksDataException e) {
+                error = e;
+            } catch (RuntimeException e) {
+                error = new HyracksDataException(e);
+            }
+            for (int i = start; i < end; ++i) {
+                IORequest req = reads.get(i);
+                if (error != null) {
+                    complete(req, -1, error);
+                    continue;
+                }
+                // same result as a separate syncRead of the request's range
+                int relOffset = (int) (req.offset - first.offset);
+                int len = req.data.remaining();
+                int available = Math.min(len, Math.max(0, nRead - relOffset));
+                if (available > 0) {
+                    staging.limit(relOffset + available);
+                    staging.position(relOffset);
+                    req.data.put(staging);
+                }
+                complete(req, available == 0 && len > 0 ? -1 : available, null);
+            }
+        }
+    }
+
+    static class IORequest implements IIOFuture {
+        private final FileHandle fHandle;
+        private final long offset;
+        private final ByteBuffer data;
+        private final int length;
+        private final boolean read;
+        private final IIOCallback callback;
+        private boolean complete;
+        private HyracksDataException exception;
+        private int result;
+
+        IORequest(FileHandle fHandle, long offset, ByteBuffer data, boolean read, IIOCallback callback) {
+            this.fHandle = fHandle;
+            this.offset = offset;
+            this.data = data;
+            this.length = data.remaining();
+            this.read = read;
+            this.callback = callback;
+        }
+
+        private void complete(int result, HyracksDataException exception) {
+            synchronized (this) {
+                this.result = result;
+                this.exception = exception;
+                complete = true;
+                notifyAll();
+            }
+            if (callback != null) {
+                try {
+                    callback.completed(this);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "I/O completion callback failed", e);
+                }
+            }
+        }
+
+        @Override
+        public synchronized int synchronize() throws HyracksDataException, InterruptedException {
+            while (!complete) {
+                wait();
+            }
+            if (exception != null) {
+                throw exception;
+            }
+            return result;
+        }
+
+        @Override
+        public synchronized boolean isComplete() {
+            return complete;
+        }
+
+        FileHandle getFileHandle() {
+            return fHandle;
+        }
+
+        int getLength() {
+            return length;
+        }
+
+        synchronized int getResult() {
+            return result;
+        }
+
+        synchronized HyracksDataException getException() {
+            return exception;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.nc.io;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IIOManager;
+
+/**
+ * Handle of a file that is striped over several files, see {@link FileReference#isStriped()}. The stripes are opened,
+ * synced and closed together, and {@link IOManager} splits every read or write at the unit boundaries.
+ */
+class StripedFileHandle extends FileHandle {
+    private final FileHandle[] stripes;
+
+    private final int stripeSize;
+
+    StripedFileHandle(FileReference fileRef) {
+        super(fileRef);
+        FileReference[] stripeRefs = fileRef.getStripes();
+        stripes = new FileHandle[stripeRefs.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new FileHandle(stripeRefs[i]);
+        }
+        stripeSize = fileRef.getStripeSize();
+    }
+
+    @Override
+    public void open(IIOManager.FileReadWriteMode rwMode, IIOManager.FileSyncMode syncMode) throws IOException {
+        for (int i = 0; i < stripes.length; i++) {
+            try {
+                stripes[i].open(rwMode, syncMode);
+            } catch (IOException e) {
+                for (int j = 0; j < i; j++) {
+                    try {
+                        stripes[j].close();
+                    } catch (IOException ce) {
+                        e.addSuppressed(ce);
+                    }
+                }
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException error = null;
+        for (FileHandle stripe : stripes) {
+            try {
+                stripe.close();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                } else {
+                    error.addSuppressed(e);
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    @Override
+    public void sync(boolean metadata) throws IOException {
+        for (FileHandle stripe : stripes) {
+            stripe.sync(metadata);
+        }
+    }
+
+    @Override
+    public RandomAccessFile getRandomAccessFile() {
+        throw new UnsupportedOperationException("A striped file has no single underlying file");
+    }
+
+    @Override
+    public FileChannel getFileChannel() {
+        throw new UnsupportedOperationException("A striped file has no single underlying file");
+    }
+
+    /**
+     * @return the stripe that holds the byte at the given offset of the file.
+     */
+    FileHandle getStripe(long offset) {
+        return stripes[(int) ((offset / stripeSize) % stripes.length)];
+    }
+
+    /**
+     * @return the offset in its stripe of the byte at the given offset of the file.
+     */
+    long getStripeOffset(long offset) {
+        return offset / stripeSize / stripes.length * stripeSize + offset % stripeSize;
+    }
+
+    /**
+     * @return how many of the given bytes from the given offset of the file lie in the same stripe.
+     */
+    int getStripeLength(long offset, int length) {
+        return (int) Math.min(length, stripeSize - offset % stripeSize);
+    }
+
+    long getSize() {
+        long size = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            long length = stripes[i].getFileReference().getFile().length();
+            if (length > 0) {
+                // the offset in the file just past the last byte of the stripe
+                long last = length - 1;
+                size = Math.max(size, (last / stripeSize * stripes.length + i) * stripeSize + last % stripeSize + 1);
+            }
+        }
+        return size;
+    }
+}
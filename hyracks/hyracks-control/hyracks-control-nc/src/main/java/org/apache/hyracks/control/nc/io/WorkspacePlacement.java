@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.nc.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hyracks.api.io.IODeviceHandle;
+
+/**
+ * Chooses the work area devices of new workspace files. It keeps the number and the bytes of the I/O requests
+ * outstanding on every device, and ranks the work area devices by free space, then by number of outstanding requests,
+ * then by outstanding bytes. Devices with less than {@link #MIN_USABLE_SPACE} free bytes come last. Ties are broken
+ * round-robin, so idle devices are still used in turn.
+ */
+class WorkspacePlacement {
+    static final long MIN_USABLE_SPACE = 1L << 30;
+
+    private static final long USABLE_SPACE_CHECK_INTERVAL = 1000;
+
+    private final Map<IODeviceHandle, DeviceLoad> loads;
+    private final List<DeviceLoad> workAreaLoads;
+    private final AtomicInteger nextIndex;
+
+    WorkspacePlacement(List<IODeviceHandle> devices, List<IODeviceHandle> workAreaDevices) {
+        loads = new HashMap<IODeviceHandle, DeviceLoad>();
+        for (IODeviceHandle d : devices) {
+            loads.put(d, new DeviceLoad(d));
+        }
+        workAreaLoads = new ArrayList<DeviceLoad>();
+        for (IODeviceHandle d : workAreaDevices) {
+            workAreaLoads.add(loads.get(d));
+        }
+        nextIndex = new AtomicInteger();
+    }
+
+    /**
+     * @return the load of the device, or null if the device is not one of the devices of the node.
+     */
+    DeviceLoad getLoad(IODeviceHandle device) {
+        return device == null ? null : loads.get(device);
+    }
+
+    IODeviceHandle nextDevice() {
+        int n = workAreaLoads.size();
+        int start = Math.floorMod(nextIndex.getAndIncrement(), n);
+        DeviceLoad best = workAreaLoads.get(start);
+        Snapshot bestSnapshot = new Snapshot(best);
+        for (int i = 1; i < n; i++) {
+            DeviceLoad load = workAreaLoads.get((start + i) % n);
+            Snapshot snapshot = new Snapshot(load);
+            if (Snapshot.ORDER.compare(snapshot, bestSnapshot) < 0) {
+                best = load;
+                bestSnapshot = snapshot;
+            }
+        }
+        return best.device;
+    }
+
+    /**
+     * @return all the work area devices, the least loaded first.
+     */
+    List<IODeviceHandle> rankDevices() {
+        int n = workAreaLoads.size();
+        int start = Math.floorMod(nextIndex.getAndIncrement(), n);
+        List<Snapshot> snapshots = new ArrayList<Snapshot>(n);
+        for (int i = 0; i < n; i++) {
+            snapshots.add(new Snapshot(workAreaLoads.get((start + i) % n)));
+        }
+        Collections.sort(snapshots, Snapshot.ORDER);
+        List<IODeviceHandle> devices = new ArrayList<IODeviceHandle>(n);
+        for (Snapshot snapshot : snapshots) {
+            devices.add(snapshot.device);
+        }
+        return devices;
+    }
+
+    static class DeviceLoad {
+        private final IODeviceHandle device;
+        private final AtomicInteger queueDepth = new AtomicInteger();
+        private final AtomicLong outstandingBytes = new AtomicLong();
+        private volatile long usableSpace;
+        private volatile long usableSpaceTime;
+
+        private DeviceLoad(IODeviceHandle device) {
+            this.device = device;
+            usableSpaceTime = System.currentTimeMillis() - USABLE_SPACE_CHECK_INTERVAL;
+        }
+
+        void started(int bytes) {
+            queueDepth.incrementAndGet();
+            outstandingBytes.addAndGet(bytes);
+        }
+
+        void completed(int bytes) {
+            queueDepth.decrementAndGet();
+            outstandingBytes.addAndGet(-bytes);
+        }
+
+        int getQueueDepth() {
+            return queueDepth.get();
+        }
+
+        long getOutstandingBytes() {
+            return outstandingBytes.get();
+        }
+
+        long getUsableSpace() {
+            long now = System.currentTimeMillis();
+            if (now - usableSpaceTime >= USABLE_SPACE_CHECK_INTERVAL) {
+                usableSpace = device.getPath().getUsableSpace();
+                usableSpaceTime = now;
+            }
+            return usableSpace;
+        }
+    }
+
+    // the load of a device at one point in time, so that comparisons are consistent while the load changes
+    private static class Snapshot {
+        private static final Comparator<Snapshot> ORDER = new Comparator<Snapshot>() {
+            @Override
+            public int compare(Snapshot s1, Snapshot s2) {
+                if (s1.hasSpace != s2.hasSpace) {
+                    return s1.hasSpace ? -1 : 1;
+                }
+                if (s1.queueDepth != s2.queueDepth) {
+                    return s1.queueDepth < s2.queueDepth ? -1 : 1;
+                }
+                return Long.compare(s1.outstandingBytes, s2.outstandingBytes);
+            }
+        };
+
+        private final IODeviceHandle device;
+        private final boolean hasSpace;
+        private final int queueDepth;
+        private final long outstandingBytes;
+
+        private Snapshot(DeviceLoad load) {
+            device = load.device;
+            hasSpace = load.getUsableSpace() >= MIN_USABLE_SPACE;
+            queueDepth = load.getQueueDepth();
+            outstandingBytes = load.getOutstandingBytes();
+        }
+    }
+}
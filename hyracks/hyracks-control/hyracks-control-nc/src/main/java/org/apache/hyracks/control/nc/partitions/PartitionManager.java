@@ -25,11 +25,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.TaskAttemptId;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.HyracksException;
 import org.apache.hyracks.api.io.IWorkspaceFileFactory;
 import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.profiling.counters.ICounterContext;
 import org.apache.hyracks.api.partitions.IPartition;
 import org.apache.hyracks.api.partitions.PartitionId;
 import org.apache.hyracks.comm.channels.NetworkOutputChannel;
@@ -38,6 +40,7 @@ import org.apache.hyracks.control.common.job.PartitionState;
 import org.apache.hyracks.control.nc.NodeControllerService;
 import org.apache.hyracks.control.nc.io.IOManager;
 import org.apache.hyracks.control.nc.io.WorkspaceFileFactory;
+import org.apache.hyracks.control.nc.profiling.ConnectorSenderProfilingFrameWriter;
 import org.apache.hyracks.control.nc.resources.DefaultDeallocatableRegistry;
 
 public class PartitionManager {
@@ -68,7 +71,7 @@ public class PartitionManager {
              */
             NetworkOutputChannel writer = partitionRequests.remove(pid);
             if (writer != null) {
-                writer.setFrameSize(partition.getTaskContext().getInitialFrameSize());
+                setupWriter(pid, partition, writer);
                 partition.writeTo(writer);
                 if (!partition.isReusable()) {
                     return;
@@ -120,7 +123,7 @@ public class PartitionManager {
             List<IPartition> pList = availablePartitionMap.get(partitionId);
             if (pList != null && !pList.isEmpty()) {
                 IPartition partition = pList.get(0);
-                writer.setFrameSize(partition.getTaskContext().getInitialFrameSize());
+                setupWriter(partitionId, partition, writer);
                 partition.writeTo(writer);
                 if (!partition.isReusable()) {
                     availablePartitionMap.remove(partitionId);
@@ -134,6 +137,21 @@ public class PartitionManager {
         }
     }
 
+    private static void setupWriter(PartitionId pid, IPartition partition, NetworkOutputChannel writer) {
+        IHyracksTaskContext ctx = partition.getTaskContext();
+        writer.setFrameSize(ctx.getInitialFrameSize());
+        if (writer.isCompressingFrames()) {
+            String prefix = ConnectorSenderProfilingFrameWriter.getCounterPrefix(ctx,
+                    pid.getConnectorDescriptorId(), pid.getSenderIndex(), pid.getReceiverIndex());
+            ICounterContext counterContext = ctx.getCounterContext();
+            writer.setCompressionCounters(
+                    counterContext.getCounter(prefix + ConnectorSenderProfilingFrameWriter.RAW_BYTES_COUNTER, true),
+                    counterContext.getCounter(prefix + ConnectorSenderProfilingFrameWriter.SENT_BYTES_COUNTER, true),
+                    counterContext.getCounter(prefix + ConnectorSenderProfilingFrameWriter.COMPRESS_TIME_COUNTER,
+                            true));
+        }
+    }
+
     public IWorkspaceFileFactory getFileFactory() {
         return fileFactory;
     }
@@ -27,6 +27,10 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.job.profiling.counters.ICounter;
 
 public class ConnectorSenderProfilingFrameWriter implements IFrameWriter {
+    public static final String RAW_BYTES_COUNTER = ".rawBytes";
+    public static final String SENT_BYTES_COUNTER = ".sentBytes";
+    public static final String COMPRESS_TIME_COUNTER = ".compressNanos";
+
     private final IFrameWriter writer;
     private final ICounter openCounter;
     private final ICounter closeCounter;
@@ -35,13 +39,22 @@ public class ConnectorSenderProfilingFrameWriter implements IFrameWriter {
     public ConnectorSenderProfilingFrameWriter(IHyracksTaskContext ctx, IFrameWriter writer, ConnectorDescriptorId cdId,
             int senderIndex, int receiverIndex) {
         this.writer = writer;
+        String prefix = getCounterPrefix(ctx, cdId, senderIndex, receiverIndex);
+        this.openCounter = ctx.getCounterContext().getCounter(prefix + ".open", true);
+        this.closeCounter = ctx.getCounterContext().getCounter(prefix + ".close", true);
+        this.frameCounter = ctx.getCounterContext().getCounter(prefix + ".nextFrame", true);
+    }
+
+    /**
+     * Gets the prefix of the names of the counters of one sender-receiver pair of a connector. Besides the
+     * counters of this writer, the network channel of a pair that compresses its frames reports the bytes it was
+     * given ({@link #RAW_BYTES_COUNTER}), the bytes it sent for them ({@link #SENT_BYTES_COUNTER}) and the time it
+     * spent compressing ({@link #COMPRESS_TIME_COUNTER}) under this prefix.
+     */
+    public static String getCounterPrefix(IHyracksTaskContext ctx, ConnectorDescriptorId cdId, int senderIndex,
+            int receiverIndex) {
         int attempt = ctx.getTaskAttemptId().getAttempt();
-        this.openCounter = ctx.getCounterContext()
-                .getCounter(cdId + ".sender." + attempt + "." + senderIndex + "." + receiverIndex + ".open", true);
-        this.closeCounter = ctx.getCounterContext()
-                .getCounter(cdId + ".sender." + attempt + "." + senderIndex + "." + receiverIndex + ".close", true);
-        this.frameCounter = ctx.getCounterContext()
-                .getCounter(cdId + ".sender." + attempt + "." + senderIndex + "." + receiverIndex + ".nextFrame", true);
+        return cdId + ".sender." + attempt + "." + senderIndex + "." + receiverIndex;
     }
 
     @Override
@@ -22,6 +22,7 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
@@ -47,10 +48,12 @@ import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.deployment.DeploymentId;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.HyracksException;
 import org.apache.hyracks.api.job.ActivityCluster;
 import org.apache.hyracks.api.job.ActivityClusterGraph;
 import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.PreparedJobId;
 import org.apache.hyracks.api.partitions.PartitionId;
 import org.apache.hyracks.comm.channels.NetworkInputChannel;
 import org.apache.hyracks.control.common.deployment.DeploymentUtils;
@@ -83,9 +86,14 @@ public class StartTasksWork extends AbstractWork {
 
     private final EnumSet<JobFlag> flags;
 
+    private final PreparedJobId preparedJobId;
+
+    private final Map<String, byte[]> jobParameters;
+
     public StartTasksWork(NodeControllerService ncs, DeploymentId deploymentId, JobId jobId, byte[] acgBytes,
             List<TaskAttemptDescriptor> taskDescriptors,
-            Map<ConnectorDescriptorId, IConnectorPolicy> connectorPoliciesMap, EnumSet<JobFlag> flags) {
+            Map<ConnectorDescriptorId, IConnectorPolicy> connectorPoliciesMap, EnumSet<JobFlag> flags,
+            PreparedJobId preparedJobId, Map<String, byte[]> jobParameters) {
         this.ncs = ncs;
         this.deploymentId = deploymentId;
         this.jobId = jobId;
@@ -93,13 +101,22 @@ public class StartTasksWork extends AbstractWork {
         this.taskDescriptors = taskDescriptors;
         this.connectorPoliciesMap = connectorPoliciesMap;
         this.flags = flags;
+        this.preparedJobId = preparedJobId;
+        this.jobParameters = jobParameters;
     }
 
     @Override
     public void run() {
         try {
             NCApplicationContext appCtx = ncs.getApplicationContext();
-            final Joblet joblet = getOrCreateLocalJoblet(deploymentId, jobId, appCtx, acgBytes);
+            final Joblet joblet;
+            try {
+                joblet = getOrCreateLocalJoblet(deploymentId, jobId, appCtx, acgBytes);
+            } catch (HyracksException e) {
+                // the cluster controller retries failed tasks, and sends the graph to nodes that failed to load it
+                notifyTaskFailures(e);
+                return;
+            }
             final ActivityClusterGraph acg = joblet.getActivityClusterGraph();
 
             IRecordDescriptorProvider rdp = new IRecordDescriptorProvider() {
@@ -130,7 +147,7 @@ public class StartTasksWork extends AbstractWork {
                 final int partition = tid.getPartition();
                 List<IConnectorDescriptor> inputs = ac.getActivityInputMap().get(aid);
                 Task task = new Task(joblet, taId, han.getClass().getName(), ncs.getExecutorService(), ncs,
-                        createInputChannels(td, inputs));
+                        createInputChannels(td, inputs, joblet.getActivityClusterGraph().isCompressNetworkFrames()));
                 IOperatorNodePushable operator = han.createPushRuntime(task, rdp, partition, td.getPartitionCount());
 
                 List<IPartitionCollector> collectors = new ArrayList<IPartitionCollector>();
@@ -183,17 +200,37 @@ public class StartTasksWork extends AbstractWork {
         Map<JobId, Joblet> jobletMap = ncs.getJobletMap();
         Joblet ji = jobletMap.get(jobId);
         if (ji == null) {
-            if (acgBytes == null) {
-                throw new NullPointerException("JobActivityGraph was null");
+            ActivityClusterGraph acg;
+            if (acgBytes != null) {
+                acg = (ActivityClusterGraph) DeploymentUtils.deserialize(acgBytes, deploymentId, appCtx);
+                if (preparedJobId != null) {
+                    ncs.getPreparedJobMap().put(preparedJobId, acg);
+                }
+            } else {
+                // the graph of a prepared job is only sent with the first run this node takes part in
+                acg = preparedJobId == null ? null : ncs.getPreparedJobMap().get(preparedJobId);
             }
-            ActivityClusterGraph acg = (ActivityClusterGraph) DeploymentUtils.deserialize(acgBytes, deploymentId,
-                    appCtx);
-            ji = new Joblet(ncs, deploymentId, jobId, appCtx, acg);
+            if (acg == null) {
+                throw new HyracksException(preparedJobId == null ? "JobActivityGraph was null for job " + jobId
+                        : "Prepared job " + preparedJobId + " is not cached on node " + ncs.getId());
+            }
+            ji = new Joblet(ncs, deploymentId, jobId, appCtx, acg, jobParameters);
             jobletMap.put(jobId, ji);
         }
         return ji;
     }
 
+    private void notifyTaskFailures(Exception e) {
+        List<Exception> exceptions = Collections.singletonList(e);
+        for (TaskAttemptDescriptor td : taskDescriptors) {
+            try {
+                ncs.getClusterController().notifyTaskFailure(jobId, td.getTaskAttemptId(), ncs.getId(), exceptions);
+            } catch (Exception ce) {
+                ce.printStackTrace();
+            }
+        }
+    }
+
     private IPartitionCollector createPartitionCollector(TaskAttemptDescriptor td, final int partition, Task task,
             int i, IConnectorDescriptor conn, RecordDescriptor recordDesc, IConnectorPolicy cPolicy)
             throws HyracksDataException {
@@ -251,11 +288,13 @@ public class StartTasksWork extends AbstractWork {
      *            the task attempt id
      * @param inputs
      *            the input connector descriptors
+     * @param compressFrames
+     *            whether the frames are sent compressed
      * @return a list of known channels, one for each connector
      * @throws UnknownHostException
      */
-    private List<List<PartitionChannel>> createInputChannels(TaskAttemptDescriptor td, List<IConnectorDescriptor> inputs)
-            throws UnknownHostException {
+    private List<List<PartitionChannel>> createInputChannels(TaskAttemptDescriptor td, List<IConnectorDescriptor> inputs,
+            boolean compressFrames) throws UnknownHostException {
         NetworkAddress[][] inputAddresses = td.getInputPartitionLocations();
         List<List<PartitionChannel>> channelsForInputConnectors = new ArrayList<List<PartitionChannel>>();
         if (inputAddresses != null) {
@@ -268,7 +307,7 @@ public class StartTasksWork extends AbstractWork {
                                 .getTaskAttemptId().getTaskId().getPartition());
                         PartitionChannel channel = new PartitionChannel(pid, new NetworkInputChannel(
                                 ncs.getNetworkManager(), new InetSocketAddress(InetAddress.getByAddress(networkAddress
-                                        .lookupIpAddress()), networkAddress.getPort()), pid, 5));
+                                        .lookupIpAddress()), networkAddress.getPort()), pid, 5, compressFrames));
                         channels.add(channel);
                     }
                 }
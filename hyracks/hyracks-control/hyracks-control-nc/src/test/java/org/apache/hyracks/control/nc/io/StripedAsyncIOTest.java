@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.nc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IFileHandle;
+import org.apache.hyracks.api.io.IIOCallback;
+import org.apache.hyracks.api.io.IIOFuture;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StripedAsyncIOTest {
+    private static final int STRIPE_SIZE = 1000;
+    private static final int LENGTH = 10 * STRIPE_SIZE + 123;
+
+    private File root;
+    private List<IODeviceHandle> devices;
+    private IOManager ioManager;
+
+    @Before
+    public void setUp() throws Exception {
+        root = new File(System.getProperty("java.io.tmpdir"), "StripedAsyncIOTest");
+        delete(root);
+        devices = new ArrayList<IODeviceHandle>();
+        for (int i = 0; i < 2; i++) {
+            File path = new File(root, "device" + i);
+            path.mkdirs();
+            devices.add(new IODeviceHandle(path, "."));
+        }
+        // one I/O thread per device, so that a blocked completion callback holds up the queue of its device
+        ioManager = new IOManager(devices, 1, STRIPE_SIZE);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ioManager.stop();
+        delete(root);
+    }
+
+    @Test
+    public void piecesAreQueuedAndCountedPerDevice() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(devices.size());
+        final CountDownLatch release = new CountDownLatch(1);
+        List<IFileHandle> blockerHandles = new ArrayList<IFileHandle>();
+        for (int i = 0; i < devices.size(); i++) {
+            IFileHandle blocker = ioManager.open(ioManager.getAbsoluteFileRef(i, "blocker"),
+                    IIOManager.FileReadWriteMode.READ_WRITE, IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
+            blockerHandles.add(blocker);
+            ioManager.asyncWrite(blocker, 0, ByteBuffer.allocate(1), new IIOCallback() {
+                @Override
+                public void completed(IIOFuture future) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+
+        blocked.await();
+
+        FileReference file = ioManager.createWorkspaceFile("striped");
+        assertTrue(file.isStriped());
+        IFileHandle fHandle = ioManager.open(file, IIOManager.FileReadWriteMode.READ_WRITE,
+                IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
+        ByteBuffer data = ByteBuffer.allocate(LENGTH);
+        for (int i = 0; i < LENGTH; i++) {
+            data.put((byte) i);
+        }
+        data.flip();
+        IIOFuture write = ioManager.asyncWrite(fHandle, 0, data);
+        // 11 stripe units, alternating between the two devices
+        WorkspacePlacement placement = ioManager.getWorkspacePlacement();
+        int[] queued = new int[devices.size()];
+        long[] bytes = new long[devices.size()];
+        for (FileReference stripe : file.getStripes()) {
+            int i = devices.indexOf(stripe.getDeviceHandle());
+            queued[i] = placement.getLoad(devices.get(i)).getQueueDepth();
+            bytes[i] = placement.getLoad(devices.get(i)).getOutstandingBytes();
+        }
+        release.countDown();
+        assertEquals(LENGTH, write.synchronize());
+        assertEquals(LENGTH, data.position());
+        int firstStripe = devices.indexOf(file.getStripes()[0].getDeviceHandle());
+        assertEquals(6, queued[firstStripe]);
+        assertEquals(5, queued[1 - firstStripe]);
+        assertEquals(5 * STRIPE_SIZE + 123, bytes[firstStripe]);
+        assertEquals(5 * STRIPE_SIZE, bytes[1 - firstStripe]);
+        for (IODeviceHandle device : devices) {
+            assertEquals(0, placement.getLoad(device).getQueueDepth());
+            assertEquals(0, placement.getLoad(device).getOutstandingBytes());
+        }
+
+        // a read across the units, past the end of the file
+        ByteBuffer readBuffer = ByteBuffer.allocate(3 * STRIPE_SIZE);
+        int offset = 8 * STRIPE_SIZE + 500;
+        assertEquals(LENGTH - offset, ioManager.asyncRead(fHandle, offset, readBuffer).synchronize());
+        assertEquals(LENGTH - offset, readBuffer.position());
+        for (int i = 0; i < LENGTH - offset; i++) {
+            assertEquals((byte) (offset + i), readBuffer.get(i));
+        }
+        readBuffer.clear();
+        assertEquals(-1, ioManager.asyncRead(fHandle, LENGTH, readBuffer).synchronize());
+
+        ioManager.close(fHandle);
+        for (IFileHandle blocker : blockerHandles) {
+            ioManager.close(blocker);
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
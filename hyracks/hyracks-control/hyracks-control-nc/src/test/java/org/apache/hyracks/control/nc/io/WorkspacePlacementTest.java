@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.nc.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.junit.Test;
+
+public class WorkspacePlacementTest {
+    private static final long PLENTY = WorkspacePlacement.MIN_USABLE_SPACE * 10;
+    private static final long LOW = WorkspacePlacement.MIN_USABLE_SPACE / 2;
+
+    // a device path that reports the given usable space instead of asking the file system
+    private static class DevicePath extends File {
+        private static final long serialVersionUID = 1L;
+
+        private final long usableSpace;
+
+        DevicePath(String name, long usableSpace) {
+            super(new File(System.getProperty("java.io.tmpdir")), name);
+            this.usableSpace = usableSpace;
+        }
+
+        @Override
+        public long getUsableSpace() {
+            return usableSpace;
+        }
+    }
+
+    private static List<IODeviceHandle> createDevices(long... usableSpaces) {
+        List<IODeviceHandle> devices = new ArrayList<IODeviceHandle>();
+        for (int i = 0; i < usableSpaces.length; i++) {
+            devices.add(new IODeviceHandle(new DevicePath("device" + i, usableSpaces[i]), "wa"));
+        }
+        return devices;
+    }
+
+    @Test
+    public void nextDeviceChoosesLeastLoaded() {
+        List<IODeviceHandle> devices = createDevices(PLENTY, PLENTY, PLENTY);
+        WorkspacePlacement placement = new WorkspacePlacement(devices, devices);
+        placement.getLoad(devices.get(0)).started(4096);
+        placement.getLoad(devices.get(0)).started(4096);
+        placement.getLoad(devices.get(1)).started(4096);
+        for (int i = 0; i < devices.size(); i++) {
+            assertEquals(devices.get(2), placement.nextDevice());
+        }
+
+        // the same number of requests: the fewer outstanding bytes win
+        placement.getLoad(devices.get(1)).started(8192);
+        placement.getLoad(devices.get(2)).started(1 << 20);
+        placement.getLoad(devices.get(2)).started(4096);
+        for (int i = 0; i < devices.size(); i++) {
+            assertEquals(devices.get(0), placement.nextDevice());
+        }
+
+        // completed requests no longer count
+        placement.getLoad(devices.get(2)).completed(1 << 20);
+        placement.getLoad(devices.get(2)).completed(4096);
+        assertEquals(devices.get(2), placement.nextDevice());
+    }
+
+    @Test
+    public void lowSpaceDevicesRankLast() {
+        List<IODeviceHandle> devices = createDevices(LOW, PLENTY, PLENTY);
+        WorkspacePlacement placement = new WorkspacePlacement(devices, devices);
+        // the idle device is low on space, the others are busy
+        for (int i = 0; i < 3; i++) {
+            placement.getLoad(devices.get(1)).started(4096);
+            placement.getLoad(devices.get(2)).started(4096);
+        }
+        placement.getLoad(devices.get(2)).started(4096);
+        for (int i = 0; i < devices.size(); i++) {
+            assertFalse(devices.get(0).equals(placement.nextDevice()));
+            List<IODeviceHandle> ranked = placement.rankDevices();
+            assertEquals(devices.size(), ranked.size());
+            assertEquals(devices.get(1), ranked.get(0));
+            assertEquals(devices.get(2), ranked.get(1));
+            assertEquals(devices.get(0), ranked.get(2));
+        }
+    }
+
+    @Test
+    public void tiesAreBrokenRoundRobin() {
+        List<IODeviceHandle> devices = createDevices(PLENTY, PLENTY, PLENTY, PLENTY);
+        WorkspacePlacement placement = new WorkspacePlacement(devices, devices);
+        for (int round = 0; round < 2; round++) {
+            Set<IODeviceHandle> chosen = new HashSet<IODeviceHandle>();
+            for (int i = 0; i < devices.size(); i++) {
+                chosen.add(placement.nextDevice());
+            }
+            assertEquals(devices.size(), chosen.size());
+        }
+
+        Set<IODeviceHandle> firstRanked = new HashSet<IODeviceHandle>();
+        for (int i = 0; i < devices.size(); i++) {
+            List<IODeviceHandle> ranked = placement.rankDevices();
+            assertEquals(devices.size(), new HashSet<IODeviceHandle>(ranked).size());
+            firstRanked.add(ranked.get(0));
+        }
+        assertEquals(devices.size(), firstRanked.size());
+    }
+
+    @Test
+    public void onlyWorkAreaDevicesArePlaced() {
+        List<IODeviceHandle> devices = createDevices(PLENTY, PLENTY, PLENTY);
+        List<IODeviceHandle> workAreaDevices = devices.subList(1, 3);
+        WorkspacePlacement placement = new WorkspacePlacement(devices, workAreaDevices);
+        for (int i = 0; i < 4; i++) {
+            assertFalse(devices.get(0).equals(placement.nextDevice()));
+            assertEquals(workAreaDevices.size(), placement.rankDevices().size());
+        }
+    }
+}
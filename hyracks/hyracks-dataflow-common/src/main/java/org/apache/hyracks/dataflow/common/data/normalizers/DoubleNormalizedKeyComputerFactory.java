@@ -21,6 +21,7 @@ package org.apache.hyracks.dataflow.common.data.normalizers;
 import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputer;
 import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
 import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.primitive.LongPointable;
 import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
 
 public class DoubleNormalizedKeyComputerFactory implements INormalizedKeyComputerFactory {
@@ -41,7 +42,22 @@ public class DoubleNormalizedKeyComputerFactory implements INormalizedKeyCompute
                 }
             }
 
+            @Override
+            public void normalize(byte[] bytes, int start, int length, int[] keys, int keyStart) {
+                // flip the sign bit of positive values and all bits of negative ones
+                long bits = LongPointable.getLong(bytes, start);
+                bits ^= bits < 0 ? -1L : Long.MIN_VALUE;
+                keys[keyStart] = (int) (bits >>> 32);
+                keys[keyStart + 1] = (int) bits;
+            }
+
         };
     }
 
+    // Not decisive: the double comparators treat 0.0 and -0.0 (and all NaNs) as equal.
+    @Override
+    public int getNormalizedKeyLength() {
+        return 2;
+    }
+
 }
@@ -65,10 +65,27 @@ public class Integer64NormalizedKeyComputerFactory implements INormalizedKeyComp
                 }
             }
 
+            @Override
+            public void normalize(byte[] bytes, int start, int length, int[] keys, int keyStart) {
+                long value = LongPointable.getLong(bytes, start);
+                keys[keyStart] = getKey((int) (value >> 32));
+                keys[keyStart + 1] = (int) value;
+            }
+
             private int getKey(int value) {
                 return value ^ Integer.MIN_VALUE;
             }
 
         };
     }
+
+    @Override
+    public int getNormalizedKeyLength() {
+        return 2;
+    }
+
+    @Override
+    public boolean isDecisive() {
+        return true;
+    }
 }
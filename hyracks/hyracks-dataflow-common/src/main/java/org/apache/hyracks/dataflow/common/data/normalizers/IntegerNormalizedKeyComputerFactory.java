@@ -36,4 +36,9 @@ public class IntegerNormalizedKeyComputerFactory implements INormalizedKeyComput
             }
         };
     }
+
+    @Override
+    public boolean isDecisive() {
+        return true;
+    }
 }
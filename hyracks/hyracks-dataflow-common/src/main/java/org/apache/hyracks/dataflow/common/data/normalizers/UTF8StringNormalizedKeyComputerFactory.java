@@ -25,6 +25,23 @@ import org.apache.hyracks.util.string.UTF8StringUtil;
 public class UTF8StringNormalizedKeyComputerFactory implements INormalizedKeyComputerFactory {
     private static final long serialVersionUID = 1L;
 
+    // 16 bytes: the first 8 UTF-16 chars
+    public static final int DEFAULT_NORMALIZED_KEY_LENGTH = 4;
+
+    private final int normalizedKeyLength;
+
+    public UTF8StringNormalizedKeyComputerFactory() {
+        this(DEFAULT_NORMALIZED_KEY_LENGTH);
+    }
+
+    /**
+     * @param normalizedKeyLength
+     *            the number of ints of the normalized key, each holding two chars
+     */
+    public UTF8StringNormalizedKeyComputerFactory(int normalizedKeyLength) {
+        this.normalizedKeyLength = normalizedKeyLength;
+    }
+
     @Override
     public INormalizedKeyComputer createNormalizedKeyComputer() {
         return new INormalizedKeyComputer() {
@@ -32,6 +49,16 @@ public class UTF8StringNormalizedKeyComputerFactory implements INormalizedKeyCom
             public int normalize(byte[] bytes, int start, int length) {
                 return UTF8StringUtil.normalize(bytes, start);
             }
+
+            @Override
+            public void normalize(byte[] bytes, int start, int length, int[] keys, int keyStart) {
+                UTF8StringUtil.normalize(bytes, start, keys, keyStart, normalizedKeyLength);
+            }
         };
     }
+
+    @Override
+    public int getNormalizedKeyLength() {
+        return normalizedKeyLength;
+    }
 }
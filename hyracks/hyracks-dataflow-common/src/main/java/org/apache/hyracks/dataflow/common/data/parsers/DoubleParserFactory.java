@@ -20,6 +20,7 @@ package org.apache.hyracks.dataflow.common.data.parsers;
 
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 
@@ -33,10 +34,28 @@ public class DoubleParserFactory implements IValueParserFactory {
 
     @Override
     public IValueParser createValueParser() {
-        return new IValueParser() {
+        return new IUTF8ValueParser() {
+            @Override
+            public void parse(byte[] buffer, int start, int length, DataOutput out) throws HyracksDataException {
+                double value = parseSimpleDecimal(buffer, start, length);
+                if (value == value) {
+                    try {
+                        out.writeDouble(value);
+                    } catch (IOException e) {
+                        throw new HyracksDataException(e);
+                    }
+                    return;
+                }
+                // numbers are ASCII, so the bytes need no decoding
+                parse(new String(buffer, start, length, StandardCharsets.ISO_8859_1), out);
+            }
+
             @Override
             public void parse(char[] buffer, int start, int length, DataOutput out) throws HyracksDataException {
-                String s = String.valueOf(buffer, start, length);
+                parse(String.valueOf(buffer, start, length), out);
+            }
+
+            private void parse(String s, DataOutput out) throws HyracksDataException {
                 try {
                     out.writeDouble(Double.parseDouble(s));
                 } catch (NumberFormatException e) {
@@ -47,4 +66,44 @@ public class DoubleParserFactory implements IValueParserFactory {
             }
         };
     }
+
+    /**
+     * Parses [-]digits[.digits] with at most 15 digits, whose mantissa and power of ten are both exact doubles, so
+     * that a single division rounds correctly.
+     *
+     * @return the value, or NaN if the number has another form and needs {@link Double#parseDouble(String)}
+     */
+    static double parseSimpleDecimal(byte[] buffer, int start, int length) {
+        int i = start;
+        int end = start + length;
+        boolean negative = i < end && buffer[i] == '-';
+        if (negative) {
+            ++i;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; ++i) {
+            int digit = buffer[i] - '0';
+            if (digit >= 0 && digit <= 9) {
+                mantissa = mantissa * 10 + digit;
+                ++digits;
+                if (fractionDigits >= 0) {
+                    ++fractionDigits;
+                }
+            } else if (buffer[i] == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0 || digits > 15) {
+            return Double.NaN;
+        }
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15 };
 }
@@ -20,6 +20,7 @@ package org.apache.hyracks.dataflow.common.data.parsers;
 
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 
@@ -33,10 +34,19 @@ public class FloatParserFactory implements IValueParserFactory {
 
     @Override
     public IValueParser createValueParser() {
-        return new IValueParser() {
+        return new IUTF8ValueParser() {
+            @Override
+            public void parse(byte[] buffer, int start, int length, DataOutput out) throws HyracksDataException {
+                // numbers are ASCII, so the bytes need no decoding
+                parse(new String(buffer, start, length, StandardCharsets.ISO_8859_1), out);
+            }
+
             @Override
             public void parse(char[] buffer, int start, int length, DataOutput out) throws HyracksDataException {
-                String s = String.valueOf(buffer, start, length);
+                parse(String.valueOf(buffer, start, length), out);
+            }
+
+            private void parse(String s, DataOutput out) throws HyracksDataException {
                 try {
                     out.writeFloat(Float.parseFloat(s));
                 } catch (NumberFormatException e) {
@@ -20,6 +20,7 @@ package org.apache.hyracks.dataflow.common.data.parsers;
 
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 
@@ -33,7 +34,37 @@ public class IntegerParserFactory implements IValueParserFactory {
 
     @Override
     public IValueParser createValueParser() {
-        return new IValueParser() {
+        return new IUTF8ValueParser() {
+            @Override
+            public void parse(byte[] buffer, int start, int length, DataOutput out) throws HyracksDataException {
+                int n = 0;
+                int sign = 1;
+                int i = start;
+                int end = start + length;
+                while (i < end && IntegerParserFactory.isWhitespace(buffer[i])) {
+                    ++i;
+                }
+                if (i < end && buffer[i] == '-') {
+                    sign = -1;
+                    ++i;
+                }
+                for (; i < end; ++i) {
+                    int digit = buffer[i] - '0';
+                    if (digit < 0 || digit > 9) {
+                        String errorString = new String(buffer, i, end - i, StandardCharsets.UTF_8);
+                        throw new HyracksDataException(
+                                "Integer Parser - a digit is expected. But, encountered this character: "
+                                        + errorString.charAt(0) + " in the incoming input: " + errorString);
+                    }
+                    n = n * 10 + digit;
+                }
+                try {
+                    out.writeInt(n * sign);
+                } catch (IOException e) {
+                    throw new HyracksDataException(e);
+                }
+            }
+
             @Override
             public void parse(char[] buffer, int start, int length, DataOutput out) throws HyracksDataException {
                 int n = 0;
@@ -126,4 +157,8 @@ public class IntegerParserFactory implements IValueParserFactory {
             }
         };
     }
+
+    static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
 }
@@ -34,9 +34,18 @@ public class UTF8StringParserFactory implements IValueParserFactory {
 
     @Override
     public IValueParser createValueParser() {
-        return new IValueParser() {
+        return new IUTF8ValueParser() {
             private UTF8StringWriter writer = new UTF8StringWriter();
 
+            @Override
+            public void parse(byte[] buffer, int start, int length, DataOutput out) throws HyracksDataException {
+                try {
+                    writer.writeUTF8(buffer, start, length, out);
+                } catch (IOException e) {
+                    throw new HyracksDataException(e);
+                }
+            }
+
             @Override
             public void parse(char[] buffer, int start, int length, DataOutput out) throws HyracksDataException {
                 try {
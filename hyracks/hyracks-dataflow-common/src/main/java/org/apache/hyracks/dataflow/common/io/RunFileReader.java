@@ -18,7 +18,9 @@
  */
 package org.apache.hyracks.dataflow.common.io;
 
-import org.apache.commons.io.FileUtils;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
 import org.apache.hyracks.api.comm.FrameHelper;
 import org.apache.hyracks.api.comm.IFrame;
 import org.apache.hyracks.api.comm.IFrameReader;
@@ -26,19 +28,43 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IFileHandle;
 import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.util.compression.LZBlockCodec;
 
 public class RunFileReader implements IFrameReader {
     private final FileReference file;
     private IFileHandle handle;
     private final IIOManager ioManager;
     private final long size;
+    private final long storedSize;
+    private final boolean compressed;
     private long readPtr;
     private boolean deleteAfterClose;
 
+    private CRC32 checksum;
+    private ByteBuffer blockBuffer;
+    // the header of the next block, read along with the previous block
+    private ByteBuffer nextHeader;
+    private boolean hasNextHeader;
+
     public RunFileReader(FileReference file, IIOManager ioManager, long size, boolean deleteAfterRead) {
+        this(file, ioManager, size, size, false, deleteAfterRead);
+    }
+
+    /**
+     * @param size
+     *            the bytes of the frames in the file
+     * @param storedSize
+     *            the bytes of the file
+     * @param compressed
+     *            whether the file was written compressed by a {@link RunFileWriter}
+     */
+    public RunFileReader(FileReference file, IIOManager ioManager, long size, long storedSize, boolean compressed,
+            boolean deleteAfterRead) {
         this.file = file;
         this.ioManager = ioManager;
         this.size = size;
+        this.storedSize = storedSize;
+        this.compressed = compressed;
         this.deleteAfterClose = deleteAfterRead;
     }
 
@@ -46,10 +72,14 @@ public class RunFileReader implements IFrameReader {
     public void open() throws HyracksDataException {
         handle = ioManager.open(file, IIOManager.FileReadWriteMode.READ_ONLY, null);
         readPtr = 0;
+        hasNextHeader = false;
     }
 
     @Override
     public boolean nextFrame(IFrame frame) throws HyracksDataException {
+        if (compressed) {
+            return nextBlock(frame);
+        }
         if (readPtr >= size) {
             return false;
         }
@@ -77,11 +107,84 @@ public class RunFileReader implements IFrameReader {
         return true;
     }
 
+    private boolean nextBlock(IFrame frame) throws HyracksDataException {
+        if (!hasNextHeader) {
+            if (readPtr >= storedSize) {
+                return false;
+            }
+            if (nextHeader == null) {
+                nextHeader = ByteBuffer.allocate(RunFileWriter.BLOCK_HEADER_SIZE);
+                checksum = new CRC32();
+            }
+            nextHeader.clear();
+            read(nextHeader);
+        }
+        int storedLength = nextHeader.getInt(0);
+        int length = nextHeader.getInt(4);
+        int blockChecksum = nextHeader.getInt(8);
+        // check the lengths before allocating for them, the checksum covers them only once the block is read
+        if (length <= 0 || length % frame.getMinSize() != 0 || length > size || storedLength <= 0
+                || storedLength > LZBlockCodec.maxCompressedLength(length) || storedLength > storedSize - readPtr) {
+            throw new HyracksDataException("Corrupt block header in run file " + file + " before offset " + readPtr);
+        }
+        // read the header of the following block, if any, along with this one
+        int readLength = storedLength;
+        hasNextHeader = readPtr + storedLength < storedSize;
+        if (hasNextHeader) {
+            readLength += RunFileWriter.BLOCK_HEADER_SIZE;
+        }
+        if (blockBuffer == null || blockBuffer.capacity() < readLength) {
+            blockBuffer = ByteBuffer.allocate(readLength);
+        }
+        blockBuffer.clear();
+        blockBuffer.limit(readLength);
+        read(blockBuffer);
+        byte[] block = blockBuffer.array();
+        checksum.reset();
+        checksum.update(nextHeader.array(), 0, 8);
+        checksum.update(block, 0, storedLength);
+        if ((int) checksum.getValue() != blockChecksum) {
+            throw new HyracksDataException("Checksum mismatch in run file " + file + " before offset " + readPtr);
+        }
+        frame.reset();
+        frame.ensureFrameSize(length);
+        ByteBuffer buffer = frame.getBuffer();
+        if (storedLength == length) {
+            System.arraycopy(block, 0, buffer.array(), buffer.arrayOffset(), length);
+        } else {
+            int decompressedLength;
+            try {
+                decompressedLength = LZBlockCodec.decompress(block, 0, storedLength, buffer.array(),
+                        buffer.arrayOffset(), length);
+            } catch (IllegalArgumentException e) {
+                throw new HyracksDataException(e);
+            }
+            if (decompressedLength != length) {
+                throw new HyracksDataException("Truncated frame in run file " + file + " before offset " + readPtr);
+            }
+        }
+        if (hasNextHeader) {
+            nextHeader.clear();
+            nextHeader.put(block, storedLength, RunFileWriter.BLOCK_HEADER_SIZE);
+        }
+        buffer.position(0);
+        buffer.limit(length);
+        return true;
+    }
+
+    private void read(ByteBuffer buffer) throws HyracksDataException {
+        int length = buffer.remaining();
+        if (ioManager.syncRead(handle, readPtr, buffer) != length) {
+            throw new HyracksDataException("Premature end of file");
+        }
+        readPtr += length;
+    }
+
     @Override
     public void close() throws HyracksDataException {
         ioManager.close(handle);
         if (deleteAfterClose) {
-            FileUtils.deleteQuietly(file.getFile());
+            file.delete();
         }
     }
 
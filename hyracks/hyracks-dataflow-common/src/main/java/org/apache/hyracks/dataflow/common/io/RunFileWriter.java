@@ -19,25 +19,53 @@
 package org.apache.hyracks.dataflow.common.io;
 
 import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
 
 import org.apache.hyracks.api.comm.IFrameWriter;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IFileHandle;
 import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.util.compression.LZBlockCodec;
 
+/**
+ * Writes frames to a run file.
+ * A compressed run file stores every frame as a block: a header of three ints, the stored length, the length of the
+ * frame and the CRC32 of both lengths and the stored bytes, followed by the stored bytes, which are the frame compressed with
+ * {@link LZBlockCodec}, or the frame as it is if compressing it does not save at least 1/8 of it.
+ */
 public class RunFileWriter implements IFrameWriter {
+    static final int BLOCK_HEADER_SIZE = 12;
+
+    private static final int MIN_SAVING_SHIFT = 3;
+
     private final FileReference file;
     private final IIOManager ioManager;
+    private final boolean compress;
     private boolean failed;
 
     private IFileHandle handle;
     private long size;
+    private long storedSize;
     private int maxOutputFrameSize;
 
+    private LZBlockCodec codec;
+    private CRC32 checksum;
+    private ByteBuffer blockBuffer;
+
     public RunFileWriter(FileReference file, IIOManager ioManager) {
+        this(file, ioManager, false);
+    }
+
+    /**
+     * @param compress
+     *            whether the frames are compressed and checksummed, see
+     *            {@link org.apache.hyracks.api.context.IHyracksJobletContext#isCompressRunFiles()}
+     */
+    public RunFileWriter(FileReference file, IIOManager ioManager, boolean compress) {
         this.file = file;
         this.ioManager = ioManager;
+        this.compress = compress;
     }
 
     @Override
@@ -45,6 +73,7 @@ public class RunFileWriter implements IFrameWriter {
         handle = ioManager.open(file, IIOManager.FileReadWriteMode.READ_WRITE,
                 IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
         size = 0;
+        storedSize = 0;
         failed = false;
         maxOutputFrameSize = 0;
     }
@@ -57,9 +86,46 @@ public class RunFileWriter implements IFrameWriter {
 
     @Override
     public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+        if (compress) {
+            writeBlock(buffer);
+            return;
+        }
         int writen = ioManager.syncWrite(handle, size, buffer);
         maxOutputFrameSize = Math.max(writen, maxOutputFrameSize);
         size += writen;
+        storedSize = size;
+    }
+
+    private void writeBlock(ByteBuffer buffer) throws HyracksDataException {
+        int length = buffer.remaining();
+        int capacity = BLOCK_HEADER_SIZE + LZBlockCodec.maxCompressedLength(length);
+        if (blockBuffer == null || blockBuffer.capacity() < capacity) {
+            if (codec == null) {
+                codec = new LZBlockCodec();
+                checksum = new CRC32();
+            }
+            blockBuffer = ByteBuffer.allocate(capacity);
+        }
+        byte[] block = blockBuffer.array();
+        byte[] src = buffer.array();
+        int offset = buffer.arrayOffset() + buffer.position();
+        int storedLength = codec.compress(src, offset, length, block, BLOCK_HEADER_SIZE);
+        if (storedLength >= length - (length >>> MIN_SAVING_SHIFT)) {
+            System.arraycopy(src, offset, block, BLOCK_HEADER_SIZE, length);
+            storedLength = length;
+        }
+        blockBuffer.clear();
+        blockBuffer.putInt(0, storedLength);
+        blockBuffer.putInt(4, length);
+        checksum.reset();
+        checksum.update(block, 0, 8);
+        checksum.update(block, BLOCK_HEADER_SIZE, storedLength);
+        blockBuffer.putInt(8, (int) checksum.getValue());
+        blockBuffer.limit(BLOCK_HEADER_SIZE + storedLength);
+        storedSize += ioManager.syncWrite(handle, storedSize, blockBuffer);
+        buffer.position(buffer.limit());
+        maxOutputFrameSize = Math.max(length, maxOutputFrameSize);
+        size += length;
     }
 
     @Override
@@ -73,22 +139,32 @@ public class RunFileWriter implements IFrameWriter {
         return file;
     }
 
+    /**
+     * @return the bytes of the frames written, which are not the bytes of the file when it is compressed.
+     */
     public long getFileSize() {
         return size;
     }
 
+    /**
+     * @return the bytes of the file.
+     */
+    public long getStoredSize() {
+        return storedSize;
+    }
+
     public GeneratedRunFileReader createReader() throws HyracksDataException {
         if (failed) {
             throw new HyracksDataException("createReader() called on a failed RunFileWriter");
         }
-        return new GeneratedRunFileReader(file, ioManager, size, false, maxOutputFrameSize);
+        return new GeneratedRunFileReader(file, ioManager, size, storedSize, compress, false, maxOutputFrameSize);
     }
 
     public GeneratedRunFileReader createDeleteOnCloseReader() throws HyracksDataException {
         if (failed) {
             throw new HyracksDataException("createReader() called on a failed RunFileWriter");
         }
-        return new GeneratedRunFileReader(file, ioManager, size, true, maxOutputFrameSize);
+        return new GeneratedRunFileReader(file, ioManager, size, storedSize, compress, true, maxOutputFrameSize);
     }
 
     @Override
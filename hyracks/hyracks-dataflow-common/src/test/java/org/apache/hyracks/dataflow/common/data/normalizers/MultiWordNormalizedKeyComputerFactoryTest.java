@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.common.data.normalizers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputer;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.DoublePointable;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+import org.apache.hyracks.data.std.primitive.UTF8StringPointable;
+import org.junit.Test;
+
+public class MultiWordNormalizedKeyComputerFactoryTest {
+
+    Random random = new Random(17);
+
+    private static int compareNormalizedKeys(int[] keys1, int[] keys2) {
+        for (int i = 0; i < keys1.length; ++i) {
+            if (keys1[i] != keys2[i]) {
+                return ((((long) keys1[i]) & 0xffffffffL) < (((long) keys2[i]) & 0xffffffffL)) ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private static void assertNormalizeValue(IPointable p1, IPointable p2, INormalizedKeyComputerFactory factory,
+            int cmp) {
+        INormalizedKeyComputer computer = factory.createNormalizedKeyComputer();
+        int[] keys1 = new int[factory.getNormalizedKeyLength()];
+        int[] keys2 = new int[factory.getNormalizedKeyLength()];
+        computer.normalize(p1.getByteArray(), p1.getStartOffset(), p1.getLength(), keys1, 0);
+        computer.normalize(p2.getByteArray(), p2.getStartOffset(), p2.getLength(), keys2, 0);
+        int nkCmp = compareNormalizedKeys(keys1, keys2);
+        if (nkCmp != 0 || factory.isDecisive()) {
+            assertEquals(Integer.signum(cmp), nkCmp);
+        }
+    }
+
+    private static LongPointable longPointable(long value) {
+        LongPointable p = (LongPointable) LongPointable.FACTORY.createPointable();
+        p.set(new byte[8], 0, 8);
+        p.setLong(value);
+        return p;
+    }
+
+    private static DoublePointable doublePointable(double value) {
+        DoublePointable p = (DoublePointable) DoublePointable.FACTORY.createPointable();
+        p.set(new byte[8], 0, 8);
+        p.setDouble(value);
+        return p;
+    }
+
+    @Test
+    public void testInteger64() {
+        INormalizedKeyComputerFactory factory = new Integer64NormalizedKeyComputerFactory();
+        long[] values = new long[] { Long.MIN_VALUE, Long.MIN_VALUE + 1, -(1L << 32), -1, 0, 1, Integer.MAX_VALUE,
+                1L << 32, (1L << 32) + 1, Long.MAX_VALUE };
+        for (long v1 : values) {
+            for (long v2 : values) {
+                assertNormalizeValue(longPointable(v1), longPointable(v2), factory, Long.compare(v1, v2));
+            }
+        }
+        for (int i = 0; i < 1000; ++i) {
+            long v1 = random.nextLong();
+            long v2 = random.nextBoolean() ? random.nextLong() : v1 + random.nextInt(3) - 1;
+            assertNormalizeValue(longPointable(v1), longPointable(v2), factory, Long.compare(v1, v2));
+        }
+    }
+
+    @Test
+    public void testDouble() {
+        INormalizedKeyComputerFactory factory = new DoubleNormalizedKeyComputerFactory();
+        double[] values = new double[] { Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.5, -1.0, -Double.MIN_VALUE,
+                0.0, Double.MIN_VALUE, 1.0, 1.0000000000000002, Double.MAX_VALUE, Double.POSITIVE_INFINITY };
+        for (double v1 : values) {
+            for (double v2 : values) {
+                assertNormalizeValue(doublePointable(v1), doublePointable(v2), factory, Double.compare(v1, v2));
+            }
+        }
+        for (int i = 0; i < 1000; ++i) {
+            double v1 = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20));
+            double v2 = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20));
+            assertNormalizeValue(doublePointable(v1), doublePointable(v2), factory, Double.compare(v1, v2));
+        }
+    }
+
+    @Test
+    public void testUTF8String() {
+        for (int length : new int[] { 1, 2, 4 }) {
+            INormalizedKeyComputerFactory factory = new UTF8StringNormalizedKeyComputerFactory(length);
+            String[] values = new String[] { "", "a", "ab", "abcdefgh", "abcdefghi", "abcdefgj", "b", "été",
+                    "中文", "中文字" };
+            for (String v1 : values) {
+                for (String v2 : values) {
+                    UTF8StringPointable p1 = UTF8StringPointable.generateUTF8Pointable(v1);
+                    UTF8StringPointable p2 = UTF8StringPointable.generateUTF8Pointable(v2);
+                    assertNormalizeValue(p1, p2, factory, p1.compareTo(p2));
+                }
+            }
+        }
+        // the prefix of a 16-byte key tells apart strings that only differ after the fourth char
+        INormalizedKeyComputerFactory factory = new UTF8StringNormalizedKeyComputerFactory();
+        UTF8StringPointable p1 = UTF8StringPointable.generateUTF8Pointable("abcdefgh");
+        UTF8StringPointable p2 = UTF8StringPointable.generateUTF8Pointable("abcdefgj");
+        int[] keys1 = new int[factory.getNormalizedKeyLength()];
+        int[] keys2 = new int[factory.getNormalizedKeyLength()];
+        factory.createNormalizedKeyComputer().normalize(p1.getByteArray(), p1.getStartOffset(), p1.getLength(),
+                keys1, 0);
+        factory.createNormalizedKeyComputer().normalize(p2.getByteArray(), p2.getStartOffset(), p2.getLength(),
+                keys2, 0);
+        assertTrue(compareNormalizedKeys(keys1, keys2) < 0);
+    }
+}
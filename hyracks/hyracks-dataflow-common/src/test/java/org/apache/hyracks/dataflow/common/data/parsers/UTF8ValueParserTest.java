@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.dataflow.common.data.parsers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.junit.Test;
+
+public class UTF8ValueParserTest {
+
+    @Test
+    public void testSameValuesAsCharParse() throws Exception {
+        String[] numbers = { "0", "42", "-17", "  7", "2147483647", "-2147483648" };
+        for (String number : numbers) {
+            testOneValue(IntegerParserFactory.INSTANCE, number);
+            testOneValue(LongParserFactory.INSTANCE, number);
+            testOneValue(FloatParserFactory.INSTANCE, number);
+            testOneValue(DoubleParserFactory.INSTANCE, number);
+        }
+        testOneValue(LongParserFactory.INSTANCE, "-9223372036854775807");
+        testOneValue(DoubleParserFactory.INSTANCE, "3.25e-2");
+        String[] decimals = { "0.1", "-0.0", "123456.789", "0.000000000000001", "99999999999999.9", ".5", "5.",
+                "1234567890123456.7", "1e3", " 2.5" };
+        for (String decimal : decimals) {
+            testOneValue(DoubleParserFactory.INSTANCE, decimal);
+        }
+        Random rnd = new Random(42);
+        for (int i = 0; i < 100000; ++i) {
+            testOneValue(DoubleParserFactory.INSTANCE,
+                    (rnd.nextBoolean() ? "-" : "") + rnd.nextInt(1000000000) + "." + rnd.nextInt(1000000));
+        }
+        testOneValue(FloatParserFactory.INSTANCE, "-0.5");
+
+        String[] strings = { "", "abc", "héllo 世界", "a\u0000b", "😀" };
+        for (String string : strings) {
+            testOneValue(UTF8StringParserFactory.INSTANCE, string);
+        }
+    }
+
+    @Test
+    public void testInvalidNumbers() throws Exception {
+        String[] invalid = { "12a", "1 2", "x" };
+        for (String number : invalid) {
+            testInvalidValue(IntegerParserFactory.INSTANCE, number);
+            testInvalidValue(LongParserFactory.INSTANCE, number);
+        }
+    }
+
+    @Test
+    public void testMalformedUTF8Strings() throws Exception {
+        // malformed bytes become U+FFFD, as when the input is decoded to chars first
+        byte[][] inputs = { { 'a', (byte) 0x80 }, { 'a', (byte) 0xC3 }, { (byte) 0xC0, (byte) 0x80 },
+                { 'c', 'a', 'f', (byte) 0xE9 }, { (byte) 0xE4, (byte) 0xB8, 'x' } };
+        for (byte[] input : inputs) {
+            IUTF8ValueParser parser = (IUTF8ValueParser) UTF8StringParserFactory.INSTANCE.createValueParser();
+            char[] chars = new String(input, StandardCharsets.UTF_8).toCharArray();
+            ByteArrayOutputStream charBytes = new ByteArrayOutputStream();
+            parser.parse(chars, 0, chars.length, new DataOutputStream(charBytes));
+            ByteArrayOutputStream utf8Bytes = new ByteArrayOutputStream();
+            parser.parse(input, 0, input.length, new DataOutputStream(utf8Bytes));
+            assertArrayEquals(Arrays.toString(input), charBytes.toByteArray(), utf8Bytes.toByteArray());
+        }
+    }
+
+    private static void testOneValue(IValueParserFactory factory, String value) throws HyracksDataException {
+        IValueParser parser = factory.createValueParser();
+        assertTrue(parser instanceof IUTF8ValueParser);
+
+        ByteArrayOutputStream charBytes = new ByteArrayOutputStream();
+        parser.parse(value.toCharArray(), 0, value.length(), new DataOutputStream(charBytes));
+
+        byte[] utf8 = ("#" + value + "#").getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream utf8Bytes = new ByteArrayOutputStream();
+        ((IUTF8ValueParser) parser).parse(utf8, 1, utf8.length - 2, new DataOutputStream(utf8Bytes));
+
+        assertArrayEquals(value, charBytes.toByteArray(), utf8Bytes.toByteArray());
+    }
+
+    private static void testInvalidValue(IValueParserFactory factory, String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        try {
+            ((IUTF8ValueParser) factory.createValueParser()).parse(utf8, 0, utf8.length,
+                    new DataOutputStream(new ByteArrayOutputStream()));
+            fail("Expected a parse error for " + value);
+        } catch (HyracksDataException e) {
+            // expected
+        }
+    }
+}
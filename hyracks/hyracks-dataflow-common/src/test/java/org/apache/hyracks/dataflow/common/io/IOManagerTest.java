@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.common.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IFileHandle;
+import org.apache.hyracks.api.io.IIOCallback;
+import org.apache.hyracks.api.io.IIOFuture;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.control.nc.io.IOManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IOManagerTest {
+    private static final int PAGE_SIZE = 4096;
+    private static final int NUM_PAGES = 64;
+
+    private File workArea;
+    private IOManager ioManager;
+
+    @Before
+    public void setUp() throws Exception {
+        workArea = new File(System.getProperty("java.io.tmpdir"), "IOManagerTest");
+        FileUtils.deleteQuietly(workArea);
+        workArea.mkdirs();
+        ioManager = new IOManager(Collections.singletonList(new IODeviceHandle(workArea, ".")));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ioManager.stop();
+        FileUtils.deleteQuietly(workArea);
+    }
+
+    @Test
+    public void stopFinishesQueuedRequestsAndEndsThreads() throws Exception {
+        FileReference file = ioManager.createWorkspaceFile("stop");
+        IFileHandle handle = ioManager.open(file, IIOManager.FileReadWriteMode.READ_WRITE,
+                IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
+        try {
+            ByteBuffer data = ByteBuffer.allocate(PAGE_SIZE * NUM_PAGES);
+            for (int i = 0; i < NUM_PAGES; i++) {
+                data.putInt(i * PAGE_SIZE, i);
+            }
+            ioManager.syncWrite(handle, 0, data);
+
+            List<ByteBuffer> pages = new ArrayList<ByteBuffer>();
+            List<IIOFuture> futures = new ArrayList<IIOFuture>();
+            for (int i = 0; i < NUM_PAGES; i++) {
+                ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+                pages.add(page);
+                futures.add(ioManager.asyncRead(handle, (long) i * PAGE_SIZE, page));
+            }
+            ioManager.stop();
+            for (int i = 0; i < NUM_PAGES; i++) {
+                assertEquals(PAGE_SIZE, futures.get(i).synchronize());
+                assertEquals(i, pages.get(i).getInt(0));
+            }
+            assertFalse("I/O threads still running", hasIOThreads());
+
+            IIOFuture late = ioManager.asyncRead(handle, 0, ByteBuffer.allocate(PAGE_SIZE));
+            try {
+                late.synchronize();
+                fail("a read submitted after stop() completed");
+            } catch (HyracksDataException e) {
+                // expected
+            }
+        } finally {
+            ioManager.close(handle);
+        }
+    }
+
+    @Test
+    public void submitDuringStopDoesNotHangStop() throws Exception {
+        FileReference file = ioManager.createWorkspaceFile("submitDuringStop");
+        final IFileHandle handle = ioManager.open(file, IIOManager.FileReadWriteMode.READ_WRITE,
+                IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
+        try {
+            ioManager.syncWrite(handle, 0, ByteBuffer.allocate(PAGE_SIZE));
+            final CountDownLatch inCallback = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final List<IIOFuture> late = Collections.synchronizedList(new ArrayList<IIOFuture>());
+            ioManager.asyncRead(handle, 0, ByteBuffer.allocate(PAGE_SIZE), new IIOCallback() {
+                @Override
+                public void completed(IIOFuture future) {
+                    inCallback.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    // submitted by an I/O thread while stop() waits for it
+                    late.add(ioManager.asyncRead(handle, 0, ByteBuffer.allocate(PAGE_SIZE)));
+                }
+            });
+            assertTrue(inCallback.await(10, TimeUnit.SECONDS));
+            Thread stopper = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        ioManager.stop();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            stopper.start();
+            while (stopper.getState() != Thread.State.WAITING) {
+                assertTrue(stopper.isAlive());
+                Thread.sleep(10);
+            }
+            release.countDown();
+            stopper.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse("stop() hangs", stopper.isAlive());
+            assertFalse("I/O threads still running", hasIOThreads());
+            assertEquals(1, late.size());
+            try {
+                late.get(0).synchronize();
+                fail("a read submitted during stop() completed");
+            } catch (HyracksDataException e) {
+                // expected
+            }
+        } finally {
+            ioManager.close(handle);
+        }
+    }
+
+    private boolean hasIOThreads() {
+        String prefix = "IOQueue[" + workArea.getPath() + "]";
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.getName().startsWith(prefix) && t.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
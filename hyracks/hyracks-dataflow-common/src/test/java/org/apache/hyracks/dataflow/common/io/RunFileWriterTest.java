@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.common.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hyracks.api.comm.FrameHelper;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IFileHandle;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.control.nc.io.IOManager;
+import org.apache.hyracks.control.nc.resources.memory.FrameManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RunFileWriterTest {
+    private static final int FRAME_SIZE = 4096;
+
+    private File workArea;
+    private IOManager ioManager;
+    private FrameManager frameManager;
+
+    @Before
+    public void setUp() throws Exception {
+        workArea = new File(System.getProperty("java.io.tmpdir"), "RunFileWriterTest");
+        FileUtils.deleteQuietly(workArea);
+        workArea.mkdirs();
+        ioManager = new IOManager(Collections.singletonList(new IODeviceHandle(workArea, ".")));
+        frameManager = new FrameManager(FRAME_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(workArea);
+    }
+
+    @Test
+    public void testCompressedRoundTrip() throws Exception {
+        List<byte[]> frames = createFrames();
+        RunFileWriter writer = writeRun(frames, true);
+        long size = 0;
+        for (byte[] frame : frames) {
+            size += frame.length;
+        }
+        assertEquals(size, writer.getFileSize());
+        assertTrue(writer.getStoredSize() < size / 2);
+        assertEquals(writer.getStoredSize(), writer.getFileReference().getFile().length());
+
+        GeneratedRunFileReader reader = writer.createReader();
+        assertEquals(2 * FRAME_SIZE, reader.getMaxFrameSize());
+        // a reader can be opened more than once
+        readRun(reader, frames);
+        readRun(reader, frames);
+    }
+
+    @Test
+    public void testUncompressedRoundTrip() throws Exception {
+        List<byte[]> frames = createFrames();
+        RunFileWriter writer = writeRun(frames, false);
+        assertEquals(writer.getFileSize(), writer.getStoredSize());
+        assertEquals(writer.getFileSize(), writer.getFileReference().getFile().length());
+        readRun(writer.createReader(), frames);
+    }
+
+    @Test
+    public void testStripedRoundTrip() throws Exception {
+        List<IODeviceHandle> devices = new ArrayList<IODeviceHandle>();
+        for (int i = 0; i < 3; i++) {
+            devices.add(new IODeviceHandle(new File(workArea, "device" + i), "."));
+        }
+        // a stripe size that is not a multiple of the frame size, so that frames are split over stripes
+        ioManager = new IOManager(devices, IOManager.DEFAULT_IO_THREADS_PER_DEVICE, 1000);
+        List<byte[]> frames = createFrames();
+        for (boolean compress : new boolean[] { false, true }) {
+            RunFileWriter writer = writeRun(frames, compress);
+            FileReference file = writer.getFileReference();
+            assertTrue(file.isStriped());
+            long length = 0;
+            for (FileReference stripe : file.getStripes()) {
+                assertTrue(stripe.getFile().length() > 0);
+                length += stripe.getFile().length();
+            }
+            assertEquals(writer.getStoredSize(), length);
+            IFileHandle handle = ioManager.open(file, IIOManager.FileReadWriteMode.READ_ONLY, null);
+            assertEquals(writer.getStoredSize(), ioManager.getSize(handle));
+            ioManager.close(handle);
+            readRun(writer.createDeleteOnCloseReader(), frames);
+            for (FileReference stripe : file.getStripes()) {
+                assertFalse(stripe.getFile().exists());
+            }
+        }
+    }
+
+    @Test
+    public void testCorruptBlock() throws Exception {
+        List<byte[]> frames = createFrames();
+        RunFileWriter writer = writeRun(frames, true);
+        try (RandomAccessFile file = new RandomAccessFile(writer.getFileReference().getFile(), "rw")) {
+            long offset = writer.getStoredSize() / 2;
+            file.seek(offset);
+            int b = file.read();
+            file.seek(offset);
+            file.write(b ^ 0x10);
+        }
+        assertCorrupt(writer);
+    }
+
+    @Test
+    public void testCorruptBlockHeader() throws Exception {
+        List<byte[]> frames = createFrames();
+        // the offset in the first block header and the int written there
+        int[][] corruptions = new int[][] {
+                // stored lengths that are not positive, too long for the frame, or past the end of the file
+                { 0, 0 }, { 0, -1 }, { 0, FRAME_SIZE + FRAME_SIZE / 255 + 17 }, { 0, Integer.MAX_VALUE },
+                // frame lengths that are not positive, not a multiple of the frame size, or larger than the run
+                { 4, 0 }, { 4, -FRAME_SIZE }, { 4, FRAME_SIZE + 1 }, { 4, Integer.MAX_VALUE / FRAME_SIZE * FRAME_SIZE },
+                // a plausible frame length, caught by the checksum
+                { 4, 2 * FRAME_SIZE } };
+        for (int[] corruption : corruptions) {
+            RunFileWriter writer = writeRun(frames, true);
+            try (RandomAccessFile file = new RandomAccessFile(writer.getFileReference().getFile(), "rw")) {
+                file.seek(corruption[0]);
+                file.writeInt(corruption[1]);
+            }
+            assertCorrupt(writer);
+        }
+    }
+
+    private void assertCorrupt(RunFileWriter writer) throws HyracksDataException {
+        RunFileReader reader = writer.createDeleteOnCloseReader();
+        reader.open();
+        try {
+            VSizeFrame frame = new VSizeFrame(frameManager);
+            while (reader.nextFrame(frame)) {
+            }
+            fail("The corruption was not detected");
+        } catch (HyracksDataException e) {
+            // expected
+        } finally {
+            reader.close();
+        }
+        assertFalse(writer.getFileReference().getFile().exists());
+    }
+
+    private List<byte[]> createFrames() {
+        Random random = new Random(13);
+        List<byte[]> frames = new ArrayList<byte[]>();
+        for (int i = 0; i < 40; i++) {
+            byte[] frame = new byte[i % 10 == 9 ? 2 * FRAME_SIZE : FRAME_SIZE];
+            if (i % 10 == 3) {
+                random.nextBytes(frame);
+            } else {
+                StringBuilder text = new StringBuilder();
+                while (text.length() < frame.length / 2) {
+                    text.append(random.nextInt(1000)).append("|ORDER-").append(random.nextInt(50)).append('|');
+                }
+                byte[] bytes = text.toString().getBytes();
+                System.arraycopy(bytes, 0, frame, 0, bytes.length);
+            }
+            FrameHelper.serializeFrameSize(ByteBuffer.wrap(frame), (byte) (frame.length / FRAME_SIZE));
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    private RunFileWriter writeRun(List<byte[]> frames, boolean compress) throws HyracksDataException {
+        FileReference file = ioManager.createWorkspaceFile("RunFileWriterTest");
+        RunFileWriter writer = new RunFileWriter(file, ioManager, compress);
+        writer.open();
+        for (byte[] frame : frames) {
+            writer.nextFrame(ByteBuffer.wrap(frame));
+        }
+        writer.close();
+        return writer;
+    }
+
+    private void readRun(RunFileReader reader, List<byte[]> frames) throws HyracksDataException {
+        VSizeFrame frame = new VSizeFrame(frameManager);
+        reader.open();
+        try {
+            for (byte[] expected : frames) {
+                assertTrue(reader.nextFrame(frame));
+                ByteBuffer buffer = frame.getBuffer();
+                assertEquals(expected.length, buffer.capacity());
+                assertEquals(expected.length, buffer.remaining());
+                byte[] actual = new byte[buffer.remaining()];
+                buffer.get(actual);
+                assertArrayEquals(expected, actual);
+            }
+            assertFalse(reader.nextFrame(frame));
+        } finally {
+            reader.close();
+        }
+    }
+}
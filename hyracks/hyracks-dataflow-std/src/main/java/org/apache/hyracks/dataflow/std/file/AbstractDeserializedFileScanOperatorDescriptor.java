@@ -67,6 +67,10 @@ public abstract class AbstractDeserializedFileScanOperatorDescriptor extends Abs
         public void open() throws HyracksDataException {
             FileSplit split = splits[index];
             RecordDescriptor desc = recordDescriptors[0];
+            if (split.isRange()) {
+                // record readers read whole files, and binary records cannot be found from an arbitrary offset
+                throw new HyracksDataException("Byte ranges of files are not supported by this scan: " + split);
+            }
             IRecordReader reader;
             try {
                 reader = createRecordReader(split.getLocalFile().getFile(), desc);
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.file;
+
+import java.io.DataOutput;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
+import org.apache.hyracks.dataflow.common.data.parsers.IUTF8ValueParser;
+import org.apache.hyracks.dataflow.common.data.parsers.IValueParser;
+import org.apache.hyracks.dataflow.common.data.parsers.IValueParserFactory;
+
+/**
+ * Parses delimited UTF-8 text like {@link DelimitedDataTupleParserFactory}, but on the bytes of the input rather
+ * than on decoded characters (see {@link FieldCursorForDelimitedUTF8DataParser}). Fields whose parser is an
+ * {@link IUTF8ValueParser} are parsed from the bytes directly, so a string field is copied into the tuple as it is;
+ * only the other fields are decoded. Fields of a record beyond the given parsers are ignored and a record with fewer
+ * fields is an error.
+ */
+public class DelimitedUTF8DataTupleParserFactory implements ITupleParserFactory {
+    private static final long serialVersionUID = 1L;
+    private IValueParserFactory[] valueParserFactories;
+    private char fieldDelimiter;
+    private char quote;
+
+    public DelimitedUTF8DataTupleParserFactory(IValueParserFactory[] fieldParserFactories, char fieldDelimiter) {
+        this(fieldParserFactories, fieldDelimiter, '\"');
+    }
+
+    public DelimitedUTF8DataTupleParserFactory(IValueParserFactory[] fieldParserFactories, char fieldDelimiter,
+            char quote) {
+        this.valueParserFactories = fieldParserFactories;
+        this.fieldDelimiter = fieldDelimiter;
+        this.quote = quote;
+    }
+
+    @Override
+    public ITupleParser createTupleParser(final IHyracksTaskContext ctx) {
+        return new ITupleParser() {
+            @Override
+            public void parse(InputStream in, IFrameWriter writer) throws HyracksDataException {
+                IValueParser[] valueParsers = new IValueParser[valueParserFactories.length];
+                IUTF8ValueParser[] utf8ValueParsers = new IUTF8ValueParser[valueParserFactories.length];
+                for (int i = 0; i < valueParserFactories.length; ++i) {
+                    valueParsers[i] = valueParserFactories[i].createValueParser();
+                    if (valueParsers[i] instanceof IUTF8ValueParser) {
+                        utf8ValueParsers[i] = (IUTF8ValueParser) valueParsers[i];
+                    }
+                }
+                IFrame frame = new VSizeFrame(ctx);
+                FrameTupleAppender appender = new FrameTupleAppender();
+                appender.reset(frame, true);
+                ArrayTupleBuilder tb = new ArrayTupleBuilder(valueParsers.length);
+                DataOutput dos = tb.getDataOutput();
+
+                FieldCursorForDelimitedUTF8DataParser cursor = new FieldCursorForDelimitedUTF8DataParser(in,
+                        fieldDelimiter, quote);
+                while (cursor.nextRecord()) {
+                    tb.reset();
+                    for (int i = 0; i < valueParsers.length; ++i) {
+                        if (!cursor.nextField()) {
+                            throw new HyracksDataException("At record: " + cursor.recordCount + " - "
+                                    + valueParsers.length + " fields are expected, but only " + i + " were found.");
+                        }
+                        int length = cursor.fEnd - cursor.fStart;
+                        if (utf8ValueParsers[i] != null) {
+                            utf8ValueParsers[i].parse(cursor.buffer, cursor.fStart, length, dos);
+                        } else {
+                            char[] chars = new String(cursor.buffer, cursor.fStart, length, StandardCharsets.UTF_8)
+                                    .toCharArray();
+                            valueParsers[i].parse(chars, 0, chars.length, dos);
+                        }
+                        tb.addFieldEndOffset();
+                    }
+                    FrameUtils.appendToWriter(writer, appender, tb.getFieldEndOffsets(), tb.getByteArray(), 0,
+                            tb.getSize());
+                }
+                appender.write(writer, true);
+            }
+        };
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * A field cursor over delimited text that works on the raw bytes of an ASCII-compatible encoding such as UTF-8,
+ * instead of on decoded characters. Records end at '\n', '\r' or "\r\n". A field that starts with the quote
+ * character runs up to the matching quote, may contain delimiters and line breaks, and escapes a quote by doubling
+ * it. Delimiters, quotes and line breaks are found eight bytes at a time with SWAR (SIMD within a register) word
+ * operations, so the bytes of a field are only looked at once before they are copied.
+ * The field delimiter and the quote must be ASCII characters.
+ */
+public class FieldCursorForDelimitedUTF8DataParser {
+    private static final int INITIAL_BUFFER_SIZE = 32768;
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long LF_PATTERN = ONES * '\n';
+    private static final long CR_PATTERN = ONES * '\r';
+
+    public byte[] buffer; //buffer holding the input
+    public int fStart; //start position of the current field
+    public int fEnd; //end position of the current field
+    public int recordCount; //count of records
+    public int fieldCount; //count of fields in the current record
+
+    private final InputStream in;
+    private final byte fieldDelimiter;
+    private final byte quote;
+    private final long delimiterPattern;
+    private final long quotePattern;
+
+    private ByteBuffer wordBuffer; //little-endian view of the buffer, for reading words
+    private int start; //position of the next field
+    private int end; //end of valid buffer area
+    private boolean endOfRecord; //whether the fields of the current record are exhausted
+    private boolean skipLF; //whether the record ended with '\r', so that a following '\n' belongs to it
+    private boolean eof;
+
+    public FieldCursorForDelimitedUTF8DataParser(InputStream in, char fieldDelimiter, char quote) {
+        if (fieldDelimiter > 0x7F || quote > 0x7F) {
+            throw new IllegalArgumentException("The field delimiter and the quote must be ASCII characters");
+        }
+        this.in = in;
+        this.fieldDelimiter = (byte) fieldDelimiter;
+        this.quote = (byte) quote;
+        delimiterPattern = ONES * fieldDelimiter;
+        quotePattern = ONES * quote;
+        buffer = new byte[INITIAL_BUFFER_SIZE];
+        wordBuffer = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+        endOfRecord = true;
+    }
+
+    /**
+     * Moves to the next record, skipping the fields of the current record that were not read.
+     *
+     * @return false if there are no more records
+     */
+    public boolean nextRecord() throws HyracksDataException {
+        while (!endOfRecord) {
+            nextField();
+        }
+        if (skipLF) {
+            if (start >= end && !readMore()) {
+                return false;
+            }
+            if (buffer[start] == '\n') {
+                ++start;
+            }
+            skipLF = false;
+        }
+        if (start >= end && !readMore()) {
+            return false;
+        }
+        recordCount++;
+        fieldCount = 0;
+        endOfRecord = false;
+        return true;
+    }
+
+    /**
+     * Moves to the next field of the current record and sets {@link #fStart} and {@link #fEnd} to its bytes, with
+     * enclosing quotes removed and escaped quotes unescaped.
+     *
+     * @return false if the current record has no more fields
+     */
+    public boolean nextField() throws HyracksDataException {
+        if (endOfRecord) {
+            return false;
+        }
+        fieldCount++;
+        if (start >= end && !readMore()) {
+            // the record ended with a delimiter, so it has a last empty field
+            fStart = fEnd = start;
+            endOfRecord = true;
+            return true;
+        }
+        if (buffer[start] == quote) {
+            return nextQuotedField();
+        }
+        int p = start;
+        while (true) {
+            p = findSpecial(p);
+            if (p < end) {
+                break;
+            }
+            int shift = start;
+            if (!readMore()) {
+                fStart = start;
+                fEnd = end;
+                start = end;
+                endOfRecord = true;
+                return true;
+            }
+            p -= shift - start;
+        }
+        if (buffer[p] == quote) {
+            throw new HyracksDataException("At record: " + recordCount + ", field#: " + fieldCount
+                    + " - a quote enclosing a field needs to be placed in the beginning of that field.");
+        }
+        fStart = start;
+        fEnd = p;
+        endField(p);
+        return true;
+    }
+
+    private boolean nextQuotedField() throws HyracksDataException {
+        int p = start + 1;
+        int escapedQuotes = 0;
+        while (true) {
+            p = findQuote(p);
+            if (p >= end) {
+                int shift = start;
+                if (!readMore()) {
+                    throw new HyracksDataException("At record: " + recordCount + ", field#: " + fieldCount
+                            + " - a quoted field is not closed at the end of the input.");
+                }
+                p -= shift - start;
+                continue;
+            }
+            // the byte after the quote decides whether it closes the field or is escaped
+            if (p + 1 >= end) {
+                int shift = start;
+                // the unread bytes may be compacted even if the input turns out to be exhausted
+                readMore();
+                p -= shift - start;
+            }
+            if (p + 1 < end && buffer[p + 1] == quote) {
+                escapedQuotes++;
+                p += 2;
+                continue;
+            }
+            break;
+        }
+        fStart = start + 1;
+        fEnd = p;
+        if (escapedQuotes > 0) {
+            fEnd = unescapeQuotes(fStart, fEnd);
+        }
+        int terminator = p + 1;
+        if (terminator < end) {
+            byte b = buffer[terminator];
+            if (b != fieldDelimiter && b != '\n' && b != '\r') {
+                throw new HyracksDataException("At record: " + recordCount + ", field#: " + fieldCount
+                        + " - A quote enclosing a field needs to be followed by the delimiter.");
+            }
+            endField(terminator);
+        } else {
+            start = end;
+            endOfRecord = true;
+        }
+        return true;
+    }
+
+    private void endField(int terminator) {
+        byte b = buffer[terminator];
+        start = terminator + 1;
+        if (b != fieldDelimiter) {
+            endOfRecord = true;
+            skipLF = b == '\r';
+        }
+    }
+
+    private int unescapeQuotes(int from, int to) {
+        int w = from;
+        for (int r = from; r < to; ++r, ++w) {
+            buffer[w] = buffer[r];
+            if (buffer[r] == quote) {
+                // skip the second quote of the pair
+                ++r;
+            }
+        }
+        return w;
+    }
+
+    /**
+     * @return the position of the first delimiter, quote, '\n' or '\r' at or after p, or the end of the valid area
+     */
+    private int findSpecial(int p) {
+        for (; p + 8 <= end; p += 8) {
+            long word = wordBuffer.getLong(p);
+            long found = matches(word, delimiterPattern) | matches(word, quotePattern) | matches(word, LF_PATTERN)
+                    | matches(word, CR_PATTERN);
+            if (found != 0) {
+                return p + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; p < end; ++p) {
+            byte b = buffer[p];
+            if (b == fieldDelimiter || b == quote || b == '\n' || b == '\r') {
+                return p;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * @return the position of the first quote at or after p, or the end of the valid area
+     */
+    private int findQuote(int p) {
+        for (; p + 8 <= end; p += 8) {
+            long found = matches(wordBuffer.getLong(p), quotePattern);
+            if (found != 0) {
+                return p + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; p < end; ++p) {
+            if (buffer[p] == quote) {
+                return p;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Sets the high bit of every byte of the word that equals the byte repeated in the pattern. Bytes above the first
+     * match may be flagged falsely because of the borrow, so only the lowest flag is exact, which is all that the
+     * callers use.
+     */
+    private static long matches(long word, long pattern) {
+        long x = word ^ pattern;
+        return (x - ONES) & ~x & HIGHS;
+    }
+
+    /**
+     * Moves the unread bytes, starting at the current field, to the front of the buffer and reads more input
+     * after them, growing the buffer if the current field fills it.
+     *
+     * @return false if the input is exhausted
+     */
+    private boolean readMore() throws HyracksDataException {
+        if (eof) {
+            return false;
+        }
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            start = 0;
+        }
+        if (end == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            wordBuffer = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        try {
+            int n = in.read(buffer, end, buffer.length - end);
+            if (n < 0) {
+                eof = true;
+                return false;
+            }
+            end += n;
+            return true;
+        } catch (IOException e) {
+            throw new HyracksDataException(e);
+        }
+    }
+}
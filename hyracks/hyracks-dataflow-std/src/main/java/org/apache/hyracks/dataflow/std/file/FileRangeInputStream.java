@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.file;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads the newline-terminated records of a file that start in a byte range of it. A record starts at the beginning
+ * of the file or right after a '\n', so a range that does not start at the beginning of the file skips the tail of
+ * the record that starts before it, and a range reads past its end to the '\n' that terminates its last record.
+ * Together, the ranges of a file read every record exactly once, as long as no record contains a '\n' inside a
+ * quoted field.
+ */
+public class FileRangeInputStream extends InputStream {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileInputStream in;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final long end;
+    // the file offset of the end of the data in the buffer
+    private long position;
+    private boolean eof;
+
+    public FileRangeInputStream(File file, long start, long end) throws IOException {
+        this.in = new FileInputStream(file);
+        this.channel = in.getChannel();
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.end = end;
+        buffer.flip();
+        try {
+            if (start > 0) {
+                // the record that contains the byte before the range belongs to the previous range
+                position = start - 1;
+                channel.position(position);
+                eof = !skipRecord();
+            }
+            // a range that is shorter than the record that overlaps its start has no records
+            eof |= position - buffer.remaining() >= end;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    public static FileRangeInputStream open(FileSplit split) throws IOException {
+        File file = split.getLocalFile().getFile();
+        long length = file.length();
+        return new FileRangeInputStream(file, split.getRangeStart(length), split.getRangeEnd(length));
+    }
+
+    /**
+     * Skips the bytes up to and including the next '\n'.
+     *
+     * @return false if the file ends before the next '\n'
+     */
+    private boolean skipRecord() throws IOException {
+        while (true) {
+            if (!buffer.hasRemaining() && !fill()) {
+                return false;
+            }
+            byte[] bytes = buffer.array();
+            for (int i = buffer.position(); i < buffer.limit(); ++i) {
+                if (bytes[i] == '\n') {
+                    buffer.position(i + 1);
+                    return true;
+                }
+            }
+            buffer.position(buffer.limit());
+        }
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int n = channel.read(buffer);
+        buffer.flip();
+        if (n <= 0) {
+            return false;
+        }
+        position += n;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (eof || (!buffer.hasRemaining() && !fill())) {
+            eof = true;
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        // the offset in the file of the first byte that is returned
+        long offset = position - buffer.remaining();
+        if (offset + n > end - 1) {
+            // the range ends with the record that contains the last byte of the range
+            byte[] bytes = buffer.array();
+            int from = buffer.position() + (int) Math.max(0, end - 1 - offset);
+            for (int i = from; i < buffer.position() + n; ++i) {
+                if (bytes[i] == '\n') {
+                    n = i + 1 - buffer.position();
+                    eof = true;
+                    break;
+                }
+            }
+        }
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
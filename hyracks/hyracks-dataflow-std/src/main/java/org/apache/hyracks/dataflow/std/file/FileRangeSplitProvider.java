@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.file;
+
+/**
+ * Splits each of the given files into byte ranges, so that a large newline-delimited file is scanned by several
+ * partitions on its node. The ranges of a file get consecutive partitions, so the scan partitions together return
+ * the records in the order of the files.
+ */
+public class FileRangeSplitProvider implements IFileSplitProvider {
+    private static final long serialVersionUID = 1L;
+    private final FileSplit[] splits;
+
+    public FileRangeSplitProvider(FileSplit[] fileSplits, int rangesPerFile) {
+        if (rangesPerFile < 1) {
+            throw new IllegalArgumentException("Invalid number of ranges per file: " + rangesPerFile);
+        }
+        splits = new FileSplit[fileSplits.length * rangesPerFile];
+        for (int i = 0; i < fileSplits.length; ++i) {
+            for (int j = 0; j < rangesPerFile; ++j) {
+                splits[i * rangesPerFile + j] = new FileSplit(fileSplits[i], j, rangesPerFile);
+            }
+        }
+    }
+
+    @Override
+    public FileSplit[] getFileSplits() {
+        return splits;
+    }
+}
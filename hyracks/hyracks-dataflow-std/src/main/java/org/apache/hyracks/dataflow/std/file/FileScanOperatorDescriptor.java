@@ -20,7 +20,7 @@ package org.apache.hyracks.dataflow.std.file;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 
 import org.apache.hyracks.api.context.IHyracksTaskContext;
@@ -60,12 +60,16 @@ public class FileScanOperatorDescriptor extends AbstractSingleActivityOperatorDe
                     writer.open();
                     InputStream in;
                     try {
-                        in = new FileInputStream(f);
-                    } catch (FileNotFoundException e) {
+                        in = split.isRange() ? FileRangeInputStream.open(split) : new FileInputStream(f);
+                    } catch (IOException e) {
                         writer.fail();
                         throw new HyracksDataException(e);
                     }
-                    tp.parse(in, writer);
+                    try {
+                        tp.parse(in, writer);
+                    } finally {
+                        in.close();
+                    }
                 } catch (Throwable th) {
                     writer.fail();
                     throw new HyracksDataException(th);
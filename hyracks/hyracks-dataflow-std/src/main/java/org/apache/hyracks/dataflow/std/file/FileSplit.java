@@ -29,12 +29,17 @@ public class FileSplit implements Serializable {
     private final int ioDeviceId;
     private final int partition;
     private final String nodeName;
+    private final int rangeIndex;
+    private final int rangeCount;
 
     public FileSplit(String nodeName, FileReference file) {
         this.nodeName = nodeName;
         this.file = file;
         this.ioDeviceId = 0;
         this.partition = -1;
+
+        this.rangeIndex = 0;
+        this.rangeCount = 1;
     }
 
     public FileSplit(String nodeName, FileReference file, int ioDeviceId, int partition) {
@@ -42,6 +47,9 @@ public class FileSplit implements Serializable {
         this.file = file;
         this.ioDeviceId = ioDeviceId;
         this.partition = partition;
+
+        this.rangeIndex = 0;
+        this.rangeCount = 1;
     }
 
     public FileSplit(String nodeName, String path, int ioDeviceId) {
@@ -49,6 +57,9 @@ public class FileSplit implements Serializable {
         this.file = new FileReference(new File(path));
         this.ioDeviceId = ioDeviceId;
         this.partition = -1;
+
+        this.rangeIndex = 0;
+        this.rangeCount = 1;
     }
 
     public FileSplit(String nodeName, String path) {
@@ -56,6 +67,26 @@ public class FileSplit implements Serializable {
         this.file = new FileReference(new File(path));
         this.ioDeviceId = 0;
         this.partition = -1;
+
+        this.rangeIndex = 0;
+        this.rangeCount = 1;
+    }
+
+    /**
+     * Creates a split for the rangeIndex-th of rangeCount byte ranges of equal size of the file of the given split.
+     * The ranges are computed from the length of the file where the split is read, and a scan of a range only
+     * returns the newline-terminated records that start in it.
+     */
+    public FileSplit(FileSplit fileSplit, int rangeIndex, int rangeCount) {
+        if (rangeIndex < 0 || rangeIndex >= rangeCount) {
+            throw new IllegalArgumentException("Invalid range " + rangeIndex + " of " + rangeCount);
+        }
+        this.nodeName = fileSplit.nodeName;
+        this.file = fileSplit.file;
+        this.ioDeviceId = fileSplit.ioDeviceId;
+        this.partition = fileSplit.partition;
+        this.rangeIndex = rangeIndex;
+        this.rangeCount = rangeCount;
     }
 
     public String getNodeName() {
@@ -74,8 +105,38 @@ public class FileSplit implements Serializable {
         return partition;
     }
 
+    public int getRangeIndex() {
+        return rangeIndex;
+    }
+
+    public int getRangeCount() {
+        return rangeCount;
+    }
+
+    public boolean isRange() {
+        return rangeCount > 1;
+    }
+
+    /**
+     * @return the offset of the first byte of the range of this split in a file of the given length
+     */
+    public long getRangeStart(long fileLength) {
+        return rangeOffset(rangeIndex, fileLength);
+    }
+
+    /**
+     * @return the offset after the last byte of the range of this split in a file of the given length
+     */
+    public long getRangeEnd(long fileLength) {
+        return rangeOffset(rangeIndex + 1, fileLength);
+    }
+
+    private long rangeOffset(int index, long fileLength) {
+        return index == rangeCount ? fileLength : fileLength / rangeCount * index;
+    }
+
     @Override
     public String toString() {
-        return file.toString();
+        return isRange() ? file.toString() + "[" + rangeIndex + "/" + rangeCount + "]" : file.toString();
     }
 }
@@ -41,7 +41,8 @@ import org.apache.hyracks.dataflow.std.buffermanager.ITuplePointerAccessor;
 import org.apache.hyracks.dataflow.std.buffermanager.PreferToSpillFullyOccupiedFramePolicy;
 import org.apache.hyracks.dataflow.std.buffermanager.VPartitionTupleBufferManager;
 import org.apache.hyracks.dataflow.std.structures.ISerializableTable;
-import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
+import org.apache.hyracks.dataflow.std.structures.ISerializableTableFactory;
+import org.apache.hyracks.dataflow.std.structures.SerializableHashTableFactory;
 import org.apache.hyracks.dataflow.std.structures.TuplePointer;
 import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
 
@@ -51,9 +52,16 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
     private static final double FUDGE_FACTOR = 1.1;
     private static final long serialVersionUID = 1L;
     private final IBinaryHashFunctionFamily[] hashFunctionFamilies;
+    private final ISerializableTableFactory tableFactory;
 
     public HashSpillableTableFactory(IBinaryHashFunctionFamily[] hashFunctionFamilies) {
+        this(hashFunctionFamilies, SerializableHashTableFactory.INSTANCE);
+    }
+
+    public HashSpillableTableFactory(IBinaryHashFunctionFamily[] hashFunctionFamilies,
+            ISerializableTableFactory tableFactory) {
         this.hashFunctionFamilies = hashFunctionFamilies;
+        this.tableFactory = tableFactory;
     }
 
     @Override
@@ -96,7 +104,7 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
 
         final ArrayTupleBuilder outputTupleBuilder = new ArrayTupleBuilder(outRecordDescriptor.getFields().length);
 
-        final ISerializableTable hashTableForTuplePointer = new SerializableHashTable(tableSize, ctx);
+        final ISerializableTable hashTableForTuplePointer = tableFactory.createSerializableTable(tableSize, ctx);
 
         return new ISpillableTable() {
 
@@ -89,7 +89,7 @@ class GraceHashJoinPartitionBuildOperatorNodePushable extends
         if (writer == null) {
             FileReference file = ctx.getJobletContext().createManagedWorkspaceFile(
                     GraceHashJoinOperatorDescriptor.class.getSimpleName());
-            writer = new RunFileWriter(file, ctx.getIOManager());
+            writer = new RunFileWriter(file, ctx.getIOManager(), ctx.getJobletContext().isCompressRunFiles());
             writer.open();
             state.getRunWriters()[i] = writer;
         }
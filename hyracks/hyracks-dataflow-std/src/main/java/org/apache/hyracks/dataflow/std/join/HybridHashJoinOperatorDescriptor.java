@@ -335,7 +335,8 @@ public class HybridHashJoinOperatorDescriptor extends AbstractOperatorDescriptor
                     if (writer == null) {
                         FileReference file = ctx.getJobletContext()
                                 .createManagedWorkspaceFile(BuildAndPartitionActivityNode.class.getSimpleName());
-                        writer = new RunFileWriter(file, ctx.getIOManager());
+                        writer = new RunFileWriter(file, ctx.getIOManager(),
+                                ctx.getJobletContext().isCompressRunFiles());
                         writer.open();
                         state.fWriters[i] = writer;
                     }
@@ -541,7 +542,8 @@ public class HybridHashJoinOperatorDescriptor extends AbstractOperatorDescriptor
                     if (writer == null) {
                         FileReference file = ctx
                                 .createManagedWorkspaceFile(PartitionAndJoinActivityNode.class.getSimpleName());
-                        writer = new RunFileWriter(file, ctx.getIOManager());
+                        writer = new RunFileWriter(file, ctx.getIOManager(),
+                                ctx.getJobletContext().isCompressRunFiles());
                         writer.open();
                         probeWriters[i] = writer;
                     }
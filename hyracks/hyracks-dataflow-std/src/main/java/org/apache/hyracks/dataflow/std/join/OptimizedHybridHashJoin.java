@@ -41,7 +41,8 @@ import org.apache.hyracks.dataflow.std.buffermanager.IPartitionedTupleBufferMana
 import org.apache.hyracks.dataflow.std.buffermanager.PreferToSpillFullyOccupiedFramePolicy;
 import org.apache.hyracks.dataflow.std.buffermanager.VPartitionTupleBufferManager;
 import org.apache.hyracks.dataflow.std.structures.ISerializableTable;
-import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
+import org.apache.hyracks.dataflow.std.structures.ISerializableTableFactory;
+import org.apache.hyracks.dataflow.std.structures.SerializableHashTableFactory;
 import org.apache.hyracks.dataflow.std.structures.TuplePointer;
 import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
 
@@ -93,6 +94,15 @@ public class OptimizedHybridHashJoin {
     private final FrameTupleAccessor accessorBuild;
     private final FrameTupleAccessor accessorProbe;
 
+    private ISerializableTableFactory tableFactory = SerializableHashTableFactory.INSTANCE;
+
+    // runtime filter over the build keys, used to drop probe tuples without a match
+    private ITuplePartitionComputer buildFilterHpc;
+    private ITuplePartitionComputer probeFilterHpc;
+    private int runtimeFilterMaxKeys;
+    private RuntimeBloomFilter.Builder runtimeFilterBuilder;
+    private RuntimeBloomFilter runtimeFilter;
+
     private boolean isReversed; //Added for handling correct calling for predicate-evaluator upon recursive calls that cause role-reversal
 
     // stats information
@@ -148,6 +158,11 @@ public class OptimizedHybridHashJoin {
                 ctx.getInitialFrameSize());
         spilledStatus.clear();
         buildPSizeInTups = new int[numOfPartitions];
+        runtimeFilter = null;
+        if (buildFilterHpc != null) {
+            runtimeFilterBuilder = new RuntimeBloomFilter.Builder(runtimeFilterMaxKeys,
+                    RuntimeBloomFilter.DEFAULT_BITS_PER_KEY);
+        }
     }
 
     public void build(ByteBuffer buffer) throws HyracksDataException {
@@ -158,6 +173,9 @@ public class OptimizedHybridHashJoin {
             int pid = buildHpc.partition(accessorBuild, i, numOfPartitions);
             processTuple(i, pid);
             buildPSizeInTups[pid]++;
+            if (runtimeFilterBuilder != null) {
+                runtimeFilterBuilder.add(buildFilterHpc.partition(accessorBuild, i, Integer.MAX_VALUE));
+            }
         }
 
     }
@@ -200,7 +218,7 @@ public class OptimizedHybridHashJoin {
         RunFileWriter writer = runFileWriters[pid];
         if (writer == null) {
             FileReference file = ctx.getJobletContext().createManagedWorkspaceFile(refName);
-            writer = new RunFileWriter(file, ctx.getIOManager());
+            writer = new RunFileWriter(file, ctx.getIOManager(), ctx.getJobletContext().isCompressRunFiles());
             writer.open();
             runFileWriters[pid] = writer;
         }
@@ -211,6 +229,11 @@ public class OptimizedHybridHashJoin {
 
         closeAllSpilledPartitions(SIDE.BUILD);
 
+        if (runtimeFilterBuilder != null) {
+            runtimeFilter = runtimeFilterBuilder.build();
+            runtimeFilterBuilder = null;
+        }
+
         bringBackSpilledPartitionIfHasMoreMemory(); //Trying to bring back as many spilled partitions as possible, making them resident
 
         int inMemTupCount = 0;
@@ -307,7 +330,7 @@ public class OptimizedHybridHashJoin {
     }
 
     private void createInMemoryJoiner(int inMemTupCount) throws HyracksDataException {
-        ISerializableTable table = new SerializableHashTable(inMemTupCount, ctx);
+        ISerializableTable table = tableFactory.createSerializableTable(inMemTupCount, ctx);
         this.inMemJoiner = new InMemoryHashJoin(ctx, inMemTupCount, new FrameTupleAccessor(probeRd), probeHpc,
                 new FrameTupleAccessor(buildRd), buildHpc,
                 new FrameTuplePairComparator(probeKeys, buildKeys, comparators), isLeftOuter, nullWriters, table,
@@ -361,6 +384,10 @@ public class OptimizedHybridHashJoin {
         for (int i = 0; i < tupleCount; ++i) {
             int pid = probeHpc.partition(accessorProbe, i, numOfPartitions);
 
+            if (runtimeFilter != null && !isLeftOuter
+                    && !runtimeFilter.mightContain(probeFilterHpc.partition(accessorProbe, i, Integer.MAX_VALUE))) {
+                continue; //Tuple has no match, so it does not need to be spilled
+            }
             if (buildPSizeInTups[pid] > 0 || isLeftOuter) { //Tuple has potential match from previous phase
                 if (spilledStatus.get(pid)) { //pid is Spilled
                     while (!bufferManager.insertTuple(pid, accessorProbe, i, tempPtr)) {
@@ -462,4 +489,30 @@ public class OptimizedHybridHashJoin {
     public void setIsReversed(boolean b) {
         this.isReversed = b;
     }
+
+    public void setTableFactory(ISerializableTableFactory tableFactory) {
+        this.tableFactory = tableFactory;
+    }
+
+    /**
+     * Builds a {@link RuntimeBloomFilter} over the build keys while building. The partitioners must be seeded
+     * with {@link RuntimeBloomFilter#HASH_SEED}; with Integer.MAX_VALUE partitions they return the key hash.
+     * The filter is given up if the build side has more than maxKeys tuples. Its memory, at most
+     * {@link RuntimeBloomFilter#getMaxMemorySize(int, int)}, is not part of memForJoin, so the caller must set
+     * it aside. Must be called before {@link #initBuild()}.
+     */
+    public void enableRuntimeFilter(ITuplePartitionComputer probeFilterHpc, ITuplePartitionComputer buildFilterHpc,
+            int maxKeys) {
+        this.probeFilterHpc = probeFilterHpc;
+        this.buildFilterHpc = buildFilterHpc;
+        this.runtimeFilterMaxKeys = maxKeys;
+    }
+
+    /**
+     * @return the filter over the build keys, or null if it was not enabled or the build side had too many
+     *         tuples for it
+     */
+    public RuntimeBloomFilter getRuntimeFilter() {
+        return runtimeFilter;
+    }
 }
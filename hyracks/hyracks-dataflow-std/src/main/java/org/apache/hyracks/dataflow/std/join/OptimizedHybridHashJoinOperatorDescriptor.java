@@ -32,6 +32,7 @@ import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.ActivityId;
 import org.apache.hyracks.api.dataflow.IActivityGraphBuilder;
 import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.OperatorDescriptorId;
 import org.apache.hyracks.api.dataflow.TaskId;
 import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
@@ -60,7 +61,8 @@ import org.apache.hyracks.dataflow.std.base.AbstractStateObject;
 import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputSinkOperatorNodePushable;
 import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputUnaryOutputOperatorNodePushable;
 import org.apache.hyracks.dataflow.std.structures.ISerializableTable;
-import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
+import org.apache.hyracks.dataflow.std.structures.ISerializableTableFactory;
+import org.apache.hyracks.dataflow.std.structures.SerializableHashTableFactory;
 import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
 
 /**
@@ -105,6 +107,8 @@ import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
 public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorDescriptor {
     private static final int BUILD_AND_PARTITION_ACTIVITY_ID = 0;
     private static final int PARTITION_AND_JOIN_ACTIVITY_ID = 1;
+    // not an activity: keys the joblet state that publishes the runtime filter of a partition
+    private static final int RUNTIME_FILTER_STATE_ID = 2;
 
     private static final long serialVersionUID = 1L;
     private static final double NLJ_SWITCH_THRESHOLD = 0.8;
@@ -125,6 +129,8 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
 
     private final boolean isLeftOuter;
     private final INullWriterFactory[] nullWriterFactories1;
+    private ISerializableTableFactory tableFactory = SerializableHashTableFactory.INSTANCE;
+    private boolean runtimeFilter = false;
 
     //Flags added for test purpose
     private static boolean skipInMemoryHJ = false;
@@ -167,6 +173,42 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                 predEvaluatorFactory, false, null);
     }
 
+    /**
+     * Sets the factory of the tables that map the hash of a resident build tuple to the tuple.
+     */
+    public void setTableFactory(ISerializableTableFactory tableFactory) {
+        this.tableFactory = tableFactory;
+    }
+
+    /**
+     * Makes the build phase of an inner join build a {@link RuntimeBloomFilter} over the build keys of each
+     * partition. The probe phase uses it to drop probe tuples without a match instead of spilling them, and the
+     * build phase publishes it as joblet state, where operators on the same node get it through
+     * {@link #getRuntimeFilter(IHyracksTaskContext, OperatorDescriptorId, int)}. A
+     * {@link RuntimeFilterOperatorDescriptor} uses it to drop probe tuples before they are shipped, either on a
+     * one-to-one probe input or ahead of the connector that hash partitions the probe input.
+     * The filter's memory comes out of the frame limit, so the join itself gets fewer frames; with less than
+     * eight frames for the join there is no filter.
+     */
+    public void setRuntimeFilter(boolean runtimeFilter) {
+        this.runtimeFilter = runtimeFilter;
+    }
+
+    /**
+     * @return the runtime filter built by the given join for the given partition, or null if the join does not
+     *         build one, or the partition was not built on this node or has not finished its build phase
+     */
+    public static RuntimeBloomFilter getRuntimeFilter(IHyracksTaskContext ctx, OperatorDescriptorId joinId,
+            int partition) {
+        RuntimeFilterState state = (RuntimeFilterState) ctx.getStateObject(getRuntimeFilterStateId(joinId,
+                partition));
+        return state == null ? null : state.filter;
+    }
+
+    private static Object getRuntimeFilterStateId(OperatorDescriptorId joinId, int partition) {
+        return new TaskId(new ActivityId(joinId, RUNTIME_FILTER_STATE_ID), partition);
+    }
+
     @Override
     public void contributeActivities(IActivityGraphBuilder builder) {
         ActivityId buildAid = new ActivityId(odId, BUILD_AND_PARTITION_ACTIVITY_ID);
@@ -207,9 +249,42 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
         return numberOfPartitions;
     }
 
+    /**
+     * The runtime filter gets at most an eighth of the join's frames, and no more than its largest builder needs.
+     */
+    private static int getRuntimeFilterFrames(int memForJoin, int frameSize) {
+        long maxFilterSize = RuntimeBloomFilter.getMaxMemorySize(RuntimeBloomFilter.MAX_KEYS,
+                RuntimeBloomFilter.DEFAULT_BITS_PER_KEY);
+        return (int) Math.min(memForJoin / 8, (maxFilterSize + frameSize - 1) / frameSize);
+    }
+
+    /**
+     * The runtime filter of one join partition, published in the joblet state of the node that built it.
+     */
+    public static class RuntimeFilterState extends AbstractStateObject {
+        private final RuntimeBloomFilter filter;
+
+        public RuntimeFilterState(JobId jobId, OperatorDescriptorId joinId, int partition, RuntimeBloomFilter filter) {
+            super(jobId, getRuntimeFilterStateId(joinId, partition));
+            this.filter = filter;
+        }
+
+        @Override
+        public void toBytes(DataOutput out) throws IOException {
+
+        }
+
+        @Override
+        public void fromBytes(DataInput in) throws IOException {
+
+        }
+    }
+
     public static class BuildAndPartitionTaskState extends AbstractStateObject {
 
         private int memForJoin;
+        // the frames set aside for the runtime filter, which are not part of memForJoin
+        private int runtimeFilterFrames;
         private int numOfPartitions;
         private OptimizedHybridHashJoin hybridHJ;
 
@@ -279,12 +354,27 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                     if (frameLimit <= 2) { //Dedicated buffers: One buffer to read and one buffer for output
                         throw new HyracksDataException("not enough memory for Hybrid Hash Join");
                     }
-                    state.memForJoin = frameLimit - 2;
+                    if (runtimeFilter && !isLeftOuter) {
+                        state.runtimeFilterFrames = getRuntimeFilterFrames(frameLimit - 2,
+                                ctx.getInitialFrameSize());
+                    }
+                    state.memForJoin = frameLimit - 2 - state.runtimeFilterFrames;
                     state.numOfPartitions = getNumberOfPartitions(state.memForJoin, inputsize0, fudgeFactor,
                             nPartitions);
                     state.hybridHJ = new OptimizedHybridHashJoin(ctx, state.memForJoin, state.numOfPartitions,
                             PROBE_REL, BUILD_REL, probeKeys, buildKeys, comparators, probeRd, buildRd, probeHpc,
                             buildHpc, predEvaluator, isLeftOuter, nullWriterFactories1);
+                    state.hybridHJ.setTableFactory(tableFactory);
+                    if (state.runtimeFilterFrames > 0) {
+                        state.hybridHJ.enableRuntimeFilter(
+                                new FieldHashPartitionComputerFamily(probeKeys, hashFunctionGeneratorFactories)
+                                        .createPartitioner(RuntimeBloomFilter.HASH_SEED),
+                                new FieldHashPartitionComputerFamily(buildKeys, hashFunctionGeneratorFactories)
+                                        .createPartitioner(RuntimeBloomFilter.HASH_SEED),
+                                RuntimeBloomFilter.getMaxKeys(
+                                        (long) state.runtimeFilterFrames * ctx.getInitialFrameSize(),
+                                        RuntimeBloomFilter.DEFAULT_BITS_PER_KEY));
+                    }
 
                     state.hybridHJ.initBuild();
                     if (LOGGER.isLoggable(Level.FINE)) {
@@ -305,6 +395,11 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                         state.hybridHJ.clearBuildTempFiles();
                     } else {
                         ctx.setStateObject(state);
+                        RuntimeBloomFilter filter = state.hybridHJ.getRuntimeFilter();
+                        if (filter != null) {
+                            ctx.setStateObject(new RuntimeFilterState(ctx.getJobletContext().getJobId(),
+                                    getOperatorId(), partition, filter));
+                        }
                         if (LOGGER.isLoggable(Level.FINE)) {
                             LOGGER.fine("OptimizedHybridHashJoin closed its build phase");
                         }
@@ -541,6 +636,7 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                             predEvaluator, isLeftOuter, nullWriterFactories1); //checked-confirmed
 
                     rHHj.setIsReversed(isReversed);
+                    rHHj.setTableFactory(tableFactory);
                     buildSideReader.open();
                     rHHj.initBuild();
                     rPartbuff.reset();
@@ -612,9 +708,11 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                             int probeSideInTups = rHHj.getProbePartitionSizeInTup(rPid);
                             // NLJ order is outer + inner, the order is reversed from the other joins
                             if (isLeftOuter || probeSideInTups < buildSideInTups) {
-                                applyNestedLoopJoin(probeRd, buildRd, frameLimit, rprfw, rbrfw); //checked-modified
+                                applyNestedLoopJoin(probeRd, buildRd, frameLimit - state.runtimeFilterFrames, rprfw,
+                                        rbrfw); //checked-modified
                             } else {
-                                applyNestedLoopJoin(buildRd, probeRd, frameLimit, rbrfw, rprfw); //checked-modified
+                                applyNestedLoopJoin(buildRd, probeRd, frameLimit - state.runtimeFilterFrames, rbrfw,
+                                        rprfw); //checked-modified
                             }
                         }
                     }
@@ -649,7 +747,7 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
 
                     assert isLeftOuter ? !isReversed : true : "LeftOut Join can not reverse roles";
 
-                    ISerializableTable table = new SerializableHashTable(tabSize, ctx);
+                    ISerializableTable table = tableFactory.createSerializableTable(tabSize, ctx);
                     InMemoryHashJoin joiner = new InMemoryHashJoin(ctx, tabSize, new FrameTupleAccessor(probeRDesc),
                             hpcRepProbe, new FrameTupleAccessor(buildRDesc), hpcRepBuild,
                             new FrameTuplePairComparator(pKeys, bKeys, comparators), isLeftOuter, nullWriters1, table,
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import org.apache.hyracks.dataflow.common.util.MurmurHash128Bit;
+
+/**
+ * A bloom filter over the join keys of the build side of a hash join, used to discard probe tuples that
+ * cannot find a match. Keys are added and tested by the hash the join's own hash functions compute with
+ * {@link #HASH_SEED}, so that the filter agrees with the join's comparators; the probe bits are derived from
+ * that hash by double hashing on its Murmur finalization.
+ */
+public class RuntimeBloomFilter {
+    /** The seed of the key hash functions; it differs from the seeds the join partitions with. */
+    public static final int HASH_SEED = 0x5bd1e995;
+    public static final int DEFAULT_BITS_PER_KEY = 10;
+    /** The build key hashes are kept until the build closes, so the filter is given up past this many keys. */
+    public static final int MAX_KEYS = 1 << 22;
+
+    private final long[] bits;
+    private final int bitMask;
+    private final int numHashes;
+
+    private RuntimeBloomFilter(int numKeys, int bitsPerKey) {
+        int numBits = getNumBits(numKeys, bitsPerKey);
+        bits = new long[numBits >>> 6];
+        bitMask = numBits - 1;
+        numHashes = Math.max(1, (int) Math.round(bitsPerKey * Math.log(2)));
+    }
+
+    private static int getNumBits(int numKeys, int bitsPerKey) {
+        long wantedBits = Math.max(64, (long) numKeys * bitsPerKey);
+        return wantedBits >= (1 << 30) ? 1 << 30 : Integer.highestOneBit((int) wantedBits - 1) << 1;
+    }
+
+    /**
+     * @return the most memory, in bytes, that a {@link Builder} of at most maxKeys keys and the filter it builds
+     *         take together
+     */
+    public static long getMaxMemorySize(int maxKeys, int bitsPerKey) {
+        return 4L * maxKeys + (getNumBits(maxKeys, bitsPerKey) >>> 3);
+    }
+
+    /**
+     * @return the most keys a {@link Builder} can take so that it and its filter fit in the given memory, at
+     *         most {@link #MAX_KEYS}
+     */
+    public static int getMaxKeys(long memoryInBytes, int bitsPerKey) {
+        // the bits are at most twice the wanted bits, and at least 64 of them
+        long maxKeys = (memoryInBytes - 8) * 4 / (16 + bitsPerKey);
+        return (int) Math.max(0, Math.min(MAX_KEYS, maxKeys));
+    }
+
+    /**
+     * Creates a filter over the first count key hashes.
+     */
+    public static RuntimeBloomFilter create(int[] keyHashes, int count, int bitsPerKey) {
+        RuntimeBloomFilter filter = new RuntimeBloomFilter(count, bitsPerKey);
+        for (int i = 0; i < count; i++) {
+            filter.add(keyHashes[i]);
+        }
+        return filter;
+    }
+
+    public void add(int keyHash) {
+        long h = MurmurHash128Bit.fmix(keyHash);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (h1 + i * h2) & bitMask;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(int keyHash) {
+        long h = MurmurHash128Bit.fmix(keyHash);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (h1 + i * h2) & bitMask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getNumBits() {
+        return bitMask + 1;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    /**
+     * Collects the key hashes of the build side, up to a limit past which the filter is not worth keeping.
+     */
+    public static class Builder {
+        private final int maxKeys;
+        private final int bitsPerKey;
+        private int[] keyHashes;
+        private int count = 0;
+        private boolean overflow = false;
+
+        public Builder(int maxKeys, int bitsPerKey) {
+            this.maxKeys = maxKeys;
+            this.bitsPerKey = bitsPerKey;
+            this.keyHashes = new int[Math.min(maxKeys, 1024)];
+        }
+
+        public void add(int keyHash) {
+            if (overflow) {
+                return;
+            }
+            if (count == maxKeys) {
+                overflow = true;
+                keyHashes = null;
+                return;
+            }
+            if (count == keyHashes.length) {
+                int[] newHashes = new int[(int) Math.min(maxKeys, 2L * keyHashes.length)];
+                System.arraycopy(keyHashes, 0, newHashes, 0, count);
+                keyHashes = newHashes;
+            }
+            keyHashes[count++] = keyHash;
+        }
+
+        /**
+         * @return the filter, or null if more than maxKeys keys were added
+         */
+        public RuntimeBloomFilter build() {
+            if (overflow) {
+                return null;
+            }
+            RuntimeBloomFilter filter = create(keyHashes, count, bitsPerKey);
+            keyHashes = null;
+            return filter;
+        }
+    }
+}
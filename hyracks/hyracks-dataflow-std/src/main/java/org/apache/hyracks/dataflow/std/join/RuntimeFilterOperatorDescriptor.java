@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.OperatorDescriptorId;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputerFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
+import org.apache.hyracks.dataflow.common.data.partition.FieldHashPartitionComputerFamily;
+import org.apache.hyracks.dataflow.std.base.AbstractSingleActivityOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputUnaryOutputOperatorNodePushable;
+
+/**
+ * Drops the tuples whose keys are rejected by the {@link RuntimeBloomFilter} that an
+ * {@link OptimizedHybridHashJoinOperatorDescriptor} built over its build side, so that they are neither shipped
+ * nor spilled by the join. Tuples pass unfiltered if the join has no filter.
+ * The filter of a join partition only covers the build keys of that partition. Without a partition computer,
+ * this operator must be on the probe input of the join with a one-to-one connection between them, e.g. right
+ * after a select or an index search in the probe pipeline. Given the partition computer of the connector that
+ * hash partitions the probe input, it can run before that connector: each tuple is checked against the filter of
+ * the join partition it is sent to, so it is dropped before the shuffle. The filters are read from the joblet
+ * state, so only the join partitions built on the same node filter; tuples sent to the others pass. Being
+ * pipelined with the probe phase makes this operator run after the build phase either way.
+ */
+public class RuntimeFilterOperatorDescriptor extends AbstractSingleActivityOperatorDescriptor {
+    private static final long serialVersionUID = 1L;
+
+    private final OperatorDescriptorId joinId;
+    private final int[] keyFields;
+    private final IBinaryHashFunctionFamily[] hashFunctionFamilies;
+    private final ITuplePartitionComputerFactory probePartitionComputerFactory;
+    private final int nJoinPartitions;
+
+    /**
+     * @param joinId
+     *            the id of the join, which must have {@link OptimizedHybridHashJoinOperatorDescriptor#setRuntimeFilter}
+     *            enabled
+     * @param keyFields
+     *            the fields of the input that are the probe keys of the join
+     * @param hashFunctionFamilies
+     *            the hash function families of the join
+     */
+    public RuntimeFilterOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor rDesc,
+            OperatorDescriptorId joinId, int[] keyFields, IBinaryHashFunctionFamily[] hashFunctionFamilies) {
+        this(spec, rDesc, joinId, keyFields, hashFunctionFamilies, null, 0);
+    }
+
+    /**
+     * @param probePartitionComputerFactory
+     *            the partition computer of the connector that hash partitions the output of this operator into the
+     *            probe input of the join
+     * @param nJoinPartitions
+     *            the number of partitions of the join
+     */
+    public RuntimeFilterOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor rDesc,
+            OperatorDescriptorId joinId, int[] keyFields, IBinaryHashFunctionFamily[] hashFunctionFamilies,
+            ITuplePartitionComputerFactory probePartitionComputerFactory, int nJoinPartitions) {
+        super(spec, 1, 1);
+        recordDescriptors[0] = rDesc;
+        this.joinId = joinId;
+        this.keyFields = keyFields;
+        this.hashFunctionFamilies = hashFunctionFamilies;
+        this.probePartitionComputerFactory = probePartitionComputerFactory;
+        this.nJoinPartitions = nJoinPartitions;
+    }
+
+    @Override
+    public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+            final IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions)
+                    throws HyracksDataException {
+
+        return new AbstractUnaryInputUnaryOutputOperatorNodePushable() {
+            private final ITuplePartitionComputer keyHash = new FieldHashPartitionComputerFamily(keyFields,
+                    hashFunctionFamilies).createPartitioner(RuntimeBloomFilter.HASH_SEED);
+            private final ITuplePartitionComputer joinPartitioner = probePartitionComputerFactory == null ? null
+                    : probePartitionComputerFactory.createPartitioner();
+            // the filter of each join partition the output goes to, null where there is none on this node
+            private RuntimeBloomFilter[] filters;
+            private FrameTupleAccessor fta;
+            private FrameTupleAppender appender;
+
+            @Override
+            public void open() throws HyracksDataException {
+                boolean anyFilter = false;
+                if (joinPartitioner == null) {
+                    filters = new RuntimeBloomFilter[] {
+                            OptimizedHybridHashJoinOperatorDescriptor.getRuntimeFilter(ctx, joinId, partition) };
+                    anyFilter = filters[0] != null;
+                } else {
+                    filters = new RuntimeBloomFilter[nJoinPartitions];
+                    for (int i = 0; i < nJoinPartitions; i++) {
+                        filters[i] = OptimizedHybridHashJoinOperatorDescriptor.getRuntimeFilter(ctx, joinId, i);
+                        anyFilter |= filters[i] != null;
+                    }
+                }
+                if (anyFilter) {
+                    fta = new FrameTupleAccessor(recordDescriptors[0]);
+                    appender = new FrameTupleAppender(new VSizeFrame(ctx));
+                }
+                writer.open();
+            }
+
+            @Override
+            public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                if (appender == null) {
+                    FrameUtils.flushFrame(buffer, writer);
+                    return;
+                }
+                fta.reset(buffer);
+                int count = fta.getTupleCount();
+                for (int i = 0; i < count; i++) {
+                    RuntimeBloomFilter filter = joinPartitioner == null ? filters[0]
+                            : filters[joinPartitioner.partition(fta, i, nJoinPartitions)];
+                    if (filter == null || filter.mightContain(keyHash.partition(fta, i, Integer.MAX_VALUE))) {
+                        FrameUtils.appendToWriter(writer, appender, fta, i);
+                    }
+                }
+            }
+
+            @Override
+            public void fail() throws HyracksDataException {
+                writer.fail();
+            }
+
+            @Override
+            public void close() throws HyracksDataException {
+                try {
+                    if (appender != null) {
+                        appender.write(writer, true);
+                    }
+                } finally {
+                    writer.close();
+                }
+            }
+
+            @Override
+            public void flush() throws HyracksDataException {
+                if (appender != null) {
+                    appender.write(writer, true);
+                }
+                writer.flush();
+            }
+        };
+    }
+}
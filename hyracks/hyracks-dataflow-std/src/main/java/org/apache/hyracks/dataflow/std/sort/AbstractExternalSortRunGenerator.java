@@ -64,7 +64,14 @@ public abstract class AbstractExternalSortRunGenerator extends AbstractSortRunGe
         IFrameFreeSlotPolicy freeSlotPolicy = FrameFreeSlotPolicyFactory.createFreeSlotPolicy(policy, maxSortFrames);
         IFrameBufferManager bufferManager = new VariableFrameMemoryManager(
                 new VariableFramePool(ctx, maxSortFrames * ctx.getInitialFrameSize()), freeSlotPolicy);
-        if (alg == Algorithm.MERGE_SORT) {
+        int maxThreads = ctx.getJobletContext().getMaxThreadsPerTask();
+        if (FrameSorterRadixSort.canSort(firstKeyNormalizerFactory, comparatorFactories)) {
+            frameSorter = new FrameSorterRadixSort(ctx, bufferManager, sortFields, firstKeyNormalizerFactory,
+                    comparatorFactories, recordDesc, outputLimit);
+        } else if (maxThreads > 1) {
+            frameSorter = new FrameSorterParallelMergeSort(ctx, bufferManager, sortFields, firstKeyNormalizerFactory,
+                    comparatorFactories, recordDesc, maxThreads, outputLimit);
+        } else if (alg != Algorithm.QUICK_SORT) {
             frameSorter = new FrameSorterMergeSort(ctx, bufferManager, sortFields, firstKeyNormalizerFactory,
                     comparatorFactories, recordDesc, outputLimit);
         } else {
@@ -19,7 +19,6 @@
 package org.apache.hyracks.dataflow.std.sort;
 
 import java.util.ArrayList;
-import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.logging.Level;
@@ -44,7 +43,6 @@ public abstract class AbstractExternalSortRunMerger {
     protected final IFrameWriter writer;
 
     private final List<GeneratedRunFileReader> runs;
-    private final BitSet currentGenerationRunAvailable;
     private final IBinaryComparator[] comparators;
     private final INormalizedKeyComputer nmkComputer;
     private final RecordDescriptor recordDesc;
@@ -52,6 +50,7 @@ public abstract class AbstractExternalSortRunMerger {
     private final int MAX_FRAME_SIZE;
     private final int topK;
     private List<GroupVSizeFrame> inFrames;
+    private List<GroupVSizeFrame> readAheadFrames;
     private VSizeFrame outputFrame;
     private ISorter sorter;
 
@@ -69,7 +68,6 @@ public abstract class AbstractExternalSortRunMerger {
         this.ctx = ctx;
         this.sorter = sorter;
         this.runs = new LinkedList<>(runs);
-        this.currentGenerationRunAvailable = new BitSet(runs.size());
         this.comparators = comparators;
         this.nmkComputer = nmkComputer;
         this.recordDesc = recordDesc;
@@ -101,60 +99,52 @@ public abstract class AbstractExternalSortRunMerger {
                 finalWriter.open();
 
                 int maxMergeWidth = framesLimit - 1;
+                int budget = maxMergeWidth * ctx.getInitialFrameSize();
 
                 inFrames = new ArrayList<>(maxMergeWidth);
+                readAheadFrames = new ArrayList<>(maxMergeWidth);
                 outputFrame = new VSizeFrame(ctx);
                 List<GeneratedRunFileReader> partialRuns = new ArrayList<>(maxMergeWidth);
-
-                int stop = runs.size();
-                currentGenerationRunAvailable.set(0, stop);
+                /**
+                 * With an executor to read on, keep half of the budget for the read-ahead frames and let the merge
+                 * width shrink instead, unless the runs' frames then no longer fit two at a time.
+                 */
+                int selectBudget = ctx.getExecutorService() != null ? budget / 2 : budget;
 
                 while (true) {
-
-                    int unUsed = selectPartialRuns(maxMergeWidth * ctx.getInitialFrameSize(), runs, partialRuns,
-                            currentGenerationRunAvailable, stop);
-                    prepareFrames(unUsed, inFrames, partialRuns);
-
-                    if (!currentGenerationRunAvailable.isEmpty() || stop < runs.size()) {
-                        GeneratedRunFileReader reader;
-                        if (partialRuns.size() == 1) {
-                            if (!currentGenerationRunAvailable.isEmpty()) {
-                                throw new HyracksDataException(
-                                        "The record is too big to put into the merging frame, please"
-                                                + " allocate more sorting memory");
-                            } else {
-                                reader = partialRuns.get(0);
-                            }
-
-                        } else {
-                            RunFileWriter mergeFileWriter = prepareIntermediateMergeRunFile();
-                            IFrameWriter mergeResultWriter = prepareIntermediateMergeResultWriter(mergeFileWriter);
-
-                            mergeResultWriter.open();
-                            merge(mergeResultWriter, partialRuns);
-                            mergeResultWriter.close();
-
-                            reader = mergeFileWriter.createReader();
-                        }
-                        runs.add(reader);
-
-                        if (currentGenerationRunAvailable.isEmpty()) {
-
-                            if (LOGGER.isLoggable(Level.FINE)) {
-                                LOGGER.fine("generated runs:" + stop);
-                            }
-                            runs.subList(0, stop).clear();
-                            currentGenerationRunAvailable.clear();
-                            currentGenerationRunAvailable.set(0, runs.size());
-                            stop = runs.size();
-                        }
-                    } else {
+                    int width = selectPartialRuns(selectBudget, runs, partialRuns, runs.size());
+                    if (width < 2 && width < runs.size() && selectBudget < budget) {
+                        selectBudget = budget;
+                        continue;
+                    }
+                    if (width == runs.size()) {
                         if (LOGGER.isLoggable(Level.FINE)) {
-                            LOGGER.fine("final runs:" + stop);
+                            LOGGER.fine("final runs:" + width);
                         }
-                        merge(finalWriter, partialRuns);
+                        merge(finalWriter, partialRuns, budget);
                         break;
                     }
+                    if (width == 1) {
+                        throw new HyracksDataException("The record is too big to put into the merging frame, please"
+                                + " allocate more sorting memory");
+                    }
+                    /**
+                     * Every merge pass replaces (width - 1) runs. Make the first pass just wide enough that
+                     * every later one, the final merge included, is a full-width merge.
+                     */
+                    int firstWidth = (runs.size() - 2) % (width - 1) + 2;
+                    selectPartialRuns(selectBudget, runs, partialRuns, firstWidth);
+                    runs.removeAll(partialRuns);
+
+                    RunFileWriter mergeFileWriter = prepareIntermediateMergeRunFile();
+                    IFrameWriter mergeResultWriter = prepareIntermediateMergeResultWriter(mergeFileWriter);
+                    mergeResultWriter.open();
+                    merge(mergeResultWriter, partialRuns, budget);
+                    mergeResultWriter.close();
+                    runs.add(mergeFileWriter.createReader());
+                    if (LOGGER.isLoggable(Level.FINE)) {
+                        LOGGER.fine("merged " + partialRuns.size() + " runs, remaining runs:" + runs.size());
+                    }
                 }
             }
         } catch (Exception e) {
@@ -169,22 +159,24 @@ public abstract class AbstractExternalSortRunMerger {
         }
     }
 
+    /**
+     * Takes, in order, at most maxRuns runs whose frames fit into the budget, skipping the runs that do not fit.
+     *
+     * @return the number of runs selected
+     */
     private static int selectPartialRuns(int budget, List<GeneratedRunFileReader> runs,
-            List<GeneratedRunFileReader> partialRuns, BitSet runAvailable, int stop) {
+            List<GeneratedRunFileReader> partialRuns, int maxRuns) {
         partialRuns.clear();
-        int maxFrameSizeOfGenRun = 0;
-        int nextRunId = runAvailable.nextSetBit(0);
-        while (budget > 0 && nextRunId >= 0 && nextRunId < stop) {
-            int runFrameSize = runs.get(nextRunId).getMaxFrameSize();
-            if (budget - runFrameSize >= 0) {
-                partialRuns.add(runs.get(nextRunId));
-                budget -= runFrameSize;
-                runAvailable.clear(nextRunId);
-                maxFrameSizeOfGenRun = Math.max(runFrameSize, maxFrameSizeOfGenRun);
+        for (GeneratedRunFileReader run : runs) {
+            if (partialRuns.size() >= maxRuns) {
+                break;
+            }
+            if (run.getMaxFrameSize() <= budget) {
+                partialRuns.add(run);
+                budget -= run.getMaxFrameSize();
             }
-            nextRunId = runAvailable.nextSetBit(nextRunId + 1);
         }
-        return budget;
+        return partialRuns.size();
     }
 
     private void prepareFrames(int extraFreeMem, List<GroupVSizeFrame> inFrames,
@@ -214,6 +206,19 @@ public abstract class AbstractExternalSortRunMerger {
         }
     }
 
+    private void prepareReadAheadFrames(List<GeneratedRunFileReader> partialRuns) throws HyracksDataException {
+        if (readAheadFrames.size() > partialRuns.size()) {
+            readAheadFrames.subList(partialRuns.size(), readAheadFrames.size()).clear();
+        }
+        int i;
+        for (i = 0; i < readAheadFrames.size(); i++) {
+            readAheadFrames.get(i).resize(partialRuns.get(i).getMaxFrameSize());
+        }
+        for (; i < partialRuns.size(); i++) {
+            readAheadFrames.add(new GroupVSizeFrame(ctx, partialRuns.get(i).getMaxFrameSize()));
+        }
+    }
+
     abstract protected IFrameWriter prepareSkipMergingFinalResultWriter(IFrameWriter nextWriter)
             throws HyracksDataException;
 
@@ -226,9 +231,26 @@ public abstract class AbstractExternalSortRunMerger {
 
     abstract protected int[] getSortFields();
 
-    private void merge(IFrameWriter writer, List<GeneratedRunFileReader> partialRuns) throws HyracksDataException {
-        RunMergingFrameReader merger = new RunMergingFrameReader(ctx, partialRuns, inFrames, getSortFields(),
-                comparators, nmkComputer, recordDesc, topK);
+    /**
+     * Merges the partial runs within the budget. If the runs fit twice, which the run selection arranges whenever
+     * an executor is available, every run is double buffered so that its next frame is read while the current one
+     * is merged; otherwise the spare memory enlarges the input frames.
+     */
+    private void merge(IFrameWriter writer, List<GeneratedRunFileReader> partialRuns, int budget)
+            throws HyracksDataException {
+        int used = 0;
+        for (GeneratedRunFileReader run : partialRuns) {
+            used += run.getMaxFrameSize();
+        }
+        boolean readAhead = ctx.getExecutorService() != null && partialRuns.size() > 1 && 2 * used <= budget;
+        if (readAhead) {
+            prepareFrames((budget - 2 * used) / 2, inFrames, partialRuns);
+            prepareReadAheadFrames(partialRuns);
+        } else {
+            prepareFrames(budget - used, inFrames, partialRuns);
+        }
+        RunMergingFrameReader merger = new RunMergingFrameReader(ctx, partialRuns, inFrames,
+                readAhead ? readAheadFrames : null, getSortFields(), comparators, nmkComputer, recordDesc, topK);
         int io = 0;
         merger.open();
         try {
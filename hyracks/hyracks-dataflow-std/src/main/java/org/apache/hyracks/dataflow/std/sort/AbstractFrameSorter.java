@@ -44,15 +44,21 @@ import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
 public abstract class AbstractFrameSorter implements IFrameSorter {
 
     protected Logger LOGGER = Logger.getLogger(AbstractFrameSorter.class.getName());
-    static final int PTR_SIZE = 4;
     static final int ID_FRAMEID = 0;
     static final int ID_TUPLE_START = 1;
     static final int ID_TUPLE_END = 2;
     static final int ID_NORMAL_KEY = 3;
 
     protected final int[] sortFields;
+    protected final IBinaryComparatorFactory[] comparatorFactories;
     protected final IBinaryComparator[] comparators;
     protected final INormalizedKeyComputer nkc;
+    // number of ints of the normalized key in each tuple pointer
+    protected final int nkLength;
+    // true if equal normalized keys need no comparison of the first sort field
+    protected final boolean nkDecisive;
+    // number of ints per tuple pointer in tPointers
+    protected final int ptrSize;
     protected final IFrameBufferManager bufferManager;
     protected final FrameTupleAccessor inputTupleAccessor;
     protected final IFrameTupleAppender outputAppender;
@@ -62,7 +68,7 @@ public abstract class AbstractFrameSorter implements IFrameSorter {
     protected int[] tPointers;
     protected int tupleCount;
 
-    private FrameTupleAccessor fta2;
+    private final int fieldSlotsLength;
     private BufferInfo info = new BufferInfo(null, -1, -1);
 
     public AbstractFrameSorter(IHyracksTaskContext ctx, IFrameBufferManager bufferManager, int[] sortFields,
@@ -79,15 +85,16 @@ public abstract class AbstractFrameSorter implements IFrameSorter {
         this.bufferManager = bufferManager;
         this.sortFields = sortFields;
         this.nkc = firstKeyNormalizerFactory == null ? null : firstKeyNormalizerFactory.createNormalizedKeyComputer();
-        this.comparators = new IBinaryComparator[comparatorFactories.length];
-        for (int i = 0; i < comparatorFactories.length; ++i) {
-            comparators[i] = comparatorFactories[i].createBinaryComparator();
-        }
+        this.nkLength = nkc == null ? 0 : firstKeyNormalizerFactory.getNormalizedKeyLength();
+        this.nkDecisive = nkc != null && firstKeyNormalizerFactory.isDecisive();
+        this.ptrSize = ID_NORMAL_KEY + nkLength;
+        this.comparatorFactories = comparatorFactories;
+        this.comparators = createComparators();
         this.inputTupleAccessor = new FrameTupleAccessor(recordDescriptor);
+        this.fieldSlotsLength = inputTupleAccessor.getFieldSlotsLength();
         this.outputAppender = new FrameTupleAppender();
         this.outputFrame = new VSizeFrame(ctx);
         this.outputLimit = outputLimit;
-        this.fta2 = new FrameTupleAccessor(recordDescriptor);
     }
 
     @Override
@@ -116,8 +123,8 @@ public abstract class AbstractFrameSorter implements IFrameSorter {
             inputTupleAccessor.reset(info.getBuffer(), info.getStartOffset(), info.getLength());
             tupleCount += inputTupleAccessor.getTupleCount();
         }
-        if (tPointers == null || tPointers.length < tupleCount * PTR_SIZE) {
-            tPointers = new int[tupleCount * PTR_SIZE];
+        if (tPointers == null || tPointers.length < tupleCount * ptrSize) {
+            tPointers = new int[tupleCount * ptrSize];
         }
         int ptr = 0;
         int sfIdx = sortFields[0];
@@ -129,14 +136,15 @@ public abstract class AbstractFrameSorter implements IFrameSorter {
             for (int j = 0; j < tCount; ++j) {
                 int tStart = inputTupleAccessor.getTupleStartOffset(j);
                 int tEnd = inputTupleAccessor.getTupleEndOffset(j);
-                tPointers[ptr * PTR_SIZE + ID_FRAMEID] = i;
-                tPointers[ptr * PTR_SIZE + ID_TUPLE_START] = tStart;
-                tPointers[ptr * PTR_SIZE + ID_TUPLE_END] = tEnd;
-                int f0StartRel = inputTupleAccessor.getFieldStartOffset(j, sfIdx);
-                int f0EndRel = inputTupleAccessor.getFieldEndOffset(j, sfIdx);
-                int f0Start = f0StartRel + tStart + inputTupleAccessor.getFieldSlotsLength();
-                tPointers[ptr * PTR_SIZE + ID_NORMAL_KEY] =
-                        nkc == null ? 0 : nkc.normalize(array, f0Start, f0EndRel - f0StartRel);
+                tPointers[ptr * ptrSize + ID_FRAMEID] = i;
+                tPointers[ptr * ptrSize + ID_TUPLE_START] = tStart;
+                tPointers[ptr * ptrSize + ID_TUPLE_END] = tEnd;
+                if (nkc != null) {
+                    int f0StartRel = inputTupleAccessor.getFieldStartOffset(j, sfIdx);
+                    int f0EndRel = inputTupleAccessor.getFieldEndOffset(j, sfIdx);
+                    int f0Start = f0StartRel + tStart + inputTupleAccessor.getFieldSlotsLength();
+                    nkc.normalize(array, f0Start, f0EndRel - f0StartRel, tPointers, ptr * ptrSize + ID_NORMAL_KEY);
+                }
                 ++ptr;
             }
         }
@@ -164,9 +172,9 @@ public abstract class AbstractFrameSorter implements IFrameSorter {
         int limit = Math.min(tupleCount, outputLimit);
         int io = 0;
         for (int ptr = 0; ptr < limit; ++ptr) {
-            int i = tPointers[ptr * PTR_SIZE + ID_FRAMEID];
-            int tStart = tPointers[ptr * PTR_SIZE + ID_TUPLE_START];
-            int tEnd = tPointers[ptr * PTR_SIZE + ID_TUPLE_END];
+            int i = tPointers[ptr * ptrSize + ID_FRAMEID];
+            int tStart = tPointers[ptr * ptrSize + ID_TUPLE_START];
+            int tEnd = tPointers[ptr * ptrSize + ID_TUPLE_END];
             bufferManager.getFrame(i, info);
             inputTupleAccessor.reset(info.getBuffer(), info.getStartOffset(), info.getLength());
             int flushed = FrameUtils.appendToWriter(writer, outputAppender, inputTupleAccessor, tStart, tEnd);
@@ -185,37 +193,47 @@ public abstract class AbstractFrameSorter implements IFrameSorter {
     }
 
     protected final int compare(int tp1, int tp2) throws HyracksDataException {
-        int i1 = tPointers[tp1 * 4];
-        int j1 = tPointers[tp1 * 4 + 1];
-        int v1 = tPointers[tp1 * 4 + 3];
-
-        int tp2i = tPointers[tp2 * 4];
-        int tp2j = tPointers[tp2 * 4 + 1];
-        int tp2v = tPointers[tp2 * 4 + 3];
+        return compare(tPointers, tp1, tPointers, tp2, comparators, info);
+    }
 
-        if (v1 != tp2v) {
-            return ((((long) v1) & 0xffffffffL) < (((long) tp2v) & 0xffffffffL)) ? -1 : 1;
+    /**
+     * Compares tuple pointer tp1 of ptrs1 with tuple pointer tp2 of ptrs2. Callers that compare from several
+     * threads pass their own comparators (see {@link #createComparators()}) and BufferInfo.
+     */
+    protected final int compare(int[] ptrs1, int tp1, int[] ptrs2, int tp2, IBinaryComparator[] cmps,
+            BufferInfo cmpInfo) throws HyracksDataException {
+        int p1 = tp1 * ptrSize;
+        int p2 = tp2 * ptrSize;
+        for (int k = ID_NORMAL_KEY; k < ptrSize; ++k) {
+            int v1 = ptrs1[p1 + k];
+            int v2 = ptrs2[p2 + k];
+            if (v1 != v2) {
+                return ((((long) v1) & 0xffffffffL) < (((long) v2) & 0xffffffffL)) ? -1 : 1;
+            }
         }
-        int i2 = tp2i;
-        int j2 = tp2j;
-        bufferManager.getFrame(i1, info);
-        byte[] b1 = info.getBuffer().array();
-        inputTupleAccessor.reset(info.getBuffer(), info.getStartOffset(), info.getLength());
-
-        bufferManager.getFrame(i2, info);
-        byte[] b2 = info.getBuffer().array();
-        fta2.reset(info.getBuffer(), info.getStartOffset(), info.getLength());
-        for (int f = 0; f < comparators.length; ++f) {
+        int firstField = nkDecisive ? 1 : 0;
+        if (firstField == cmps.length) {
+            return 0;
+        }
+        int i1 = ptrs1[p1 + ID_FRAMEID];
+        int j1 = ptrs1[p1 + ID_TUPLE_START];
+        int i2 = ptrs2[p2 + ID_FRAMEID];
+        int j2 = ptrs2[p2 + ID_TUPLE_START];
+        bufferManager.getFrame(i1, cmpInfo);
+        byte[] b1 = cmpInfo.getBuffer().array();
+        bufferManager.getFrame(i2, cmpInfo);
+        byte[] b2 = cmpInfo.getBuffer().array();
+        for (int f = firstField; f < cmps.length; ++f) {
             int fIdx = sortFields[f];
             int f1Start = fIdx == 0 ? 0 : IntSerDeUtils.getInt(b1, j1 + (fIdx - 1) * 4);
             int f1End = IntSerDeUtils.getInt(b1, j1 + fIdx * 4);
-            int s1 = j1 + inputTupleAccessor.getFieldSlotsLength() + f1Start;
+            int s1 = j1 + fieldSlotsLength + f1Start;
             int l1 = f1End - f1Start;
             int f2Start = fIdx == 0 ? 0 : IntSerDeUtils.getInt(b2, j2 + (fIdx - 1) * 4);
             int f2End = IntSerDeUtils.getInt(b2, j2 + fIdx * 4);
-            int s2 = j2 + fta2.getFieldSlotsLength() + f2Start;
+            int s2 = j2 + fieldSlotsLength + f2Start;
             int l2 = f2End - f2Start;
-            int c = comparators[f].compare(b1, s1, l1, b2, s2, l2);
+            int c = cmps[f].compare(b1, s1, l1, b2, s2, l2);
             if (c != 0) {
                 return c;
             }
@@ -223,6 +241,14 @@ public abstract class AbstractFrameSorter implements IFrameSorter {
         return 0;
     }
 
+    protected IBinaryComparator[] createComparators() {
+        IBinaryComparator[] cmps = new IBinaryComparator[comparatorFactories.length];
+        for (int i = 0; i < comparatorFactories.length; ++i) {
+            cmps[i] = comparatorFactories[i].createBinaryComparator();
+        }
+        return cmps;
+    }
+
     @Override
     public void close() {
         tupleCount = 0;
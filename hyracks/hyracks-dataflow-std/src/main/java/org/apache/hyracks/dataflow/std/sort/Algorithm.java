@@ -19,7 +19,15 @@
 
 package org.apache.hyracks.dataflow.std.sort;
 
+/**
+ * The in-memory sort used by the external sort run generators. Whatever is requested, a run generator
+ * uses {@link #RADIX_SORT} whenever the first-key normalizer decides the complete order (see
+ * {@link FrameSorterRadixSort#canSort}), and falls back to {@link #MERGE_SORT} when radix sort is requested
+ * but cannot be used. Otherwise, if the job allows more than one thread per task, a run is sorted with
+ * {@link FrameSorterParallelMergeSort}.
+ */
 public enum Algorithm {
     QUICK_SORT,
-    MERGE_SORT
+    MERGE_SORT,
+    RADIX_SORT
 }
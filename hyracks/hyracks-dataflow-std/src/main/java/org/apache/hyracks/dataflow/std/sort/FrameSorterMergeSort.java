@@ -68,7 +68,7 @@ public class FrameSorterMergeSort extends AbstractFrameSorter {
                 if (next < end) {
                     merge(i, next, step, Math.min(step, end - next));
                 } else {
-                    System.arraycopy(tPointers, i * 4, tPointersTemp, i * 4, (end - i) * 4);
+                    System.arraycopy(tPointers, i * ptrSize, tPointersTemp, i * ptrSize, (end - i) * ptrSize);
                 }
             }
             /** prepare next phase merge */
@@ -101,19 +101,16 @@ public class FrameSorterMergeSort extends AbstractFrameSorter {
         }
         if (pos1 <= end1) {
             int rest = end1 - pos1 + 1;
-            System.arraycopy(tPointers, pos1 * 4, tPointersTemp, targetPos * 4, rest * 4);
+            System.arraycopy(tPointers, pos1 * ptrSize, tPointersTemp, targetPos * ptrSize, rest * ptrSize);
         }
         if (pos2 <= end2) {
             int rest = end2 - pos2 + 1;
-            System.arraycopy(tPointers, pos2 * 4, tPointersTemp, targetPos * 4, rest * 4);
+            System.arraycopy(tPointers, pos2 * ptrSize, tPointersTemp, targetPos * ptrSize, rest * ptrSize);
         }
     }
 
     private void copy(int src, int dest) {
-        tPointersTemp[dest * 4] = tPointers[src * 4];
-        tPointersTemp[dest * 4 + 1] = tPointers[src * 4 + 1];
-        tPointersTemp[dest * 4 + 2] = tPointers[src * 4 + 2];
-        tPointersTemp[dest * 4 + 3] = tPointers[src * 4 + 3];
+        System.arraycopy(tPointers, src * ptrSize, tPointersTemp, dest * ptrSize, ptrSize);
     }
 
 }
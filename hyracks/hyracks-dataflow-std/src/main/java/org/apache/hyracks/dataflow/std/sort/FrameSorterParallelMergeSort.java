@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.std.buffermanager.BufferInfo;
+import org.apache.hyracks.dataflow.std.buffermanager.IFrameBufferManager;
+
+/**
+ * A merge sort of the tuple pointers that uses up to numThreads threads: the task thread plus threads of
+ * the task's executor. tPointers is cut into one slice per thread and the slices are sorted concurrently.
+ * The sorted runs are then merged pairwise in rounds. In every round each thread writes one slice of the
+ * output and finds where its slice starts in the two input runs by binary search (merge path), so all
+ * threads also take part in the last merges. Each thread compares with its own comparators. Runs that are
+ * too small to be worth the hand-off are sorted on the task thread alone.
+ */
+public class FrameSorterParallelMergeSort extends AbstractFrameSorter {
+    // below this many tuples per thread the sort does not fan out
+    static final int MIN_TUPLES_PER_THREAD = 4096;
+
+    private final ExecutorService executor;
+    private final int numThreads;
+    private final Worker[] workers;
+    private int[] tPointersTemp;
+
+    public FrameSorterParallelMergeSort(IHyracksTaskContext ctx, IFrameBufferManager bufferManager,
+            int[] sortFields, INormalizedKeyComputerFactory firstKeyNormalizerFactory,
+            IBinaryComparatorFactory[] comparatorFactories, RecordDescriptor recordDescriptor, int numThreads)
+            throws HyracksDataException {
+        this(ctx, bufferManager, sortFields, firstKeyNormalizerFactory, comparatorFactories, recordDescriptor,
+                numThreads, Integer.MAX_VALUE);
+    }
+
+    public FrameSorterParallelMergeSort(IHyracksTaskContext ctx, IFrameBufferManager bufferManager,
+            int[] sortFields, INormalizedKeyComputerFactory firstKeyNormalizerFactory,
+            IBinaryComparatorFactory[] comparatorFactories, RecordDescriptor recordDescriptor, int numThreads,
+            int outputLimit) throws HyracksDataException {
+        super(ctx, bufferManager, sortFields, firstKeyNormalizerFactory, comparatorFactories, recordDescriptor,
+                outputLimit);
+        this.executor = ctx.getExecutorService();
+        this.numThreads = executor == null ? 1 : Math.max(1, numThreads);
+        this.workers = new Worker[this.numThreads];
+        workers[0] = new Worker(comparators);
+        for (int i = 1; i < workers.length; ++i) {
+            workers[i] = new Worker(createComparators());
+        }
+    }
+
+    @Override
+    void sortTupleReferences() throws HyracksDataException {
+        if (tPointersTemp == null || tPointersTemp.length < tPointers.length) {
+            tPointersTemp = new int[tPointers.length];
+        }
+        int nThreads = Math.max(1, Math.min(numThreads, tupleCount / MIN_TUPLES_PER_THREAD));
+
+        // sort one slice per thread, each ending up in tPointers
+        final int[] bounds = new int[nThreads + 1];
+        for (int t = 0; t <= nThreads; ++t) {
+            bounds[t] = (int) ((long) tupleCount * t / nThreads);
+        }
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(nThreads);
+        for (int t = 0; t < nThreads; ++t) {
+            final int slice = t;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws HyracksDataException {
+                    workers[slice].sortSlice(bounds[slice], bounds[slice + 1]);
+                    return null;
+                }
+            });
+        }
+        runAll(tasks);
+
+        // merge neighboring runs until one is left; in every round thread t writes output slice t
+        int[] runBounds = bounds;
+        while (runBounds.length > 2) {
+            final int[] mergeBounds = runBounds;
+            tasks.clear();
+            for (int t = 0; t < nThreads; ++t) {
+                final int slice = t;
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() throws HyracksDataException {
+                        workers[slice].mergeSlice(mergeBounds, bounds[slice], bounds[slice + 1]);
+                        return null;
+                    }
+                });
+            }
+            runAll(tasks);
+            int[] tmp = tPointersTemp;
+            tPointersTemp = tPointers;
+            tPointers = tmp;
+            int numRuns = runBounds.length - 1;
+            int[] nextBounds = new int[(numRuns + 1) / 2 + 1];
+            for (int r = 0; r < numRuns; r += 2) {
+                nextBounds[r / 2] = runBounds[r];
+            }
+            nextBounds[nextBounds.length - 1] = tupleCount;
+            runBounds = nextBounds;
+        }
+    }
+
+    /**
+     * Runs the first task on the calling thread and the others on the executor, and waits for all of them.
+     */
+    private void runAll(List<Callable<Void>> tasks) throws HyracksDataException {
+        List<Future<Void>> futures = new ArrayList<Future<Void>>(tasks.size());
+        for (int i = 1; i < tasks.size(); ++i) {
+            futures.add(executor.submit(tasks.get(i)));
+        }
+        HyracksDataException failure = null;
+        try {
+            tasks.get(0).call();
+        } catch (Exception e) {
+            failure = wrap(e);
+        }
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = failure != null ? failure : new HyracksDataException(e);
+            } catch (ExecutionException e) {
+                failure = failure != null ? failure : wrap(e.getCause());
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static HyracksDataException wrap(Throwable th) {
+        return th instanceof HyracksDataException ? (HyracksDataException) th : new HyracksDataException(th);
+    }
+
+    private class Worker {
+        private final IBinaryComparator[] cmps;
+        private final BufferInfo cmpInfo = new BufferInfo(null, -1, -1);
+
+        Worker(IBinaryComparator[] cmps) {
+            this.cmps = cmps;
+        }
+
+        /**
+         * Bottom-up merge sort of [lo, hi), alternating between tPointers and tPointersTemp.
+         */
+        void sortSlice(int lo, int hi) throws HyracksDataException {
+            int[] src = tPointers;
+            int[] dest = tPointersTemp;
+            for (int step = 1; step < hi - lo; step *= 2) {
+                for (int i = lo; i < hi; i += 2 * step) {
+                    int mid = Math.min(i + step, hi);
+                    int end = Math.min(i + 2 * step, hi);
+                    mergeRanges(src, dest, i, mid, mid, end, i);
+                }
+                int[] tmp = src;
+                src = dest;
+                dest = tmp;
+            }
+            if (src != tPointers) {
+                System.arraycopy(src, lo * ptrSize, tPointers, lo * ptrSize, (hi - lo) * ptrSize);
+            }
+        }
+
+        /**
+         * Writes the output positions [from, to) of the current merge round into tPointersTemp. Each pair of
+         * neighboring runs in runBounds is merged; an unpaired last run is copied.
+         */
+        void mergeSlice(int[] runBounds, int from, int to) throws HyracksDataException {
+            int numRuns = runBounds.length - 1;
+            for (int r = 0; r < numRuns && runBounds[r] < to; r += 2) {
+                int aLo = runBounds[r];
+                int aHi = runBounds[r + 1];
+                int bHi = r + 2 <= numRuns ? runBounds[r + 2] : aHi;
+                if (bHi > from) {
+                    mergePiece(aLo, aHi, bHi, Math.max(from, aLo), Math.min(to, bHi));
+                }
+            }
+        }
+
+        /**
+         * Writes the output positions [from, to) of the merge of the runs [aLo, aHi) and [aHi, bHi) of
+         * tPointers into tPointersTemp.
+         */
+        private void mergePiece(int aLo, int aHi, int bHi, int from, int to) throws HyracksDataException {
+            int a = split(aLo, aHi, bHi, from - aLo);
+            int aEnd = split(aLo, aHi, bHi, to - aLo);
+            int b = aHi + (from - aLo) - (a - aLo);
+            int bEnd = aHi + (to - aLo) - (aEnd - aLo);
+            mergeRanges(tPointers, tPointersTemp, a, aEnd, b, bEnd, from);
+        }
+
+        /**
+         * @return the end in run A of the first d outputs of the merge of A = [aLo, aHi) and B = [aHi, bHi).
+         *         Ties are taken from A first, which keeps the merge stable.
+         */
+        private int split(int aLo, int aHi, int bHi, int d) throws HyracksDataException {
+            int lo = Math.max(0, d - (bHi - aHi));
+            int hi = Math.min(d, aHi - aLo);
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (compare(tPointers, aLo + mid, tPointers, aHi + d - mid - 1, cmps, cmpInfo) <= 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return aLo + lo;
+        }
+
+        private void mergeRanges(int[] src, int[] dest, int a, int aEnd, int b, int bEnd, int out)
+                throws HyracksDataException {
+            while (a < aEnd && b < bEnd) {
+                if (compare(src, a, src, b, cmps, cmpInfo) <= 0) {
+                    System.arraycopy(src, a++ * ptrSize, dest, out++ * ptrSize, ptrSize);
+                } else {
+                    System.arraycopy(src, b++ * ptrSize, dest, out++ * ptrSize, ptrSize);
+                }
+            }
+            if (a < aEnd) {
+                System.arraycopy(src, a * ptrSize, dest, out * ptrSize, (aEnd - a) * ptrSize);
+            } else if (b < bEnd) {
+                System.arraycopy(src, b * ptrSize, dest, out * ptrSize, (bEnd - b) * ptrSize);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        tPointersTemp = null;
+    }
+}
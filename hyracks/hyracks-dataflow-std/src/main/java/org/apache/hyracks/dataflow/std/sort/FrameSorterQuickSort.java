@@ -60,7 +60,7 @@ public class FrameSorterQuickSort extends AbstractFrameSorter {
                     break;
                 }
                 if (cmp == 0) {
-                    swap(tPointers, a++, b);
+                    m = swapAndTrack(a++, b, m);
                 }
                 ++b;
             }
@@ -70,13 +70,13 @@ public class FrameSorterQuickSort extends AbstractFrameSorter {
                     break;
                 }
                 if (cmp == 0) {
-                    swap(tPointers, c, d--);
+                    m = swapAndTrack(c, d--, m);
                 }
                 --c;
             }
             if (b > c)
                 break;
-            swap(tPointers, b++, c--);
+            m = swapAndTrack(b++, c--, m);
         }
 
         int s;
@@ -94,11 +94,17 @@ public class FrameSorterQuickSort extends AbstractFrameSorter {
         }
     }
 
+    // the pivot is compared in place, so follow it when it is swapped
+    private int swapAndTrack(int a, int b, int m) {
+        swap(tPointers, a, b);
+        return m == a ? b : m == b ? a : m;
+    }
+
     private void swap(int x[], int a, int b) {
-        for (int i = 0; i < 4; ++i) {
-            int t = x[a * 4 + i];
-            x[a * 4 + i] = x[b * 4 + i];
-            x[b * 4 + i] = t;
+        for (int i = 0; i < ptrSize; ++i) {
+            int t = x[a * ptrSize + i];
+            x[a * ptrSize + i] = x[b * ptrSize + i];
+            x[b * ptrSize + i] = t;
         }
     }
 
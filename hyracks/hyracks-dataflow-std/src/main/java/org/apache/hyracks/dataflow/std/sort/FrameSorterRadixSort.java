@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.sort;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.std.buffermanager.IFrameBufferManager;
+
+/**
+ * Sorts the tuple pointers with a least-significant-digit radix sort over their normalized keys, one byte
+ * per pass. This is only correct when the normalized key decides the complete order, i.e. when there is a
+ * single sort field and its normalizer is decisive (see {@link #canSort}).
+ * A single scan over tPointers builds the histograms of all digits up front; digits that are the same for
+ * all tuples (e.g. the high bytes of small integers) are skipped. Each remaining pass scatters the pointers
+ * sequentially from tPointers into a second array of the same layout.
+ */
+public class FrameSorterRadixSort extends AbstractFrameSorter {
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int DIGITS_PER_WORD = Integer.SIZE / RADIX_BITS;
+
+    private int[] tPointersTemp;
+    private final int[] counts;
+
+    public FrameSorterRadixSort(IHyracksTaskContext ctx, IFrameBufferManager bufferManager, int[] sortFields,
+            INormalizedKeyComputerFactory firstKeyNormalizerFactory, IBinaryComparatorFactory[] comparatorFactories,
+            RecordDescriptor recordDescriptor) throws HyracksDataException {
+        this(ctx, bufferManager, sortFields, firstKeyNormalizerFactory, comparatorFactories, recordDescriptor,
+                Integer.MAX_VALUE);
+    }
+
+    public FrameSorterRadixSort(IHyracksTaskContext ctx, IFrameBufferManager bufferManager, int[] sortFields,
+            INormalizedKeyComputerFactory firstKeyNormalizerFactory, IBinaryComparatorFactory[] comparatorFactories,
+            RecordDescriptor recordDescriptor, int outputLimit) throws HyracksDataException {
+        super(ctx, bufferManager, sortFields, firstKeyNormalizerFactory, comparatorFactories, recordDescriptor,
+                outputLimit);
+        if (!canSort(firstKeyNormalizerFactory, comparatorFactories)) {
+            throw new HyracksDataException("Radix sort requires a decisive normalized key on a single sort field");
+        }
+        counts = new int[nkLength * DIGITS_PER_WORD * RADIX];
+    }
+
+    /**
+     * @return true if the order of the tuples is completely determined by their normalized keys.
+     */
+    public static boolean canSort(INormalizedKeyComputerFactory firstKeyNormalizerFactory,
+            IBinaryComparatorFactory[] comparatorFactories) {
+        return firstKeyNormalizerFactory != null && firstKeyNormalizerFactory.isDecisive()
+                && comparatorFactories.length == 1;
+    }
+
+    @Override
+    void sortTupleReferences() throws HyracksDataException {
+        if (tupleCount < 2) {
+            return;
+        }
+        if (tPointersTemp == null || tPointersTemp.length < tPointers.length) {
+            tPointersTemp = new int[tPointers.length];
+        }
+        buildHistograms();
+        // least significant digit first: the last byte of the last word
+        for (int d = nkLength * DIGITS_PER_WORD - 1; d >= 0; --d) {
+            if (toOffsets(d)) {
+                scatter(d);
+            }
+        }
+    }
+
+    private void buildHistograms() {
+        Arrays.fill(counts, 0);
+        int end = tupleCount * ptrSize;
+        for (int p = 0; p < end; p += ptrSize) {
+            for (int w = 0; w < nkLength; ++w) {
+                int v = tPointers[p + ID_NORMAL_KEY + w];
+                int base = w * DIGITS_PER_WORD * RADIX;
+                counts[base + (v >>> 24)]++;
+                counts[base + RADIX + ((v >>> 16) & 0xff)]++;
+                counts[base + 2 * RADIX + ((v >>> 8) & 0xff)]++;
+                counts[base + 3 * RADIX + (v & 0xff)]++;
+            }
+        }
+    }
+
+    /**
+     * Turns the counts of digit d into the start position of each bucket.
+     *
+     * @return false if all tuples share the same value of digit d, so the pass can be skipped.
+     */
+    private boolean toOffsets(int d) {
+        int base = d * RADIX;
+        int sum = 0;
+        for (int i = base; i < base + RADIX; ++i) {
+            int c = counts[i];
+            if (c == tupleCount) {
+                return false;
+            }
+            counts[i] = sum;
+            sum += c;
+        }
+        return true;
+    }
+
+    private void scatter(int d) {
+        int base = d * RADIX;
+        int word = ID_NORMAL_KEY + d / DIGITS_PER_WORD;
+        int shift = (DIGITS_PER_WORD - 1 - d % DIGITS_PER_WORD) * RADIX_BITS;
+        int[] src = tPointers;
+        int[] dest = tPointersTemp;
+        int end = tupleCount * ptrSize;
+        for (int p = 0; p < end; p += ptrSize) {
+            int digit = (src[p + word] >>> shift) & (RADIX - 1);
+            int q = counts[base + digit]++ * ptrSize;
+            for (int i = 0; i < ptrSize; ++i) {
+                dest[q + i] = src[p + i];
+            }
+        }
+        tPointers = dest;
+        tPointersTemp = src;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        tPointersTemp = null;
+    }
+}
@@ -86,7 +86,7 @@ public class InMemorySortOperatorDescriptor extends AbstractOperatorDescriptor {
     }
 
     private static class SortTaskState extends AbstractStateObject {
-        private FrameSorterMergeSort frameSorter;
+        private IFrameSorter frameSorter;
 
         private SortTaskState(JobId jobId, TaskId taskId) {
             super(jobId, taskId);
@@ -123,8 +123,17 @@ public class InMemorySortOperatorDescriptor extends AbstractOperatorDescriptor {
                             new VariableFramePool(ctx, VariableFramePool.UNLIMITED_MEMORY),
                             FrameFreeSlotPolicyFactory.createFreeSlotPolicy(EnumFreeSlotPolicy.LAST_FIT));
 
-                    state.frameSorter = new FrameSorterMergeSort(ctx, frameBufferManager, sortFields,
-                            firstKeyNormalizerFactory, comparatorFactories, recordDescriptors[0]);
+                    if (FrameSorterRadixSort.canSort(firstKeyNormalizerFactory, comparatorFactories)) {
+                        state.frameSorter = new FrameSorterRadixSort(ctx, frameBufferManager, sortFields,
+                                firstKeyNormalizerFactory, comparatorFactories, recordDescriptors[0]);
+                    } else if (ctx.getJobletContext().getMaxThreadsPerTask() > 1) {
+                        state.frameSorter = new FrameSorterParallelMergeSort(ctx, frameBufferManager, sortFields,
+                                firstKeyNormalizerFactory, comparatorFactories, recordDescriptors[0],
+                                ctx.getJobletContext().getMaxThreadsPerTask());
+                    } else {
+                        state.frameSorter = new FrameSorterMergeSort(ctx, frameBufferManager, sortFields,
+                                firstKeyNormalizerFactory, comparatorFactories, recordDescriptors[0]);
+                    }
                     state.frameSorter.reset();
                 }
 
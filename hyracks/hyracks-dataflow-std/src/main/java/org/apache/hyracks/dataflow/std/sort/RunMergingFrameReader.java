@@ -18,8 +18,11 @@
  */
 package org.apache.hyracks.dataflow.std.sort;
 
-import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.hyracks.api.comm.IFrame;
 import org.apache.hyracks.api.comm.IFrameReader;
@@ -31,23 +34,40 @@ import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
 import org.apache.hyracks.dataflow.std.sort.util.GroupFrameAccessor;
-import org.apache.hyracks.dataflow.std.util.ReferenceEntry;
-import org.apache.hyracks.dataflow.std.util.ReferencedPriorityQueue;
 
+/**
+ * Merges sorted runs with a tournament (loser) tree. Every internal node of the tree holds the run that lost
+ * the match there, so replacing the winner costs one comparison per level. The normalized key and the
+ * position of every sort field of each run's current tuple are cached, so a comparison only touches the
+ * frames when the normalized keys are equal.
+ * If read-ahead frames are given, each run is double buffered: while the merge consumes one frame of a run,
+ * the next frame of that run is read into the other one on the task's executor.
+ */
 public class RunMergingFrameReader implements IFrameReader {
     private final IHyracksTaskContext ctx;
     private final List<? extends IFrameReader> runCursors;
     private final List<? extends IFrame> inFrames;
+    private final List<? extends IFrame> readAheadFrames;
     private final int[] sortFields;
     private final IBinaryComparator[] comparators;
     private final INormalizedKeyComputer nmkComputer;
     private final RecordDescriptor recordDesc;
     private final int topK;
+    private final int keyStride;
     private int tupleCount;
     private FrameTupleAppender outFrameAppender;
-    private ReferencedPriorityQueue topTuples;
+    private int numRuns;
+    private IFrame[] frames;
+    private IFrame[] spareFrames;
+    private Future<Boolean>[] pendingReads;
     private int[] tupleIndexes;
     private IFrameTupleAccessor[] tupleAccessors;
+    private boolean[] exhausted;
+    // per run: the normalized key, then start offset and length of each sort field
+    private int[] keys;
+    // losers[n] is the run that lost at internal node n, for n in [1, numRuns)
+    private int[] losers;
+    private int winner;
 
     public RunMergingFrameReader(IHyracksTaskContext ctx, List<? extends IFrameReader> runs,
             List<? extends IFrame> inFrames, int[] sortFields, IBinaryComparator[] comparators,
@@ -58,142 +78,245 @@ public class RunMergingFrameReader implements IFrameReader {
     public RunMergingFrameReader(IHyracksTaskContext ctx, List<? extends IFrameReader> runs,
             List<? extends IFrame> inFrames, int[] sortFields, IBinaryComparator[] comparators,
             INormalizedKeyComputer nmkComputer, RecordDescriptor recordDesc, int topK) {
+        this(ctx, runs, inFrames, null, sortFields, comparators, nmkComputer, recordDesc, topK);
+    }
+
+    /**
+     * @param readAheadFrames
+     *            a second frame per run to read ahead into, or null to read each run synchronously.
+     */
+    public RunMergingFrameReader(IHyracksTaskContext ctx, List<? extends IFrameReader> runs,
+            List<? extends IFrame> inFrames, List<? extends IFrame> readAheadFrames, int[] sortFields,
+            IBinaryComparator[] comparators, INormalizedKeyComputer nmkComputer, RecordDescriptor recordDesc,
+            int topK) {
         this.ctx = ctx;
         this.runCursors = runs;
         this.inFrames = inFrames;
+        this.readAheadFrames = readAheadFrames;
         this.sortFields = sortFields;
         this.comparators = comparators;
         this.nmkComputer = nmkComputer;
         this.recordDesc = recordDesc;
         this.topK = topK;
+        this.keyStride = 1 + 2 * sortFields.length;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public void open() throws HyracksDataException {
         tupleCount = 0;
-        tupleAccessors = new IFrameTupleAccessor[runCursors.size()];
+        numRuns = runCursors.size();
         outFrameAppender = new FrameTupleAppender();
-        Comparator<ReferenceEntry> comparator = createEntryComparator(comparators);
-        topTuples = new ReferencedPriorityQueue(runCursors.size(), comparator, sortFields, nmkComputer);
-        tupleIndexes = new int[runCursors.size()];
-        for (int i = 0; i < runCursors.size(); i++) {
-            tupleIndexes[i] = 0;
-            int runIndex = topTuples.peek().getRunid();
-            runCursors.get(runIndex).open();
-            if (runCursors.get(runIndex).nextFrame(inFrames.get(runIndex))) {
-                tupleAccessors[runIndex] = new GroupFrameAccessor(ctx.getInitialFrameSize(), recordDesc);
-                tupleAccessors[runIndex].reset(inFrames.get(runIndex).getBuffer());
-                setNextTopTuple(runIndex, tupleIndexes, runCursors, inFrames, tupleAccessors, topTuples);
+        frames = new IFrame[numRuns];
+        tupleIndexes = new int[numRuns];
+        tupleAccessors = new IFrameTupleAccessor[numRuns];
+        exhausted = new boolean[numRuns];
+        keys = new int[numRuns * keyStride];
+        if (readAheadFrames != null && ctx.getExecutorService() != null) {
+            spareFrames = new IFrame[numRuns];
+            pendingReads = new Future[numRuns];
+        }
+        for (int i = 0; i < numRuns; i++) {
+            frames[i] = inFrames.get(i);
+            if (spareFrames != null) {
+                spareFrames[i] = readAheadFrames.get(i);
+            }
+            runCursors.get(i).open();
+            if (runCursors.get(i).nextFrame(frames[i])) {
+                tupleAccessors[i] = new GroupFrameAccessor(ctx.getInitialFrameSize(), recordDesc);
+                tupleAccessors[i].reset(frames[i].getBuffer());
+                startReadAhead(i);
+                advance(i);
             } else {
-                closeRun(runIndex, runCursors, tupleAccessors);
-                topTuples.pop();
+                exhausted[i] = true;
+                closeRun(i);
             }
         }
+        buildTree();
     }
 
     @Override
     public boolean nextFrame(IFrame outFrame) throws HyracksDataException {
         outFrameAppender.reset(outFrame, true);
-        while (!topTuples.areRunsExhausted() && tupleCount < topK) {
-            ReferenceEntry top = topTuples.peek();
-            int runIndex = top.getRunid();
-            IFrameTupleAccessor fta = top.getAccessor();
-            int tupleIndex = top.getTupleIndex();
-
-            if (!outFrameAppender.append(fta, tupleIndex)) {
+        // the winner is only exhausted once all runs are
+        while (numRuns > 0 && !exhausted[winner] && tupleCount < topK) {
+            int runIndex = winner;
+            if (!outFrameAppender.append(tupleAccessors[runIndex], tupleIndexes[runIndex])) {
                 return true;
-            } else {
-                tupleCount++;
             }
+            tupleCount++;
             ++tupleIndexes[runIndex];
-            setNextTopTuple(runIndex, tupleIndexes, runCursors, inFrames, tupleAccessors, topTuples);
-        }
-
-        if (outFrameAppender.getTupleCount() > 0) {
-            return true;
+            advance(runIndex);
+            replay(runIndex);
         }
-        return false;
+        return outFrameAppender.getTupleCount() > 0;
     }
 
     @Override
     public void close() throws HyracksDataException {
         for (int i = 0; i < runCursors.size(); ++i) {
-            closeRun(i, runCursors, tupleAccessors);
+            closeRun(i);
         }
     }
 
-    private static void setNextTopTuple(int runIndex, int[] tupleIndexes, List<? extends IFrameReader> runCursors,
-            List<? extends IFrame> inFrames, IFrameTupleAccessor[] tupleAccessors, ReferencedPriorityQueue topTuples)
-            throws HyracksDataException {
-        boolean exists = hasNextTuple(runIndex, tupleIndexes, runCursors, inFrames, tupleAccessors);
-        if (exists) {
-            topTuples.popAndReplace(tupleAccessors[runIndex], tupleIndexes[runIndex]);
-        } else {
-            topTuples.pop();
-            closeRun(runIndex, runCursors, tupleAccessors);
+    /**
+     * Moves run i to its next tuple, if needed into its next frame, and caches the tuple's keys. Closes the
+     * run once it is consumed.
+     */
+    private void advance(int i) throws HyracksDataException {
+        while (tupleIndexes[i] >= tupleAccessors[i].getTupleCount()) {
+            if (!nextFrame(i)) {
+                exhausted[i] = true;
+                closeRun(i);
+                return;
+            }
+            tupleIndexes[i] = 0;
+        }
+        IFrameTupleAccessor fta = tupleAccessors[i];
+        int tIndex = tupleIndexes[i];
+        int base = i * keyStride;
+        for (int f = 0; f < sortFields.length; ++f) {
+            keys[base + 1 + 2 * f] = fta.getAbsoluteFieldStartOffset(tIndex, sortFields[f]);
+            keys[base + 2 + 2 * f] = fta.getFieldLength(tIndex, sortFields[f]);
         }
+        keys[base] = nmkComputer == null ? 0
+                : nmkComputer.normalize(fta.getBuffer().array(), keys[base + 1], keys[base + 2]);
     }
 
-    private static boolean hasNextTuple(int runIndex, int[] tupleIndexes, List<? extends IFrameReader> runCursors,
-            List<? extends IFrame> inFrames, IFrameTupleAccessor[] tupleAccessors) throws HyracksDataException {
-        if (tupleAccessors[runIndex] == null || runCursors.get(runIndex) == null) {
-            return false;
-        } else if (tupleIndexes[runIndex] >= tupleAccessors[runIndex].getTupleCount()) {
-            IFrame frame = inFrames.get(runIndex);
-            if (runCursors.get(runIndex).nextFrame(frame)) {
-                tupleIndexes[runIndex] = 0;
-                tupleAccessors[runIndex].reset(frame.getBuffer());
-                return hasNextTuple(runIndex, tupleIndexes, runCursors, inFrames, tupleAccessors);
-            } else {
+    private boolean nextFrame(int i) throws HyracksDataException {
+        if (pendingReads == null) {
+            if (!runCursors.get(i).nextFrame(frames[i])) {
                 return false;
             }
-        } else {
+            tupleAccessors[i].reset(frames[i].getBuffer());
             return true;
         }
+        if (!waitForReadAhead(i)) {
+            return false;
+        }
+        IFrame next = spareFrames[i];
+        spareFrames[i] = frames[i];
+        frames[i] = next;
+        tupleAccessors[i].reset(next.getBuffer());
+        startReadAhead(i);
+        return true;
+    }
+
+    /**
+     * Starts reading the frame after frames[i] into spareFrames[i].
+     */
+    private void startReadAhead(int i) throws HyracksDataException {
+        if (pendingReads == null) {
+            return;
+        }
+        final IFrame spare = spareFrames[i];
+        final IFrameReader cursor = runCursors.get(i);
+        pendingReads[i] = ctx.getExecutorService().submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws HyracksDataException {
+                return cursor.nextFrame(spare);
+            }
+        });
     }
 
-    private static void closeRun(int index, List<? extends IFrameReader> runCursors,
-            IFrameTupleAccessor[] tupleAccessors)
-            throws HyracksDataException {
+    private boolean waitForReadAhead(int i) throws HyracksDataException {
+        Future<Boolean> pending = pendingReads[i];
+        if (pending == null) {
+            return false;
+        }
+        pendingReads[i] = null;
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HyracksDataException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof HyracksDataException ? (HyracksDataException) cause
+                    : new HyracksDataException(cause);
+        }
+    }
+
+    private void closeRun(int index) throws HyracksDataException {
         if (runCursors.get(index) != null) {
+            if (pendingReads != null && pendingReads[index] != null) {
+                // the reader must not be closed under a read
+                waitForReadAhead(index);
+            }
             runCursors.get(index).close();
             runCursors.set(index, null);
             tupleAccessors[index] = null;
         }
     }
 
-    private Comparator<ReferenceEntry> createEntryComparator(final IBinaryComparator[] comparators) {
-        return new Comparator<ReferenceEntry>() {
-            public int compare(ReferenceEntry tp1, ReferenceEntry tp2) {
-                int nmk1 = tp1.getNormalizedKey();
-                int nmk2 = tp2.getNormalizedKey();
-                if (nmk1 != nmk2) {
-                    return ((((long) nmk1) & 0xffffffffL) < (((long) nmk2) & 0xffffffffL)) ? -1 : 1;
-                }
-                IFrameTupleAccessor fta1 = tp1.getAccessor();
-                IFrameTupleAccessor fta2 = tp2.getAccessor();
-                byte[] b1 = fta1.getBuffer().array();
-                byte[] b2 = fta2.getBuffer().array();
-                int[] tPointers1 = tp1.getTPointers();
-                int[] tPointers2 = tp2.getTPointers();
-
-                for (int f = 0; f < sortFields.length; ++f) {
-                    int c;
-                    try {
-                        c = comparators[f].compare(b1, tPointers1[2 * f + 1], tPointers1[2 * f + 2], b2,
-                                tPointers2[2 * f + 1], tPointers2[2 * f + 2]);
-                        if (c != 0) {
-                            return c;
-                        }
-                    } catch (HyracksDataException e) {
-                        throw new IllegalArgumentException(e);
-                    }
-
-                }
-                int runid1 = tp1.getRunid();
-                int runid2 = tp2.getRunid();
-                return runid1 < runid2 ? -1 : (runid1 == runid2 ? 0 : 1);
+    private void buildTree() throws HyracksDataException {
+        losers = new int[numRuns];
+        if (numRuns == 0) {
+            return;
+        }
+        // winners of the subtrees, with the runs as leaves numRuns..2*numRuns-1
+        int[] winners = new int[2 * numRuns];
+        for (int i = 0; i < numRuns; ++i) {
+            winners[numRuns + i] = i;
+        }
+        for (int n = numRuns - 1; n > 0; --n) {
+            int a = winners[2 * n];
+            int b = winners[2 * n + 1];
+            if (beats(a, b)) {
+                winners[n] = a;
+                losers[n] = b;
+            } else {
+                winners[n] = b;
+                losers[n] = a;
+            }
+        }
+        winner = winners[1];
+    }
+
+    /**
+     * Plays the new tuple of run i up from its leaf to the root.
+     */
+    private void replay(int i) throws HyracksDataException {
+        int w = i;
+        for (int n = (numRuns + i) >> 1; n > 0; n >>= 1) {
+            if (beats(losers[n], w)) {
+                int t = losers[n];
+                losers[n] = w;
+                w = t;
             }
-        };
+        }
+        winner = w;
+    }
+
+    /**
+     * @return true if the current tuple of run a goes before that of run b. Exhausted runs lose, and ties go to
+     *         the run with the lower index.
+     */
+    private boolean beats(int a, int b) throws HyracksDataException {
+        if (exhausted[a] || exhausted[b]) {
+            return !exhausted[a];
+        }
+        int c = compare(a, b);
+        return c < 0 || (c == 0 && a < b);
+    }
+
+    private int compare(int a, int b) throws HyracksDataException {
+        int baseA = a * keyStride;
+        int baseB = b * keyStride;
+        int nmk1 = keys[baseA];
+        int nmk2 = keys[baseB];
+        if (nmk1 != nmk2) {
+            return ((((long) nmk1) & 0xffffffffL) < (((long) nmk2) & 0xffffffffL)) ? -1 : 1;
+        }
+        byte[] b1 = tupleAccessors[a].getBuffer().array();
+        byte[] b2 = tupleAccessors[b].getBuffer().array();
+        for (int f = 0; f < sortFields.length; ++f) {
+            int c = comparators[f].compare(b1, keys[baseA + 1 + 2 * f], keys[baseA + 2 + 2 * f], b2,
+                    keys[baseB + 1 + 2 * f], keys[baseB + 2 + 2 * f]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
     }
 }
@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.structures;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.context.IHyracksFrameMgrContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * An {@link ISerializableTable} that keeps all tuple pointers in a single linear probing table laid out over
+ * frames. A slot is: entry, fIndex, tIndex. Each slot carries the entry it was inserted under, so a probe walks
+ * one contiguous run of slots and skips the slots of other entries without following any pointer; the slots
+ * of one entry are returned in insertion order.
+ * The table starts with one frame of slots and doubles whenever it gets more than 3/4 full, so its size
+ * follows the number of tuples rather than the number of entries. Deletion shifts the following slots back,
+ * so no tombstones accumulate.
+ */
+public class OpenAddressingHashTable implements ISerializableTable {
+
+    private static final int INT_SIZE = 4;
+    private static final int SLOT_SIZE = 3 * INT_SIZE;
+    private static final int EMPTY = -1;
+
+    private final IHyracksFrameMgrContext ctx;
+    private final int slotsPerFrame;
+    private final int frameShift;
+    private ByteBuffer[] frames;
+    private int capacity;
+    private int tupleCount = 0;
+
+    // the last slot returned by getTuplePointer, so that iterating over an entry does not rescan it
+    private int lastEntry = -1;
+    private int lastOffset = -1;
+    private int lastSlot = -1;
+
+    public OpenAddressingHashTable(int tableSize, IHyracksFrameMgrContext ctx) throws HyracksDataException {
+        this.ctx = ctx;
+        this.slotsPerFrame = Integer.highestOneBit(Math.max(1, ctx.getInitialFrameSize() / SLOT_SIZE));
+        this.frameShift = Integer.numberOfTrailingZeros(slotsPerFrame);
+        this.frames = allocateFrames(1);
+        this.capacity = slotsPerFrame;
+    }
+
+    @Override
+    public void insert(int entry, TuplePointer pointer) throws HyracksDataException {
+        if ((tupleCount + 1) * 4 > capacity * 3) {
+            grow();
+        }
+        int mask = capacity - 1;
+        int slot = home(entry, mask);
+        while (getFrameIndex(slot) != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        writeSlot(slot, entry, pointer.frameIndex, pointer.tupleIndex);
+        tupleCount++;
+        lastEntry = -1;
+    }
+
+    @Override
+    public void delete(int entry) {
+        int mask = capacity - 1;
+        int slot = home(entry, mask);
+        while (getFrameIndex(slot) != EMPTY) {
+            if (getEntry(slot) == entry) {
+                // the next slot of the entry, if any, is shifted into this one
+                deleteSlot(slot);
+                tupleCount--;
+            } else {
+                slot = (slot + 1) & mask;
+            }
+        }
+        lastEntry = -1;
+    }
+
+    @Override
+    public boolean getTuplePointer(int entry, int offset, TuplePointer dataPointer) {
+        int mask = capacity - 1;
+        int slot;
+        int skip;
+        if (entry == lastEntry && offset == lastOffset + 1) {
+            slot = (lastSlot + 1) & mask;
+            skip = 0;
+        } else {
+            slot = home(entry, mask);
+            skip = offset;
+        }
+        for (int fIndex = getFrameIndex(slot); fIndex != EMPTY; slot = (slot + 1) & mask, fIndex = getFrameIndex(
+                slot)) {
+            if (getEntry(slot) == entry) {
+                if (skip == 0) {
+                    dataPointer.frameIndex = fIndex;
+                    dataPointer.tupleIndex = getTupleIndex(slot);
+                    lastEntry = entry;
+                    lastOffset = offset;
+                    lastSlot = slot;
+                    return true;
+                }
+                --skip;
+            }
+        }
+        dataPointer.frameIndex = -1;
+        dataPointer.tupleIndex = -1;
+        return false;
+    }
+
+    @Override
+    public int getFrameCount() {
+        return frames.length;
+    }
+
+    @Override
+    public int getTupleCount() {
+        return tupleCount;
+    }
+
+    @Override
+    public int getTupleCount(int entry) {
+        int mask = capacity - 1;
+        int count = 0;
+        for (int slot = home(entry, mask); getFrameIndex(slot) != EMPTY; slot = (slot + 1) & mask) {
+            if (getEntry(slot) == entry) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void reset() {
+        for (ByteBuffer frame : frames) {
+            resetFrame(frame);
+        }
+        tupleCount = 0;
+        lastEntry = -1;
+    }
+
+    @Override
+    public void close() {
+        int nFrames = frames.length;
+        frames = new ByteBuffer[0];
+        capacity = 0;
+        tupleCount = 0;
+        lastEntry = -1;
+        ctx.deallocateFrames(nFrames);
+    }
+
+    private static int home(int entry, int mask) {
+        // entries are small consecutive numbers, so scramble them before masking
+        int h = entry * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void grow() throws HyracksDataException {
+        ByteBuffer[] oldFrames = frames;
+        int oldCapacity = capacity;
+        frames = allocateFrames(oldFrames.length * 2);
+        capacity = oldCapacity * 2;
+        int mask = capacity - 1;
+
+        /*
+         * Start the copy right after an empty slot, so that no run of slots is split at the end of the old
+         * table and the slots of each entry keep their order.
+         */
+        int start = 0;
+        while (getFrameIndex(oldFrames, start) != EMPTY) {
+            start++;
+        }
+        for (int i = 1; i <= oldCapacity; i++) {
+            int oldSlot = (start + i) & (oldCapacity - 1);
+            int fIndex = getFrameIndex(oldFrames, oldSlot);
+            if (fIndex != EMPTY) {
+                int entry = getEntry(oldFrames, oldSlot);
+                int slot = home(entry, mask);
+                while (getFrameIndex(slot) != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                writeSlot(slot, entry, fIndex, getTupleIndex(oldFrames, oldSlot));
+            }
+        }
+        ctx.deallocateFrames(oldFrames.length);
+    }
+
+    private void deleteSlot(int slot) {
+        int mask = capacity - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        int fIndex;
+        while ((fIndex = getFrameIndex(next)) != EMPTY) {
+            int entry = getEntry(next);
+            int entryHome = home(entry, mask);
+            // move the slot back if the hole lies cyclically between its home and its position
+            if (((next - entryHome) & mask) >= ((next - hole) & mask)) {
+                writeSlot(hole, entry, fIndex, getTupleIndex(next));
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        writeSlot(hole, EMPTY, EMPTY, EMPTY);
+    }
+
+    private ByteBuffer[] allocateFrames(int nFrames) throws HyracksDataException {
+        ByteBuffer[] newFrames = new ByteBuffer[nFrames];
+        for (int i = 0; i < nFrames; i++) {
+            newFrames[i] = ctx.allocateFrame();
+            resetFrame(newFrames[i]);
+        }
+        return newFrames;
+    }
+
+    private void resetFrame(ByteBuffer frame) {
+        for (int i = 0; i < slotsPerFrame; i++) {
+            frame.putInt(i * SLOT_SIZE + INT_SIZE, EMPTY);
+        }
+    }
+
+    private void writeSlot(int slot, int entry, int fIndex, int tIndex) {
+        ByteBuffer frame = frames[slot >>> frameShift];
+        int offset = (slot & (slotsPerFrame - 1)) * SLOT_SIZE;
+        frame.putInt(offset, entry);
+        frame.putInt(offset + INT_SIZE, fIndex);
+        frame.putInt(offset + 2 * INT_SIZE, tIndex);
+    }
+
+    private int getEntry(int slot) {
+        return getEntry(frames, slot);
+    }
+
+    private int getFrameIndex(int slot) {
+        return getFrameIndex(frames, slot);
+    }
+
+    private int getTupleIndex(int slot) {
+        return getTupleIndex(frames, slot);
+    }
+
+    private int getEntry(ByteBuffer[] frames, int slot) {
+        return frames[slot >>> frameShift].getInt((slot & (slotsPerFrame - 1)) * SLOT_SIZE);
+    }
+
+    private int getFrameIndex(ByteBuffer[] frames, int slot) {
+        return frames[slot >>> frameShift].getInt((slot & (slotsPerFrame - 1)) * SLOT_SIZE + INT_SIZE);
+    }
+
+    private int getTupleIndex(ByteBuffer[] frames, int slot) {
+        return frames[slot >>> frameShift].getInt((slot & (slotsPerFrame - 1)) * SLOT_SIZE + 2 * INT_SIZE);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.dataflow.std.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.junit.Test;
+
+public class FieldCursorForDelimitedUTF8DataParserTest {
+
+    @Test
+    public void testUnquotedFields() throws Exception {
+        assertRecords("a,b,c\nd,,f\n", ',', rec("a", "b", "c"), rec("d", "", "f"));
+        assertRecords("a,b\r\nc,d\re,f", ',', rec("a", "b"), rec("c", "d"), rec("e", "f"));
+        assertRecords("1|x|\n2|y|\n", '|', rec("1", "x", ""), rec("2", "y", ""));
+        assertRecords("a\n\nb\n", ',', rec("a"), rec(""), rec("b"));
+        assertRecords("", ',');
+    }
+
+    @Test
+    public void testQuotedFields() throws Exception {
+        assertRecords("\"a,b\",c\n\"\",\"x\"\"y\"\"\"\n", ',', rec("a,b", "c"), rec("", "x\"y\""));
+        assertRecords("\"line\nbreak\",\"\"\"\"\r\n\"end\"", ',', rec("line\nbreak", "\""), rec("end"));
+    }
+
+    @Test
+    public void testUTF8Fields() throws Exception {
+        assertRecords("héllo,世界,\"😀\"\n", ',', rec("héllo", "世界", "😀"));
+    }
+
+    @Test
+    public void testLongFieldsAcrossReads() throws Exception {
+        char[] chars = new char[100000];
+        Arrays.fill(chars, 'x');
+        String big = new String(chars);
+        assertRecords(big + ",\"" + big + "\"\"" + "\"\n", ',', rec(big, big + "\""));
+    }
+
+    @Test
+    public void testMisplacedQuotes() throws Exception {
+        assertFails("ab\"c\",d\n");
+        assertFails("\"ab\"c,d\n");
+        assertFails("\"abc,d\n");
+    }
+
+    @Test
+    public void testSameFieldsAsCharCursor() throws Exception {
+        String path = Paths.get(getClass().getResource("/data/beer.txt").toURI()).toAbsolutePath().toString();
+        List<List<String>> expected = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8))) {
+            FieldCursorForDelimitedDataParser cursor = new FieldCursorForDelimitedDataParser(reader, ',', '"');
+            while (cursor.nextRecord()) {
+                List<String> record = new ArrayList<>();
+                while (cursor.nextField()) {
+                    if (cursor.isDoubleQuoteIncludedInThisField) {
+                        cursor.eliminateDoubleQuote(cursor.buffer, cursor.fStart, cursor.fEnd - cursor.fStart);
+                        cursor.fEnd -= cursor.doubleQuoteCount;
+                    }
+                    record.add(new String(cursor.buffer, cursor.fStart, cursor.fEnd - cursor.fStart));
+                }
+                expected.add(record);
+            }
+        }
+        byte[] bytes = Files.readAllBytes(Paths.get(path));
+        assertEquals(expected, parse(new ByteArrayInputStream(bytes), ','));
+        assertEquals(expected, parse(new TrickleInputStream(bytes), ','));
+    }
+
+    private static List<String> rec(String... fields) {
+        return Arrays.asList(fields);
+    }
+
+    @SafeVarargs
+    private static void assertRecords(String input, char delimiter, List<String>... expected) throws Exception {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList(expected), parse(new ByteArrayInputStream(bytes), delimiter));
+        assertEquals(Arrays.asList(expected), parse(new TrickleInputStream(bytes), delimiter));
+    }
+
+    private static void assertFails(String input) throws Exception {
+        try {
+            parse(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), ',');
+            fail("Expected a parse error for " + input);
+        } catch (HyracksDataException e) {
+            // expected
+        }
+    }
+
+    private static List<List<String>> parse(InputStream in, char delimiter) throws HyracksDataException {
+        FieldCursorForDelimitedUTF8DataParser cursor = new FieldCursorForDelimitedUTF8DataParser(in, delimiter, '"');
+        List<List<String>> records = new ArrayList<>();
+        while (cursor.nextRecord()) {
+            List<String> record = new ArrayList<>();
+            while (cursor.nextField()) {
+                record.add(new String(cursor.buffer, cursor.fStart, cursor.fEnd - cursor.fStart,
+                        StandardCharsets.UTF_8));
+            }
+            assertFalse(cursor.nextField());
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Returns at most three bytes per read, so that records, fields and quote pairs straddle reads.
+     */
+    private static class TrickleInputStream extends ByteArrayInputStream {
+        TrickleInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 3));
+        }
+    }
+}
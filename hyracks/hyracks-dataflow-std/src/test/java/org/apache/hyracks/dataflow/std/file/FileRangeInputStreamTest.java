@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.dataflow.std.file;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.apache.hyracks.api.io.FileReference;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileRangeInputStreamTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRangesReadEachRecordOnce() throws Exception {
+        Random rnd = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; ++i) {
+            int length = rnd.nextInt(10) == 0 ? rnd.nextInt(200000) : rnd.nextInt(100);
+            for (int j = 0; j < length; ++j) {
+                sb.append((char) ('a' + rnd.nextInt(26)));
+            }
+            sb.append(rnd.nextBoolean() ? "\n" : "\r\n");
+        }
+        String text = sb.toString();
+        for (int ranges : new int[] { 1, 2, 3, 7, 64, 1000 }) {
+            assertRanges(text, ranges);
+            assertRanges(text.substring(0, text.length() - 1) + "last", ranges);
+        }
+    }
+
+    @Test
+    public void testShortFiles() throws Exception {
+        String[] texts = { "", "\n", "\n\n\n", "a", "ab\n", "a\nb", "a\nb\n", "abc\n\nde\nf" };
+        for (String text : texts) {
+            for (int ranges = 1; ranges <= 12; ++ranges) {
+                assertRanges(text, ranges);
+            }
+        }
+    }
+
+    private void assertRanges(String text, int ranges) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        FileSplit[] splits = new FileRangeSplitProvider(
+                new FileSplit[] { new FileSplit("nc1", new FileReference(file)) }, ranges).getFileSplits();
+        assertEquals(ranges, splits.length);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        byte[] bytes = new byte[4096];
+        for (FileSplit split : splits) {
+            try (InputStream in = FileRangeInputStream.open(split)) {
+                int n;
+                while ((n = in.read(bytes, 0, bytes.length)) >= 0) {
+                    bos.write(bytes, 0, n);
+                }
+            }
+            // a range ends with a whole record
+            byte[] read = bos.toByteArray();
+            if (read.length > 0 && read.length < text.length()) {
+                assertEquals('\n', read[read.length - 1]);
+            }
+        }
+        assertEquals("ranges: " + ranges, text, new String(bos.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
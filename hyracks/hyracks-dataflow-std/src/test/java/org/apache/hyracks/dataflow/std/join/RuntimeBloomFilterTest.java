@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RuntimeBloomFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() {
+        Random rnd = new Random(17);
+        int numKeys = 100000;
+        int[] keys = new int[numKeys];
+        RuntimeBloomFilter.Builder builder = new RuntimeBloomFilter.Builder(numKeys,
+                RuntimeBloomFilter.DEFAULT_BITS_PER_KEY);
+        for (int i = 0; i < numKeys; i++) {
+            keys[i] = rnd.nextInt();
+            builder.add(keys[i]);
+        }
+        RuntimeBloomFilter filter = builder.build();
+        for (int key : keys) {
+            assertTrue(filter.mightContain(key));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        int numKeys = 100000;
+        RuntimeBloomFilter.Builder builder = new RuntimeBloomFilter.Builder(numKeys,
+                RuntimeBloomFilter.DEFAULT_BITS_PER_KEY);
+        // consecutive hashes, as small integer keys produce
+        for (int i = 0; i < numKeys; i++) {
+            builder.add(i);
+        }
+        RuntimeBloomFilter filter = builder.build();
+        int falsePositives = 0;
+        int numProbes = 100000;
+        for (int i = numKeys; i < numKeys + numProbes; i++) {
+            if (filter.mightContain(i)) {
+                falsePositives++;
+            }
+        }
+        // about 1% is expected at 10 bits per key; the table rounds up to a power of two
+        assertTrue("false positives: " + falsePositives, falsePositives < numProbes * 0.02);
+    }
+
+    @Test
+    public void testTooManyKeys() {
+        RuntimeBloomFilter.Builder builder = new RuntimeBloomFilter.Builder(10,
+                RuntimeBloomFilter.DEFAULT_BITS_PER_KEY);
+        for (int i = 0; i < 11; i++) {
+            builder.add(i);
+        }
+        assertNull(builder.build());
+    }
+
+    @Test
+    public void testMaxKeysFitInMemory() {
+        int bitsPerKey = RuntimeBloomFilter.DEFAULT_BITS_PER_KEY;
+        for (long memory = 8; memory < (1 << 26); memory = memory * 3 + 1) {
+            int maxKeys = RuntimeBloomFilter.getMaxKeys(memory, bitsPerKey);
+            assertTrue("memory " + memory, RuntimeBloomFilter.getMaxMemorySize(maxKeys, bitsPerKey) <= memory);
+        }
+        assertEquals(0, RuntimeBloomFilter.getMaxKeys(0, bitsPerKey));
+        assertEquals(RuntimeBloomFilter.MAX_KEYS, RuntimeBloomFilter.getMaxKeys(Long.MAX_VALUE / 8, bitsPerKey));
+    }
+}
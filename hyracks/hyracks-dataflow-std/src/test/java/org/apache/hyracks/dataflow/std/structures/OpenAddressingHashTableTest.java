@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.structures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.control.nc.resources.memory.FrameManager;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OpenAddressingHashTableTest {
+
+    OpenAddressingHashTable table;
+    final int NUM_PART = 101;
+    TuplePointer pointer = new TuplePointer(0, 0);
+    final int num = 1000;
+
+    @Before
+    public void setup() throws HyracksDataException {
+        table = new OpenAddressingHashTable(NUM_PART, new FrameManager(256));
+    }
+
+    @Test
+    public void testBatchDeletePartition() throws Exception {
+        testInsert();
+        for (int i = 0; i < NUM_PART; i++) {
+            table.delete(i);
+            assertFalse(table.getTuplePointer(i, 0, pointer));
+            assertEquals(0, table.getTupleCount(i));
+
+            for (int j = i; j < num; j += NUM_PART) {
+                pointer.reset(j, j);
+                table.insert(i, pointer);
+            }
+
+            assertGetValue();
+        }
+        assertEquals(num, table.getTupleCount());
+    }
+
+    @Test
+    public void testInsert() throws Exception {
+        for (int i = 0; i < num; i++) {
+            pointer.reset(i, i);
+            table.insert(i % NUM_PART, pointer);
+        }
+        assertGetValue();
+    }
+
+    @Test
+    public void testIterateEntries() throws Exception {
+        testInsert();
+        for (int i = 0; i < NUM_PART; i++) {
+            int offset = 0;
+            for (int j = i; j < num; j += NUM_PART) {
+                assertTrue(table.getTuplePointer(i, offset++, pointer));
+                assertEquals(j, pointer.frameIndex);
+                assertEquals(j, pointer.tupleIndex);
+            }
+            assertFalse(table.getTuplePointer(i, offset, pointer));
+            assertEquals(-1, pointer.frameIndex);
+        }
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        testInsert();
+        table.reset();
+        assertEquals(0, table.getTupleCount());
+        assertAllPartitionsCountIsZero();
+        testInsert();
+    }
+
+    private void assertGetValue() {
+        int loop = 0;
+        for (int i = 0; i < num; i++) {
+            assertTrue(table.getTuplePointer(i % NUM_PART, loop, pointer));
+            assertTrue(pointer.frameIndex == i);
+            if (i % NUM_PART == NUM_PART - 1) {
+                loop++;
+            }
+        }
+        for (int i = 0; i < NUM_PART; i++) {
+            assertTrue(table.getTupleCount(i) == 10 || table.getTupleCount(i) == 9);
+        }
+    }
+
+    @Test
+    public void testGetCount() throws Exception {
+        assertAllPartitionsCountIsZero();
+    }
+
+    private void assertAllPartitionsCountIsZero() {
+        for (int i = 0; i < NUM_PART; i++) {
+            assertEquals(0, table.getTupleCount(i));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.comm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.comm.NetworkAddress;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.ConnectorDescriptorId;
+import org.apache.hyracks.api.dataflow.OperatorDescriptorId;
+import org.apache.hyracks.api.dataflow.TaskAttemptId;
+import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.dataflow.connectors.IConnectorPolicy;
+import org.apache.hyracks.api.dataset.ResultSetId;
+import org.apache.hyracks.api.job.JobFlag;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.PreparedJobId;
+import org.apache.hyracks.api.partitions.PartitionId;
+import org.apache.hyracks.control.common.ipc.CCNCFunctions;
+import org.apache.hyracks.control.common.job.PartitionState;
+import org.apache.hyracks.control.common.job.TaskAttemptDescriptor;
+import org.apache.hyracks.control.common.job.profiling.om.JobProfile;
+import org.apache.hyracks.control.common.job.profiling.om.PartitionProfile;
+import org.apache.hyracks.control.common.job.profiling.om.TaskProfile;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CCNCFunctionsSerializationTest {
+    private final CCNCFunctions.SerializerDeserializer serde = new CCNCFunctions.SerializerDeserializer();
+
+    private static TaskAttemptId taskAttemptId(int odId, int partition, int attempt) {
+        return new TaskAttemptId(new TaskId(new ActivityId(new OperatorDescriptorId(odId), 0), partition), attempt);
+    }
+
+    private Object roundTrip(Object object) throws Exception {
+        byte[] bytes = serde.serializeObject(object);
+        return serde.deserializeObject(ByteBuffer.wrap(bytes), bytes.length);
+    }
+
+    @Test
+    public void notifyTaskComplete() throws Exception {
+        TaskAttemptId taId = taskAttemptId(3, 200, 1);
+        TaskProfile profile = new TaskProfile(taId, new HashMap<PartitionId, PartitionProfile>());
+        profile.getCounters().put("tuples", 12345L);
+        CCNCFunctions.NotifyTaskCompleteFunction fn = (CCNCFunctions.NotifyTaskCompleteFunction) roundTrip(
+                new CCNCFunctions.NotifyTaskCompleteFunction(new JobId(Long.MAX_VALUE), taId, "nc1", profile));
+        Assert.assertEquals(new JobId(Long.MAX_VALUE), fn.getJobId());
+        Assert.assertEquals(taId, fn.getTaskId());
+        Assert.assertEquals("nc1", fn.getNodeId());
+        Assert.assertEquals(Long.valueOf(12345L), fn.getStatistics().getCounters().get("tuples"));
+    }
+
+    @Test
+    public void nodeIdsAreShared() throws Exception {
+        CCNCFunctions.NotifyJobletCleanupFunction first = (CCNCFunctions.NotifyJobletCleanupFunction) roundTrip(
+                new CCNCFunctions.NotifyJobletCleanupFunction(new JobId(1), new String("nc2")));
+        CCNCFunctions.NotifyJobletCleanupFunction second = (CCNCFunctions.NotifyJobletCleanupFunction) roundTrip(
+                new CCNCFunctions.NotifyJobletCleanupFunction(new JobId(2), new String("nc2")));
+        Assert.assertEquals(new JobId(2), second.getJobId());
+        Assert.assertSame(first.getNodeId(), second.getNodeId());
+    }
+
+    @Test
+    public void startTasks() throws Exception {
+        List<TaskAttemptDescriptor> tads = new ArrayList<TaskAttemptDescriptor>();
+        tads.add(new TaskAttemptDescriptor(taskAttemptId(0, 1, 0), 4, new int[] { 4 }, new int[0]));
+        Map<String, byte[]> parameters = new HashMap<String, byte[]>();
+        parameters.put("key", new byte[] { 1, 2, 3 });
+        CCNCFunctions.StartTasksFunction fn = (CCNCFunctions.StartTasksFunction) roundTrip(
+                new CCNCFunctions.StartTasksFunction(null, new JobId(130), null, tads,
+                        new HashMap<ConnectorDescriptorId, IConnectorPolicy>(),
+                        EnumSet.of(JobFlag.PROFILE_RUNTIME), new PreparedJobId(5), parameters));
+        Assert.assertEquals(new JobId(130), fn.getJobId());
+        Assert.assertNull(fn.getDeploymentId());
+        Assert.assertNull(fn.getPlanBytes());
+        Assert.assertEquals(1, fn.getTaskDescriptors().size());
+        Assert.assertEquals(taskAttemptId(0, 1, 0), fn.getTaskDescriptors().get(0).getTaskAttemptId());
+        Assert.assertEquals(EnumSet.of(JobFlag.PROFILE_RUNTIME), fn.getFlags());
+        Assert.assertEquals(new PreparedJobId(5), fn.getPreparedJobId());
+        Assert.assertTrue(Arrays.equals(new byte[] { 1, 2, 3 }, fn.getJobParameters().get("key")));
+
+        fn = (CCNCFunctions.StartTasksFunction) roundTrip(new CCNCFunctions.StartTasksFunction(null,
+                new JobId(131), new byte[] { 9, 8 }, tads, new HashMap<ConnectorDescriptorId, IConnectorPolicy>(),
+                EnumSet.noneOf(JobFlag.class), null, null));
+        Assert.assertTrue(Arrays.equals(new byte[] { 9, 8 }, fn.getPlanBytes()));
+        Assert.assertNull(fn.getPreparedJobId());
+        Assert.assertNull(fn.getJobParameters());
+    }
+
+    @Test
+    public void partitionFunctions() throws Exception {
+        PartitionId pid = new PartitionId(new JobId(70000), new ConnectorDescriptorId(2), 127, 128);
+        CCNCFunctions.ReportPartitionAvailabilityFunction fn = (CCNCFunctions.ReportPartitionAvailabilityFunction) roundTrip(
+                new CCNCFunctions.ReportPartitionAvailabilityFunction(pid, new NetworkAddress("10.0.0.1", 65535)));
+        Assert.assertEquals(pid, fn.getPartitionId());
+        Assert.assertEquals(new NetworkAddress("10.0.0.1", 65535), fn.getNetworkAddress());
+
+        CCNCFunctions.AbortTasksFunction abort = (CCNCFunctions.AbortTasksFunction) roundTrip(
+                new CCNCFunctions.AbortTasksFunction(new JobId(3),
+                        Arrays.asList(taskAttemptId(1, 0, 0), taskAttemptId(1, Integer.MAX_VALUE, 2))));
+        Assert.assertEquals(Arrays.asList(taskAttemptId(1, 0, 0), taskAttemptId(1, Integer.MAX_VALUE, 2)),
+                abort.getTasks());
+
+        CCNCFunctions.CleanupJobletFunction cleanup = (CCNCFunctions.CleanupJobletFunction) roundTrip(
+                new CCNCFunctions.CleanupJobletFunction(new JobId(3), JobStatus.FAILURE));
+        Assert.assertEquals(JobStatus.FAILURE, cleanup.getStatus());
+    }
+
+    @Test
+    public void resultFunctions() throws Exception {
+        CCNCFunctions.RegisterResultPartitionLocationFunction fn = (CCNCFunctions.RegisterResultPartitionLocationFunction) roundTrip(
+                new CCNCFunctions.RegisterResultPartitionLocationFunction(new JobId(8), new ResultSetId(0), true,
+                        false, 3, 16, new NetworkAddress("localhost", 40000)));
+        Assert.assertEquals(new ResultSetId(0), fn.getResultSetId());
+        Assert.assertTrue(fn.getOrderedResult());
+        Assert.assertFalse(fn.getEmptyResult());
+        Assert.assertEquals(3, fn.getPartition());
+        Assert.assertEquals(16, fn.getNPartitions());
+
+        CCNCFunctions.ReportResultPartitionWriteCompletionFunction done = (CCNCFunctions.ReportResultPartitionWriteCompletionFunction) roundTrip(
+                new CCNCFunctions.ReportResultPartitionWriteCompletionFunction(new JobId(8), new ResultSetId(1), 15));
+        Assert.assertEquals(new JobId(8), done.getJobId());
+        Assert.assertEquals(15, done.getPartition());
+
+        CCNCFunctions.ReportProfileFunction profiles = (CCNCFunctions.ReportProfileFunction) roundTrip(
+                new CCNCFunctions.ReportProfileFunction("nc1", Arrays.asList(new JobProfile(new JobId(8)))));
+        Assert.assertEquals(new JobId(8), profiles.getProfiles().get(0).getJobId());
+
+        CCNCFunctions.SendApplicationMessageFunction message = (CCNCFunctions.SendApplicationMessageFunction) roundTrip(
+                new CCNCFunctions.SendApplicationMessageFunction(new byte[] { 7 }, null, "nc1"));
+        Assert.assertTrue(Arrays.equals(new byte[] { 7 }, message.getMessage()));
+        Assert.assertNull(message.getDeploymentId());
+        Assert.assertEquals("nc1", message.getNodeId());
+    }
+
+    @Test
+    public void compactFormIsSmallerThanJavaSerialization() throws Exception {
+        Object fn = new CCNCFunctions.ReportResultPartitionWriteCompletionFunction(new JobId(8), new ResultSetId(1),
+                15);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(fn);
+        oos.close();
+        Assert.assertTrue(serde.serializeObject(fn).length * 10 < baos.size());
+    }
+}
@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -46,6 +47,7 @@ import org.apache.hyracks.api.dataset.ResultSetId;
 import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.job.PreparedJobId;
 import org.apache.hyracks.client.dataset.HyracksDataset;
 import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.common.controllers.CCConfig;
@@ -140,6 +142,30 @@ public abstract class AbstractIntegrationTest {
         return jobId;
     }
 
+    protected PreparedJobId prepareJob(JobSpecification spec) throws Exception {
+        return hcc.prepareJob(spec, EnumSet.of(JobFlag.PROFILE_RUNTIME));
+    }
+
+    protected JobId executeTest(PreparedJobId preparedJobId, Map<String, byte[]> jobParameters) throws Exception {
+        JobId jobId = hcc.startJob(preparedJobId, jobParameters);
+        if (LOGGER.isLoggable(Level.INFO)) {
+            LOGGER.info(preparedJobId + " -> " + jobId);
+        }
+        return jobId;
+    }
+
+    protected void unprepareJob(PreparedJobId preparedJobId) throws Exception {
+        hcc.unprepareJob(preparedJobId);
+    }
+
+    protected static NodeControllerService getNodeControllerService(String nodeId) {
+        return NC1_ID.equals(nodeId) ? nc1 : nc2;
+    }
+
+    protected void waitForCompletion(JobId jobId) throws Exception {
+        hcc.waitForCompletion(jobId);
+    }
+
     protected void runTest(JobSpecification spec) throws Exception {
         JobId jobId = executeTest(spec);
         hcc.waitForCompletion(jobId);
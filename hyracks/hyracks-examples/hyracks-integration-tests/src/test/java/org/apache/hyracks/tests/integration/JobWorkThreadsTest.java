@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.integration;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.apache.hyracks.api.client.HyracksConnection;
+import org.apache.hyracks.api.client.IHyracksClientConnection;
+import org.apache.hyracks.api.constraints.PartitionConstraintHelper;
+import org.apache.hyracks.api.dataflow.IOperatorDescriptor;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.control.cc.ClusterControllerService;
+import org.apache.hyracks.control.common.controllers.CCConfig;
+import org.apache.hyracks.control.common.controllers.NCConfig;
+import org.apache.hyracks.control.nc.NodeControllerService;
+import org.apache.hyracks.dataflow.std.connectors.MToNReplicatingConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.misc.NullSinkOperatorDescriptor;
+import org.apache.hyracks.tests.util.BlockingSourceOperatorDescriptor;
+import org.apache.hyracks.tests.util.PointLookupOperatorDescriptor;
+
+/**
+ * Runs jobs against a cluster controller that processes job work on several threads: many jobs at once, and a job
+ * that loses one of its nodes while it runs.
+ */
+public class JobWorkThreadsTest {
+    private static final int CC_CLUSTER_NET_PORT = 39301;
+
+    // a hash map lists these in the opposite order
+    private static final String[] NC_IDS = { "nc1", "nc2" };
+
+    private static final String FAILING_NC_ID = "nc3";
+
+    private static final long TIMEOUT_SECONDS = 120;
+
+    private static ClusterControllerService cc;
+    private static List<NodeControllerService> ncs;
+    private static IHyracksClientConnection hcc;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        CCConfig ccConfig = new CCConfig();
+        ccConfig.clientNetIpAddress = "127.0.0.1";
+        ccConfig.clientNetPort = 39300;
+        ccConfig.clusterNetIpAddress = "127.0.0.1";
+        ccConfig.clusterNetPort = CC_CLUSTER_NET_PORT;
+        ccConfig.jobWorkThreads = 4;
+        ccConfig.heartbeatPeriod = 500;
+        ccConfig.maxHeartbeatLapsePeriods = 4;
+        File outDir = new File("target" + File.separator + "ClusterController");
+        outDir.mkdirs();
+        File ccRoot = File.createTempFile(JobWorkThreadsTest.class.getName(), ".data", outDir);
+        ccRoot.delete();
+        ccRoot.mkdir();
+        ccConfig.ccRoot = ccRoot.getAbsolutePath();
+        cc = new ClusterControllerService(ccConfig);
+        cc.start();
+
+        ncs = new ArrayList<NodeControllerService>();
+        for (String ncId : NC_IDS) {
+            ncs.add(startNC(ncId));
+        }
+        hcc = new HyracksConnection(ccConfig.clientNetIpAddress, ccConfig.clientNetPort);
+    }
+
+    @AfterClass
+    public static void deinit() throws Exception {
+        for (NodeControllerService nc : ncs) {
+            nc.stop();
+        }
+        cc.stop();
+    }
+
+    private static NodeControllerService startNC(String ncId) throws Exception {
+        NCConfig ncConfig = new NCConfig();
+        ncConfig.ccHost = "localhost";
+        ncConfig.ccPort = CC_CLUSTER_NET_PORT;
+        ncConfig.clusterNetIPAddress = "127.0.0.1";
+        ncConfig.dataIPAddress = "127.0.0.1";
+        ncConfig.resultIPAddress = "127.0.0.1";
+        ncConfig.nodeId = ncId;
+        NodeControllerService nc = new NodeControllerService(ncConfig);
+        nc.start();
+        return nc;
+    }
+
+    private static JobSpecification createJob(IOperatorDescriptor source, JobSpecification spec) {
+        IOperatorDescriptor sink = new NullSinkOperatorDescriptor(spec);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, sink, NC_IDS);
+        spec.connect(new MToNReplicatingConnectorDescriptor(spec), source, 0, sink, 0);
+        spec.addRoot(sink);
+        return spec;
+    }
+
+    private static JobSpecification createLookupJob() {
+        JobSpecification spec = new JobSpecification();
+        IOperatorDescriptor source = new PointLookupOperatorDescriptor(spec, new int[0]);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, source, NC_IDS[0], NC_IDS[1], NC_IDS[0],
+                NC_IDS[1]);
+        return createJob(source, spec);
+    }
+
+    @Test
+    public void nodesAreListedInRegistrationOrder() throws Exception {
+        Assert.assertEquals(Arrays.asList(NC_IDS), new ArrayList<String>(hcc.getNodeControllerInfos().keySet()));
+    }
+
+    @Test
+    public void concurrentJobs() throws Exception {
+        final JobSpecification spec = createLookupJob();
+        int clients = 4;
+        final int jobsPerClient = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int i = 0; i < clients; ++i) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int j = 0; j < jobsPerClient; ++j) {
+                            JobId jobId = hcc.startJob(spec);
+                            hcc.waitForCompletion(jobId);
+                            Assert.assertEquals(JobStatus.TERMINATED, hcc.getJobStatus(jobId));
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void nodeFailureDuringJob() throws Exception {
+        NodeControllerService failingNC = startNC(FAILING_NC_ID);
+        BlockingSourceOperatorDescriptor.STARTED.drainPermits();
+        JobSpecification spec = new JobSpecification();
+        IOperatorDescriptor source = new BlockingSourceOperatorDescriptor(spec, FAILING_NC_ID);
+        // once the failing node is gone, the task can be retried on a live node
+        PartitionConstraintHelper.addLocationChoiceConstraint(spec, source, new String[][] { { FAILING_NC_ID,
+                NC_IDS[0] } });
+        final JobId jobId = hcc.startJob(createJob(source, spec));
+
+        Assert.assertTrue(BlockingSourceOperatorDescriptor.STARTED.tryAcquire(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        failingNC.stop();
+
+        // the job must end, whether its retries succeed on a live node or run out
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    try {
+                        hcc.waitForCompletion(jobId);
+                    } catch (Exception e) {
+                        // a failed job is a valid outcome
+                    }
+                    return null;
+                }
+            }).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        JobStatus status = hcc.getJobStatus(jobId);
+        Assert.assertTrue(status.toString(), status == JobStatus.TERMINATED || status == JobStatus.FAILURE);
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+        while (hcc.getNodeControllerInfos().containsKey(FAILING_NC_ID)) {
+            Assert.assertTrue("node " + FAILING_NC_ID + " was not removed", System.currentTimeMillis() < deadline);
+            Thread.sleep(100);
+        }
+
+        // the surviving nodes still run jobs
+        JobId next = hcc.startJob(createLookupJob());
+        hcc.waitForCompletion(next);
+        Assert.assertEquals(JobStatus.TERMINATED, hcc.getJobStatus(next));
+    }
+}
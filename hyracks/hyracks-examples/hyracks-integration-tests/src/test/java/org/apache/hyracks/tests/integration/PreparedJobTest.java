@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.integration;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.hyracks.api.constraints.PartitionConstraintHelper;
+import org.apache.hyracks.api.dataflow.IOperatorDescriptor;
+import org.apache.hyracks.api.dataset.ResultSetId;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.job.PreparedJobId;
+import org.apache.hyracks.dataflow.std.connectors.OneToOneConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.result.ResultWriterOperatorDescriptor;
+import org.apache.hyracks.tests.util.PointLookupOperatorDescriptor;
+import org.apache.hyracks.tests.util.ResultSerializerFactoryProvider;
+
+public class PreparedJobTest extends AbstractIntegrationTest {
+    private static final int[] TABLE = new int[] { 10, 11, 12, 13, 14, 15, 16, 17, 18, 19 };
+
+    private final ResultSetId rsId = new ResultSetId(1);
+
+    private JobSpecification createLookupJob() throws Exception {
+        JobSpecification spec = new JobSpecification();
+        PointLookupOperatorDescriptor lookup = new PointLookupOperatorDescriptor(spec, TABLE);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, lookup, NC1_ID, NC2_ID);
+
+        IOperatorDescriptor printer = new ResultWriterOperatorDescriptor(spec, rsId, true, false,
+                ResultSerializerFactoryProvider.INSTANCE.getResultSerializerFactoryProvider());
+        spec.addResultSetId(rsId);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, printer, NC1_ID, NC2_ID);
+
+        spec.connect(new OneToOneConnectorDescriptor(spec), lookup, 0, printer, 0);
+        spec.addRoot(printer);
+        return spec;
+    }
+
+    private Map<String, byte[]> getJobParameters(int key) {
+        return Collections.singletonMap(PointLookupOperatorDescriptor.KEY_PARAMETER,
+                PointLookupOperatorDescriptor.getKeyParameter(key));
+    }
+
+    private List<String> lookup(JobSpecification spec, PreparedJobId preparedJobId, int key) throws Exception {
+        JobId jobId = executeTest(preparedJobId, getJobParameters(key));
+        List<String> results = readResults(spec, jobId, rsId);
+        waitForCompletion(jobId);
+        return results;
+    }
+
+    @Test
+    public void runPreparedJobWithParameters() throws Exception {
+        JobSpecification spec = createLookupJob();
+        PreparedJobId preparedJobId = prepareJob(spec);
+        try {
+            for (int key : new int[] { 3, 7, 3, 42, 0 }) {
+                List<String> results = lookup(spec, preparedJobId, key);
+                if (key < TABLE.length) {
+                    // one result from each of the two partitions
+                    Assert.assertEquals(2, results.size());
+                    for (String result : results) {
+                        Assert.assertEquals(key + ", " + TABLE[key], result.trim());
+                    }
+                } else {
+                    Assert.assertTrue(results.isEmpty());
+                }
+            }
+        } finally {
+            unprepareJob(preparedJobId);
+        }
+    }
+
+    @Test
+    public void runPreparedJobAfterNodeLostGraph() throws Exception {
+        JobSpecification spec = createLookupJob();
+        PreparedJobId preparedJobId = prepareJob(spec);
+        try {
+            Assert.assertEquals(2, lookup(spec, preparedJobId, 1).size());
+            // the cluster controller still believes that the node holds the graph
+            getNodeControllerService(NC1_ID).getPreparedJobMap().remove(preparedJobId);
+            /*
+             * The tasks of the node fail and are retried with the graph. The failed attempt is reported to the
+             * result readers, so only wait for the job itself.
+             */
+            waitForCompletion(executeTest(preparedJobId, getJobParameters(2)));
+            Assert.assertNotNull(getNodeControllerService(NC1_ID).getPreparedJobMap().get(preparedJobId));
+            List<String> results = lookup(spec, preparedJobId, 2);
+            Assert.assertEquals(2, results.size());
+            for (String result : results) {
+                Assert.assertEquals(2 + ", " + TABLE[2], result.trim());
+            }
+        } finally {
+            unprepareJob(preparedJobId);
+        }
+    }
+
+    @Test
+    public void startUnpreparedJobFails() throws Exception {
+        JobSpecification spec = createLookupJob();
+        PreparedJobId preparedJobId = prepareJob(spec);
+        Assert.assertEquals(2, lookup(spec, preparedJobId, 1).size());
+        unprepareJob(preparedJobId);
+        try {
+            lookup(spec, preparedJobId, 1);
+            Assert.fail("started a job that is no longer prepared");
+        } catch (Exception e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains(preparedJobId.toString()));
+        }
+    }
+}
@@ -19,7 +19,11 @@
 package org.apache.hyracks.tests.integration;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
 
+import org.junit.Assert;
 import org.junit.Test;
 
 import org.apache.hyracks.api.constraints.PartitionConstraintHelper;
@@ -30,6 +34,7 @@ import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.dataset.ResultSetId;
 import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobSpecification;
 import org.apache.hyracks.data.std.accessors.PointableBinaryHashFunctionFactory;
 import org.apache.hyracks.data.std.primitive.IntegerPointable;
@@ -44,6 +49,7 @@ import org.apache.hyracks.dataflow.std.connectors.MToNPartitioningConnectorDescr
 import org.apache.hyracks.dataflow.std.connectors.OneToOneConnectorDescriptor;
 import org.apache.hyracks.dataflow.std.file.ConstantFileSplitProvider;
 import org.apache.hyracks.dataflow.std.file.DelimitedDataTupleParserFactory;
+import org.apache.hyracks.dataflow.std.file.FileRangeSplitProvider;
 import org.apache.hyracks.dataflow.std.file.FileScanOperatorDescriptor;
 import org.apache.hyracks.dataflow.std.file.FileSplit;
 import org.apache.hyracks.dataflow.std.file.IFileSplitProvider;
@@ -160,4 +166,43 @@ public class ScanPrintTest extends AbstractIntegrationTest {
         spec.addRoot(printer);
         runTest(spec);
     }
+
+    @Test
+    public void scanPrintRanges() throws Exception {
+        JobSpecification spec = new JobSpecification();
+
+        File ordersFile = new File("data/tpch0.001/orders.tbl");
+        IFileSplitProvider ordersSplitsProvider = new FileRangeSplitProvider(
+                new FileSplit[] { new FileSplit(NC1_ID, new FileReference(ordersFile)) }, 4);
+        RecordDescriptor ordersDesc = new RecordDescriptor(new ISerializerDeserializer[] {
+                IntegerSerializerDeserializer.INSTANCE, new UTF8StringSerializerDeserializer() });
+
+        FileScanOperatorDescriptor ordScanner = new FileScanOperatorDescriptor(spec, ordersSplitsProvider,
+                new DelimitedDataTupleParserFactory(new IValueParserFactory[] { IntegerParserFactory.INSTANCE,
+                        UTF8StringParserFactory.INSTANCE }, '|'), ordersDesc);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, ordScanner, NC1_ID, NC1_ID, NC1_ID, NC1_ID);
+
+        ResultSetId rsId = new ResultSetId(1);
+        IOperatorDescriptor printer = new ResultWriterOperatorDescriptor(spec, rsId, true, false,
+                ResultSerializerFactoryProvider.INSTANCE.getResultSerializerFactoryProvider());
+        spec.addResultSetId(rsId);
+
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, printer, NC1_ID, NC1_ID, NC1_ID, NC1_ID);
+
+        IConnectorDescriptor conn = new OneToOneConnectorDescriptor(spec);
+        spec.connect(conn, ordScanner, 0, printer, 0);
+
+        spec.addRoot(printer);
+        JobId jobId = executeTest(spec);
+        List<String> results = readResults(spec, jobId, rsId);
+        waitForCompletion(jobId);
+
+        // the ranges together return every order once and in the order of the file
+        List<String> lines = Files.readAllLines(ordersFile.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(lines.size(), results.size());
+        for (int i = 0; i < lines.size(); ++i) {
+            String[] fields = lines.get(i).split("\\|");
+            Assert.assertEquals(fields[0] + ", " + fields[1], results.get(i).trim());
+        }
+    }
 }
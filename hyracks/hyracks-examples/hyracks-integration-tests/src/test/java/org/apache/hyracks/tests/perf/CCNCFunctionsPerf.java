@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.perf;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import org.apache.hyracks.api.comm.NetworkAddress;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.ConnectorDescriptorId;
+import org.apache.hyracks.api.dataflow.OperatorDescriptorId;
+import org.apache.hyracks.api.dataflow.TaskAttemptId;
+import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.dataflow.connectors.IConnectorPolicy;
+import org.apache.hyracks.api.dataset.ResultSetId;
+import org.apache.hyracks.api.job.JobFlag;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.PreparedJobId;
+import org.apache.hyracks.api.partitions.PartitionId;
+import org.apache.hyracks.control.common.ipc.CCNCFunctions;
+import org.apache.hyracks.control.common.job.TaskAttemptDescriptor;
+import org.apache.hyracks.control.common.job.profiling.om.PartitionProfile;
+import org.apache.hyracks.control.common.job.profiling.om.TaskProfile;
+import org.apache.hyracks.ipc.api.IIPCHandle;
+import org.apache.hyracks.ipc.api.IIPCI;
+import org.apache.hyracks.ipc.api.IPayloadSerializerDeserializer;
+import org.apache.hyracks.ipc.impl.IPCSystem;
+import org.apache.hyracks.ipc.impl.JavaSerializationBasedPayloadSerializerDeserializer;
+
+/**
+ * Sends the CC/NC messages of a short job (start tasks, partition availability, task completions, result write
+ * completion, joblet cleanup) over a loopback IPC connection and reports messages per second and bytes per message, once with plain
+ * Java serialization and once with the compact codecs of {@link CCNCFunctions.SerializerDeserializer}.
+ * Usage: CCNCFunctionsPerf [numJobs] [tasksPerJob]
+ */
+public class CCNCFunctionsPerf {
+    // bounds the messages in flight so that the sender cannot run arbitrarily far ahead of the receiver
+    private static final int MAX_IN_FLIGHT = 4096;
+
+    public static void main(String[] args) throws Exception {
+        int numJobs = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int tasksPerJob = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        System.out.println("jobs: " + numJobs + ", tasks per job: " + tasksPerJob);
+        System.out.println("codec\tmessages/s\tbytes/message");
+        for (int round = 0; round < 2; ++round) {
+            run("java", new JavaSerializationBasedPayloadSerializerDeserializer(), numJobs, tasksPerJob, round > 0);
+            run("compact", new CCNCFunctions.SerializerDeserializer(), numJobs, tasksPerJob, round > 0);
+        }
+    }
+
+    private static List<Object> createJobMessages(long jobId, int tasksPerJob) {
+        List<Object> messages = new ArrayList<Object>();
+        JobId jid = new JobId(jobId);
+        List<TaskAttemptDescriptor> tads = new ArrayList<TaskAttemptDescriptor>();
+        for (int i = 0; i < tasksPerJob; ++i) {
+            tads.add(new TaskAttemptDescriptor(taskAttemptId(i), tasksPerJob, new int[] { tasksPerJob },
+                    new int[] { tasksPerJob }));
+        }
+        messages.add(new CCNCFunctions.StartTasksFunction(null, jid, null, tads,
+                new HashMap<ConnectorDescriptorId, IConnectorPolicy>(), EnumSet.noneOf(JobFlag.class),
+                new PreparedJobId(1), null));
+        for (int i = 0; i < tasksPerJob; ++i) {
+            messages.add(new CCNCFunctions.ReportPartitionAvailabilityFunction(
+                    new PartitionId(jid, new ConnectorDescriptorId(0), i, 0), new NetworkAddress("127.0.0.1", 40000)));
+            messages.add(new CCNCFunctions.NotifyTaskCompleteFunction(jid, taskAttemptId(i), "nc1",
+                    new TaskProfile(taskAttemptId(i), new HashMap<PartitionId, PartitionProfile>())));
+        }
+        messages.add(new CCNCFunctions.NotifyJobletCleanupFunction(jid, "nc1"));
+        messages.add(new CCNCFunctions.ReportResultPartitionWriteCompletionFunction(jid, new ResultSetId(0), 0));
+        return messages;
+    }
+
+    private static TaskAttemptId taskAttemptId(int partition) {
+        return new TaskAttemptId(new TaskId(new ActivityId(new OperatorDescriptorId(0), 0), partition), 0);
+    }
+
+    private static void run(String name, IPayloadSerializerDeserializer serde, int numJobs, int tasksPerJob,
+            boolean print) throws Exception {
+        final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        IIPCI receiver = new IIPCI() {
+            @Override
+            public void deliverIncomingMessage(IIPCHandle handle, long mid, long rmid, Object payload,
+                    Exception exception) {
+                inFlight.release();
+            }
+        };
+        IPCSystem server = new IPCSystem(new InetSocketAddress("127.0.0.1", 0), receiver, serde);
+        IPCSystem client = new IPCSystem(new InetSocketAddress("127.0.0.1", 0), receiver, serde);
+        server.start();
+        client.start();
+        try {
+            IIPCHandle handle = client.getHandle(server.getSocketAddress());
+            long messages = 0;
+            long bytes = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < numJobs; ++i) {
+                for (Object message : createJobMessages(i, tasksPerJob)) {
+                    inFlight.acquire();
+                    handle.send(-1, message, null);
+                    ++messages;
+                }
+            }
+            inFlight.acquire(MAX_IN_FLIGHT);
+            long elapsed = System.nanoTime() - start;
+            // payload sizes are measured separately to keep the extra serialization out of the timing
+            for (Object message : createJobMessages(numJobs, tasksPerJob)) {
+                bytes += serde.serializeObject(message).length;
+            }
+            if (print) {
+                System.out.println(name + "\t" + (messages * 1000000000L / elapsed) + "\t"
+                        + bytes / (tasksPerJob * 2 + 3));
+            }
+        } finally {
+            client.stop();
+            server.stop();
+        }
+    }
+}
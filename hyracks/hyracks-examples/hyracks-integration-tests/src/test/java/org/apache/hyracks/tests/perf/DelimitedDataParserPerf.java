@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.tests.perf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.parsers.DoubleParserFactory;
+import org.apache.hyracks.dataflow.common.data.parsers.IValueParserFactory;
+import org.apache.hyracks.dataflow.common.data.parsers.IntegerParserFactory;
+import org.apache.hyracks.dataflow.common.data.parsers.UTF8StringParserFactory;
+import org.apache.hyracks.dataflow.std.file.DelimitedDataTupleParserFactory;
+import org.apache.hyracks.dataflow.std.file.DelimitedUTF8DataTupleParserFactory;
+import org.apache.hyracks.dataflow.std.file.ITupleParserFactory;
+import org.apache.hyracks.test.support.TestUtils;
+
+/**
+ * Measures the throughput of the char and the UTF-8 delimited data parsers on generated TPC-H lineitem rows,
+ * parsed into frames that are dropped.
+ * Usage: DelimitedDataParserPerf [numRows] [rounds]
+ */
+public class DelimitedDataParserPerf {
+    private static final IValueParserFactory[] LINEITEM_PARSERS = new IValueParserFactory[] {
+            IntegerParserFactory.INSTANCE, IntegerParserFactory.INSTANCE, IntegerParserFactory.INSTANCE,
+            IntegerParserFactory.INSTANCE, DoubleParserFactory.INSTANCE, DoubleParserFactory.INSTANCE,
+            DoubleParserFactory.INSTANCE, DoubleParserFactory.INSTANCE, UTF8StringParserFactory.INSTANCE,
+            UTF8StringParserFactory.INSTANCE, UTF8StringParserFactory.INSTANCE, UTF8StringParserFactory.INSTANCE,
+            UTF8StringParserFactory.INSTANCE, UTF8StringParserFactory.INSTANCE, UTF8StringParserFactory.INSTANCE,
+            UTF8StringParserFactory.INSTANCE };
+
+    public static void main(String[] args) throws Exception {
+        int numRows = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        byte[] data = generate(numRows);
+        System.out.println("rows: " + numRows + ", bytes: " + data.length);
+        System.out.println("parser\tmillis\tMB/s");
+        for (int round = 0; round < rounds; ++round) {
+            boolean print = round > 0;
+            run("char", new DelimitedDataTupleParserFactory(LINEITEM_PARSERS, '|'), data, print);
+            run("utf8", new DelimitedUTF8DataTupleParserFactory(LINEITEM_PARSERS, '|'), data, print);
+        }
+        System.exit(0);
+    }
+
+    private static byte[] generate(int numRows) {
+        String[] flags = { "A", "N", "R" };
+        String[] instructs = { "DELIVER IN PERSON", "COLLECT COD", "NONE", "TAKE BACK RETURN" };
+        String[] modes = { "AIR", "FOB", "MAIL", "RAIL", "REG AIR", "SHIP", "TRUCK" };
+        Random rnd = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        for (int i = 0; i < numRows; ++i) {
+            sb.setLength(0);
+            sb.append(i / 4 + 1).append('|').append(rnd.nextInt(200000)).append('|').append(rnd.nextInt(10000))
+                    .append('|').append(i % 4 + 1).append('|').append(rnd.nextInt(50) + 1).append('|')
+                    .append(rnd.nextInt(10000000) / 100.0).append('|').append(rnd.nextInt(11) / 100.0).append('|')
+                    .append(rnd.nextInt(9) / 100.0).append('|').append(flags[rnd.nextInt(3)]).append('|')
+                    .append(rnd.nextBoolean() ? 'O' : 'F').append('|');
+            for (int d = 0; d < 3; ++d) {
+                sb.append(String.format("199%d-%02d-%02d", rnd.nextInt(8) + 2, rnd.nextInt(12) + 1,
+                        rnd.nextInt(28) + 1)).append('|');
+            }
+            sb.append(instructs[rnd.nextInt(instructs.length)]).append('|').append(modes[rnd.nextInt(modes.length)])
+                    .append('|');
+            int commentLength = rnd.nextInt(34) + 10;
+            for (int c = 0; c < commentLength; ++c) {
+                sb.append(c % 6 == 5 ? ' ' : (char) ('a' + rnd.nextInt(26)));
+            }
+            sb.append("|\n");
+            byte[] row = sb.toString().getBytes(StandardCharsets.UTF_8);
+            bos.write(row, 0, row.length);
+        }
+        return bos.toByteArray();
+    }
+
+    private static void run(String name, ITupleParserFactory parserFactory, byte[] data, boolean print)
+            throws Exception {
+        IHyracksTaskContext ctx = TestUtils.create(32768);
+        IFrameWriter writer = new IFrameWriter() {
+            @Override
+            public void open() throws HyracksDataException {
+            }
+
+            @Override
+            public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+            }
+
+            @Override
+            public void fail() throws HyracksDataException {
+            }
+
+            @Override
+            public void close() throws HyracksDataException {
+            }
+        };
+        long start = System.currentTimeMillis();
+        parserFactory.createTupleParser(ctx).parse(new ByteArrayInputStream(data), writer);
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        if (print) {
+            System.out.println(name + "\t" + elapsed + "\t" + (data.length / 1000L / elapsed));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.perf;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.hyracks.api.client.HyracksConnection;
+import org.apache.hyracks.api.client.IHyracksClientConnection;
+import org.apache.hyracks.api.constraints.PartitionConstraintHelper;
+import org.apache.hyracks.api.dataflow.IOperatorDescriptor;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.job.PreparedJobId;
+import org.apache.hyracks.control.cc.ClusterControllerService;
+import org.apache.hyracks.control.common.controllers.CCConfig;
+import org.apache.hyracks.control.common.controllers.NCConfig;
+import org.apache.hyracks.control.nc.NodeControllerService;
+import org.apache.hyracks.dataflow.std.connectors.OneToOneConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.misc.NullSinkOperatorDescriptor;
+import org.apache.hyracks.tests.util.PointLookupOperatorDescriptor;
+
+/**
+ * Measures the number of jobs per second a client gets for a trivial point lookup plan when it starts the job
+ * from its specification every time and when it starts a prepared job with the key as a job parameter.
+ * The lookup table is part of the plan, so a larger table stands for a larger plan.
+ * Usage: PreparedJobPerf [numJobs] [tableSize]
+ */
+public class PreparedJobPerf {
+    private static final String NC_ID = "nc1";
+
+    public static void main(String[] args) throws Exception {
+        int numJobs = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int tableSize = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+
+        CCConfig ccConfig = new CCConfig();
+        ccConfig.clientNetIpAddress = "127.0.0.1";
+        ccConfig.clientNetPort = 39100;
+        ccConfig.clusterNetIpAddress = "127.0.0.1";
+        ccConfig.clusterNetPort = 39101;
+        File ccRoot = File.createTempFile(PreparedJobPerf.class.getName(), ".data");
+        ccRoot.delete();
+        ccRoot.mkdir();
+        ccConfig.ccRoot = ccRoot.getAbsolutePath();
+        ClusterControllerService cc = new ClusterControllerService(ccConfig);
+        cc.start();
+
+        NCConfig ncConfig = new NCConfig();
+        ncConfig.ccHost = "localhost";
+        ncConfig.ccPort = 39101;
+        ncConfig.clusterNetIPAddress = "127.0.0.1";
+        ncConfig.dataIPAddress = "127.0.0.1";
+        ncConfig.resultIPAddress = "127.0.0.1";
+        ncConfig.nodeId = NC_ID;
+        NodeControllerService nc = new NodeControllerService(ncConfig);
+        nc.start();
+
+        try {
+            IHyracksClientConnection hcc = new HyracksConnection(ccConfig.clientNetIpAddress,
+                    ccConfig.clientNetPort);
+            int[] table = new int[tableSize];
+            for (int i = 0; i < tableSize; ++i) {
+                table[i] = i * 2;
+            }
+            JobSpecification spec = createJob(table);
+            PreparedJobId preparedJobId = hcc.prepareJob(spec);
+
+            System.out.println("jobs: " + numJobs + ", table size: " + tableSize);
+            System.out.println("mode\tjobs/s");
+            for (int round = 0; round < 2; ++round) {
+                runAdHoc(hcc, spec, numJobs, round > 0);
+                runPrepared(hcc, preparedJobId, numJobs, tableSize, round > 0);
+            }
+            hcc.unprepareJob(preparedJobId);
+        } finally {
+            nc.stop();
+            cc.stop();
+        }
+        System.exit(0);
+    }
+
+    private static JobSpecification createJob(int[] table) {
+        JobSpecification spec = new JobSpecification();
+        PointLookupOperatorDescriptor lookup = new PointLookupOperatorDescriptor(spec, table);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, lookup, NC_ID);
+        IOperatorDescriptor sink = new NullSinkOperatorDescriptor(spec);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, sink, NC_ID);
+        spec.connect(new OneToOneConnectorDescriptor(spec), lookup, 0, sink, 0);
+        spec.addRoot(sink);
+        return spec;
+    }
+
+    private static void runAdHoc(IHyracksClientConnection hcc, JobSpecification spec, int numJobs, boolean print)
+            throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < numJobs; ++i) {
+            hcc.waitForCompletion(hcc.startJob(spec));
+        }
+        report("ad hoc", numJobs, System.nanoTime() - start, print);
+    }
+
+    private static void runPrepared(IHyracksClientConnection hcc, PreparedJobId preparedJobId, int numJobs,
+            int tableSize, boolean print) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < numJobs; ++i) {
+            Map<String, byte[]> jobParameters = Collections.singletonMap(
+                    PointLookupOperatorDescriptor.KEY_PARAMETER,
+                    PointLookupOperatorDescriptor.getKeyParameter(i % tableSize));
+            hcc.waitForCompletion(hcc.startJob(preparedJobId, jobParameters));
+        }
+        report("prepared", numJobs, System.nanoTime() - start, print);
+    }
+
+    private static void report(String mode, int numJobs, long elapsedNanos, boolean print) {
+        if (print) {
+            System.out.println(mode + "\t" + (long) (numJobs * 1e9 / elapsedNanos));
+        }
+    }
+}
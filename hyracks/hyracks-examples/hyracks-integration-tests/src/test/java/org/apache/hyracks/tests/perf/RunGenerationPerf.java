@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.perf;
+
+import java.util.List;
+import java.util.Random;
+
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputer;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.normalizers.IntegerNormalizedKeyComputerFactory;
+import org.apache.hyracks.dataflow.common.io.GeneratedRunFileReader;
+import org.apache.hyracks.dataflow.std.sort.Algorithm;
+import org.apache.hyracks.dataflow.std.sort.ExternalSortRunGenerator;
+import org.apache.hyracks.test.support.TestJobletContext;
+import org.apache.hyracks.test.support.TestUtils;
+
+/**
+ * Measures external sort run generation on single-integer rows with quick sort, merge sort, parallel merge
+ * sort and radix sort. The comparison sorts get the same normalized key as radix sort, but marked as not
+ * decisive, so they only differ from it in the sorting algorithm.
+ * Usage: RunGenerationPerf [numRows] [frameLimit] [frameSize] [threads]
+ * e.g. RunGenerationPerf 100000000 8192 32768 for a 100M row sort with 256MB of sort memory.
+ */
+public class RunGenerationPerf {
+    private static final RecordDescriptor RECORD_DESC = new RecordDescriptor(
+            new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE });
+    private static final int[] SORT_FIELDS = new int[] { 0 };
+    private static final IBinaryComparatorFactory[] COMPARATOR_FACTORIES = new IBinaryComparatorFactory[] {
+            PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY) };
+
+    public static void main(String[] args) throws Exception {
+        long numRows = args.length > 0 ? Long.parseLong(args[0]) : 10000000L;
+        int frameLimit = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+        int frameSize = args.length > 2 ? Integer.parseInt(args[2]) : 32768;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        final INormalizedKeyComputerFactory decisive = new IntegerNormalizedKeyComputerFactory();
+        INormalizedKeyComputerFactory notDecisive = new INormalizedKeyComputerFactory() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public INormalizedKeyComputer createNormalizedKeyComputer() {
+                return decisive.createNormalizedKeyComputer();
+            }
+        };
+
+        System.out.println("rows: " + numRows + ", frames: " + frameLimit + " x " + frameSize + " bytes");
+        System.out.println("algorithm\truns\tmillis");
+        for (int round = 0; round < 2; ++round) {
+            run("quick", notDecisive, Algorithm.QUICK_SORT, 1, numRows, frameLimit, frameSize, round > 0);
+            run("merge", notDecisive, Algorithm.MERGE_SORT, 1, numRows, frameLimit, frameSize, round > 0);
+            run("merge x" + threads, notDecisive, Algorithm.MERGE_SORT, threads, numRows, frameLimit, frameSize,
+                    round > 0);
+            run("radix", decisive, Algorithm.RADIX_SORT, 1, numRows, frameLimit, frameSize, round > 0);
+        }
+        System.exit(0);
+    }
+
+    private static void run(String name, INormalizedKeyComputerFactory nkcf, Algorithm alg, int threads,
+            long numRows, int frameLimit, int frameSize, boolean print) throws Exception {
+        IHyracksTaskContext ctx = TestUtils.create(frameSize);
+        ((TestJobletContext) ctx.getJobletContext()).setMaxThreadsPerTask(threads);
+        ExternalSortRunGenerator runGenerator = new ExternalSortRunGenerator(ctx, SORT_FIELDS, nkcf,
+                COMPARATOR_FACTORIES, RECORD_DESC, alg, frameLimit);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(1);
+        FrameTupleAppender appender = new FrameTupleAppender(new VSizeFrame(ctx), true);
+        Random rnd = new Random(42);
+
+        long start = System.currentTimeMillis();
+        runGenerator.open();
+        for (long i = 0; i < numRows; ++i) {
+            tb.reset();
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, rnd.nextInt());
+            if (!appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize())) {
+                appender.write(runGenerator, true);
+                appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize());
+            }
+        }
+        appender.write(runGenerator, true);
+        runGenerator.close();
+        long elapsed = System.currentTimeMillis() - start;
+
+        List<GeneratedRunFileReader> runs = runGenerator.getRuns();
+        for (GeneratedRunFileReader run : runs) {
+            // deletes the run file
+            run.open();
+            run.close();
+        }
+        if (print) {
+            System.out.println(name + "\t" + runs.size() + "\t" + elapsed);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.perf;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hyracks.api.client.HyracksConnection;
+import org.apache.hyracks.api.client.IHyracksClientConnection;
+import org.apache.hyracks.api.constraints.PartitionConstraintHelper;
+import org.apache.hyracks.api.dataflow.IOperatorDescriptor;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.control.cc.ClusterControllerService;
+import org.apache.hyracks.control.common.controllers.CCConfig;
+import org.apache.hyracks.control.common.controllers.NCConfig;
+import org.apache.hyracks.control.nc.NodeControllerService;
+import org.apache.hyracks.dataflow.std.connectors.MToNReplicatingConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.misc.NullSinkOperatorDescriptor;
+import org.apache.hyracks.tests.util.PointLookupOperatorDescriptor;
+
+/**
+ * Measures the number of jobs per second the cluster controller schedules when several clients run small jobs
+ * concurrently, for different numbers of job work threads. Every job connects a source to a sink with an M:N
+ * connector, so it produces a burst of task, partition and cleanup events at the cluster controller while doing
+ * almost no work on the nodes.
+ * Usage: SchedulerPerf [numJobs] [clients] [partitions] [jobWorkThreads...]
+ */
+public class SchedulerPerf {
+    private static final String[] NC_IDS = { "nc1", "nc2" };
+
+    public static void main(String[] args) throws Exception {
+        int numJobs = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int partitions = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        List<Integer> jobWorkThreads = new ArrayList<Integer>();
+        for (int i = 3; i < args.length; ++i) {
+            jobWorkThreads.add(Integer.parseInt(args[i]));
+        }
+        if (jobWorkThreads.isEmpty()) {
+            jobWorkThreads.add(0);
+            jobWorkThreads.add(1);
+            jobWorkThreads.add(4);
+        }
+
+        System.out.println("jobs: " + numJobs + ", clients: " + clients + ", partitions: " + partitions);
+        System.out.println("job work threads\tjobs/s\tmean latency (ms)");
+        int basePort = 39200;
+        for (int threads : jobWorkThreads) {
+            run(threads, basePort, numJobs, clients, partitions);
+            basePort += 10;
+        }
+        System.exit(0);
+    }
+
+    private static void run(int jobWorkThreads, int basePort, int numJobs, int clients, int partitions)
+            throws Exception {
+        CCConfig ccConfig = new CCConfig();
+        ccConfig.clientNetIpAddress = "127.0.0.1";
+        ccConfig.clientNetPort = basePort;
+        ccConfig.clusterNetIpAddress = "127.0.0.1";
+        ccConfig.clusterNetPort = basePort + 1;
+        ccConfig.jobWorkThreads = jobWorkThreads;
+        File ccRoot = File.createTempFile(SchedulerPerf.class.getName(), ".data");
+        ccRoot.delete();
+        ccRoot.mkdir();
+        ccConfig.ccRoot = ccRoot.getAbsolutePath();
+        ClusterControllerService cc = new ClusterControllerService(ccConfig);
+        cc.start();
+
+        List<NodeControllerService> ncs = new ArrayList<NodeControllerService>();
+        for (String ncId : NC_IDS) {
+            NCConfig ncConfig = new NCConfig();
+            ncConfig.ccHost = "localhost";
+            ncConfig.ccPort = basePort + 1;
+            ncConfig.clusterNetIPAddress = "127.0.0.1";
+            ncConfig.dataIPAddress = "127.0.0.1";
+            ncConfig.resultIPAddress = "127.0.0.1";
+            ncConfig.nodeId = ncId;
+            NodeControllerService nc = new NodeControllerService(ncConfig);
+            nc.start();
+            ncs.add(nc);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            final IHyracksClientConnection hcc = new HyracksConnection(ccConfig.clientNetIpAddress,
+                    ccConfig.clientNetPort);
+            final JobSpecification spec = createJob(partitions);
+            // warm up
+            runJobs(hcc, spec, executor, numJobs / 10, clients);
+            long start = System.nanoTime();
+            long totalLatency = runJobs(hcc, spec, executor, numJobs, clients);
+            long elapsed = System.nanoTime() - start;
+            System.out.println(jobWorkThreads + "\t" + (long) (numJobs * 1e9 / elapsed) + "\t"
+                    + String.format("%.2f", totalLatency / 1e6 / numJobs));
+        } finally {
+            executor.shutdown();
+            for (NodeControllerService nc : ncs) {
+                nc.stop();
+            }
+            cc.stop();
+        }
+    }
+
+    private static JobSpecification createJob(int partitions) {
+        String[] locations = new String[partitions];
+        for (int i = 0; i < partitions; ++i) {
+            locations[i] = NC_IDS[i % NC_IDS.length];
+        }
+        JobSpecification spec = new JobSpecification();
+        PointLookupOperatorDescriptor source = new PointLookupOperatorDescriptor(spec, new int[0]);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, source, locations);
+        IOperatorDescriptor sink = new NullSinkOperatorDescriptor(spec);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, sink, locations);
+        spec.connect(new MToNReplicatingConnectorDescriptor(spec), source, 0, sink, 0);
+        spec.addRoot(sink);
+        return spec;
+    }
+
+    /**
+     * Runs the jobs from the given number of client threads and returns the sum of their latencies in nanoseconds.
+     */
+    private static long runJobs(final IHyracksClientConnection hcc, final JobSpecification spec,
+            ExecutorService executor, final int numJobs, int clients) throws Exception {
+        final AtomicInteger remaining = new AtomicInteger(numJobs);
+        List<Future<Long>> futures = new ArrayList<Future<Long>>();
+        for (int i = 0; i < clients; ++i) {
+            futures.add(executor.submit(() -> {
+                long latency = 0;
+                while (remaining.getAndDecrement() > 0) {
+                    long start = System.nanoTime();
+                    hcc.waitForCompletion(hcc.startJob(spec));
+                    latency += System.nanoTime() - start;
+                }
+                return latency;
+            }));
+        }
+        long totalLatency = 0;
+        for (Future<Long> future : futures) {
+            totalLatency += future.get();
+        }
+        return totalLatency;
+    }
+}
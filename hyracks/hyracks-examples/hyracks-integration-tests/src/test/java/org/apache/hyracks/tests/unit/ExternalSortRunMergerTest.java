@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.unit;
+
+import static org.apache.hyracks.tests.unit.AbstractRunGeneratorTest.ComparatorFactories;
+import static org.apache.hyracks.tests.unit.AbstractRunGeneratorTest.RecordDesc;
+import static org.apache.hyracks.tests.unit.AbstractRunGeneratorTest.SortFields;
+import static org.apache.hyracks.tests.unit.AbstractRunGeneratorTest.assertFTADataIsSorted;
+import static org.apache.hyracks.tests.unit.AbstractRunGeneratorTest.prepareData;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.OperatorDescriptorId;
+import org.apache.hyracks.api.dataflow.TaskAttemptId;
+import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.io.GeneratedRunFileReader;
+import org.apache.hyracks.dataflow.std.sort.Algorithm;
+import org.apache.hyracks.dataflow.std.sort.ExternalSortRunGenerator;
+import org.apache.hyracks.dataflow.std.sort.ExternalSortRunMerger;
+import org.apache.hyracks.test.support.TestJobletContext;
+import org.apache.hyracks.test.support.TestNCApplicationContext;
+import org.apache.hyracks.test.support.TestRootContext;
+import org.apache.hyracks.test.support.TestTaskContext;
+import org.junit.Test;
+
+public class ExternalSortRunMergerTest {
+
+    @Test
+    public void testReadAheadWhenRunsExceedTheBudget() throws Exception {
+        int pageSize = 512;
+        /**
+         * Four frames of merge budget for ten single-frame runs: every pass of a four-wide merge (10 -> 7 -> 4 -> 1)
+         * would take up the whole budget and leave no room to read ahead.
+         */
+        int numRuns = 10;
+        int mergeFramesLimit = 5;
+        final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+        try {
+            TestJobletContext jobletCtx = new TestJobletContext(pageSize,
+                    new TestNCApplicationContext(new TestRootContext(), null), new JobId(0));
+            TestTaskContext ctx = new TestTaskContext(jobletCtx,
+                    new TaskAttemptId(new TaskId(new ActivityId(new OperatorDescriptorId(0), 0), 0), 0)) {
+                @Override
+                public ExecutorService getExecutorService() {
+                    return executor;
+                }
+            };
+
+            Map<Integer, String> keyValuePair = new HashMap<>();
+            List<IFrame> frameList = new ArrayList<>();
+            prepareData(ctx, frameList, pageSize * 4 * (numRuns + 1), pageSize / 8, pageSize / 8, null, keyValuePair);
+            ExternalSortRunGenerator runGenerator = new ExternalSortRunGenerator(ctx, SortFields, null,
+                    ComparatorFactories, RecordDesc, Algorithm.MERGE_SORT, 4);
+            runGenerator.open();
+            for (IFrame frame : frameList) {
+                runGenerator.nextFrame(frame.getBuffer());
+            }
+            runGenerator.close();
+            List<GeneratedRunFileReader> runs = runGenerator.getRuns();
+            assertTrue(runs.size() >= numRuns);
+            VSizeFrame frame = new VSizeFrame(ctx);
+            FrameTupleAccessor fta = new FrameTupleAccessor(RecordDesc);
+            for (GeneratedRunFileReader run : runs.subList(numRuns, runs.size())) {
+                run.open();
+                while (run.nextFrame(frame)) {
+                    fta.reset(frame.getBuffer());
+                    assertFTADataIsSorted(fta, keyValuePair, Integer.MIN_VALUE);
+                }
+                run.close();
+            }
+            runs = runs.subList(0, numRuns);
+
+            IBinaryComparator[] comparators = new IBinaryComparator[ComparatorFactories.length];
+            for (int i = 0; i < comparators.length; i++) {
+                comparators[i] = ComparatorFactories[i].createBinaryComparator();
+            }
+            SortedResultChecker checker = new SortedResultChecker(keyValuePair);
+            new ExternalSortRunMerger(ctx, null, runs, SortFields, comparators, null, RecordDesc, mergeFramesLimit,
+                    Integer.MAX_VALUE, checker).process();
+
+            assertTrue(keyValuePair.isEmpty());
+            // the read-ahead half of the budget narrows the merges instead of disabling the read-ahead
+            assertTrue(executor.getTaskCount() > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class SortedResultChecker implements IFrameWriter {
+        private final FrameTupleAccessor fta = new FrameTupleAccessor(RecordDesc);
+        private final Map<Integer, String> keyValuePair;
+        private int preKey = Integer.MIN_VALUE;
+
+        SortedResultChecker(Map<Integer, String> keyValuePair) {
+            this.keyValuePair = keyValuePair;
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+            fta.reset(buffer);
+            preKey = assertFTADataIsSorted(fta, keyValuePair, preKey);
+        }
+
+        @Override
+        public void fail() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
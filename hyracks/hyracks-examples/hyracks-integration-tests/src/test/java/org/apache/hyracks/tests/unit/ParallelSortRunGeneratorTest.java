@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.unit;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.io.GeneratedRunFileReader;
+import org.apache.hyracks.dataflow.std.sort.AbstractSortRunGenerator;
+import org.apache.hyracks.dataflow.std.sort.Algorithm;
+import org.apache.hyracks.dataflow.std.sort.ExternalSortRunGenerator;
+import org.apache.hyracks.dataflow.std.sort.FrameSorterParallelMergeSort;
+import org.apache.hyracks.test.support.TestJobletContext;
+import org.junit.Test;
+
+public class ParallelSortRunGeneratorTest extends AbstractRunGeneratorTest {
+    static final int MAX_THREADS_PER_TASK = 4;
+
+    @Override
+    AbstractSortRunGenerator getSortRunGenerator(IHyracksTaskContext ctx, int frameLimit, int numOfInputRecord)
+            throws HyracksDataException {
+        ((TestJobletContext) ctx.getJobletContext()).setMaxThreadsPerTask(MAX_THREADS_PER_TASK);
+        ExternalSortRunGenerator runGenerator = new ExternalSortRunGenerator(ctx, SortFields, null,
+                ComparatorFactories, RecordDesc, Algorithm.MERGE_SORT, frameLimit);
+        assertTrue(runGenerator.getSorter() instanceof FrameSorterParallelMergeSort);
+        return runGenerator;
+    }
+
+    @Test
+    public void testRunsLargeEnoughToSortInParallel() throws HyracksDataException {
+        // about 40k tuples per run, so that every thread gets a slice
+        int pageSize = 32768;
+        int frameLimit = 64;
+        int numRuns = 2;
+        int minRecordSize = 16;
+        int maxRecordSize = 64;
+        List<GeneratedRunFileReader> runs = testSortRecords(pageSize, frameLimit, numRuns, minRecordSize,
+                maxRecordSize, null);
+        assertMaxFrameSizesAreAllEqualsTo(runs, pageSize);
+    }
+}
@@ -305,6 +305,15 @@ public class RunMergingFrameReaderTest {
 
     @Test
     public void testRunFileReader() throws HyracksDataException {
+        testRunFileReader(false);
+    }
+
+    @Test
+    public void testRunFileReaderWithReadAhead() throws HyracksDataException {
+        testRunFileReader(true);
+    }
+
+    private void testRunFileReader(boolean readAhead) throws HyracksDataException {
         int pageSize = 128;
         int numRuns = 4;
         int numFramesPerRun = 4;
@@ -335,8 +344,12 @@ public class RunMergingFrameReaderTest {
         }
         runGenerator.close();
         List<IFrame> inFrame = new ArrayList<>(runGenerator.getRuns().size());
+        List<IFrame> readAheadFrame = readAhead ? new ArrayList<IFrame>(runGenerator.getRuns().size()) : null;
         for (GeneratedRunFileReader max : runGenerator.getRuns()) {
             inFrame.add(new GroupVSizeFrame(ctx, max.getMaxFrameSize()));
+            if (readAhead) {
+                readAheadFrame.add(new GroupVSizeFrame(ctx, max.getMaxFrameSize()));
+            }
         }
 
         // Let each run file reader not delete the run file when it is read and closed.
@@ -349,8 +362,8 @@ public class RunMergingFrameReaderTest {
         for (GeneratedRunFileReader run : runGenerator.getRuns()) {
             runs.add(run);
         }
-        RunMergingFrameReader reader = new RunMergingFrameReader(ctx, runs, inFrame, SortFields, Comparators, null,
-                RecordDesc);
+        RunMergingFrameReader reader = new RunMergingFrameReader(ctx, runs, inFrame, readAheadFrame, SortFields,
+                Comparators, null, RecordDesc, Integer.MAX_VALUE);
 
         IFrame outFrame = new VSizeFrame(ctx);
         reader.open();
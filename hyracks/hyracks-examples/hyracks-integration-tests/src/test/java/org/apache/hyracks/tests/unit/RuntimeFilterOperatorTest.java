@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.unit;
+
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFactory;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputerFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.data.std.accessors.MurmurHash3BinaryHashFunctionFamily;
+import org.apache.hyracks.data.std.accessors.PointableBinaryHashFunctionFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.partition.FieldHashPartitionComputerFactory;
+import org.apache.hyracks.dataflow.common.data.partition.FieldHashPartitionComputerFamily;
+import org.apache.hyracks.dataflow.std.join.OptimizedHybridHashJoinOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.join.RuntimeBloomFilter;
+import org.apache.hyracks.dataflow.std.join.RuntimeFilterOperatorDescriptor;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Test;
+
+public class RuntimeFilterOperatorTest {
+    private static final RecordDescriptor RecordDesc = new RecordDescriptor(
+            new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE });
+    private static final int[] KeyFields = new int[] { 0 };
+    private static final IBinaryHashFunctionFamily[] HashFunctionFamilies = new IBinaryHashFunctionFamily[] {
+            MurmurHash3BinaryHashFunctionFamily.INSTANCE };
+    private static final int NumKeys = 1000;
+    private static final int NumJoinPartitions = 2;
+
+    /**
+     * The join has built partition 0 on this node, over every tenth key sent to it, and partition 1 on another
+     * node. Before the exchange, tuples sent to partition 0 are checked against its filter and all the others pass.
+     */
+    @Test
+    public void testFilterBeforeHashPartitioning() throws HyracksDataException {
+        IHyracksTaskContext ctx = TestUtils.create(32768);
+        JobSpecification spec = new JobSpecification();
+        ITuplePartitionComputerFactory exchangeHash = new FieldHashPartitionComputerFactory(KeyFields,
+                new IBinaryHashFunctionFactory[] { PointableBinaryHashFunctionFactory.of(IntegerPointable.FACTORY) });
+        OptimizedHybridHashJoinOperatorDescriptor join = new OptimizedHybridHashJoinOperatorDescriptor(spec, 10, 100,
+                1.2, KeyFields, KeyFields, HashFunctionFamilies, null, RecordDesc, null, null, null);
+        join.setRuntimeFilter(true);
+        RuntimeFilterOperatorDescriptor filterOp = new RuntimeFilterOperatorDescriptor(spec, RecordDesc,
+                join.getOperatorId(), KeyFields, HashFunctionFamilies, exchangeHash, NumJoinPartitions);
+
+        VSizeFrame frame = new VSizeFrame(ctx);
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(1);
+        for (int key = 0; key < NumKeys; key++) {
+            tb.reset();
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, key);
+            assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+        }
+        FrameTupleAccessor fta = new FrameTupleAccessor(RecordDesc);
+        fta.reset(frame.getBuffer());
+        ITuplePartitionComputer exchangePartitioner = exchangeHash.createPartitioner();
+        ITuplePartitionComputer filterHash = new FieldHashPartitionComputerFamily(KeyFields, HashFunctionFamilies)
+                .createPartitioner(RuntimeBloomFilter.HASH_SEED);
+        int[] destinations = new int[NumKeys];
+        RuntimeBloomFilter.Builder builder = new RuntimeBloomFilter.Builder(NumKeys,
+                RuntimeBloomFilter.DEFAULT_BITS_PER_KEY);
+        for (int key = 0; key < NumKeys; key++) {
+            destinations[key] = exchangePartitioner.partition(fta, key, NumJoinPartitions);
+            if (destinations[key] == 0 && key % 10 == 0) {
+                builder.add(filterHash.partition(fta, key, Integer.MAX_VALUE));
+            }
+        }
+        ctx.setStateObject(new OptimizedHybridHashJoinOperatorDescriptor.RuntimeFilterState(
+                ctx.getJobletContext().getJobId(), join.getOperatorId(), 0, builder.build()));
+
+        KeyCollector collector = new KeyCollector();
+        IOperatorNodePushable pushable = filterOp.createPushRuntime(ctx, null, 0, 1);
+        pushable.setOutputFrameWriter(0, collector, RecordDesc);
+        pushable.initialize();
+        IFrameWriter input = pushable.getInputFrameWriter(0);
+        input.open();
+        input.nextFrame(frame.getBuffer());
+        input.close();
+        pushable.deinitialize();
+
+        int dropped = 0;
+        int falsePositives = 0;
+        for (int key = 0; key < NumKeys; key++) {
+            boolean passed = collector.keys.contains(key);
+            if (destinations[key] == 1 || key % 10 == 0) {
+                assertTrue("key " + key + " was dropped", passed);
+            } else if (passed) {
+                falsePositives++;
+            } else {
+                dropped++;
+            }
+        }
+        assertTrue("dropped " + dropped, dropped > 0);
+        assertTrue("false positives: " + falsePositives, falsePositives < (dropped + falsePositives) / 10);
+    }
+
+    private static class KeyCollector implements IFrameWriter {
+        private final Set<Integer> keys = new HashSet<>();
+        private final FrameTupleAccessor fta = new FrameTupleAccessor(RecordDesc);
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) {
+            fta.reset(buffer);
+            for (int i = 0; i < fta.getTupleCount(); i++) {
+                keys.add(IntegerPointable.getInteger(buffer.array(),
+                        fta.getTupleStartOffset(i) + fta.getFieldSlotsLength() + fta.getFieldStartOffset(i, 0)));
+            }
+        }
+
+        @Override
+        public void fail() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
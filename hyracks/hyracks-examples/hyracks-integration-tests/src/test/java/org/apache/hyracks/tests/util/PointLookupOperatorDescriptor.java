@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.util;
+
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.std.base.AbstractSingleActivityOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryOutputSourceOperatorNodePushable;
+
+/**
+ * Looks up the integer job parameter {@link #KEY_PARAMETER} in a table that is part of the plan and emits the
+ * (key, value) pair, or nothing if the key is not in the table.
+ */
+public class PointLookupOperatorDescriptor extends AbstractSingleActivityOperatorDescriptor {
+    private static final long serialVersionUID = 1L;
+
+    public static final String KEY_PARAMETER = "key";
+
+    public static final RecordDescriptor RECORD_DESC = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+
+    private final int[] table;
+
+    public PointLookupOperatorDescriptor(IOperatorDescriptorRegistry spec, int[] table) {
+        super(spec, 0, 1);
+        this.table = table;
+        recordDescriptors[0] = RECORD_DESC;
+    }
+
+    public static byte[] getKeyParameter(int key) {
+        byte[] bytes = new byte[4];
+        IntegerPointable.setInteger(bytes, 0, key);
+        return bytes;
+    }
+
+    @Override
+    public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+            IRecordDescriptorProvider recordDescProvider, int partition, int nPartitions) throws HyracksDataException {
+        return new AbstractUnaryOutputSourceOperatorNodePushable() {
+            @Override
+            public void initialize() throws HyracksDataException {
+                byte[] keyBytes = ctx.getJobletContext().getJobParameter(KEY_PARAMETER);
+                FrameTupleAppender appender = new FrameTupleAppender(new VSizeFrame(ctx));
+                writer.open();
+                try {
+                    if (keyBytes != null) {
+                        int key = IntegerPointable.getInteger(keyBytes, 0);
+                        if (key >= 0 && key < table.length) {
+                            byte[] tuple = new byte[8];
+                            IntegerPointable.setInteger(tuple, 0, key);
+                            IntegerPointable.setInteger(tuple, 4, table[key]);
+                            appender.append(new int[] { 4, 8 }, tuple, 0, tuple.length);
+                        }
+                    }
+                    appender.write(writer, false);
+                } catch (Throwable th) {
+                    writer.fail();
+                    throw new HyracksDataException(th);
+                } finally {
+                    writer.close();
+                }
+            }
+        };
+    }
+}
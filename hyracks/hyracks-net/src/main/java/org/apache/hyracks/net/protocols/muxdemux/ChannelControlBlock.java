@@ -40,6 +40,12 @@ import org.apache.hyracks.net.exceptions.NetException;
 public class ChannelControlBlock {
     private static final Logger LOGGER = Logger.getLogger(ChannelControlBlock.class.getName());
 
+    /**
+     * Number of frames granted to the remote side when a buffer factory is installed. The window doubles
+     * every time the remote side exhausts it, until it reaches the limit of the factory.
+     */
+    static final int INITIAL_READ_WINDOW_FRAMES = 2;
+
     private final ChannelSet cSet;
 
     private final int channelId;
@@ -110,6 +116,13 @@ public class ChannelControlBlock {
 
         private volatile int credits;
 
+        // credits granted to the remote side that have not been used up by received data yet
+        private int remoteCredits;
+
+        private int window;
+
+        private int windowLimit;
+
         private ByteBuffer currentReadBuffer;
 
         private IBufferFactory bufferFactory;
@@ -122,7 +135,8 @@ public class ChannelControlBlock {
         @Override
         public void setBufferFactory(IBufferFactory bufferFactory, int limit, int frameSize) {
             this.bufferFactory = bufferFactory;
-            cSet.addPendingCredits(channelId, limit * frameSize);
+            cSet.initReadWindow(channelId, Math.min(limit, INITIAL_READ_WINDOW_FRAMES) * frameSize,
+                    limit * frameSize);
         }
 
         @Override
@@ -282,7 +296,7 @@ public class ChannelControlBlock {
                     writerState.command.setChannelId(channelId);
                     writerState.command.setCommandType(MuxDemuxCommand.CommandType.DATA);
                     writerState.command.setData(size);
-                    writerState.reset(currentWriteBuffer, size, ChannelControlBlock.this);
+                    writerState.append(currentWriteBuffer, size, ChannelControlBlock.this);
                 } else {
                     adjustChannelWritability();
                 }
@@ -290,7 +304,7 @@ public class ChannelControlBlock {
                 writerState.command.setChannelId(channelId);
                 writerState.command.setCommandType(MuxDemuxCommand.CommandType.ERROR);
                 writerState.command.setData(ecode);
-                writerState.reset(null, 0, null);
+                writerState.append(null, 0, null);
                 ecodeSent = true;
                 localClose.set(true);
                 adjustChannelWritability();
@@ -298,7 +312,7 @@ public class ChannelControlBlock {
                 writerState.command.setChannelId(channelId);
                 writerState.command.setCommandType(MuxDemuxCommand.CommandType.CLOSE_CHANNEL);
                 writerState.command.setData(0);
-                writerState.reset(null, 0, null);
+                writerState.append(null, 0, null);
                 eosSent = true;
                 localClose.set(true);
                 adjustChannelWritability();
@@ -363,6 +377,30 @@ public class ChannelControlBlock {
         this.ri.credits = credits;
     }
 
+    int getRemoteCredits() {
+        return ri.remoteCredits;
+    }
+
+    void setRemoteCredits(int remoteCredits) {
+        ri.remoteCredits = remoteCredits;
+    }
+
+    void setReadWindow(int window, int windowLimit) {
+        ri.window = window;
+        ri.windowLimit = windowLimit;
+    }
+
+    /**
+     * Doubles the read window, without going beyond the limit of the buffer factory.
+     *
+     * @return the number of credits by which the window grew.
+     */
+    int growReadWindow() {
+        int delta = Math.min(ri.window, ri.windowLimit - ri.window);
+        ri.window += delta;
+        return delta;
+    }
+
     synchronized void addWriteCredits(int delta) {
         wi.credits += delta;
         wi.adjustChannelWritability();
@@ -400,6 +438,7 @@ public class ChannelControlBlock {
     public String toString() {
         return "Channel:" + channelId + "[localClose: " + localClose + " localCloseAck: " + localCloseAck
                 + " remoteClose: " + remoteClose + " remoteCloseAck:" + remoteCloseAck + " readCredits: " + ri.credits
-                + " writeCredits: " + wi.credits + "]";
+                + " remoteCredits: " + ri.remoteCredits + " readWindow: " + ri.window + " writeCredits: "
+                + wi.credits + "]";
     }
 }
@@ -148,14 +148,59 @@ public class ChannelSet {
                 if (ccb.getRemoteEOS()) {
                     return;
                 }
-                int oldCredits = ccb.getReadCredits();
-                ccb.setReadCredits(oldCredits + delta);
-                if (oldCredits == 0) {
-                    assert !pendingChannelCreditsBitmap.get(channelId);
-                    pendingChannelCreditsBitmap.set(channelId);
-                    pendingWriteEventsCounter.increment();
-                }
+                ccb.setReadCredits(ccb.getReadCredits() + delta);
+                markPendingCredits(channelId, ccb);
+            }
+        }
+    }
+
+    void initReadWindow(int channelId, int window, int windowLimit) {
+        synchronized (mConn) {
+            ChannelControlBlock ccb = ccbArray[channelId];
+            if (ccb != null) {
+                ccb.setReadWindow(window, windowLimit);
+            }
+        }
+        addPendingCredits(channelId, window);
+    }
+
+    void addRemoteCredits(int channelId, int delta) {
+        synchronized (mConn) {
+            ChannelControlBlock ccb = ccbArray[channelId];
+            ccb.setRemoteCredits(ccb.getRemoteCredits() + delta);
+        }
+    }
+
+    /**
+     * Accounts for data received on a channel. When the remote side has used up all of its credits, the read
+     * window of the channel is grown.
+     */
+    void reportDataRead(int channelId, int size) {
+        synchronized (mConn) {
+            ChannelControlBlock ccb = ccbArray[channelId];
+            if (ccb == null || ccb.getRemoteEOS()) {
+                return;
+            }
+            int remoteCredits = Math.max(0, ccb.getRemoteCredits() - size);
+            ccb.setRemoteCredits(remoteCredits);
+            if (remoteCredits == 0) {
+                ccb.setReadCredits(ccb.getReadCredits() + ccb.growReadWindow());
             }
+            markPendingCredits(channelId, ccb);
+        }
+    }
+
+    /*
+     * Returned credits are held back until they are at least as many as the credits that the remote side still
+     * has, i.e. until half of the window has been consumed, so that one ADD_CREDITS command covers several frames.
+     * The remote side never stalls on credits that are held back: once it has none left, all pending credits are
+     * sent.
+     */
+    private void markPendingCredits(int channelId, ChannelControlBlock ccb) {
+        int credits = ccb.getReadCredits();
+        if (credits > 0 && credits >= ccb.getRemoteCredits() && !pendingChannelCreditsBitmap.get(channelId)) {
+            pendingChannelCreditsBitmap.set(channelId);
+            pendingWriteEventsCounter.increment();
         }
     }
 
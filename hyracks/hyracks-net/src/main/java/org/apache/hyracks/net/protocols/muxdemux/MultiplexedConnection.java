@@ -41,6 +41,8 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
 
     private static final int MAX_CHUNKS_READ_PER_CYCLE = 4;
 
+    private static final int MAX_COMMANDS_WRITTEN_PER_CYCLE = 64;
+
     private final MuxDemux muxDemux;
 
     private final IEventCounter pendingWriteEventsCounter;
@@ -157,9 +159,15 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
         return channel;
     }
 
+    /**
+     * Collects the commands of one write cycle in a single command buffer and writes them together with the
+     * payload of the last one, if any, with one gathering write straight from the frame of the channel.
+     */
     class WriterState {
         private final ByteBuffer cmdWriteBuffer;
 
+        private final ByteBuffer[] writeBuffers;
+
         final MuxDemuxCommand command;
 
         private ByteBuffer pendingBuffer;
@@ -169,8 +177,9 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
         private ChannelControlBlock ccb;
 
         public WriterState() {
-            cmdWriteBuffer = ByteBuffer.allocateDirect(MuxDemuxCommand.COMMAND_SIZE);
+            cmdWriteBuffer = ByteBuffer.allocateDirect(MAX_COMMANDS_WRITTEN_PER_CYCLE * MuxDemuxCommand.COMMAND_SIZE);
             cmdWriteBuffer.flip();
+            writeBuffers = new ByteBuffer[] { cmdWriteBuffer, null };
             command = new MuxDemuxCommand();
             ccb = null;
         }
@@ -179,8 +188,17 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
             return cmdWriteBuffer.remaining() > 0 || (pendingBuffer != null && pendingWriteSize > 0);
         }
 
-        void reset(ByteBuffer pendingBuffer, int pendingWriteSize, ChannelControlBlock ccb) {
-            cmdWriteBuffer.clear();
+        /**
+         * @return true if another control command fits in this write, leaving room for a data command.
+         */
+        boolean canAppendControlCommand() {
+            return cmdWriteBuffer.limit() + 2 * MuxDemuxCommand.COMMAND_SIZE <= cmdWriteBuffer.capacity();
+        }
+
+        void append(ByteBuffer pendingBuffer, int pendingWriteSize, ChannelControlBlock ccb) {
+            assert cmdWriteBuffer.position() == 0 && this.pendingBuffer == null && this.ccb == null;
+            cmdWriteBuffer.position(cmdWriteBuffer.limit());
+            cmdWriteBuffer.limit(cmdWriteBuffer.capacity());
             command.write(cmdWriteBuffer);
             cmdWriteBuffer.flip();
             this.pendingBuffer = pendingBuffer;
@@ -190,32 +208,36 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
 
         boolean performPendingWrite(SocketChannel sc) throws IOException {
             int len = cmdWriteBuffer.remaining();
-            if (len > 0) {
-                int written = sc.write(cmdWriteBuffer);
-                muxDemux.getPerformanceCounters().addSignalingBytesWritten(written);
-                if (written < len) {
-                    return false;
+            if (pendingBuffer != null && pendingWriteSize > 0) {
+                assert pendingWriteSize <= pendingBuffer.remaining();
+                int oldLimit = pendingBuffer.limit();
+                long written;
+                try {
+                    pendingBuffer.limit(pendingWriteSize + pendingBuffer.position());
+                    writeBuffers[1] = pendingBuffer;
+                    written = sc.write(writeBuffers);
+                } finally {
+                    writeBuffers[1] = null;
+                    pendingBuffer.limit(oldLimit);
                 }
-            }
-            if (pendingBuffer != null) {
+                int payloadWritten = (int) Math.max(0, written - len);
+                muxDemux.getPerformanceCounters().addSignalingBytesWritten(written - payloadWritten);
+                muxDemux.getPerformanceCounters().addPayloadBytesWritten(payloadWritten);
+                pendingWriteSize -= payloadWritten;
                 if (pendingWriteSize > 0) {
-                    assert pendingWriteSize <= pendingBuffer.remaining();
-                    int oldLimit = pendingBuffer.limit();
-                    try {
-                        pendingBuffer.limit(pendingWriteSize + pendingBuffer.position());
-                        int written = sc.write(pendingBuffer);
-                        muxDemux.getPerformanceCounters().addPayloadBytesWritten(written);
-                        pendingWriteSize -= written;
-                    } finally {
-                        pendingBuffer.limit(oldLimit);
-                    }
+                    return false;
                 }
-                if (pendingWriteSize > 0) {
+            } else if (len > 0) {
+                int written = sc.write(cmdWriteBuffer);
+                muxDemux.getPerformanceCounters().addSignalingBytesWritten(written);
+                if (written < len) {
                     return false;
                 }
-                pendingBuffer = null;
-                pendingWriteSize = 0;
             }
+            cmdWriteBuffer.clear();
+            cmdWriteBuffer.flip();
+            pendingBuffer = null;
+            pendingWriteSize = 0;
             if (ccb != null) {
                 ccb.writeComplete();
                 ccb = null;
@@ -240,22 +262,21 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
 
         for (int i = 0; i < numCycles; ++i) {
             ChannelControlBlock writeCCB = null;
+            int nControlEvents = 0;
             synchronized (MultiplexedConnection.this) {
                 BitSet pendingChannelSynBitmap = cSet.getPendingChannelSynBitmap();
-                for (int j = pendingChannelSynBitmap.nextSetBit(0); j >= 0; j = pendingChannelSynBitmap.nextSetBit(j)) {
+                for (int j = pendingChannelSynBitmap.nextSetBit(0); j >= 0
+                        && writerState.canAppendControlCommand(); j = pendingChannelSynBitmap.nextSetBit(j)) {
                     pendingChannelSynBitmap.clear(j);
                     writerState.command.setChannelId(j);
                     writerState.command.setCommandType(MuxDemuxCommand.CommandType.OPEN_CHANNEL);
                     writerState.command.setData(0);
-                    writerState.reset(null, 0, null);
-                    if (!writerState.performPendingWrite(sc)) {
-                        return;
-                    }
-                    pendingWriteEventsCounter.decrement();
+                    writerState.append(null, 0, null);
+                    ++nControlEvents;
                 }
                 BitSet pendingChannelCreditsBitmap = cSet.getPendingChannelCreditsBitmap();
-                for (int j = pendingChannelCreditsBitmap.nextSetBit(0); j >= 0; j = pendingChannelCreditsBitmap
-                        .nextSetBit(j)) {
+                for (int j = pendingChannelCreditsBitmap.nextSetBit(0); j >= 0
+                        && writerState.canAppendControlCommand(); j = pendingChannelCreditsBitmap.nextSetBit(j)) {
                     writerState.command.setChannelId(j);
                     writerState.command.setCommandType(MuxDemuxCommand.CommandType.ADD_CREDITS);
                     ChannelControlBlock ccb = cSet.getCCB(j);
@@ -265,51 +286,54 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
                         effectiveCredits = credits;
                         ccb.setReadCredits(0);
                         pendingChannelCreditsBitmap.clear(j);
+                        ++nControlEvents;
                     } else {
                         effectiveCredits = MuxDemuxCommand.MAX_DATA_VALUE;
                         ccb.setReadCredits(credits - effectiveCredits);
                     }
+                    cSet.addRemoteCredits(j, effectiveCredits);
                     writerState.command.setData(effectiveCredits);
-                    writerState.reset(null, 0, null);
-                    if (!writerState.performPendingWrite(sc)) {
-                        return;
-                    }
-                    if (credits == effectiveCredits) {
-                        pendingWriteEventsCounter.decrement();
-                    }
+                    writerState.append(null, 0, null);
                 }
                 BitSet pendingEOSAckBitmap = cSet.getPendingEOSAckBitmap();
-                for (int j = pendingEOSAckBitmap.nextSetBit(0); j >= 0; j = pendingEOSAckBitmap.nextSetBit(j)) {
+                for (int j = pendingEOSAckBitmap.nextSetBit(0); j >= 0
+                        && writerState.canAppendControlCommand(); j = pendingEOSAckBitmap.nextSetBit(j)) {
                     pendingEOSAckBitmap.clear(j);
                     ChannelControlBlock ccb = cSet.getCCB(j);
                     ccb.reportRemoteEOSAck();
                     writerState.command.setChannelId(j);
                     writerState.command.setCommandType(MuxDemuxCommand.CommandType.CLOSE_CHANNEL_ACK);
                     writerState.command.setData(0);
-                    writerState.reset(null, 0, null);
-                    if (!writerState.performPendingWrite(sc)) {
-                        return;
-                    }
-                    pendingWriteEventsCounter.decrement();
+                    writerState.append(null, 0, null);
+                    ++nControlEvents;
                 }
                 BitSet pendingChannelWriteBitmap = cSet.getPendingChannelWriteBitmap();
                 lastChannelWritten = pendingChannelWriteBitmap.nextSetBit(lastChannelWritten + 1);
                 if (lastChannelWritten == -1) {
                     lastChannelWritten = pendingChannelWriteBitmap.nextSetBit(0);
-                    if (lastChannelWritten == -1) {
-                        return;
-                    }
                 }
-                writeCCB = cSet.getCCB(lastChannelWritten);
+                if (lastChannelWritten >= 0) {
+                    writeCCB = cSet.getCCB(lastChannelWritten);
+                }
             }
-            writeCCB.write(writerState);
-            if (writerState.writePending()) {
-                pendingWriteEventsCounter.increment();
-                if (!writerState.performPendingWrite(sc)) {
+            if (writeCCB != null) {
+                writeCCB.write(writerState);
+            }
+            if (!writerState.writePending()) {
+                if (writeCCB == null) {
                     return;
                 }
+                continue;
+            }
+            // the write events of the control commands are folded into the single event of this write
+            pendingWriteEventsCounter.increment();
+            for (int j = 0; j < nControlEvents; ++j) {
                 pendingWriteEventsCounter.decrement();
             }
+            if (!writerState.performPendingWrite(sc)) {
+                return;
+            }
+            pendingWriteEventsCounter.decrement();
         }
     }
 
@@ -405,7 +429,9 @@ public class MultiplexedConnection implements ITCPConnectionEventListener {
             if (readerState.pendingReadSize > 0) {
                 ++chunksRead;
                 int newPendingReadSize = readerState.ccb.read(sc, readerState.pendingReadSize);
-                muxDemux.getPerformanceCounters().addPayloadBytesRead(readerState.pendingReadSize - newPendingReadSize);
+                int bytesRead = readerState.pendingReadSize - newPendingReadSize;
+                muxDemux.getPerformanceCounters().addPayloadBytesRead(bytesRead);
+                cSet.reportDataRead(readerState.ccb.getChannelId(), bytesRead);
                 readerState.pendingReadSize = newPendingReadSize;
                 if (readerState.pendingReadSize > 0) {
                     return;
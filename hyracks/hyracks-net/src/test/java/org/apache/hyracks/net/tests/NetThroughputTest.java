@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.net.tests;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.hyracks.net.buffers.IBufferAcceptor;
+import org.apache.hyracks.net.buffers.ICloseableBufferAcceptor;
+import org.apache.hyracks.net.protocols.muxdemux.ChannelControlBlock;
+import org.apache.hyracks.net.protocols.muxdemux.IBufferFactory;
+import org.apache.hyracks.net.protocols.muxdemux.IChannelOpenListener;
+import org.apache.hyracks.net.protocols.muxdemux.MultiplexedConnection;
+import org.apache.hyracks.net.protocols.muxdemux.MuxDemux;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Streams frames between two {@link MuxDemux}es over the loopback interface, the way two node controllers
+ * exchange partitions, and checks that every frame arrives in order.
+ */
+public class NetThroughputTest {
+    private static final Logger LOGGER = Logger.getLogger(NetThroughputTest.class.getName());
+
+    private static final int N_CHANNELS = 4;
+
+    private static final int N_RECEIVE_BUFFERS = 8;
+
+    private static final int N_SEND_BUFFERS = 4;
+
+    @Test
+    public void testSmallFrames() throws Exception {
+        runTransfer(32768, 512);
+    }
+
+    @Test
+    public void testLargeFrames() throws Exception {
+        runTransfer(131072, 128);
+    }
+
+    @Test
+    public void testSingleBufferWindow() throws Exception {
+        runTransfer(32768, 1, 256);
+    }
+
+    private void runTransfer(int frameSize, int nFrames) throws Exception {
+        runTransfer(frameSize, N_RECEIVE_BUFFERS, nFrames);
+    }
+
+    private void runTransfer(final int frameSize, final int nReceiveBuffers, final int nFrames) throws Exception {
+        final AtomicBoolean failFlag = new AtomicBoolean();
+        final AtomicInteger framesReceived = new AtomicInteger();
+        MuxDemux sender = new MuxDemux(new InetSocketAddress("127.0.0.1", 0), null, 1, 5);
+        MuxDemux receiver = new MuxDemux(new InetSocketAddress("127.0.0.1", 0), new IChannelOpenListener() {
+            @Override
+            public void channelOpened(ChannelControlBlock channel) {
+                startConsumer(channel, frameSize, nReceiveBuffers, framesReceived, failFlag);
+            }
+        }, 1, 5);
+        sender.start();
+        receiver.start();
+        MultiplexedConnection mConn = sender.connect(receiver.getLocalAddress());
+
+        Thread[] producers = new Thread[N_CHANNELS];
+        long start = System.nanoTime();
+        for (int i = 0; i < N_CHANNELS; ++i) {
+            producers[i] = createProducer(mConn, frameSize, nFrames, failFlag);
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Assert.assertFalse("Failure flag was set to true", failFlag.get());
+        Assert.assertEquals(N_CHANNELS * nFrames, framesReceived.get());
+        long payload = receiver.getPerformanceCounters().getPayloadBytesRead();
+        Assert.assertEquals((long) N_CHANNELS * nFrames * frameSize, payload);
+        long creditBytes = receiver.getPerformanceCounters().getSignalingBytesWritten();
+        if (nReceiveBuffers > 1) {
+            // at most one credit command for every two frames
+            Assert.assertTrue("credit bytes: " + creditBytes, creditBytes < N_CHANNELS * nFrames * 8 / 2);
+        }
+        if (LOGGER.isLoggable(Level.INFO)) {
+            LOGGER.info("frame size: " + frameSize + ", receive buffers: " + nReceiveBuffers + ", MB/s: "
+                    + (payload * 1000 / Math.max(1, elapsed)) + ", credit bytes: " + creditBytes);
+        }
+    }
+
+    private Thread createProducer(final MultiplexedConnection mConn, final int frameSize, final int nFrames,
+            final AtomicBoolean failFlag) {
+        return new Thread() {
+            @Override
+            public void run() {
+                try {
+                    ChannelControlBlock ccb = mConn.openChannel();
+                    final BlockingQueue<ByteBuffer> emptyQueue = new ArrayBlockingQueue<ByteBuffer>(N_SEND_BUFFERS);
+                    for (int i = 0; i < N_SEND_BUFFERS; ++i) {
+                        emptyQueue.add(ByteBuffer.allocateDirect(frameSize));
+                    }
+                    final CountDownLatch remoteClose = new CountDownLatch(1);
+                    ccb.getWriteInterface().setEmptyBufferAcceptor(new IBufferAcceptor() {
+                        @Override
+                        public void accept(ByteBuffer buffer) {
+                            emptyQueue.add(buffer);
+                        }
+                    });
+                    ccb.getReadInterface().setFullBufferAcceptor(new ICloseableBufferAcceptor() {
+                        @Override
+                        public void accept(ByteBuffer buffer) {
+                        }
+
+                        @Override
+                        public void close() {
+                            remoteClose.countDown();
+                        }
+
+                        @Override
+                        public void error(int ecode) {
+                            failFlag.set(true);
+                            remoteClose.countDown();
+                        }
+                    });
+                    ICloseableBufferAcceptor fba = ccb.getWriteInterface().getFullBufferAcceptor();
+                    for (int i = 0; i < nFrames; ++i) {
+                        ByteBuffer buffer = emptyQueue.take();
+                        buffer.clear();
+                        buffer.putInt(0, i);
+                        buffer.putInt(frameSize - 4, i);
+                        fba.accept(buffer);
+                    }
+                    fba.close();
+                    if (!remoteClose.await(60, TimeUnit.SECONDS)) {
+                        failFlag.set(true);
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    failFlag.set(true);
+                }
+            }
+        };
+    }
+
+    private void startConsumer(final ChannelControlBlock channel, final int frameSize, final int nReceiveBuffers,
+            final AtomicInteger framesReceived, final AtomicBoolean failFlag) {
+        final BlockingQueue<ByteBuffer> fullQueue = new ArrayBlockingQueue<ByteBuffer>(nReceiveBuffers + 1);
+        final ByteBuffer eos = ByteBuffer.allocate(0);
+        channel.getReadInterface().setFullBufferAcceptor(new ICloseableBufferAcceptor() {
+            @Override
+            public void accept(ByteBuffer buffer) {
+                fullQueue.add(buffer);
+            }
+
+            @Override
+            public void close() {
+                fullQueue.add(eos);
+            }
+
+            @Override
+            public void error(int ecode) {
+                failFlag.set(true);
+                fullQueue.add(eos);
+            }
+        });
+        channel.getWriteInterface().setEmptyBufferAcceptor(new IBufferAcceptor() {
+            @Override
+            public void accept(ByteBuffer buffer) {
+            }
+        });
+        channel.getReadInterface().setBufferFactory(new IBufferFactory() {
+            private int counter;
+
+            @Override
+            public ByteBuffer createBuffer() {
+                if (counter >= nReceiveBuffers) {
+                    failFlag.set(true);
+                    return null;
+                }
+                ++counter;
+                return ByteBuffer.allocate(frameSize);
+            }
+        }, nReceiveBuffers, frameSize);
+        final IBufferAcceptor emptyBufferAcceptor = channel.getReadInterface().getEmptyBufferAcceptor();
+        new Thread() {
+            @Override
+            public void run() {
+                try {
+                    int expected = 0;
+                    while (true) {
+                        ByteBuffer buffer = fullQueue.take();
+                        if (buffer == eos) {
+                            break;
+                        }
+                        if (buffer.remaining() != frameSize || buffer.getInt(0) != expected
+                                || buffer.getInt(frameSize - 4) != expected) {
+                            failFlag.set(true);
+                        }
+                        ++expected;
+                        framesReceived.incrementAndGet();
+                        buffer.clear();
+                        emptyBufferAcceptor.accept(buffer);
+                    }
+                    channel.getWriteInterface().getFullBufferAcceptor().close();
+                } catch (InterruptedException e) {
+                    failFlag.set(true);
+                }
+            }
+        }.start();
+    }
+}
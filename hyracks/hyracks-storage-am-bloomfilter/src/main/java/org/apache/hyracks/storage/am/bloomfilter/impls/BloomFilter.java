@@ -24,6 +24,7 @@ import java.nio.ByteBuffer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.util.MurmurHash128Bit;
 import org.apache.hyracks.storage.am.common.api.IIndexBulkLoader;
 import org.apache.hyracks.storage.am.common.api.IndexException;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
@@ -32,18 +33,37 @@ import org.apache.hyracks.storage.common.buffercache.IFIFOPageQueue;
 import org.apache.hyracks.storage.common.file.BufferedFileHandle;
 import org.apache.hyracks.storage.common.file.IFileMapProvider;
 
+/**
+ * A bloom filter stored in its own file: page 0 holds the metadata and the following pages hold the bits.
+ * Two layouts exist. The classic layout spreads the probes of a key over the whole filter, so a lookup may pin
+ * one page per hash function. The blocked layout keeps all the bits of a key in one 64-byte block, so a lookup
+ * pins one page and touches one cache line, at the cost of a slightly higher false positive rate for the same
+ * number of bits. The layout is recorded in the metadata page; filters written before the layout was recorded
+ * have no version there and are read as classic filters.
+ */
 public class BloomFilter {
 
     private final static int METADATA_PAGE_ID = 0;
     private final static int NUM_PAGES_OFFSET = 0; // 0
     private final static int NUM_HASHES_USED_OFFSET = NUM_PAGES_OFFSET + 4; // 4
     private final static int NUM_ELEMENTS_OFFSET = NUM_HASHES_USED_OFFSET + 4; // 8
-    private final static int NUM_BITS_OFFSET = NUM_ELEMENTS_OFFSET + 8; // 12
+    private final static int NUM_BITS_OFFSET = NUM_ELEMENTS_OFFSET + 8; // 16
+    private final static int MAGIC_OFFSET = NUM_BITS_OFFSET + 8; // 24
+    private final static int VERSION_OFFSET = MAGIC_OFFSET + 4; // 28
+
+    // marks a metadata page that carries a version, since older filters left these bytes undefined
+    private final static int MAGIC = 0x42464d44;
+    public final static int VERSION_CLASSIC = 0;
+    public final static int VERSION_BLOCKED = 1;
+
+    private final static int BLOCK_SIZE = 64; // bytes, one cache line
+    private final static int BLOCK_BITS = BLOCK_SIZE * Byte.SIZE;
 
     private final IBufferCache bufferCache;
     private final IFileMapProvider fileMapProvider;
     private final FileReference file;
     private final int[] keyFields;
+    private final boolean blocked;
     private int fileId = -1;
     private boolean isActivated = false;
 
@@ -51,17 +71,31 @@ public class BloomFilter {
     private int numHashes;
     private long numElements;
     private long numBits;
+    private int version;
     private final int numBitsPerPage;
+    private final int numBlocksPerPage;
     private final static byte[] ZERO_BUFFER = new byte[131072]; // 128kb
     private final static long SEED = 0L;
 
     public BloomFilter(IBufferCache bufferCache, IFileMapProvider fileMapProvider, FileReference file, int[] keyFields)
             throws HyracksDataException {
+        this(bufferCache, fileMapProvider, file, keyFields, false);
+    }
+
+    /**
+     * @param blocked
+     *            whether the builders of this filter write the blocked layout. Lookups always follow the layout
+     *            recorded in the file.
+     */
+    public BloomFilter(IBufferCache bufferCache, IFileMapProvider fileMapProvider, FileReference file,
+            int[] keyFields, boolean blocked) throws HyracksDataException {
         this.bufferCache = bufferCache;
         this.fileMapProvider = fileMapProvider;
         this.file = file;
         this.keyFields = keyFields;
+        this.blocked = blocked;
         this.numBitsPerPage = bufferCache.getPageSize() * Byte.SIZE;
+        this.numBlocksPerPage = bufferCache.getPageSize() / BLOCK_SIZE;
     }
 
     public int getFileId() {
@@ -86,11 +120,21 @@ public class BloomFilter {
         return numElements;
     }
 
+    public int getVersion() throws HyracksDataException {
+        if (!isActivated) {
+            throw new HyracksDataException("The bloom filter is not activated.");
+        }
+        return version;
+    }
+
     public boolean contains(ITupleReference tuple, long[] hashes) throws HyracksDataException {
         if (numPages == 0) {
             return false;
         }
         MurmurHash128Bit.hash3_x64_128(tuple, keyFields, SEED, hashes);
+        if (version == VERSION_BLOCKED) {
+            return containsBlocked(hashes);
+        }
         for (int i = 0; i < numHashes; ++i) {
             long hash = Math.abs((hashes[0] + i * hashes[1]) % numBits);
 
@@ -116,6 +160,31 @@ public class BloomFilter {
         return true;
     }
 
+    private boolean containsBlocked(long[] hashes) throws HyracksDataException {
+        long block = (hashes[0] & Long.MAX_VALUE) % (numBits / BLOCK_BITS);
+        // we increment the page id by one, since the metadata page id of the filter is 0.
+        ICachedPage page = bufferCache.pin(
+                BufferedFileHandle.getDiskPageId(fileId, (int) (block / numBlocksPerPage) + 1), false);
+        page.acquireReadLatch();
+        try {
+            ByteBuffer buffer = page.getBuffer();
+            int blockOffset = (int) (block % numBlocksPerPage) * BLOCK_SIZE;
+            int h1 = (int) hashes[1];
+            int h2 = (int) (hashes[1] >>> 32) | 1;
+            for (int i = 0; i < numHashes; ++i) {
+                int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+                byte b = buffer.get(blockOffset + (bit >> 3));
+                if ((b & (1 << (bit & 0x07))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            page.releaseReadLatch();
+            bufferCache.unpin(page);
+        }
+    }
+
     private void prepareFile() throws HyracksDataException {
         boolean fileIsMapped = false;
         synchronized (fileMapProvider) {
@@ -161,6 +230,7 @@ public class BloomFilter {
             numHashes = 0;
             numElements = 0;
             numBits = 0;
+            version = VERSION_CLASSIC;
             return;
         }
         ICachedPage metaPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, METADATA_PAGE_ID), false);
@@ -170,6 +240,8 @@ public class BloomFilter {
             numHashes = metaPage.getBuffer().getInt(NUM_HASHES_USED_OFFSET);
             numElements = metaPage.getBuffer().getLong(NUM_ELEMENTS_OFFSET);
             numBits = metaPage.getBuffer().getLong(NUM_BITS_OFFSET);
+            version = metaPage.getBuffer().getInt(MAGIC_OFFSET) == MAGIC ? metaPage.getBuffer().getInt(
+                    VERSION_OFFSET) : VERSION_CLASSIC;
         } finally {
             metaPage.releaseReadLatch();
             bufferCache.unpin(metaPage);
@@ -199,7 +271,8 @@ public class BloomFilter {
 
     public IIndexBulkLoader createBuilder(long numElements, int numHashes, int numBitsPerElement)
             throws HyracksDataException {
-        return new BloomFilterBuilder(numElements, numHashes, numBitsPerElement);
+        return new BloomFilterBuilder(numElements, numHashes, numBitsPerElement,
+                blocked ? VERSION_BLOCKED : VERSION_CLASSIC);
     }
 
     public class BloomFilterBuilder implements IIndexBulkLoader {
@@ -208,19 +281,33 @@ public class BloomFilter {
         private final int numHashes;
         private final long numBits;
         private final int numPages;
+        private final int version;
         private IFIFOPageQueue queue;
         private ICachedPage[] pages;
         private ICachedPage metaDataPage = null;
 
-        public BloomFilterBuilder(long numElements, int numHashes, int numBitsPerElement) throws HyracksDataException {
+        public BloomFilterBuilder(long numElements, int numHashes, int numBitsPerElement, int version)
+                throws HyracksDataException {
             if (!isActivated) {
                 throw new HyracksDataException("Failed to create the bloom filter builder since it is not activated.");
             }
             queue = bufferCache.createFIFOQueue();
             this.numElements = numElements;
             this.numHashes = numHashes;
-            numBits = this.numElements * numBitsPerElement;
-            long tmp = (long) Math.ceil(numBits / (double) numBitsPerPage);
+            this.version = version;
+            long tmp;
+            if (version == VERSION_BLOCKED) {
+                if (numBlocksPerPage == 0) {
+                    throw new HyracksDataException("Cannot create a blocked bloom filter with pages smaller than "
+                            + BLOCK_SIZE + " bytes.");
+                }
+                long numBlocks = (this.numElements * numBitsPerElement + BLOCK_BITS - 1) / BLOCK_BITS;
+                numBits = numBlocks * BLOCK_BITS;
+                tmp = (numBlocks + numBlocksPerPage - 1) / numBlocksPerPage;
+            } else {
+                numBits = this.numElements * numBitsPerElement;
+                tmp = (long) Math.ceil(numBits / (double) numBitsPerPage);
+            }
             if (tmp > Integer.MAX_VALUE) {
                 throw new HyracksDataException("Cannot create a bloom filter with his huge number of pages.");
             }
@@ -256,6 +343,8 @@ public class BloomFilter {
             metaDataPage.getBuffer().putInt(NUM_HASHES_USED_OFFSET, numHashes);
             metaDataPage.getBuffer().putLong(NUM_ELEMENTS_OFFSET, numElements);
             metaDataPage.getBuffer().putLong(NUM_BITS_OFFSET, numBits);
+            metaDataPage.getBuffer().putInt(MAGIC_OFFSET, MAGIC);
+            metaDataPage.getBuffer().putInt(VERSION_OFFSET, version);
         }
 
         @Override
@@ -265,6 +354,10 @@ public class BloomFilter {
                         "Cannot add elements to this filter since it is supposed to be empty (number of elements hint passed to the filter during construction was 0).");
             }
             MurmurHash128Bit.hash3_x64_128(tuple, keyFields, SEED, hashes);
+            if (version == VERSION_BLOCKED) {
+                addBlocked();
+                return;
+            }
             for (int i = 0; i < numHashes; ++i) {
                 long hash = Math.abs((hashes[0] + i * hashes[1]) % numBits);
                 ICachedPage page = pages[((int) (hash / numBitsPerPage))];
@@ -278,6 +371,19 @@ public class BloomFilter {
             }
         }
 
+        private void addBlocked() {
+            long block = (hashes[0] & Long.MAX_VALUE) % (numBits / BLOCK_BITS);
+            ByteBuffer buffer = pages[(int) (block / numBlocksPerPage)].getBuffer();
+            int blockOffset = (int) (block % numBlocksPerPage) * BLOCK_SIZE;
+            int h1 = (int) hashes[1];
+            int h2 = (int) (hashes[1] >>> 32) | 1;
+            for (int i = 0; i < numHashes; ++i) {
+                int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+                int byteIndex = blockOffset + (bit >> 3);
+                buffer.put(byteIndex, (byte) (buffer.get(byteIndex) | (1 << (bit & 0x07))));
+            }
+        }
+
         @Override
         public void end() throws HyracksDataException, IndexException {
             allocateAndInitMetaDataPage();
@@ -290,6 +396,7 @@ public class BloomFilter {
             BloomFilter.this.numHashes = numHashes;
             BloomFilter.this.numElements = numElements;
             BloomFilter.this.numPages = numPages;
+            BloomFilter.this.version = version;
         }
 
         @Override
@@ -37,6 +37,7 @@ import org.apache.hyracks.storage.am.common.ophelpers.FindTupleNoExactMatchPolic
 import org.apache.hyracks.storage.am.common.ophelpers.MultiComparator;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.SequentialReadAhead;
 import org.apache.hyracks.storage.common.file.BufferedFileHandle;
 
 public class BTreeRangeSearchCursor implements ITreeIndexCursor {
@@ -73,6 +74,9 @@ public class BTreeRangeSearchCursor implements ITreeIndexCursor {
     protected ITupleReference lowKey;
     private ITupleReference highKey;
 
+    // non-null if the cursor has been declared to walk mostly contiguous leaves
+    private SequentialReadAhead readAhead;
+
     public BTreeRangeSearchCursor(IBTreeLeafFrame frame, boolean exclusiveLatchNodes) {
         this.frame = frame;
         this.frameTuple = frame.createTupleReference();
@@ -115,8 +119,24 @@ public class BTreeRangeSearchCursor implements ITreeIndexCursor {
         return pageId;
     }
 
+    /**
+     * Declares whether the leaves visited by this cursor are expected to be laid out mostly
+     * contiguously, as in a bulk-loaded disk component. If so, the following leaves are prefetched
+     * while the cursor keeps moving to the next page id.
+     */
+    public void setSequentialAccess(boolean sequentialAccess) {
+        if (!sequentialAccess) {
+            readAhead = null;
+        } else if (readAhead == null) {
+            readAhead = new SequentialReadAhead();
+        }
+    }
+
     private void fetchNextLeafPage(int nextLeafPage) throws HyracksDataException {
         do {
+            if (readAhead != null) {
+                readAhead.notifyAccess(bufferCache, fileId, nextLeafPage);
+            }
             ICachedPage nextLeaf = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, nextLeafPage), false);
             if (exclusiveLatchNodes) {
                 nextLeaf.acquireWriteLatch();
@@ -261,6 +281,9 @@ public class BTreeRangeSearchCursor implements ITreeIndexCursor {
         page = initialState.getPage();
         isPageDirty = false;
         frame.setPage(page);
+        if (readAhead != null) {
+            readAhead.reset(pageId);
+        }
 
         pred = (RangePredicate) searchPred;
         lowKeyCmp = pred.getLowKeyComparator();
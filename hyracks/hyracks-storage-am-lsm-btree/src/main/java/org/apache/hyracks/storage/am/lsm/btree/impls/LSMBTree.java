@@ -78,7 +78,9 @@ import org.apache.hyracks.storage.am.lsm.common.impls.BlockingIOOperationCallbac
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFileReferences;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFilterManager;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexSearchCursor;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMMergeThrottle;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMTreeIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.impls.SkipListBTree;
 import org.apache.hyracks.storage.am.lsm.common.impls.TreeIndexFactory;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.file.IFileMapProvider;
@@ -109,6 +111,28 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
             ILSMMergePolicy mergePolicy, ILSMOperationTracker opTracker, ILSMIOOperationScheduler ioScheduler,
             ILSMIOOperationCallback ioOpCallback, boolean needKeyDupCheck, int[] btreeFields, int[] filterFields,
             boolean durable) {
+        this(virtualBufferCaches, interiorFrameFactory, insertLeafFrameFactory, deleteLeafFrameFactory, fileManager,
+                diskBTreeFactory, bulkLoadBTreeFactory, bloomFilterFactory, filterFactory, filterFrameFactory,
+                filterManager, bloomFilterFalsePositiveRate, diskFileMapProvider, fieldCount, cmpFactories,
+                mergePolicy, opTracker, ioScheduler, ioOpCallback, needKeyDupCheck, btreeFields, filterFields, durable,
+                false);
+    }
+
+    /**
+     * @param skipListMemoryComponent
+     *            if true, the memory components are {@link SkipListBTree}s instead of BTrees, so that concurrent
+     *            writers do not contend on page latches
+     */
+    public LSMBTree(List<IVirtualBufferCache> virtualBufferCaches, ITreeIndexFrameFactory interiorFrameFactory,
+            ITreeIndexFrameFactory insertLeafFrameFactory, ITreeIndexFrameFactory deleteLeafFrameFactory,
+            ILSMIndexFileManager fileManager, TreeIndexFactory<BTree> diskBTreeFactory,
+            TreeIndexFactory<BTree> bulkLoadBTreeFactory, BloomFilterFactory bloomFilterFactory,
+            ILSMComponentFilterFactory filterFactory, ILSMComponentFilterFrameFactory filterFrameFactory,
+            LSMComponentFilterManager filterManager, double bloomFilterFalsePositiveRate,
+            IFileMapProvider diskFileMapProvider, int fieldCount, IBinaryComparatorFactory[] cmpFactories,
+            ILSMMergePolicy mergePolicy, ILSMOperationTracker opTracker, ILSMIOOperationScheduler ioScheduler,
+            ILSMIOOperationCallback ioOpCallback, boolean needKeyDupCheck, int[] btreeFields, int[] filterFields,
+            boolean durable, boolean skipListMemoryComponent) {
         super(virtualBufferCaches, diskBTreeFactory.getBufferCache(), fileManager, diskFileMapProvider,
                 bloomFilterFalsePositiveRate, mergePolicy, opTracker, ioScheduler, ioOpCallback, filterFrameFactory,
                 filterManager, filterFields, durable);
@@ -117,12 +141,18 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         this.cmpFactories = cmpFactories;
         int i = 0;
         for (IVirtualBufferCache virtualBufferCache : virtualBufferCaches) {
-            LSMBTreeMemoryComponent mutableComponent = new LSMBTreeMemoryComponent(
-                    new BTree(virtualBufferCache, virtualBufferCache.getFileMapProvider(),
-                            new VirtualMetaDataPageManager(virtualBufferCache.getNumPages()), interiorFrameFactory,
-                            insertLeafFrameFactory, cmpFactories, fieldCount,
-                            new FileReference(new File(fileManager.getBaseDir() + "_virtual_" + i))),
-                    virtualBufferCache, i == 0 ? true : false,
+            FileReference memFile = new FileReference(new File(fileManager.getBaseDir() + "_virtual_" + i));
+            VirtualMetaDataPageManager memFreePageManager = new VirtualMetaDataPageManager(
+                    virtualBufferCache.getNumPages());
+            BTree memBTree;
+            if (skipListMemoryComponent) {
+                memBTree = new SkipListBTree(virtualBufferCache, memFreePageManager, interiorFrameFactory,
+                        insertLeafFrameFactory, cmpFactories, fieldCount, memFile);
+            } else {
+                memBTree = new BTree(virtualBufferCache, virtualBufferCache.getFileMapProvider(), memFreePageManager,
+                        interiorFrameFactory, insertLeafFrameFactory, cmpFactories, fieldCount, memFile);
+            }
+            LSMBTreeMemoryComponent mutableComponent = new LSMBTreeMemoryComponent(memBTree, virtualBufferCache, i == 0 ? true : false,
                     filterFactory == null ? null : filterFactory.createLSMComponentFilter());
             memoryComponents.add(mutableComponent);
             ++i;
@@ -529,6 +559,7 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
                 ITupleReference frameTuple = cursor.getTuple();
                 builder.add(frameTuple);
                 bulkLoader.add(frameTuple);
+                LSMMergeThrottle.tupleMerged(frameTuple);
             }
         } finally {
             cursor.close();
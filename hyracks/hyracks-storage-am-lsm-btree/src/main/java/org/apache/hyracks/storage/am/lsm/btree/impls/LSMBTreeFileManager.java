@@ -217,8 +217,8 @@ public class LSMBTreeFileManager extends AbstractLSMIndexFileManager {
                 throw new HyracksDataException("unrecognized file found = " + fileName);
             }
         }
-        FileReference bTreeFileRef = new FileReference(bTreeFile);
-        FileReference bloomFilterFileRef = new FileReference(bloomFilterFile);
+        FileReference bTreeFileRef = createFileReference(bTreeFile);
+        FileReference bloomFilterFileRef = createFileReference(bloomFilterFile);
 
         return new LSMComponentFileReferences(bTreeFileRef, null, bloomFilterFileRef);
     }
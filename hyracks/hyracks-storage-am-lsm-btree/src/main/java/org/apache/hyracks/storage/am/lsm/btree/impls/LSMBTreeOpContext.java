@@ -39,6 +39,7 @@ import org.apache.hyracks.storage.am.common.tuples.PermutingTupleReference;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMHarness;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndexOperationContext;
+import org.apache.hyracks.storage.am.lsm.common.impls.SkipListBTree;
 
 public final class LSMBTreeOpContext extends AbstractLSMIndexOperationContext {
 
@@ -118,7 +119,9 @@ public final class LSMBTreeOpContext extends AbstractLSMIndexOperationContext {
             filterTuple = null;
         }
         searchPredicate = new RangePredicate(null, null, true, true, cmp, cmp);
-        if (insertLeafFrame != null) {
+        if (mutableBTrees[0] instanceof SkipListBTree) {
+            memCursor = (BTreeRangeSearchCursor) mutableBTreeAccessors[0].createSearchCursor(false);
+        } else if (insertLeafFrame != null) {
             memCursor = new BTreeRangeSearchCursor(insertLeafFrame, false);
         }
 
@@ -40,6 +40,9 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMHarness;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
 import org.apache.hyracks.storage.am.lsm.common.impls.BloomFilterAwareBTreePointSearchCursor;
+import org.apache.hyracks.storage.am.lsm.common.impls.SkipListBTree;
+import org.apache.hyracks.storage.am.lsm.common.impls.SkipListBTree.SkipListAccessor;
+import org.apache.hyracks.storage.am.lsm.common.impls.SkipListSearchCursor;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
 
@@ -162,16 +165,18 @@ public class LSMBTreePointSearchCursor implements ITreeIndexCursor {
             BTree btree;
             if (component.getType() == LSMComponentType.MEMORY) {
                 includeMutableComponent = true;
+                btree = ((LSMBTreeMemoryComponent) component).getBTree();
                 // No need for a bloom filter for the in-memory BTree.
-                if (rangeCursors[i] == null || rangeCursors[i].isBloomFilterAware()) {
+                if (rangeCursors[i] == null || rangeCursors[i].isBloomFilterAware()
+                        || (btree instanceof SkipListBTree) != (rangeCursors[i] instanceof SkipListSearchCursor)) {
                     // create a new one
                     IBTreeLeafFrame leafFrame = (IBTreeLeafFrame) lsmInitialState.getLeafFrameFactory().createFrame();
-                    rangeCursors[i] = new BTreeRangeSearchCursor(leafFrame, false);
+                    rangeCursors[i] = btree instanceof SkipListBTree ? new SkipListSearchCursor(leafFrame, false,
+                            false) : new BTreeRangeSearchCursor(leafFrame, false);
                 } else {
                     // reset
                     rangeCursors[i].reset();
                 }
-                btree = ((LSMBTreeMemoryComponent) component).getBTree();
             } else {
                 if (rangeCursors[i] != null && rangeCursors[i].isBloomFilterAware()) {
                     // can re-use cursor
@@ -186,7 +191,8 @@ public class LSMBTreePointSearchCursor implements ITreeIndexCursor {
                 }
                 btree = ((LSMBTreeDiskComponent) component).getBTree();
             }
-            if (btreeAccessors[i] == null) {
+            if (btreeAccessors[i] == null
+                    || (btree instanceof SkipListBTree) != (btreeAccessors[i] instanceof SkipListAccessor)) {
                 btreeAccessors[i] = (BTreeAccessor) btree.createAccessor(NoOpOperationCallback.INSTANCE,
                         NoOpOperationCallback.INSTANCE);
             } else {
@@ -40,6 +40,9 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.LSMComponentType;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexSearchCursor;
+import org.apache.hyracks.storage.am.lsm.common.impls.SkipListBTree;
+import org.apache.hyracks.storage.am.lsm.common.impls.SkipListBTree.SkipListAccessor;
+import org.apache.hyracks.storage.am.lsm.common.impls.SkipListSearchCursor;
 
 public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
     private final ArrayTupleReference copyTuple;
@@ -200,22 +203,27 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
         for (int i = 0; i < numBTrees; i++) {
             ILSMComponent component = operationalComponents.get(i);
             BTree btree;
-            if (rangeCursors[i] == null) {
-                // create, should be relatively rare
-                IBTreeLeafFrame leafFrame = (IBTreeLeafFrame) lsmInitialState.getLeafFrameFactory().createFrame();
-                rangeCursors[i] = new BTreeRangeSearchCursor(leafFrame, false);
-            } else {
-                // re-use
-                rangeCursors[i].reset();
-            }
             if (component.getType() == LSMComponentType.MEMORY) {
                 includeMutableComponent = true;
                 btree = ((LSMBTreeMemoryComponent) component).getBTree();
             } else {
                 btree = ((LSMBTreeDiskComponent) component).getBTree();
             }
+            boolean skipList = btree instanceof SkipListBTree;
+            if (rangeCursors[i] == null || skipList != (rangeCursors[i] instanceof SkipListSearchCursor)) {
+                // create, should be relatively rare
+                IBTreeLeafFrame leafFrame = (IBTreeLeafFrame) lsmInitialState.getLeafFrameFactory().createFrame();
+                rangeCursors[i] = skipList ? new SkipListSearchCursor(leafFrame, false, false)
+                        : new BTreeRangeSearchCursor(leafFrame, false);
+            } else {
+                // re-use
+                rangeCursors[i].reset();
+            }
+            // disk components are bulk-loaded, so their leaves are mostly contiguous
+            ((BTreeRangeSearchCursor) rangeCursors[i])
+                    .setSequentialAccess(component.getType() == LSMComponentType.DISK);
 
-            if (btreeAccessors[i] == null) {
+            if (btreeAccessors[i] == null || skipList != (btreeAccessors[i] instanceof SkipListAccessor)) {
                 btreeAccessors[i] = (BTreeAccessor) btree.createAccessor(NoOpOperationCallback.INSTANCE,
                         NoOpOperationCallback.INSTANCE);
             } else {
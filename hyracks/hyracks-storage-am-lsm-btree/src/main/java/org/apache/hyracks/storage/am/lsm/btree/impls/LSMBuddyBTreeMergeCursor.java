@@ -67,7 +67,9 @@ public class LSMBuddyBTreeMergeCursor extends LSMIndexSearchCursor {
 			ILSMComponent component = operationalComponents.get(i);
 			IBTreeLeafFrame leafFrame = (IBTreeLeafFrame) lsmInitialState
 					.getBuddyBTreeLeafFrameFactory().createFrame();
-			rangeCursors[i] = new BTreeRangeSearchCursor(leafFrame, false);
+			BTreeRangeSearchCursor rangeCursor = new BTreeRangeSearchCursor(leafFrame, false);
+			rangeCursor.setSequentialAccess(true);
+			rangeCursors[i] = rangeCursor;
 			BTree buddyBtree = (BTree) ((LSMBTreeWithBuddyDiskComponent) component)
 					.getBuddyBTree();
 			btreeAccessors[i] = buddyBtree.createAccessor(
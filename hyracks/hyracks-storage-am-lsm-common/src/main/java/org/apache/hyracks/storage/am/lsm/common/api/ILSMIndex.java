@@ -26,6 +26,7 @@ import org.apache.hyracks.storage.am.common.api.IIndex;
 import org.apache.hyracks.storage.am.common.api.IModificationOperationCallback;
 import org.apache.hyracks.storage.am.common.api.ISearchOperationCallback;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMHarness;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexStatistics;
 
 /**
  * Methods to be implemented by an LSM index, which are called from {@link LSMHarness}.
@@ -57,4 +58,9 @@ public interface ILSMIndex extends IIndex {
      * @return true if the index is durable. Otherwise false.
      */
     public boolean isDurable();
+
+    /**
+     * @return the cumulative flush, merge and search counters of the index.
+     */
+    public LSMIndexStatistics getStatistics();
 }
@@ -24,10 +24,12 @@ import java.util.List;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.storage.am.common.dataflow.IIndexOperatorDescriptor;
 import org.apache.hyracks.storage.am.common.dataflow.IndexDataflowHelper;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallbackFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationScheduler;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicy;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMOperationTrackerProvider;
 import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
@@ -47,6 +49,9 @@ public abstract class AbstractLSMIndexDataflowHelper extends IndexDataflowHelper
     protected final IBinaryComparatorFactory[] filterCmpFactories;
     protected final int[] filterFields;
 
+    // LSM statistics of the index when this task opened it
+    private long[] statisticsAtOpen;
+
     public AbstractLSMIndexDataflowHelper(IIndexOperatorDescriptor opDesc, IHyracksTaskContext ctx, int partition,
             List<IVirtualBufferCache> virtualBufferCaches, ILSMMergePolicy mergePolicy,
             ILSMOperationTrackerProvider opTrackerFactory, ILSMIOOperationScheduler ioScheduler,
@@ -74,4 +79,26 @@ public abstract class AbstractLSMIndexDataflowHelper extends IndexDataflowHelper
         this.filterCmpFactories = filterCmpFactories;
         this.filterFields = filterFields;
     }
+
+    @Override
+    public void open() throws HyracksDataException {
+        super.open();
+        if (index instanceof ILSMIndex) {
+            statisticsAtOpen = ((ILSMIndex) index).getStatistics().snapshot();
+        }
+    }
+
+    /**
+     * Adds what the index's LSM statistics counted while this task had it open (searches, components entered,
+     * flushes and merges) to the task's counters, so they show up in its task profile. Other tasks using the same
+     * index at the same time are counted too.
+     */
+    @Override
+    public void close() throws HyracksDataException {
+        if (statisticsAtOpen != null) {
+            ((ILSMIndex) index).getStatistics().addDeltasTo(statisticsAtOpen, ctx.getCounterContext());
+            statisticsAtOpen = null;
+        }
+        super.close();
+    }
 }
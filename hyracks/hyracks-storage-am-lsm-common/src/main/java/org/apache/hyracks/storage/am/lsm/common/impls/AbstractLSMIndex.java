@@ -75,6 +75,7 @@ public abstract class AbstractLSMIndex implements ILSMIndexInternal {
     protected boolean isActivated;
     protected final AtomicBoolean[] flushRequests;
     protected boolean memoryComponentsAllocated = false;
+    protected final LSMIndexStatistics statistics = new LSMIndexStatistics();
 
     public AbstractLSMIndex(List<IVirtualBufferCache> virtualBufferCaches, IBufferCache diskBufferCache,
             ILSMIndexFileManager fileManager, IFileMapProvider diskFileMapProvider, double bloomFilterFalsePositiveRate,
@@ -296,4 +297,9 @@ public abstract class AbstractLSMIndex implements ILSMIndexInternal {
     public boolean isDurable() {
         return durable;
     }
+
+    @Override
+    public LSMIndexStatistics getStatistics() {
+        return statistics;
+    }
 }
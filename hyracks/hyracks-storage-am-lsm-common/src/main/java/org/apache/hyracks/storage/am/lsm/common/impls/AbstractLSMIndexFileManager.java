@@ -35,6 +35,7 @@ import java.util.List;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IODeviceHandle;
 import org.apache.hyracks.storage.am.common.api.ITreeIndex;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexMetaDataFrame;
 import org.apache.hyracks.storage.am.common.api.IndexException;
@@ -54,6 +55,8 @@ public abstract class AbstractLSMIndexFileManager implements ILSMIndexFileManage
 
     // baseDir should reflect dataset name and partition name.
     protected String baseDir;
+    // the device that holds the index, or null if its files were not placed on an I/O device
+    protected final IODeviceHandle ioDevice;
     protected final Format formatter = new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss-SSS");
     protected final Comparator<String> cmp = new FileNameComparator();
     protected final Comparator<ComparableFileName> recencyCmp = new RecencyComparator();
@@ -64,6 +67,7 @@ public abstract class AbstractLSMIndexFileManager implements ILSMIndexFileManage
     public AbstractLSMIndexFileManager(IFileMapProvider fileMapProvider, FileReference file,
             TreeIndexFactory<? extends ITreeIndex> treeFactory) {
         this.baseDir = file.getFile().getPath();
+        this.ioDevice = file.getDeviceHandle();
         if (!baseDir.endsWith(System.getProperty("file.separator"))) {
             baseDir += System.getProperty("file.separator");
         }
@@ -110,7 +114,7 @@ public abstract class AbstractLSMIndexFileManager implements ILSMIndexFileManage
         String[] files = dir.list(filter);
         for (String fileName : files) {
             File file = new File(dir.getPath() + File.separator + fileName);
-            FileReference fileRef = new FileReference(file);
+            FileReference fileRef = createFileReference(file);
             if (treeFactory == null || isValidTreeIndex(treeFactory.createIndexInstance(fileRef))) {
                 allFiles.add(new ComparableFileName(fileRef));
             } else {
@@ -165,7 +169,22 @@ public abstract class AbstractLSMIndexFileManager implements ILSMIndexFileManage
     };
 
     protected FileReference createFlushFile(String relFlushFileName) {
-        return new FileReference(new File(relFlushFileName));
+        return createFileReference(new File(relFlushFileName));
+    }
+
+    /**
+     * Creates a reference to a file of the index that keeps the I/O device of the index, so that the I/O of its
+     * components can be scheduled per device.
+     */
+    protected FileReference createFileReference(File file) {
+        if (ioDevice != null) {
+            String devicePath = ioDevice.getPath().getPath() + File.separator;
+            String path = file.getPath();
+            if (path.startsWith(devicePath)) {
+                return new FileReference(ioDevice, path.substring(devicePath.length()));
+            }
+        }
+        return new FileReference(file);
     }
 
     protected FileReference createMergeFile(String relMergeFileName) {
@@ -23,10 +23,15 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
 import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
 import org.apache.hyracks.storage.am.btree.impls.BTreeRangeSearchCursor;
+import org.apache.hyracks.storage.am.common.api.ICursorInitialState;
+import org.apache.hyracks.storage.am.common.api.ISearchPredicate;
 
 public class BloomFilterAwareBTreePointSearchCursor extends BTreeRangeSearchCursor {
     private BloomFilter bloomFilter;
     private long[] hashes = new long[2];
+    // the filter is consulted once per search instead of on every call to hasNext()
+    private boolean filterChecked = false;
+    private boolean mightContain;
 
     public BloomFilterAwareBTreePointSearchCursor(IBTreeLeafFrame frame, boolean exclusiveLatchNodes,
             BloomFilter bloomFilter) {
@@ -34,9 +39,19 @@ public class BloomFilterAwareBTreePointSearchCursor extends BTreeRangeSearchCurs
         this.bloomFilter = bloomFilter;
     }
 
+    @Override
+    public void open(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+        filterChecked = false;
+        super.open(initialState, searchPred);
+    }
+
     @Override
     public boolean hasNext() throws HyracksDataException {
-        if (bloomFilter.contains(lowKey, hashes)) {
+        if (!filterChecked) {
+            mightContain = bloomFilter.contains(lowKey, hashes);
+            filterChecked = true;
+        }
+        if (mightContain) {
             return super.hasNext();
         }
         return false;
@@ -49,5 +64,6 @@ public class BloomFilterAwareBTreePointSearchCursor extends BTreeRangeSearchCurs
 
     public void resetBloomFilter(BloomFilter bloomFilter) {
         this.bloomFilter = bloomFilter;
+        filterChecked = false;
     }
 }
@@ -183,6 +183,7 @@ public class ExternalIndexHarness extends LSMHarness {
             throws HyracksDataException, IndexException {
         LSMOperationType opType = LSMOperationType.SEARCH;
         getAndEnterComponents(ctx, opType, false);
+        lsmIndex.getStatistics().searched(ctx.getComponentHolder());
         try {
             lsmIndex.search(ctx, cursor, pred);
         } catch (HyracksDataException | IndexException e) {
@@ -238,6 +239,7 @@ public class ExternalIndexHarness extends LSMHarness {
             newComponent = lsmIndex.merge(operation);
             operation.getCallback().afterOperation(LSMOperationType.MERGE, ctx.getComponentHolder(), newComponent);
             lsmIndex.markAsValid(newComponent);
+            lsmIndex.getStatistics().merged(newComponent);
         } finally {
             exitComponents(ctx, LSMOperationType.MERGE, newComponent, false);
             operation.getCallback().afterFinalize(LSMOperationType.MERGE, newComponent);
@@ -369,6 +369,7 @@ public class LSMHarness implements ILSMHarness {
         LSMOperationType opType = LSMOperationType.SEARCH;
         ctx.setSearchPredicate(pred);
         getAndEnterComponents(ctx, opType, false);
+        lsmIndex.getStatistics().searched(ctx.getComponentHolder());
         try {
             ctx.getSearchOperationCallback().before(pred.getLowKey());
             lsmIndex.search(ctx, cursor, pred);
@@ -411,6 +412,7 @@ public class LSMHarness implements ILSMHarness {
             newComponent = lsmIndex.flush(operation);
             operation.getCallback().afterOperation(LSMOperationType.FLUSH, null, newComponent);
             lsmIndex.markAsValid(newComponent);
+            lsmIndex.getStatistics().flushed(newComponent);
         } catch (Throwable e) {
             e.printStackTrace();
             throw e;
@@ -459,6 +461,7 @@ public class LSMHarness implements ILSMHarness {
             newComponent = lsmIndex.merge(operation);
             operation.getCallback().afterOperation(LSMOperationType.MERGE, ctx.getComponentHolder(), newComponent);
             lsmIndex.markAsValid(newComponent);
+            lsmIndex.getStatistics().merged(newComponent);
         } catch (Throwable e) {
             e.printStackTrace();
             throw e;
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hyracks.api.job.profiling.counters.ICounter;
+import org.apache.hyracks.api.job.profiling.counters.ICounterContext;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+
+/**
+ * Cumulative I/O counters of one LSM index, maintained by its {@link LSMHarness}. They are exposed as a
+ * {@link ICounterContext}, so they can be read by name like the job profiling counters, and they give the
+ * write amplification of the merge policy ((bytes flushed + bytes merged) / bytes flushed) and its read
+ * amplification (components in the scope of each search).
+ */
+public class LSMIndexStatistics implements ICounterContext {
+    public static final String FLUSH_COUNT = "lsm.flush.count";
+    public static final String BYTES_FLUSHED = "lsm.flush.bytes";
+    public static final String MERGE_COUNT = "lsm.merge.count";
+    public static final String BYTES_MERGED = "lsm.merge.bytes";
+    public static final String SEARCH_COUNT = "lsm.search.count";
+    /**
+     * Components a search entered, counted when it enters them; a component whose bloom filter later rejects the
+     * search key still counts.
+     */
+    public static final String COMPONENTS_ENTERED = "lsm.search.components.entered";
+
+    private final Map<String, LSMCounter> counters;
+    private final LSMCounter flushCount;
+    private final LSMCounter bytesFlushed;
+    private final LSMCounter mergeCount;
+    private final LSMCounter bytesMerged;
+    private final LSMCounter searchCount;
+    private final LSMCounter componentsEntered;
+
+    public LSMIndexStatistics() {
+        Map<String, LSMCounter> map = new LinkedHashMap<String, LSMCounter>();
+        flushCount = add(map, FLUSH_COUNT);
+        bytesFlushed = add(map, BYTES_FLUSHED);
+        mergeCount = add(map, MERGE_COUNT);
+        bytesMerged = add(map, BYTES_MERGED);
+        searchCount = add(map, SEARCH_COUNT);
+        componentsEntered = add(map, COMPONENTS_ENTERED);
+        counters = Collections.unmodifiableMap(map);
+    }
+
+    private static LSMCounter add(Map<String, LSMCounter> map, String name) {
+        LSMCounter counter = new LSMCounter(name);
+        map.put(name, counter);
+        return counter;
+    }
+
+    /**
+     * Returns the counter with the given name. The set of counters is fixed, so create is ignored.
+     */
+    @Override
+    public ICounter getCounter(String name, boolean create) {
+        return counters.get(name);
+    }
+
+    public Map<String, ? extends ICounter> getCounters() {
+        return counters;
+    }
+
+    public void flushed(ILSMComponent newComponent) {
+        flushCount.update(1);
+        bytesFlushed.update(sizeOf(newComponent));
+    }
+
+    public void merged(ILSMComponent newComponent) {
+        mergeCount.update(1);
+        bytesMerged.update(sizeOf(newComponent));
+    }
+
+    public void searched(List<ILSMComponent> components) {
+        searchCount.update(1);
+        componentsEntered.update(components.size());
+    }
+
+    public double getWriteAmplification() {
+        long flushed = bytesFlushed.get();
+        return flushed == 0 ? 0 : (double) (flushed + bytesMerged.get()) / flushed;
+    }
+
+    public double getComponentsEnteredPerSearch() {
+        long searches = searchCount.get();
+        return searches == 0 ? 0 : (double) componentsEntered.get() / searches;
+    }
+
+    /**
+     * @return the current values of the counters, in the order of {@link #getCounters()}
+     */
+    public long[] snapshot() {
+        long[] values = new long[counters.size()];
+        int i = 0;
+        for (LSMCounter counter : counters.values()) {
+            values[i++] = counter.get();
+        }
+        return values;
+    }
+
+    /**
+     * Adds to the counters of the given context how much each counter has grown since the given snapshot.
+     */
+    public void addDeltasTo(long[] snapshot, ICounterContext counterContext) {
+        int i = 0;
+        for (LSMCounter counter : counters.values()) {
+            long delta = counter.get() - snapshot[i++];
+            if (delta != 0) {
+                counterContext.getCounter(counter.getName(), true).update(delta);
+            }
+        }
+    }
+
+    private static long sizeOf(ILSMComponent c) {
+        return c instanceof AbstractDiskLSMComponent ? ((AbstractDiskLSMComponent) c).getComponentSize() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return counters.values().toString();
+    }
+
+    private static class LSMCounter implements ICounter {
+        private final String name;
+        private final AtomicLong value = new AtomicLong();
+
+        LSMCounter(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long update(long delta) {
+            return value.addAndGet(delta);
+        }
+
+        @Override
+        public long set(long value) {
+            return this.value.getAndSet(value);
+        }
+
+        @Override
+        public long get() {
+            return value.get();
+        }
+
+        @Override
+        public String toString() {
+            return name + "=" + value.get();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+
+/**
+ * The hook through which a running merge reports its progress to the I/O scheduler that runs it. Merge
+ * implementations call {@link #tupleMerged(ITupleReference)} for every tuple they write. When the merge runs
+ * on a scheduler that throttles merges, the call may block, to keep the merge within its bandwidth or to let a
+ * flush take the merge's place for a while. Otherwise it does nothing.
+ */
+public abstract class LSMMergeThrottle {
+    // report progress to the scheduler after about this many bytes
+    private static final long CHECKPOINT_BYTES = 64 * 1024;
+
+    private static final ThreadLocal<LSMMergeThrottle> CURRENT = new ThreadLocal<LSMMergeThrottle>();
+
+    private long pendingBytes;
+
+    public static void tupleMerged(ITupleReference tuple) throws HyracksDataException {
+        LSMMergeThrottle throttle = CURRENT.get();
+        if (throttle != null) {
+            int fieldCount = tuple.getFieldCount();
+            throttle.pendingBytes += tuple.getFieldStart(fieldCount - 1) + tuple.getFieldLength(fieldCount - 1)
+                    - tuple.getFieldStart(0);
+            if (throttle.pendingBytes >= CHECKPOINT_BYTES) {
+                long bytes = throttle.pendingBytes;
+                throttle.pendingBytes = 0;
+                throttle.checkpoint(bytes);
+            }
+        }
+    }
+
+    /**
+     * Installs this throttle for the merges run by the current thread, until {@link #uninstall()}.
+     */
+    protected void install() {
+        pendingBytes = 0;
+        CURRENT.set(this);
+    }
+
+    protected void uninstall() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Called by the merging thread after it has merged the given number of bytes since the last checkpoint.
+     */
+    protected abstract void checkpoint(long bytes) throws HyracksDataException;
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.common.api.IndexException;
+import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.ComponentState;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicy;
+
+/**
+ * A leveled merge policy: every component is at least size-ratio times larger than all newer components
+ * together, so it forms a level of its own and a search reads at most one component per level, plus up to
+ * level-0-component-count recently flushed components. When that many flushed components have accumulated,
+ * they are merged into the next level, and the merge cascades into deeper levels that the merged component
+ * would outgrow.
+ * Components cover the whole key range, so a merge rewrites whole levels rather than only the key ranges
+ * that overlap. Only adjacent components are merged, newest first, so that merges never reorder versions of
+ * a key.
+ */
+public class LeveledMergePolicy implements ILSMMergePolicy {
+
+    private int level0ComponentCount;
+    private double sizeRatio;
+
+    @Override
+    public void diskComponentAdded(final ILSMIndex index, boolean fullMergeIsRequested) throws HyracksDataException,
+            IndexException {
+        List<ILSMComponent> immutableComponents = new ArrayList<ILSMComponent>(index.getImmutableComponents());
+        for (ILSMComponent c : immutableComponents) {
+            if (c.getState() != ComponentState.READABLE_UNWRITABLE) {
+                return;
+            }
+        }
+        ILSMIndexAccessor accessor = (ILSMIndexAccessor) index.createAccessor(NoOpOperationCallback.INSTANCE,
+                NoOpOperationCallback.INSTANCE);
+        if (fullMergeIsRequested) {
+            accessor.scheduleFullMerge(index.getIOOperationCallback());
+            return;
+        }
+        long[] sizes = new long[immutableComponents.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = ((AbstractDiskLSMComponent) immutableComponents.get(i)).getComponentSize();
+        }
+        int end = selectMergeEnd(sizes);
+        if (end > 1) {
+            accessor.scheduleMerge(index.getIOOperationCallback(),
+                    new ArrayList<ILSMComponent>(immutableComponents.subList(0, end)));
+        }
+    }
+
+    /**
+     * @param sizes
+     *            the component sizes, newest first
+     * @return the number of newest components to merge, or 0 if no merge is needed
+     */
+    int selectMergeEnd(long[] sizes) {
+        // the level-0 components are the newest ones, up to the first component that is a level
+        long newerSize = 0;
+        int level0End = 0;
+        while (level0End < sizes.length && (level0End == 0 || sizes[level0End] < sizeRatio * newerSize)) {
+            newerSize += sizes[level0End];
+            level0End++;
+        }
+        if (level0End < level0ComponentCount) {
+            return 0;
+        }
+        // merge level 0 into the next level, and on into each level that the result would outgrow
+        int end = level0End;
+        if (end < sizes.length) {
+            newerSize += sizes[end++];
+        }
+        while (end < sizes.length && sizes[end] < sizeRatio * newerSize) {
+            newerSize += sizes[end++];
+        }
+        return end;
+    }
+
+    @Override
+    public void configure(Map<String, String> properties) {
+        level0ComponentCount = Integer.parseInt(properties.get("level-0-component-count"));
+        sizeRatio = Double.parseDouble(properties.get("size-ratio"));
+    }
+}
@@ -70,6 +70,16 @@ public class MultitenantVirtualBufferCache implements IVirtualBufferCache {
         return vbc.pin(dpid, newPage);
     }
 
+    @Override
+    public void pinAll(long[] dpids, ICachedPage[] pages, int count) throws HyracksDataException {
+        vbc.pinAll(dpids, pages, count);
+    }
+
+    @Override
+    public void prefetch(long dpid, int count) throws HyracksDataException {
+        vbc.prefetch(dpid, count);
+    }
+
     @Override
     public void unpin(ICachedPage page) throws HyracksDataException {
         vbc.unpin(page);
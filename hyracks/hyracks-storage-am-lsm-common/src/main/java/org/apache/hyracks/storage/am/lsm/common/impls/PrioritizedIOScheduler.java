@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOpertionType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationScheduler;
+
+/**
+ * An asynchronous scheduler that bounds the number of flushes and merges writing to each I/O device at once.
+ * Queued flushes always start before queued merges, and, as in {@link AsynchronousScheduler}, the flushes of
+ * one index run one at a time in the order they were scheduled.
+ * Merges cooperate through {@link LSMMergeThrottle}: their write bandwidth on each device can be capped, and
+ * when a flush is waiting for a device whose slots are all taken, a running merge pauses and gives its slot to
+ * the flush. Paused merges resume before new merges start.
+ * Operations are charged to the device of the first file they write. Files that were not placed on an I/O device
+ * share one queue. The scheduler is not installed by default: an application opts in by returning it from its
+ * {@link org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationSchedulerProvider}.
+ */
+public class PrioritizedIOScheduler implements ILSMIOOperationScheduler {
+    private static final Logger LOGGER = Logger.getLogger(PrioritizedIOScheduler.class.getName());
+
+    private final ExecutorService executor;
+    private final int maxOperationsPerDevice;
+    private final long mergeBytesPerSecond;
+    private final Map<IODeviceHandle, DeviceQueue> devices = new HashMap<IODeviceHandle, DeviceQueue>();
+    private final Set<String> runningFlushes = new HashSet<String>();
+
+    /**
+     * @param maxOperationsPerDevice
+     *            the maximum number of operations that write to a device at once
+     * @param mergeBytesPerSecond
+     *            the maximum rate at which the merges on a device write tuples, or 0 for no limit
+     */
+    public PrioritizedIOScheduler(ThreadFactory threadFactory, int maxOperationsPerDevice, long mergeBytesPerSecond) {
+        if (maxOperationsPerDevice < 1) {
+            throw new IllegalArgumentException("maxOperationsPerDevice must be positive: " + maxOperationsPerDevice);
+        }
+        this.executor = Executors.newCachedThreadPool(threadFactory);
+        this.maxOperationsPerDevice = maxOperationsPerDevice;
+        this.mergeBytesPerSecond = mergeBytesPerSecond;
+    }
+
+    @Override
+    public synchronized void scheduleOperation(ILSMIOOperation operation) throws HyracksDataException {
+        DeviceQueue device = getDeviceQueue(operation);
+        if (operation.getIOOpertionType() == LSMIOOpertionType.FLUSH) {
+            device.flushes.add(operation);
+        } else {
+            device.merges.add(operation);
+        }
+        dispatch(device);
+    }
+
+    public synchronized int getQueuedFlushCount() {
+        int count = 0;
+        for (DeviceQueue device : devices.values()) {
+            count += device.flushes.size();
+        }
+        return count;
+    }
+
+    public synchronized int getQueuedMergeCount() {
+        int count = 0;
+        for (DeviceQueue device : devices.values()) {
+            count += device.merges.size();
+        }
+        return count;
+    }
+
+    public synchronized int getPausedMergeCount() {
+        int count = 0;
+        for (DeviceQueue device : devices.values()) {
+            count += device.pausedMerges.size();
+        }
+        return count;
+    }
+
+    public synchronized int getRunningOperationCount() {
+        int count = 0;
+        for (DeviceQueue device : devices.values()) {
+            count += device.running;
+        }
+        return count;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private DeviceQueue getDeviceQueue(ILSMIOOperation operation) {
+        // an operation is charged to the first device it writes to
+        Set<IODeviceHandle> writeDevices = operation.getWriteDevices();
+        IODeviceHandle handle = writeDevices == null || writeDevices.isEmpty() ? null : writeDevices.iterator()
+                .next();
+        DeviceQueue device = devices.get(handle);
+        if (device == null) {
+            device = new DeviceQueue();
+            devices.put(handle, device);
+        }
+        return device;
+    }
+
+    // must hold the scheduler's lock
+    private void dispatch(DeviceQueue device) {
+        while (device.running < maxOperationsPerDevice) {
+            ILSMIOOperation flush = pollRunnableFlush(device, true);
+            if (flush != null) {
+                runningFlushes.add(flush.getIndexUniqueIdentifier());
+                device.running++;
+                executor.execute(new OperationTask(flush, device));
+            } else if (!device.pausedMerges.isEmpty()) {
+                device.running++;
+                device.pausedMerges.poll().paused = false;
+                notifyAll();
+            } else if (!device.merges.isEmpty()) {
+                device.running++;
+                executor.execute(new OperationTask(device.merges.poll(), device));
+            } else {
+                return;
+            }
+        }
+    }
+
+    // must hold the scheduler's lock
+    private ILSMIOOperation pollRunnableFlush(DeviceQueue device, boolean remove) {
+        for (Iterator<ILSMIOOperation> it = device.flushes.iterator(); it.hasNext();) {
+            ILSMIOOperation flush = it.next();
+            if (!runningFlushes.contains(flush.getIndexUniqueIdentifier())) {
+                if (remove) {
+                    it.remove();
+                }
+                return flush;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void operationFinished(ILSMIOOperation operation, DeviceQueue device) {
+        device.running--;
+        if (operation.getIOOpertionType() == LSMIOOpertionType.FLUSH) {
+            runningFlushes.remove(operation.getIndexUniqueIdentifier());
+            // the next flush of the index may be queued on another device
+            for (DeviceQueue d : devices.values()) {
+                dispatch(d);
+            }
+        } else {
+            dispatch(device);
+        }
+    }
+
+    private synchronized void pauseIfFlushWaiting(OperationTask merge) throws HyracksDataException {
+        DeviceQueue device = merge.device;
+        if (device.running < maxOperationsPerDevice || pollRunnableFlush(device, false) == null) {
+            return;
+        }
+        merge.paused = true;
+        device.running--;
+        device.pausedMerges.add(merge);
+        dispatch(device);
+        try {
+            while (merge.paused) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HyracksDataException(e);
+        }
+    }
+
+    private void pace(DeviceQueue device, long bytes) throws HyracksDataException {
+        long waitNanos;
+        synchronized (this) {
+            // each chunk of merged bytes reserves the next bytes / rate seconds of the device's merge bandwidth
+            long now = System.nanoTime();
+            long start = Math.max(device.mergeClock, now);
+            device.mergeClock = start + bytes * 1000000000L / mergeBytesPerSecond;
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            try {
+                Thread.sleep(waitNanos / 1000000L, (int) (waitNanos % 1000000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HyracksDataException(e);
+            }
+        }
+    }
+
+    private static class DeviceQueue {
+        private final ArrayDeque<ILSMIOOperation> flushes = new ArrayDeque<ILSMIOOperation>();
+        private final ArrayDeque<ILSMIOOperation> merges = new ArrayDeque<ILSMIOOperation>();
+        private final ArrayDeque<OperationTask> pausedMerges = new ArrayDeque<OperationTask>();
+        private int running;
+        // the time at which the merge bandwidth of the device is free again
+        private long mergeClock;
+    }
+
+    private class OperationTask extends LSMMergeThrottle implements Runnable {
+        private final ILSMIOOperation operation;
+        private final DeviceQueue device;
+        // guarded by the scheduler's lock
+        private boolean paused;
+
+        OperationTask(ILSMIOOperation operation, DeviceQueue device) {
+            this.operation = operation;
+            this.device = device;
+        }
+
+        @Override
+        public void run() {
+            boolean merge = operation.getIOOpertionType() == LSMIOOpertionType.MERGE;
+            if (merge) {
+                install();
+            }
+            try {
+                operation.call();
+            } catch (Throwable th) {
+                LOGGER.log(Level.SEVERE, "LSM " + operation.getIOOpertionType() + " operation failed for index "
+                        + operation.getIndexUniqueIdentifier(), th);
+            } finally {
+                if (merge) {
+                    uninstall();
+                }
+                operationFinished(operation, device);
+            }
+        }
+
+        @Override
+        protected void checkpoint(long bytes) throws HyracksDataException {
+            if (mergeBytesPerSecond > 0) {
+                pace(device, bytes);
+            }
+            pauseIfFlushWaiting(this);
+        }
+    }
+}
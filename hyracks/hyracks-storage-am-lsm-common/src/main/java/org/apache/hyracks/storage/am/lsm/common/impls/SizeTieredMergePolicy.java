@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.common.api.IndexException;
+import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.ComponentState;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicy;
+
+/**
+ * A size-tiered merge policy: components of similar size form a tier, and a tier is merged into a single
+ * component, of the next tier, once it holds min-merge-component-count components. Every byte is therefore
+ * rewritten about once per tier, which keeps write amplification logarithmic in the index size, while the
+ * number of components stays below min-merge-component-count per tier.
+ * Components are considered newest first and only runs of adjacent components are merged, so that merges
+ * never reorder versions of a key.
+ */
+public class SizeTieredMergePolicy implements ILSMMergePolicy {
+
+    private int minMergeComponentCount;
+    private int maxMergeComponentCount;
+    private double sizeRatio;
+    private long maxMergableComponentSize;
+
+    @Override
+    public void diskComponentAdded(final ILSMIndex index, boolean fullMergeIsRequested) throws HyracksDataException,
+            IndexException {
+        List<ILSMComponent> immutableComponents = new ArrayList<ILSMComponent>(index.getImmutableComponents());
+        for (ILSMComponent c : immutableComponents) {
+            if (c.getState() != ComponentState.READABLE_UNWRITABLE) {
+                return;
+            }
+        }
+        ILSMIndexAccessor accessor = (ILSMIndexAccessor) index.createAccessor(NoOpOperationCallback.INSTANCE,
+                NoOpOperationCallback.INSTANCE);
+        if (fullMergeIsRequested) {
+            accessor.scheduleFullMerge(index.getIOOperationCallback());
+            return;
+        }
+        long[] sizes = new long[immutableComponents.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = ((AbstractDiskLSMComponent) immutableComponents.get(i)).getComponentSize();
+        }
+        int[] range = selectMergeRange(sizes);
+        if (range != null) {
+            accessor.scheduleMerge(index.getIOOperationCallback(),
+                    new ArrayList<ILSMComponent>(immutableComponents.subList(range[0], range[1])));
+        }
+    }
+
+    /**
+     * @param sizes
+     *            the component sizes, newest first
+     * @return the newest range [start, end) of at least min-merge-component-count adjacent components whose
+     *         sizes are within size-ratio of each other, or null if there is none
+     */
+    int[] selectMergeRange(long[] sizes) {
+        for (int start = 0; start + minMergeComponentCount <= sizes.length; start++) {
+            if (sizes[start] > maxMergableComponentSize) {
+                continue;
+            }
+            long min = sizes[start];
+            long max = sizes[start];
+            int end = start + 1;
+            while (end < sizes.length && end - start < maxMergeComponentCount
+                    && sizes[end] <= maxMergableComponentSize) {
+                long newMin = Math.min(min, sizes[end]);
+                long newMax = Math.max(max, sizes[end]);
+                if (newMax > sizeRatio * newMin) {
+                    break;
+                }
+                min = newMin;
+                max = newMax;
+                end++;
+            }
+            if (end - start >= minMergeComponentCount) {
+                return new int[] { start, end };
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void configure(Map<String, String> properties) {
+        minMergeComponentCount = Integer.parseInt(properties.get("min-merge-component-count"));
+        maxMergeComponentCount = Integer.parseInt(properties.get("max-merge-component-count"));
+        sizeRatio = Double.parseDouble(properties.get("size-ratio"));
+        String maxSize = properties.get("max-mergable-component-size");
+        maxMergableComponentSize = maxSize == null ? Long.MAX_VALUE : Long.parseLong(maxSize);
+    }
+}
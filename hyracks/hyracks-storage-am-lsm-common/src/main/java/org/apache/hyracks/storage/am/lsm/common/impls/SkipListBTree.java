@@ -0,0 +1,415 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
+import org.apache.hyracks.storage.am.btree.api.ITupleAcceptor;
+import org.apache.hyracks.storage.am.btree.impls.BTree;
+import org.apache.hyracks.storage.am.btree.impls.BTreeOpContext;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.btree.impls.UnconditionalTupleAcceptor;
+import org.apache.hyracks.storage.am.common.api.IIndexCursor;
+import org.apache.hyracks.storage.am.common.api.IMetaDataPageManager;
+import org.apache.hyracks.storage.am.common.api.IModificationOperationCallback;
+import org.apache.hyracks.storage.am.common.api.ISearchOperationCallback;
+import org.apache.hyracks.storage.am.common.api.ISearchPredicate;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexAccessor;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleReference;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleWriter;
+import org.apache.hyracks.storage.am.common.api.TreeIndexException;
+import org.apache.hyracks.storage.am.common.exceptions.TreeIndexDuplicateKeyException;
+import org.apache.hyracks.storage.am.common.exceptions.TreeIndexNonExistentKeyException;
+import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
+import org.apache.hyracks.storage.am.common.ophelpers.MultiComparator;
+import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * An in-memory index for the mutable component of an LSM index. It keeps its tuples in a
+ * {@link ConcurrentSkipListMap}, so modifications take no page latches and never split pages.
+ * The tuples themselves are written, in the format of the leaf frame's tuple writer, into an append-only
+ * arena of pages taken from the {@link IVirtualBufferCache}. The memory component therefore still fills
+ * up, and is flushed, according to the virtual buffer cache budget. The skip list nodes live on the Java
+ * heap and are not charged to that budget.
+ * The class extends {@link BTree} only so that it can be used wherever the LSM code expects the in-memory
+ * BTree: the accessors it creates implement the BTree accessor operations on top of the skip list, and its
+ * cursors are {@link SkipListSearchCursor}s, which return the tuples in key order.
+ * The skip list maps the first version of each key to the arena address of its current version, so an
+ * update or an antimatter tuple replaces the value of the entry, and the key of an entry never changes.
+ */
+public class SkipListBTree extends BTree {
+
+    private final int pageSize;
+    private final ConcurrentSkipListMap<Object, Long> entries;
+    private final AtomicInteger tupleCount = new AtomicInteger();
+    // comparators and tuple references used to compare two stored tuples, one set per thread
+    private final ThreadLocal<ComparisonContext> comparisonContexts;
+
+    // the arena: tuple addresses are (page index << 32) | offset
+    private final Object arenaLock = new Object();
+    private volatile ByteBuffer[] arenaPages = new ByteBuffer[0];
+    private int numArenaPages = 0;
+    private int arenaOffset = 0;
+
+    public SkipListBTree(IVirtualBufferCache virtualBufferCache, IMetaDataPageManager freePageManager,
+            ITreeIndexFrameFactory interiorFrameFactory, ITreeIndexFrameFactory leafFrameFactory,
+            IBinaryComparatorFactory[] cmpFactories, int fieldCount, FileReference file) {
+        super(virtualBufferCache, virtualBufferCache.getFileMapProvider(), freePageManager, interiorFrameFactory,
+                leafFrameFactory, cmpFactories, fieldCount, file);
+        this.pageSize = virtualBufferCache.getPageSize();
+        this.comparisonContexts = new ThreadLocal<ComparisonContext>() {
+            @Override
+            protected ComparisonContext initialValue() {
+                return new ComparisonContext();
+            }
+        };
+        this.entries = new ConcurrentSkipListMap<Object, Long>(new EntryComparator());
+    }
+
+    @Override
+    public synchronized void create() throws HyracksDataException {
+        super.create();
+        resetEntries();
+    }
+
+    @Override
+    public synchronized void clear() throws HyracksDataException {
+        super.clear();
+        resetEntries();
+    }
+
+    @Override
+    public synchronized void destroy() throws HyracksDataException {
+        resetEntries();
+        super.destroy();
+    }
+
+    public int getTupleCount() {
+        return tupleCount.get();
+    }
+
+    private void resetEntries() {
+        entries.clear();
+        tupleCount.set(0);
+        synchronized (arenaLock) {
+            arenaPages = new ByteBuffer[0];
+            numArenaPages = 0;
+            arenaOffset = 0;
+        }
+    }
+
+    private void insert(ITupleReference tuple, BTreeOpContext ctx, Probe probe) throws HyracksDataException,
+            TreeIndexException {
+        ctx.modificationCallback.before(tuple);
+        probe.reset(tuple, ctx.cmp, 0);
+        if (entries.containsKey(probe)) {
+            throw new TreeIndexDuplicateKeyException("Failed to insert key since key already exists.");
+        }
+        Long address = write(tuple, ctx.leafFrame.getTupleWriter());
+        ctx.modificationCallback.found(null, tuple);
+        if (entries.putIfAbsent(address, address) != null) {
+            throw new TreeIndexDuplicateKeyException("Failed to insert key since key already exists.");
+        }
+        tupleCount.incrementAndGet();
+    }
+
+    private void upsert(ITupleReference tuple, BTreeOpContext ctx, ITupleAcceptor acceptor, Probe probe,
+            ITreeIndexTupleReference before) throws HyracksDataException, TreeIndexException {
+        ctx.modificationCallback.before(tuple);
+        probe.reset(tuple, ctx.cmp, 0);
+        Long address = write(tuple, ctx.leafFrame.getTupleWriter());
+        // retried only when another thread modified the same key in between
+        while (true) {
+            Long current = entries.get(probe);
+            ITupleReference beforeTuple = current == null ? null : decode(before, current);
+            if (beforeTuple != null && !acceptor.accept(beforeTuple)) {
+                throw new TreeIndexDuplicateKeyException("Failed to insert key since key already exists.");
+            }
+            ctx.modificationCallback.found(beforeTuple, tuple);
+            if (current == null) {
+                if (entries.putIfAbsent(address, address) == null) {
+                    tupleCount.incrementAndGet();
+                    return;
+                }
+            } else if (entries.replace(probe, current, address)) {
+                return;
+            }
+        }
+    }
+
+    private void update(ITupleReference tuple, BTreeOpContext ctx, Probe probe, ITreeIndexTupleReference before)
+            throws HyracksDataException, TreeIndexException {
+        ctx.modificationCallback.before(tuple);
+        probe.reset(tuple, ctx.cmp, 0);
+        Long address = write(tuple, ctx.leafFrame.getTupleWriter());
+        while (true) {
+            Long current = entries.get(probe);
+            if (current == null) {
+                throw new TreeIndexNonExistentKeyException("Trying to update a tuple with a nonexistent key.");
+            }
+            ctx.modificationCallback.found(decode(before, current), tuple);
+            if (entries.replace(probe, current, address)) {
+                return;
+            }
+        }
+    }
+
+    private void delete(ITupleReference tuple, BTreeOpContext ctx, Probe probe, ITreeIndexTupleReference before)
+            throws HyracksDataException, TreeIndexException {
+        ctx.modificationCallback.before(tuple);
+        probe.reset(tuple, ctx.cmp, 0);
+        while (true) {
+            Long current = entries.get(probe);
+            if (current == null) {
+                throw new TreeIndexNonExistentKeyException("Trying to delete a tuple with a nonexistent key.");
+            }
+            ctx.modificationCallback.found(decode(before, current), tuple);
+            if (entries.remove(probe, current)) {
+                tupleCount.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the addresses of the current versions of all tuples at or after the probe, in key order. The
+     *         iterator is weakly consistent: it reflects modifications made while it is in use, as the skip
+     *         list iterators do.
+     */
+    Iterator<Long> iterator(Probe probe) {
+        return probe == null ? entries.values().iterator() : entries.tailMap(probe, true).values().iterator();
+    }
+
+    Long get(Probe probe) {
+        return entries.get(probe);
+    }
+
+    ITupleReference decode(ITreeIndexTupleReference tuple, long address) {
+        tuple.resetByTupleOffset(arenaPages[(int) (address >>> 32)], (int) address);
+        return tuple;
+    }
+
+    private long write(ITupleReference tuple, ITreeIndexTupleWriter tupleWriter) throws HyracksDataException,
+            TreeIndexException {
+        int size = tupleWriter.bytesRequired(tuple);
+        if (size > pageSize) {
+            throw new TreeIndexException("Space required for record (" + size
+                    + ") larger than maximum acceptable size (" + pageSize + ")");
+        }
+        long address = allocate(size);
+        // the tuple is published to other threads only when its address is put into the skip list
+        tupleWriter.writeTuple(tuple, arenaPages[(int) (address >>> 32)], (int) address);
+        return address;
+    }
+
+    private long allocate(int size) throws HyracksDataException {
+        synchronized (arenaLock) {
+            if (numArenaPages == 0 || arenaOffset + size > pageSize) {
+                int pageId = freePageManager.getFreePage(null);
+                ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), true);
+                // virtual buffer cache pages stay in memory until the file is deleted
+                bufferCache.unpin(page);
+                ByteBuffer[] pages = arenaPages;
+                if (numArenaPages == pages.length) {
+                    pages = Arrays.copyOf(pages, Math.max(16, pages.length * 2));
+                }
+                pages[numArenaPages++] = page.getBuffer();
+                arenaPages = pages;
+                arenaOffset = 0;
+            }
+            long address = ((long) (numArenaPages - 1) << 32) | arenaOffset;
+            arenaOffset += size;
+            return address;
+        }
+    }
+
+    @Override
+    public ITreeIndexAccessor createAccessor(IModificationOperationCallback modificationCallback,
+            ISearchOperationCallback searchCallback) {
+        return new SkipListAccessor(this, modificationCallback, searchCallback);
+    }
+
+    public static class SkipListAccessor extends BTreeAccessor {
+        private SkipListBTree index;
+        private final Probe probe = new Probe();
+        private final ITreeIndexTupleReference before;
+
+        public SkipListAccessor(SkipListBTree index, IModificationOperationCallback modificationCallback,
+                ISearchOperationCallback searchCallback) {
+            index.super(index, modificationCallback, searchCallback);
+            this.index = index;
+            this.before = index.getLeafFrameFactory().createFrame().createTupleReference();
+        }
+
+        public SkipListBTree getIndex() {
+            return index;
+        }
+
+        @Override
+        public void reset(BTree btree, IModificationOperationCallback modificationCallback,
+                ISearchOperationCallback searchCallback) {
+            super.reset(btree, modificationCallback, searchCallback);
+            this.index = (SkipListBTree) btree;
+        }
+
+        @Override
+        public void insert(ITupleReference tuple) throws HyracksDataException, TreeIndexException {
+            try {
+                index.insert(tuple, getOpContext(), probe);
+            } catch (IllegalArgumentException e) {
+                throw unwrap(e);
+            }
+        }
+
+        @Override
+        public void update(ITupleReference tuple) throws HyracksDataException, TreeIndexException {
+            try {
+                index.update(tuple, getOpContext(), probe, before);
+            } catch (IllegalArgumentException e) {
+                throw unwrap(e);
+            }
+        }
+
+        @Override
+        public void delete(ITupleReference tuple) throws HyracksDataException, TreeIndexException {
+            try {
+                index.delete(tuple, getOpContext(), probe, before);
+            } catch (IllegalArgumentException e) {
+                throw unwrap(e);
+            }
+        }
+
+        @Override
+        public void upsert(ITupleReference tuple) throws HyracksDataException, TreeIndexException {
+            upsertIfConditionElseInsert(tuple, UnconditionalTupleAcceptor.INSTANCE);
+        }
+
+        @Override
+        public void upsertIfConditionElseInsert(ITupleReference tuple, ITupleAcceptor acceptor)
+                throws HyracksDataException, TreeIndexException {
+            try {
+                index.upsert(tuple, getOpContext(), acceptor, probe, before);
+            } catch (IllegalArgumentException e) {
+                throw unwrap(e);
+            }
+        }
+
+        @Override
+        public ITreeIndexCursor createSearchCursor(boolean exclusive) {
+            IBTreeLeafFrame leafFrame = (IBTreeLeafFrame) index.getLeafFrameFactory().createFrame();
+            return new SkipListSearchCursor(leafFrame, exclusive, false);
+        }
+
+        @Override
+        public ITreeIndexCursor createCountingSearchCursor() {
+            IBTreeLeafFrame leafFrame = (IBTreeLeafFrame) index.getLeafFrameFactory().createFrame();
+            return new SkipListSearchCursor(leafFrame, false, true);
+        }
+
+        @Override
+        public void search(IIndexCursor cursor, ISearchPredicate searchPred) throws HyracksDataException,
+                TreeIndexException {
+            BTreeOpContext ctx = getOpContext();
+            ctx.setOperation(IndexOperation.SEARCH);
+            RangePredicate pred = (RangePredicate) searchPred;
+            if (pred.getLowKeyComparator() == null) {
+                pred.setLowKeyComparator(ctx.cmp);
+            }
+            if (pred.getHighKeyComparator() == null) {
+                pred.setHighKeyComparator(ctx.cmp);
+            }
+            ctx.cursorInitialState.setSearchOperationCallback(ctx.searchCallback);
+            ctx.cursorInitialState.setOriginialKeyComparator(ctx.cmp);
+            ctx.cursorInitialState.setPage(null);
+            try {
+                ((SkipListSearchCursor) cursor).open(ctx.cursorInitialState, pred);
+            } catch (IllegalArgumentException e) {
+                throw unwrap(e);
+            }
+        }
+    }
+
+    static HyracksDataException unwrap(IllegalArgumentException e) {
+        if (e.getCause() instanceof HyracksDataException) {
+            return (HyracksDataException) e.getCause();
+        }
+        throw e;
+    }
+
+    /**
+     * A search key. Unless tie is 0, it never compares equal to a stored tuple: it sorts right before (tie < 0)
+     * or right after (tie > 0) the stored tuples that match the key under its comparator, which may cover only
+     * a prefix of the key fields.
+     */
+    static final class Probe {
+        private ITupleReference key;
+        private MultiComparator cmp;
+        private int tie;
+
+        void reset(ITupleReference key, MultiComparator cmp, int tie) {
+            this.key = key;
+            this.cmp = cmp;
+            this.tie = tie;
+        }
+
+        int compareTo(ITupleReference stored) throws HyracksDataException {
+            int c = cmp.compare(key, stored);
+            return c != 0 ? c : tie;
+        }
+    }
+
+    private class ComparisonContext {
+        private final MultiComparator cmp = MultiComparator.create(cmpFactories);
+        private final ITreeIndexTupleReference left = leafFrameFactory.createFrame().createTupleReference();
+        private final ITreeIndexTupleReference right = leafFrameFactory.createFrame().createTupleReference();
+    }
+
+    // Compares stored tuples, given by their arena address, with each other or with a probe.
+    private class EntryComparator implements Comparator<Object> {
+        @Override
+        public int compare(Object a, Object b) {
+            ComparisonContext c = comparisonContexts.get();
+            try {
+                if (a instanceof Probe) {
+                    return ((Probe) a).compareTo(decode(c.left, (Long) b));
+                }
+                if (b instanceof Probe) {
+                    return -((Probe) b).compareTo(decode(c.left, (Long) a));
+                }
+                return c.cmp.compare(decode(c.left, (Long) a), decode(c.right, (Long) b));
+            } catch (HyracksDataException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    }
+}
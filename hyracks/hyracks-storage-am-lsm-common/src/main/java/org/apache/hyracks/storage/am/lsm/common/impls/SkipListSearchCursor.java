@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.Iterator;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.util.TupleUtils;
+import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
+import org.apache.hyracks.storage.am.btree.impls.BTreeCursorInitialState;
+import org.apache.hyracks.storage.am.btree.impls.BTreeRangeSearchCursor;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.common.api.ICursorInitialState;
+import org.apache.hyracks.storage.am.common.api.ISearchOperationCallback;
+import org.apache.hyracks.storage.am.common.api.ISearchPredicate;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleReference;
+import org.apache.hyracks.storage.am.common.ophelpers.MultiComparator;
+import org.apache.hyracks.storage.am.lsm.common.impls.SkipListBTree.SkipListAccessor;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+
+/**
+ * A range cursor over a {@link SkipListBTree}. It walks the skip list in key order and takes no latches, so it
+ * sees the modifications that other threads make ahead of its position. In counting mode it returns a single
+ * tuple with the number of tuples in the range, like the BTree counting cursor.
+ */
+public class SkipListSearchCursor extends BTreeRangeSearchCursor {
+
+    private final ITreeIndexTupleReference tuple;
+    private final boolean counting;
+    private final SkipListBTree.Probe probe = new SkipListBTree.Probe();
+
+    private SkipListBTree index;
+    private ISearchOperationCallback searchCb;
+    private MultiComparator originalKeyCmp;
+    private ITupleReference highKey;
+    private MultiComparator highKeyCmp;
+    private boolean highKeyInclusive;
+    private Iterator<Long> iterator;
+    private boolean pending;
+
+    private ArrayTupleBuilder reconciliationBuilder;
+    private final ArrayTupleReference reconciliationTuple = new ArrayTupleReference();
+
+    private final byte[] countBuf = new byte[4];
+    private final ArrayTupleBuilder countBuilder = new ArrayTupleBuilder(1);
+    private final ArrayTupleReference countTuple = new ArrayTupleReference();
+    private boolean countReturned;
+
+    public SkipListSearchCursor(IBTreeLeafFrame frame, boolean exclusiveLatchNodes, boolean counting) {
+        super(frame, exclusiveLatchNodes);
+        this.tuple = frame.createTupleReference();
+        this.counting = counting;
+    }
+
+    @Override
+    public void open(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+        BTreeCursorInitialState state = (BTreeCursorInitialState) initialState;
+        index = ((SkipListAccessor) state.getAccessor()).getIndex();
+        searchCb = state.getSearchOperationCallback();
+        originalKeyCmp = state.getOriginalKeyComparator();
+        RangePredicate pred = (RangePredicate) searchPred;
+        highKey = pred.getHighKey();
+        highKeyCmp = pred.getHighKeyComparator();
+        highKeyInclusive = pred.isHighKeyInclusive();
+        ITupleReference lowKey = pred.getLowKey();
+        if (lowKey == null) {
+            iterator = index.iterator(null);
+        } else {
+            probe.reset(lowKey, pred.getLowKeyComparator(), pred.isLowKeyInclusive() ? -1 : 1);
+            iterator = index.iterator(probe);
+        }
+        pending = false;
+        countReturned = false;
+        if (counting) {
+            int count = 0;
+            while (advance()) {
+                count++;
+            }
+            countBuilder.reset();
+            IntegerPointable.setInteger(countBuf, 0, count);
+            countBuilder.addField(countBuf, 0, 4);
+            countTuple.reset(countBuilder.getFieldEndOffsets(), countBuilder.getByteArray());
+        }
+    }
+
+    @Override
+    public boolean hasNext() throws HyracksDataException {
+        if (counting) {
+            return !countReturned;
+        }
+        if (!pending) {
+            pending = advance();
+        }
+        return pending;
+    }
+
+    @Override
+    public void next() throws HyracksDataException {
+        if (counting) {
+            countReturned = true;
+        }
+        pending = false;
+    }
+
+    private boolean advance() throws HyracksDataException {
+        try {
+            while (iterator != null && iterator.hasNext()) {
+                ITupleReference t = index.decode(tuple, iterator.next());
+                if (highKey != null) {
+                    int c = highKeyCmp.compare(highKey, t);
+                    if (c < 0 || (c == 0 && !highKeyInclusive)) {
+                        iterator = null;
+                        return false;
+                    }
+                }
+                if (counting || searchCb.proceed(t)) {
+                    return true;
+                }
+                // the key is locked by another transaction; wait for it, then read the key again
+                if (reconciliationBuilder == null) {
+                    reconciliationBuilder = new ArrayTupleBuilder(originalKeyCmp.getKeyFieldCount());
+                }
+                TupleUtils.copyTuple(reconciliationBuilder, t, originalKeyCmp.getKeyFieldCount());
+                reconciliationTuple.reset(reconciliationBuilder.getFieldEndOffsets(),
+                        reconciliationBuilder.getByteArray());
+                searchCb.reconcile(reconciliationTuple);
+                probe.reset(reconciliationTuple, originalKeyCmp, 0);
+                Long current = index.get(probe);
+                if (current != null) {
+                    index.decode(tuple, current);
+                    return true;
+                }
+                searchCb.cancel(reconciliationTuple);
+            }
+            iterator = null;
+            return false;
+        } catch (IllegalArgumentException e) {
+            throw SkipListBTree.unwrap(e);
+        }
+    }
+
+    @Override
+    public ITupleReference getTuple() {
+        return counting ? countTuple : tuple;
+    }
+
+    @Override
+    public ICachedPage getPage() {
+        return null;
+    }
+
+    @Override
+    public void close() throws HyracksDataException {
+        iterator = null;
+        pending = false;
+    }
+
+    @Override
+    public void reset() throws HyracksDataException {
+        close();
+    }
+
+    @Override
+    public void markCurrentTupleAsUpdated() throws HyracksDataException {
+        // tuples are never modified in place
+    }
+}
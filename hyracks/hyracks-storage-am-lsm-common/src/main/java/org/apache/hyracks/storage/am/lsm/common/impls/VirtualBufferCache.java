@@ -214,6 +214,18 @@ public class VirtualBufferCache implements IVirtualBufferCache {
         return page;
     }
 
+    @Override
+    public void pinAll(long[] dpids, ICachedPage[] pages, int count) throws HyracksDataException {
+        // in-memory pages need no I/O
+        for (int i = 0; i < count; ++i) {
+            pages[i] = pin(dpids[i], false);
+        }
+    }
+
+    @Override
+    public void prefetch(long dpid, int count) throws HyracksDataException {
+    }
+
     @Override
     public void unpin(ICachedPage page) throws HyracksDataException {
     }
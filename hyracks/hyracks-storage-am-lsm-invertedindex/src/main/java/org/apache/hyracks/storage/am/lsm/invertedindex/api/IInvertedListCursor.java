@@ -49,6 +49,15 @@ public interface IInvertedListCursor extends Comparable<IInvertedListCursor> {
 
     public boolean containsKey(ITupleReference searchTuple, MultiComparator invListCmp) throws HyracksDataException, IndexException;
 
+    /**
+     * Moves the cursor forward to the first element, starting from the current one, that is not smaller than
+     * the search key, so that getTuple() returns it. Elements in between may be skipped without being read.
+     * Returns false, leaving the cursor exhausted, if there is no such element. Search keys passed to successive
+     * calls must not decrease.
+     */
+    public boolean skipTo(ITupleReference searchTuple, MultiComparator invListCmp) throws HyracksDataException,
+            IndexException;
+
     // for debugging
     @SuppressWarnings("rawtypes")
     public String printInvList(ISerializerDeserializer[] serdes) throws HyracksDataException, IndexException;
@@ -76,6 +76,7 @@ import org.apache.hyracks.storage.am.lsm.common.impls.BlockingIOOperationCallbac
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFileReferences;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFilterManager;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexSearchCursor;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMMergeThrottle;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndex;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListCursor;
 import org.apache.hyracks.storage.am.lsm.invertedindex.inmemory.InMemoryInvertedIndex;
@@ -638,6 +639,7 @@ public class LSMInvertedIndex extends AbstractLSMIndex implements IInvertedIndex
                 cursor.next();
                 ITupleReference tuple = cursor.getTuple();
                 invIndexBulkLoader.add(tuple);
+                LSMMergeThrottle.tupleMerged(tuple);
             }
         } finally {
             cursor.close();
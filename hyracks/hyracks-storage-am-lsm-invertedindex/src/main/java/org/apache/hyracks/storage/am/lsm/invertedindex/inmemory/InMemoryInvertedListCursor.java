@@ -41,10 +41,15 @@ import org.apache.hyracks.storage.am.common.tuples.PermutingTupleReference;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListCursor;
 
 public class InMemoryInvertedListCursor implements IInvertedListCursor {
+    // how many elements skipTo() steps over with the open BTree cursor before it searches the BTree again
+    private static final int SKIP_SCAN_LIMIT = 32;
+
     private RangePredicate btreePred;
     private BTreeAccessor btreeAccessor;
     private IIndexCursor btreeCursor;
     private boolean cursorNeedsClose = false;
+    // whether the BTree cursor is on an element of the list
+    private boolean hasCurrent = false;
     private IIndexCursor countingCursor;
     private MultiComparator tokenFieldsCmp;
     private MultiComparator btreeCmp;
@@ -111,6 +116,7 @@ public class InMemoryInvertedListCursor implements IInvertedListCursor {
         btreePred.setHighKey(tokenTuple, true);
         btreeAccessor.search(btreeCursor, btreePred);
         cursorNeedsClose = true;
+        hasCurrent = false;
     }
 
     @Override
@@ -129,6 +135,7 @@ public class InMemoryInvertedListCursor implements IInvertedListCursor {
     @Override
     public void next() throws HyracksDataException {
         btreeCursor.next();
+        hasCurrent = true;
     }
 
     @Override
@@ -210,6 +217,49 @@ public class InMemoryInvertedListCursor implements IInvertedListCursor {
         return containsKey;
     }
 
+    @Override
+    public boolean skipTo(ITupleReference searchTuple, MultiComparator invListCmp) throws HyracksDataException,
+            IndexException {
+        if (hasCurrent && invListCmp.compare(searchTuple, getTuple()) <= 0) {
+            return true;
+        }
+        if (cursorNeedsClose) {
+            // The search key is ahead of the open cursor, and is often close to it.
+            for (int i = 0; i < SKIP_SCAN_LIMIT; i++) {
+                if (!btreeCursor.hasNext()) {
+                    hasCurrent = false;
+                    return false;
+                }
+                btreeCursor.next();
+                hasCurrent = true;
+                if (invListCmp.compare(searchTuple, getTuple()) <= 0) {
+                    return true;
+                }
+            }
+        }
+        // Search the BTree again, from the search key to the end of the token's list.
+        unpinPages();
+        btreeSearchTuple.addTuple(searchTuple);
+        btreePred.setLowKeyComparator(btreeCmp);
+        btreePred.setHighKeyComparator(tokenFieldsCmp);
+        btreePred.setLowKey(btreeSearchTuple, true);
+        btreePred.setHighKey(tokenTuple, true);
+        try {
+            btreeCursor.reset();
+            btreeAccessor.search(btreeCursor, btreePred);
+            cursorNeedsClose = true;
+        } catch (TreeIndexException e) {
+            throw new HyracksDataException(e);
+        } finally {
+            btreeSearchTuple.removeLastTuple();
+        }
+        hasCurrent = btreeCursor.hasNext();
+        if (hasCurrent) {
+            btreeCursor.next();
+        }
+        return hasCurrent;
+    }
+
     @SuppressWarnings("rawtypes")
     @Override
     public String printInvList(ISerializerDeserializer[] serdes) throws HyracksDataException, IndexException {
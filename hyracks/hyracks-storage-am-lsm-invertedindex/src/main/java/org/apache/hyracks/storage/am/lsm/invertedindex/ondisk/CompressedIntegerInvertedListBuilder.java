@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.ondisk;
+
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListBuilder;
+
+/**
+ * Builds inverted lists whose elements are a single, ascending integer key, compressed with frame-of-reference
+ * coding. A list is a sequence of blocks of up to {@link #BLOCK_SIZE} keys. A block starts with a header holding
+ * its key count, its bit width, its first key and its last key, followed by the differences between consecutive
+ * keys, packed with the same number of bits each. The last key lets a cursor skip a block without decoding it.
+ * A block never spans pages. The last block of a list on a page is flagged, so that a cursor knows that the list
+ * continues at the start of the next page.
+ */
+public class CompressedIntegerInvertedListBuilder implements IInvertedListBuilder {
+    static final int BLOCK_SIZE = 128;
+
+    // block header: key count - 1 (byte), bit width | LAST_IN_PAGE (byte), first key (int), last key (int)
+    static final int COUNT_OFF = 0;
+    static final int WIDTH_OFF = 1;
+    static final int FIRST_KEY_OFF = 2;
+    static final int LAST_KEY_OFF = 6;
+    static final int HEADER_SIZE = 10;
+    static final int LAST_IN_PAGE = 0x80;
+
+    private final int[] deltas = new int[BLOCK_SIZE - 1];
+    private int listSize = 0;
+
+    private byte[] targetBuf;
+    private int pos;
+
+    // the header offset of the current block, or -1 if the current list has no block on the target page
+    private int blockStart = -1;
+    private int blockCount;
+    private int bitWidth;
+    private int lastKey;
+
+    public CompressedIntegerInvertedListBuilder(ITypeTraits[] invListFields) {
+        if (!isCompressible(invListFields)) {
+            throw new IllegalArgumentException("Only inverted lists of a single integer key can be compressed.");
+        }
+    }
+
+    public static boolean isCompressible(ITypeTraits[] invListFields) {
+        return invListFields.length == 1 && invListFields[0].isFixedLength()
+                && invListFields[0].getFixedLength() == 4;
+    }
+
+    static int payloadSize(int numDeltas, int bitWidth) {
+        return (numDeltas * bitWidth + 7) >>> 3;
+    }
+
+    @Override
+    public boolean startNewList(ITupleReference tuple, int numTokenFields) {
+        if (pos + HEADER_SIZE > targetBuf.length) {
+            return false;
+        } else {
+            listSize = 0;
+            blockStart = -1;
+            return true;
+        }
+    }
+
+    @Override
+    public boolean appendElement(ITupleReference tuple, int numTokenFields, int numElementFields) {
+        int key = IntegerPointable.getInteger(tuple.getFieldData(numTokenFields),
+                tuple.getFieldStart(numTokenFields));
+        if (blockStart >= 0 && blockCount < BLOCK_SIZE) {
+            int delta = key - lastKey;
+            int width = Math.max(bitWidth, 32 - Integer.numberOfLeadingZeros(delta));
+            int payloadStart = blockStart + HEADER_SIZE;
+            int end = payloadStart + payloadSize(blockCount, width);
+            if (end <= targetBuf.length) {
+                deltas[blockCount - 1] = delta;
+                if (width != bitWidth) {
+                    // the new delta needs more bits, so repack the block
+                    bitWidth = width;
+                    clear(payloadStart, end);
+                    for (int i = 0; i < blockCount; i++) {
+                        pack(payloadStart, i, deltas[i]);
+                    }
+                } else {
+                    clear(pos, end);
+                    pack(payloadStart, blockCount - 1, delta);
+                }
+                blockCount++;
+                lastKey = key;
+                pos = end;
+                targetBuf[blockStart + COUNT_OFF] = (byte) (blockCount - 1);
+                targetBuf[blockStart + WIDTH_OFF] = (byte) bitWidth;
+                IntegerPointable.setInteger(targetBuf, blockStart + LAST_KEY_OFF, key);
+                listSize++;
+                return true;
+            }
+        }
+
+        // start a new block
+        if (pos + HEADER_SIZE > targetBuf.length) {
+            if (blockStart >= 0) {
+                targetBuf[blockStart + WIDTH_OFF] |= LAST_IN_PAGE;
+            }
+            return false;
+        }
+        blockStart = pos;
+        blockCount = 1;
+        bitWidth = 0;
+        lastKey = key;
+        targetBuf[blockStart + COUNT_OFF] = 0;
+        targetBuf[blockStart + WIDTH_OFF] = 0;
+        IntegerPointable.setInteger(targetBuf, blockStart + FIRST_KEY_OFF, key);
+        IntegerPointable.setInteger(targetBuf, blockStart + LAST_KEY_OFF, key);
+        pos += HEADER_SIZE;
+        listSize++;
+        return true;
+    }
+
+    private void clear(int start, int end) {
+        for (int i = start; i < end; i++) {
+            targetBuf[i] = 0;
+        }
+    }
+
+    private void pack(int payloadStart, int deltaIx, int delta) {
+        int bitPos = deltaIx * bitWidth;
+        int off = payloadStart + (bitPos >>> 3);
+        long bits = (delta & 0xFFFFFFFFL) << (bitPos & 7);
+        for (int shift = 0; shift < (bitPos & 7) + bitWidth; shift += 8) {
+            targetBuf[off++] |= (byte) (bits >>> shift);
+        }
+    }
+
+    @Override
+    public void setTargetBuffer(byte[] targetBuf, int startPos) {
+        this.targetBuf = targetBuf;
+        this.pos = startPos;
+        this.blockStart = -1;
+    }
+
+    @Override
+    public int getListSize() {
+        return listSize;
+    }
+
+    @Override
+    public int getPos() {
+        return pos;
+    }
+}
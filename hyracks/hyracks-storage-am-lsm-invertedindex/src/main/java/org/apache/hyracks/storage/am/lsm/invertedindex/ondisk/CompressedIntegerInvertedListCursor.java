@@ -0,0 +1,346 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.ondisk;
+
+import static org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.CompressedIntegerInvertedListBuilder.BLOCK_SIZE;
+import static org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.CompressedIntegerInvertedListBuilder.COUNT_OFF;
+import static org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.CompressedIntegerInvertedListBuilder.FIRST_KEY_OFF;
+import static org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.CompressedIntegerInvertedListBuilder.HEADER_SIZE;
+import static org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.CompressedIntegerInvertedListBuilder.LAST_IN_PAGE;
+import static org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.CompressedIntegerInvertedListBuilder.LAST_KEY_OFF;
+import static org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.CompressedIntegerInvertedListBuilder.WIDTH_OFF;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.ophelpers.MultiComparator;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListCursor;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * Reads the inverted lists written by {@link CompressedIntegerInvertedListBuilder}. Blocks are decoded as a whole
+ * when the cursor first returns one of their keys. {@link #containsKey(ITupleReference, MultiComparator)} skips
+ * the blocks whose last key is smaller than the search key, and continues from the block it stopped at when the
+ * next search key is not smaller, so probing a list with ascending keys reads every header at most once.
+ */
+public class CompressedIntegerInvertedListCursor implements IInvertedListCursor {
+
+    private final IBufferCache bufferCache;
+    private final int fileId;
+
+    private int startPageId;
+    private int endPageId;
+    private int startOff;
+    private int numElements;
+
+    // the number of elements returned by next()
+    private int currentElementIx;
+
+    // the current block; blockPageIx is -1 before the first block is read
+    private int blockPageIx;
+    private int blockOff;
+    private int blockFirstElementIx;
+    private int blockCount;
+    private int bitWidth;
+    private boolean lastInPage;
+    private int firstKey;
+    private int lastKey;
+    private boolean blockDecoded;
+    private final int[] blockKeys = new int[BLOCK_SIZE];
+
+    private final byte[] keyBytes = new byte[4];
+    private final FixedSizeTupleReference tuple;
+    private ICachedPage[] pages = new ICachedPage[10];
+
+    private boolean pinned = false;
+
+    public CompressedIntegerInvertedListCursor(IBufferCache bufferCache, int fileId, ITypeTraits[] invListFields) {
+        this.bufferCache = bufferCache;
+        this.fileId = fileId;
+        this.tuple = new FixedSizeTupleReference(invListFields);
+        this.tuple.reset(keyBytes, 0);
+    }
+
+    @Override
+    public void reset(int startPageId, int endPageId, int startOff, int numElements) {
+        this.startPageId = startPageId;
+        this.endPageId = endPageId;
+        this.startOff = startOff;
+        this.numElements = numElements;
+        this.currentElementIx = 0;
+        this.blockPageIx = -1;
+
+        int numPages = endPageId - startPageId + 1;
+        if (numPages > pages.length) {
+            pages = new ICachedPage[numPages];
+        }
+    }
+
+    @Override
+    public void pinPages() throws HyracksDataException {
+        if (pinned) {
+            return;
+        }
+        int pix = 0;
+        for (int i = startPageId; i <= endPageId; i++) {
+            pages[pix] = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), false);
+            pages[pix].acquireReadLatch();
+            pix++;
+        }
+        pinned = true;
+    }
+
+    @Override
+    public void unpinPages() throws HyracksDataException {
+        int numPages = endPageId - startPageId + 1;
+        for (int i = 0; i < numPages; i++) {
+            pages[i].releaseReadLatch();
+            bufferCache.unpin(pages[i]);
+        }
+        pinned = false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return currentElementIx < numElements;
+    }
+
+    @Override
+    public void next() {
+        if (blockPageIx < 0) {
+            readFirstBlock();
+        } else if (currentElementIx == blockFirstElementIx + blockCount) {
+            readNextBlock();
+        }
+        if (!blockDecoded) {
+            decodeBlock();
+        }
+        IntegerPointable.setInteger(keyBytes, 0, blockKeys[currentElementIx - blockFirstElementIx]);
+        currentElementIx++;
+    }
+
+    @Override
+    public boolean containsKey(ITupleReference searchTuple, MultiComparator invListCmp) {
+        int key = IntegerPointable.getInteger(searchTuple.getFieldData(0), searchTuple.getFieldStart(0));
+        if (numElements == 0) {
+            return false;
+        }
+        if (blockPageIx < 0 || key < firstKey) {
+            readFirstBlock();
+        }
+        while (lastKey < key) {
+            if (blockFirstElementIx + blockCount >= numElements) {
+                return false;
+            }
+            readNextBlock();
+        }
+        // next() continues from the start of the block the search stopped at
+        currentElementIx = blockFirstElementIx;
+        if (key < firstKey) {
+            return false;
+        }
+        if (!blockDecoded) {
+            decodeBlock();
+        }
+        int begin = 0;
+        int end = blockCount - 1;
+        while (begin <= end) {
+            int mid = (begin + end) >>> 1;
+            if (blockKeys[mid] < key) {
+                begin = mid + 1;
+            } else if (blockKeys[mid] > key) {
+                end = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean skipTo(ITupleReference searchTuple, MultiComparator invListCmp) {
+        int key = IntegerPointable.getInteger(searchTuple.getFieldData(0), searchTuple.getFieldStart(0));
+        if (numElements == 0) {
+            return false;
+        }
+        // the index of the current element, or -1 before the first call to next()
+        int current = currentElementIx - 1;
+        if (blockPageIx < 0 || (current < 0 ? blockFirstElementIx != 0 : current < blockFirstElementIx
+                || current >= blockFirstElementIx + blockCount)) {
+            // containsKey() may have moved the block away from the current element
+            readFirstBlock();
+            while (current >= blockFirstElementIx + blockCount) {
+                readNextBlock();
+            }
+        }
+        int from = Math.max(current, 0) - blockFirstElementIx;
+        while (lastKey < key) {
+            if (blockFirstElementIx + blockCount >= numElements) {
+                currentElementIx = numElements;
+                return false;
+            }
+            readNextBlock();
+            from = 0;
+        }
+        if (!blockDecoded) {
+            decodeBlock();
+        }
+        int low = from - 1;
+        int high = blockCount - 1;
+        // the first element not smaller than the key lies in (low, high], as the last key is not smaller
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (blockKeys[mid] < key) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        IntegerPointable.setInteger(keyBytes, 0, blockKeys[high]);
+        // next() continues after the element
+        currentElementIx = blockFirstElementIx + high + 1;
+        return true;
+    }
+
+    private void readFirstBlock() {
+        blockPageIx = 0;
+        blockOff = startOff;
+        blockFirstElementIx = 0;
+        readBlockHeader();
+    }
+
+    private void readNextBlock() {
+        blockFirstElementIx += blockCount;
+        if (lastInPage) {
+            blockPageIx++;
+            blockOff = 0;
+        } else {
+            blockOff += HEADER_SIZE + CompressedIntegerInvertedListBuilder.payloadSize(blockCount - 1, bitWidth);
+        }
+        readBlockHeader();
+    }
+
+    private void readBlockHeader() {
+        byte[] buf = pages[blockPageIx].getBuffer().array();
+        blockCount = (buf[blockOff + COUNT_OFF] & 0xFF) + 1;
+        int width = buf[blockOff + WIDTH_OFF] & 0xFF;
+        bitWidth = width & ~LAST_IN_PAGE;
+        lastInPage = (width & LAST_IN_PAGE) != 0;
+        firstKey = IntegerPointable.getInteger(buf, blockOff + FIRST_KEY_OFF);
+        lastKey = IntegerPointable.getInteger(buf, blockOff + LAST_KEY_OFF);
+        blockDecoded = false;
+    }
+
+    private void decodeBlock() {
+        byte[] buf = pages[blockPageIx].getBuffer().array();
+        int payloadStart = blockOff + HEADER_SIZE;
+        long mask = (1L << bitWidth) - 1;
+        int key = firstKey;
+        blockKeys[0] = key;
+        for (int i = 1; i < blockCount; i++) {
+            int bitPos = (i - 1) * bitWidth;
+            int off = payloadStart + (bitPos >>> 3);
+            int bitOff = bitPos & 7;
+            long bits = 0;
+            for (int shift = 0; shift < bitOff + bitWidth; shift += 8) {
+                bits |= (buf[off++] & 0xFFL) << shift;
+            }
+            key += (int) ((bits >>> bitOff) & mask);
+            blockKeys[i] = key;
+        }
+        blockDecoded = true;
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public String printInvList(ISerializerDeserializer[] serdes) throws HyracksDataException {
+        int oldCurrentElementIx = currentElementIx;
+        int oldBlockPageIx = blockPageIx;
+        int oldBlockOff = blockOff;
+        int oldBlockFirstElementIx = blockFirstElementIx;
+
+        currentElementIx = 0;
+        blockPageIx = -1;
+
+        StringBuilder strBuilder = new StringBuilder();
+        while (hasNext()) {
+            next();
+            strBuilder.append(printCurrentElement(serdes));
+            strBuilder.append(" ");
+        }
+
+        // reset previous state
+        currentElementIx = oldCurrentElementIx;
+        blockPageIx = oldBlockPageIx;
+        blockOff = oldBlockOff;
+        blockFirstElementIx = oldBlockFirstElementIx;
+        if (blockPageIx >= 0) {
+            readBlockHeader();
+        }
+
+        return strBuilder.toString();
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public String printCurrentElement(ISerializerDeserializer[] serdes) throws HyracksDataException {
+        ByteArrayInputStream inStream = new ByteArrayInputStream(tuple.getFieldData(0), tuple.getFieldStart(0),
+                tuple.getFieldLength(0));
+        DataInput dataIn = new DataInputStream(inStream);
+        return serdes[0].deserialize(dataIn).toString();
+    }
+
+    @Override
+    public int compareTo(IInvertedListCursor invListCursor) {
+        return numElements - invListCursor.size();
+    }
+
+    @Override
+    public int getEndPageId() {
+        return endPageId;
+    }
+
+    @Override
+    public int size() {
+        return numElements;
+    }
+
+    @Override
+    public int getStartOff() {
+        return startOff;
+    }
+
+    @Override
+    public int getStartPageId() {
+        return startPageId;
+    }
+
+    @Override
+    public ITupleReference getTuple() {
+        return tuple;
+    }
+}
@@ -154,6 +154,53 @@ public class FixedSizeElementInvertedListCursor implements IInvertedListCursor {
         return false;
     }
 
+    @Override
+    public boolean skipTo(ITupleReference searchTuple, MultiComparator invListCmp) throws HyracksDataException {
+        // the index of the current element, or -1 before the first call to next()
+        int current = currentElementIx - 1;
+        if (current >= 0) {
+            positionCursor(current);
+            if (invListCmp.compare(searchTuple, tuple) <= 0) {
+                currentElementIx = current + 1;
+                return true;
+            }
+        }
+        // gallop until an element is not smaller than the search key, then binary search the last step
+        int low = current;
+        int step = 1;
+        int high = current + step;
+        while (high < numElements) {
+            positionCursor(high);
+            if (invListCmp.compare(searchTuple, tuple) <= 0) {
+                break;
+            }
+            low = high;
+            step <<= 1;
+            high = low + step;
+        }
+        if (high >= numElements) {
+            high = numElements;
+        }
+        // the first matching element lies in (low, high]; high == numElements if there is none
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            positionCursor(mid);
+            if (invListCmp.compare(searchTuple, tuple) <= 0) {
+                high = mid;
+            } else {
+                low = mid;
+            }
+        }
+        if (high >= numElements) {
+            currentElementIx = numElements;
+            return false;
+        }
+        positionCursor(high);
+        // next() continues after the element
+        currentElementIx = high + 1;
+        return true;
+    }
+
     @Override
     public void reset(int startPageId, int endPageId, int startOff, int numElements) {
         this.startPageId = startPageId;
@@ -94,6 +94,14 @@ public class OnDiskInvertedIndex implements IInvertedIndex {
         btreeValueTypeTraits[3] = IntegerPointable.TYPE_TRAITS;
     }
 
+    // A bulk load ends the inverted-lists file with a page that records the layout of its lists.
+    // Files without that page were written before the layout was recorded and hold fixed-size elements.
+    private static final int LIST_FORMAT_MAGIC_OFFSET = 0; // 0
+    private static final int LIST_FORMAT_OFFSET = LIST_FORMAT_MAGIC_OFFSET + 8; // 8
+    private static final long LIST_FORMAT_MAGIC = 0x494e564c49535453L;
+    public static final int LIST_FORMAT_FIXED_SIZE = 0;
+    public static final int LIST_FORMAT_COMPRESSED_INTEGER = 1;
+
     protected BTree btree;
     protected int rootPageId = 0;
     protected IBufferCache bufferCache;
@@ -109,6 +117,8 @@ public class OnDiskInvertedIndex implements IInvertedIndex {
     protected final FileReference invListsFile;
     // Last page id of inverted-lists file (inclusive). Set during bulk load.
     protected int invListsMaxPageId = -1;
+    // Layout of the lists in the inverted-lists file. Read from the file on activation, set during bulk load.
+    protected int listFormat;
     protected boolean isOpen = false;
     protected boolean wasOpen = false;
 
@@ -133,6 +143,7 @@ public class OnDiskInvertedIndex implements IInvertedIndex {
         this.invListEndPageIdField = numTokenFields + 1;
         this.invListStartOffField = numTokenFields + 2;
         this.invListNumElementsField = numTokenFields + 3;
+        this.listFormat = getBuilderListFormat();
     }
 
     @Override
@@ -198,11 +209,35 @@ public class OnDiskInvertedIndex implements IInvertedIndex {
                 throw e;
             }
         }
+        listFormat = readListFormat();
 
         isOpen = true;
         wasOpen = true;
     }
 
+    private int getBuilderListFormat() {
+        return invListBuilder instanceof CompressedIntegerInvertedListBuilder ? LIST_FORMAT_COMPRESSED_INTEGER
+                : LIST_FORMAT_FIXED_SIZE;
+    }
+
+    private int readListFormat() throws HyracksDataException {
+        int numPages = bufferCache.getNumPagesOfFile(fileId);
+        if (numPages == 0) {
+            // Nothing has been loaded yet, the lists will be written by our builder.
+            return getBuilderListFormat();
+        }
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, numPages - 1), false);
+        page.acquireReadLatch();
+        try {
+            ByteBuffer buf = page.getBuffer();
+            return buf.getLong(LIST_FORMAT_MAGIC_OFFSET) == LIST_FORMAT_MAGIC ? buf.getInt(LIST_FORMAT_OFFSET)
+                    : LIST_FORMAT_FIXED_SIZE;
+        } finally {
+            page.releaseReadLatch();
+            bufferCache.unpin(page);
+        }
+    }
+
     @Override
     public synchronized void deactivate() throws HyracksDataException {
         if (!isOpen && wasOpen) {
@@ -259,10 +294,14 @@ public class OnDiskInvertedIndex implements IInvertedIndex {
                 throw e;
             }
         }
+        listFormat = getBuilderListFormat();
     }
 
     @Override
     public IInvertedListCursor createInvertedListCursor() {
+        if (listFormat == LIST_FORMAT_COMPRESSED_INTEGER) {
+            return new CompressedIntegerInvertedListCursor(bufferCache, fileId, invListTypeTraits);
+        }
         return new FixedSizeElementInvertedListCursor(bufferCache, fileId, invListTypeTraits);
     }
 
@@ -452,6 +491,16 @@ public class OnDiskInvertedIndex implements IInvertedIndex {
                 queue.put(currentPage);
             }
             invListsMaxPageId = currentPageId;
+
+            // Record the layout of the lists on the page following the last list page.
+            int builderListFormat = getBuilderListFormat();
+            ICachedPage formatPage = bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId,
+                    currentPageId + 1));
+            formatPage.getBuffer().putLong(LIST_FORMAT_MAGIC_OFFSET, LIST_FORMAT_MAGIC);
+            formatPage.getBuffer().putInt(LIST_FORMAT_OFFSET, builderListFormat);
+            queue.put(formatPage);
+            listFormat = builderListFormat;
+
             bufferCache.finishQueue();
         }
 
@@ -476,6 +525,10 @@ public class OnDiskInvertedIndex implements IInvertedIndex {
         return invListsMaxPageId;
     }
 
+    public int getListFormat() {
+        return listFormat;
+    }
+
     public IBinaryComparatorFactory[] getInvListCmpFactories() {
         return invListCmpFactories;
     }
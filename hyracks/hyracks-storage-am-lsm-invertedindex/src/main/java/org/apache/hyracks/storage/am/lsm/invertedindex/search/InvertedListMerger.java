@@ -73,19 +73,34 @@ public class InvertedListMerger {
                 mergePrefixList(invListCursor, prevSearchResult, result);
             } else {
                 // Merge suffix list.
-                int numInvListElements = invListCursor.size();
-                int currentNumResults = prevSearchResult.getNumResults();
-                // Should we binary search the next list or should we sort-merge it?
-                if (currentNumResults * Math.log(numInvListElements) < currentNumResults + numInvListElements) {
-                    mergeSuffixListProbe(invListCursor, prevSearchResult, result, i, numInvLists, occurrenceThreshold);
-                } else {
-                    mergeSuffixListScan(invListCursor, prevSearchResult, result, i, numInvLists, occurrenceThreshold);
-                }
+                mergeSuffixList(invListCursor, prevSearchResult, result, i, numInvLists, occurrenceThreshold);
             }
             invListCursor.unpinPages();
         }
     }
 
+    protected void mergeSuffixList(IInvertedListCursor invListCursor, SearchResult prevSearchResult,
+            SearchResult newSearchResult, int invListIx, int numInvLists, int occurrenceThreshold)
+            throws HyracksDataException, IndexException {
+        int numInvListElements = invListCursor.size();
+        int currentNumResults = prevSearchResult.getNumResults();
+        // Should we binary search the next list, gallop through it, or sort-merge it?
+        double probeCost = currentNumResults * Math.log(numInvListElements);
+        double scanCost = currentNumResults + numInvListElements;
+        double gallopCost = currentNumResults == 0 ? 0 : 2 * currentNumResults
+                * Math.log((double) numInvListElements / currentNumResults + 1);
+        if (probeCost <= gallopCost && probeCost < scanCost) {
+            mergeSuffixListProbe(invListCursor, prevSearchResult, newSearchResult, invListIx, numInvLists,
+                    occurrenceThreshold);
+        } else if (gallopCost < scanCost) {
+            mergeSuffixListGallop(invListCursor, prevSearchResult, newSearchResult, invListIx, numInvLists,
+                    occurrenceThreshold);
+        } else {
+            mergeSuffixListScan(invListCursor, prevSearchResult, newSearchResult, invListIx, numInvLists,
+                    occurrenceThreshold);
+        }
+    }
+
     protected void mergeSuffixListProbe(IInvertedListCursor invListCursor, SearchResult prevSearchResult,
             SearchResult newSearchResult, int invListIx, int numInvLists, int occurrenceThreshold)
             throws HyracksDataException, IndexException {
@@ -127,6 +142,61 @@ public class InvertedListMerger {
         }
     }
 
+    /**
+     * Like {@link #mergeSuffixListProbe}, but moves through the list with {@link IInvertedListCursor#skipTo}, which
+     * gallops forward from the previous match and skips whole blocks of compressed lists, instead of searching the
+     * whole list for every result.
+     */
+    protected void mergeSuffixListGallop(IInvertedListCursor invListCursor, SearchResult prevSearchResult,
+            SearchResult newSearchResult, int invListIx, int numInvLists, int occurrenceThreshold)
+            throws HyracksDataException, IndexException {
+
+        int prevBufIdx = 0;
+        int maxPrevBufIdx = prevSearchResult.getCurrentBufferIndex();
+        ByteBuffer prevCurrentBuffer = prevSearchResult.getBuffers().get(0);
+
+        FixedSizeFrameTupleAccessor resultFrameTupleAcc = prevSearchResult.getAccessor();
+        FixedSizeTupleReference resultTuple = prevSearchResult.getTuple();
+
+        int resultTidx = 0;
+        boolean invListExhausted = false;
+
+        resultFrameTupleAcc.reset(prevCurrentBuffer);
+
+        while (resultTidx < resultFrameTupleAcc.getTupleCount()) {
+
+            resultTuple.reset(prevCurrentBuffer.array(), resultFrameTupleAcc.getTupleStartOffset(resultTidx));
+            int count = IntegerPointable.getInteger(resultTuple.getFieldData(0), resultTuple.getFieldStart(resultTuple.getFieldCount() - 1));
+
+            boolean found = false;
+            if (!invListExhausted) {
+                if (invListCursor.skipTo(resultTuple, invListCmp)) {
+                    found = invListCmp.compare(invListCursor.getTuple(), resultTuple) == 0;
+                } else {
+                    invListExhausted = true;
+                }
+            }
+            if (found) {
+                count++;
+                newSearchResult.append(resultTuple, count);
+            } else {
+                if (count + numInvLists - invListIx > occurrenceThreshold) {
+                    newSearchResult.append(resultTuple, count);
+                }
+            }
+
+            resultTidx++;
+            if (resultTidx >= resultFrameTupleAcc.getTupleCount()) {
+                prevBufIdx++;
+                if (prevBufIdx <= maxPrevBufIdx) {
+                    prevCurrentBuffer = prevSearchResult.getBuffers().get(prevBufIdx);
+                    resultFrameTupleAcc.reset(prevCurrentBuffer);
+                    resultTidx = 0;
+                }
+            }
+        }
+    }
+
     protected void mergeSuffixListScan(IInvertedListCursor invListCursor, SearchResult prevSearchResult,
             SearchResult newSearchResult, int invListIx, int numInvLists, int occurrenceThreshold)
             throws HyracksDataException, IndexException {
@@ -59,6 +59,7 @@ import org.apache.hyracks.storage.am.lsm.common.api.LSMOperationType;
 import org.apache.hyracks.storage.am.lsm.common.impls.BlockingIOOperationCallbackWrapper;
 import org.apache.hyracks.storage.am.lsm.common.impls.ExternalIndexHarness;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFileReferences;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMMergeThrottle;
 import org.apache.hyracks.storage.am.lsm.common.impls.TreeIndexFactory;
 import org.apache.hyracks.storage.am.rtree.impls.RTree;
 import org.apache.hyracks.storage.am.rtree.impls.SearchPredicate;
@@ -333,6 +334,7 @@ public class ExternalRTree extends LSMRTree implements ITwoPCIndex {
                 cursor.next();
                 ITupleReference frameTuple = cursor.getTuple();
                 bulkLoader.add(frameTuple);
+                LSMMergeThrottle.tupleMerged(frameTuple);
             }
         } finally {
             cursor.close();
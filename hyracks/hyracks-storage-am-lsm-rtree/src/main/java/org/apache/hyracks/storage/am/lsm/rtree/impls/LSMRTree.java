@@ -68,6 +68,7 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMOperationTracker;
 import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFileReferences;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFilterManager;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMMergeThrottle;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMTreeIndexAccessor;
 import org.apache.hyracks.storage.am.lsm.common.impls.TreeIndexFactory;
 import org.apache.hyracks.storage.am.rtree.impls.RTree;
@@ -405,6 +406,7 @@ public class LSMRTree extends AbstractLSMRTree {
                 cursor.next();
                 ITupleReference frameTuple = cursor.getTuple();
                 bulkLoader.add(frameTuple);
+                LSMMergeThrottle.tupleMerged(frameTuple);
             }
         } finally {
             cursor.close();
@@ -33,6 +33,8 @@ import java.util.logging.Logger;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IFileHandle;
+import org.apache.hyracks.api.io.IIOCallback;
+import org.apache.hyracks.api.io.IIOFuture;
 import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponent;
 import org.apache.hyracks.api.replication.IIOReplicationManager;
@@ -51,7 +53,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
     private final int maxOpenFiles;
     final IIOManager ioManager;
     private final CacheBucket[] pageMap;
-    private final IPageReplacementStrategy pageReplacementStrategy;
+    protected final IPageReplacementStrategy pageReplacementStrategy;
     private final IPageCleanerPolicy pageCleanerPolicy;
     private final IFileMapManager fileMapManager;
     private final CleanerThread cleanerThread;
@@ -64,7 +66,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
     private HashMap<CachedPage, StackTraceElement[]> confiscatedPagesOwner;
     private ConcurrentHashMap<CachedPage, StackTraceElement[]> pinnedPageOwner;
     //!DEBUG
-    private IIOReplicationManager ioReplicationManager;
+    protected IIOReplicationManager ioReplicationManager;
     public List<ICachedPageInternal> cachedPages = new ArrayList<ICachedPageInternal>();
 
     private boolean closed;
@@ -72,11 +74,31 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
     public BufferCache(IIOManager ioManager, IPageReplacementStrategy pageReplacementStrategy,
             IPageCleanerPolicy pageCleanerPolicy, IFileMapManager fileMapManager, int maxOpenFiles,
             ThreadFactory threadFactory) {
+        this(ioManager, pageReplacementStrategy, pageCleanerPolicy, fileMapManager, maxOpenFiles, threadFactory,
+                pageReplacementStrategy.getMaxAllowedNumPages() * MAP_FACTOR + 1);
+    }
+
+    //this constructor is used when replication is enabled to pass the IIOReplicationManager
+    public BufferCache(IIOManager ioManager, IPageReplacementStrategy pageReplacementStrategy,
+            IPageCleanerPolicy pageCleanerPolicy, IFileMapManager fileMapManager, int maxOpenFiles,
+            ThreadFactory threadFactory, IIOReplicationManager ioReplicationManager) {
+
+        this(ioManager, pageReplacementStrategy, pageCleanerPolicy, fileMapManager, maxOpenFiles, threadFactory);
+        this.ioReplicationManager = ioReplicationManager;
+    }
+
+    /**
+     * Used by subclasses that keep their own page table. The bucket page map is only allocated if
+     * pageMapSize is positive, and every method that touches it must then be overridden.
+     */
+    protected BufferCache(IIOManager ioManager, IPageReplacementStrategy pageReplacementStrategy,
+            IPageCleanerPolicy pageCleanerPolicy, IFileMapManager fileMapManager, int maxOpenFiles,
+            ThreadFactory threadFactory, int pageMapSize) {
         this.ioManager = ioManager;
         this.pageSize = pageReplacementStrategy.getPageSize();
         this.maxOpenFiles = maxOpenFiles;
         pageReplacementStrategy.setBufferCache(this);
-        pageMap = new CacheBucket[pageReplacementStrategy.getMaxAllowedNumPages() * MAP_FACTOR + 1];
+        pageMap = new CacheBucket[pageMapSize];
         for (int i = 0; i < pageMap.length; ++i) {
             pageMap[i] = new CacheBucket();
         }
@@ -85,7 +107,9 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         this.fileMapManager = fileMapManager;
 
         Executor executor = Executors.newCachedThreadPool(threadFactory);
-        fileInfoMap = new HashMap<Integer, BufferedFileHandle>();
+        // Mutations of the map are still serialized by synchronizing on it, but lookups on the
+        // read/write path do not take the monitor.
+        fileInfoMap = new ConcurrentHashMap<Integer, BufferedFileHandle>();
         virtualFiles = new HashSet<Integer>();
         cleanerThread = new CleanerThread();
         executor.execute(cleanerThread);
@@ -100,15 +124,6 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         }
     }
 
-    //this constructor is used when replication is enabled to pass the IIOReplicationManager
-    public BufferCache(IIOManager ioManager, IPageReplacementStrategy pageReplacementStrategy,
-            IPageCleanerPolicy pageCleanerPolicy, IFileMapManager fileMapManager, int maxOpenFiles,
-            ThreadFactory threadFactory, IIOReplicationManager ioReplicationManager) {
-
-        this(ioManager, pageReplacementStrategy, pageCleanerPolicy, fileMapManager, maxOpenFiles, threadFactory);
-        this.ioReplicationManager = ioReplicationManager;
-    }
-
     @Override
     public int getPageSize() {
         return pageSize;
@@ -119,17 +134,14 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         return pageReplacementStrategy.getMaxAllowedNumPages();
     }
 
-    private void pinSanityCheck(long dpid) throws HyracksDataException {
+    protected void pinSanityCheck(long dpid) throws HyracksDataException {
         if (closed) {
             throw new HyracksDataException("pin called on a closed cache");
         }
 
         // check whether file has been created and opened
         int fileId = BufferedFileHandle.getFileId(dpid);
-        BufferedFileHandle fInfo = null;
-        synchronized (fileInfoMap) {
-            fInfo = fileInfoMap.get(fileId);
-        }
+        BufferedFileHandle fInfo = fileInfoMap.get(fileId);
         if (fInfo == null && !virtualFiles.contains(fileId)) {
             throw new HyracksDataException("pin called on a fileId " + fileId + " that has not been created.");
         } else if (fInfo != null && fInfo.getReferenceCount() <= 0) {
@@ -187,14 +199,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                     confiscateLock.unlock();
                 }
             }
-            // Resolve race of multiple threads trying to read the page from
-            // disk.
-            synchronized (cPage) {
-                if (!cPage.valid) {
-                    read(cPage);
-                    cPage.valid = true;
-                }
-            }
+            makeValid(cPage);
         } else {
             cPage.valid = true;
         }
@@ -207,14 +212,114 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
 
 
 
+    @Override
+    public void pinAll(long[] dpids, ICachedPage[] pages, int count) throws HyracksDataException {
+        int nPinned = 0;
+        try {
+            while (nPinned < count) {
+                if (DEBUG) {
+                    pinSanityCheck(dpids[nPinned]);
+                }
+                CachedPage cPage = findPage(dpids[nPinned], false);
+                // counted before the read starts, so that a failed read still releases the pin
+                pages[nPinned++] = cPage;
+                startRead(cPage);
+            }
+            for (int i = 0; i < count; ++i) {
+                CachedPage cPage = (CachedPage) pages[i];
+                makeValid(cPage);
+                pageReplacementStrategy.notifyCachePageAccess(cPage);
+            }
+        } catch (HyracksDataException e) {
+            for (int i = 0; i < nPinned; ++i) {
+                ((CachedPage) pages[i]).pinCount.decrementAndGet();
+                pages[i] = null;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void prefetch(long dpid, int count) throws HyracksDataException {
+        int fileId = BufferedFileHandle.getFileId(dpid);
+        synchronized (virtualFiles) {
+            if (virtualFiles.contains(fileId)) {
+                return;
+            }
+        }
+        int startPageId = BufferedFileHandle.getPageId(dpid);
+        int endPageId = Math.min(startPageId + count, getNumPagesOfFile(fileId));
+        for (int pageId = startPageId; pageId < endPageId; ++pageId) {
+            CachedPage cPage = findPage(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+            try {
+                startRead(cPage);
+            } finally {
+                cPage.pinCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Reads the page contents unless they are valid already, or waits for a read started by
+     * {@link #startRead(CachedPage)}.
+     */
+    private void makeValid(CachedPage cPage) throws HyracksDataException {
+        // Resolve race of multiple threads trying to read the page from
+        // disk. valid is volatile, so the monitor is only needed on a miss.
+        if (!cPage.valid) {
+            synchronized (cPage) {
+                if (!cPage.valid) {
+                    IIOFuture pendingRead = cPage.pendingRead;
+                    if (pendingRead != null) {
+                        cPage.pendingRead = null;
+                        try {
+                            pendingRead.synchronize();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new HyracksDataException(e);
+                        }
+                    } else {
+                        read(cPage);
+                    }
+                    cPage.valid = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts an asynchronous read of the page contents unless they are valid or being read already.
+     * The read holds a pin of its own until it completes, so the page cannot be evicted while the
+     * I/O is in flight.
+     */
+    private void startRead(final CachedPage cPage) throws HyracksDataException {
+        if (cPage.valid || cPage.pendingRead != null) {
+            return;
+        }
+        synchronized (cPage) {
+            if (!cPage.valid && cPage.pendingRead == null) {
+                BufferedFileHandle fInfo = getFileInfo(cPage);
+                cPage.buffer.clear();
+                cPage.pinCount.incrementAndGet();
+                cPage.pendingRead = ioManager.asyncRead(fInfo.getFileHandle(),
+                        (long) BufferedFileHandle.getPageId(cPage.dpid) * pageSize, cPage.buffer, new IIOCallback() {
+                            @Override
+                            public void completed(IIOFuture future) {
+                                cPage.pinCount.decrementAndGet();
+                            }
+                        });
+            }
+        }
+    }
+
     private boolean isVirtual(long vpid) throws HyracksDataException {
         CachedPage virtPage = findPage(vpid, true);
         return virtPage.confiscated.get();
     }
 
-    private CachedPage findPage(long dpid, boolean virtual) throws HyracksDataException {
+    protected CachedPage findPage(long dpid, boolean virtual) throws HyracksDataException {
         while (true) {
-            int startCleanedCount = cleanerThread.cleanedCount;
+            int startCleanedCount = getCleanedCount();
 
             CachedPage cPage = null;
             /*
@@ -417,27 +522,39 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                     return victim;
                 }
             }
-            synchronized (cleanerThread) {
-                pageCleanerPolicy.notifyVictimNotFound(cleanerThread);
-            }
-            // Heuristic optimization. Check whether the cleaner thread has
-            // cleaned pages since we did our last pin attempt.
-            if (cleanerThread.cleanedCount - startCleanedCount > MIN_CLEANED_COUNT_DIFF) {
-                // Don't go to sleep and wait for notification from the cleaner,
-                // just try to pin again immediately.
-                continue;
-            }
-            synchronized (cleanerThread.cleanNotification) {
-                try {
-                    cleanerThread.cleanNotification.wait(PIN_MAX_WAIT_TIME);
-                } catch (InterruptedException e) {
-                    // Do nothing
-                }
+            waitForCleanedPages(startCleanedCount);
+        }
+    }
+
+    protected int getCleanedCount() {
+        return cleanerThread.cleanedCount;
+    }
+
+    /**
+     * Called when no victim could be found. Kicks the cleaner thread and, unless it has made
+     * progress since startCleanedCount was sampled, waits briefly for it to clean some pages.
+     */
+    protected void waitForCleanedPages(int startCleanedCount) throws HyracksDataException {
+        synchronized (cleanerThread) {
+            pageCleanerPolicy.notifyVictimNotFound(cleanerThread);
+        }
+        // Heuristic optimization. Check whether the cleaner thread has
+        // cleaned pages since we did our last pin attempt.
+        if (cleanerThread.cleanedCount - startCleanedCount > MIN_CLEANED_COUNT_DIFF) {
+            // Don't go to sleep and wait for notification from the cleaner,
+            // just try to pin again immediately.
+            return;
+        }
+        synchronized (cleanerThread.cleanNotification) {
+            try {
+                cleanerThread.cleanNotification.wait(PIN_MAX_WAIT_TIME);
+            } catch (InterruptedException e) {
+                // Do nothing
             }
         }
     }
 
-    private String dumpState() {
+    protected String dumpState() {
         StringBuilder buffer = new StringBuilder();
         buffer.append("Buffer cache state\n");
         buffer.append("Page Size: ").append(pageSize).append('\n');
@@ -505,7 +622,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         return true;
     }
 
-    private boolean canFindValidCachedPage(long dpid){
+    protected boolean canFindValidCachedPage(long dpid){
         int hash = hash(dpid);
         CachedPage cPage = null;
         CacheBucket bucket = pageMap[hash];
@@ -537,13 +654,11 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
     }
 
     BufferedFileHandle getFileInfo(int fileId) throws HyracksDataException {
-        synchronized (fileInfoMap) {
-            BufferedFileHandle fInfo = fileInfoMap.get(fileId);
-            if (fInfo == null) {
-                throw new HyracksDataException("No such file mapped");
-            }
-            return fInfo;
+        BufferedFileHandle fInfo = fileInfoMap.get(fileId);
+        if (fInfo == null) {
+            throw new HyracksDataException("No such file mapped");
         }
+        return fInfo;
     }
 
     void write(CachedPage cPage) throws HyracksDataException {
@@ -784,7 +899,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         }
     }
 
-    private void sweepAndFlush(int fileId, boolean flushDirtyPages) throws HyracksDataException {
+    protected void sweepAndFlush(int fileId, boolean flushDirtyPages) throws HyracksDataException {
         for (int i = 0; i < pageMap.length; ++i) {
             final CacheBucket bucket = pageMap[i];
             bucket.bucketLock.lock();
@@ -816,7 +931,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
         }
     }
 
-    private boolean invalidateIfFileIdMatch(int fileId, CachedPage cPage, boolean flushDirtyPages)
+    protected boolean invalidateIfFileIdMatch(int fileId, CachedPage cPage, boolean flushDirtyPages)
             throws HyracksDataException {
         if (BufferedFileHandle.getFileId(cPage.dpid) == fileId) {
             int pinCount = -1;
@@ -872,10 +987,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
 
     @Override
     public void force(int fileId, boolean metadata) throws HyracksDataException {
-        BufferedFileHandle fInfo = null;
-        synchronized (fileInfoMap) {
-            fInfo = fileInfoMap.get(fileId);
-        }
+        BufferedFileHandle fInfo = fileInfoMap.get(fileId);
         ioManager.sync(fInfo.getFileHandle(), metadata);
     }
 
@@ -982,7 +1094,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
     @Override
     public ICachedPage confiscatePage(long dpid) throws HyracksDataException {
         while (true) {
-            int startCleanedCount = cleanerThread.cleanedCount;
+            int startCleanedCount = getCleanedCount();
             ICachedPage returnPage = null;
             CachedPage victim = (CachedPage) pageReplacementStrategy.findVictim();
             if (victim != null) {
@@ -1069,23 +1181,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent {
                 return returnPage;
             }
             // no page available to confiscate. try kicking the cleaner thread.
-            synchronized (cleanerThread) {
-                pageCleanerPolicy.notifyVictimNotFound(cleanerThread);
-            }
-            // Heuristic optimization. Check whether the cleaner thread has
-            // cleaned pages since we did our last pin attempt.
-            if (cleanerThread.cleanedCount - startCleanedCount > MIN_CLEANED_COUNT_DIFF) {
-                // Don't go to sleep and wait for notification from the cleaner,
-                // just try to pin again immediately.
-                continue;
-            }
-            synchronized (cleanerThread.cleanNotification) {
-                try {
-                    cleanerThread.cleanNotification.wait(PIN_MAX_WAIT_TIME);
-                } catch (InterruptedException e) {
-                    // Do nothing
-                }
-            }
+            waitForCleanedPages(startCleanedCount);
         }
     }
 
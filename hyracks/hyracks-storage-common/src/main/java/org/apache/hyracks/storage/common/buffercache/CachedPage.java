@@ -23,10 +23,15 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.apache.hyracks.api.io.IIOFuture;
+
 /**
  * @author yingyib
  */
 public class CachedPage implements ICachedPageInternal {
+    // pinCount value of a page that is being removed from a lock-free page table
+    static final int EVICTING = Integer.MIN_VALUE;
+
     final int cpid;
     final ByteBuffer buffer;
     public final AtomicInteger pinCount;
@@ -37,6 +42,8 @@ public class CachedPage implements ICachedPageInternal {
     volatile long dpid; // disk page id (composed of file id and page id)
     CachedPage next;
     volatile boolean valid;
+    // asynchronous read of the page contents that nobody has waited on yet
+    volatile IIOFuture pendingRead;
     final AtomicBoolean confiscated;
     private IQueueInfo queueInfo;
 
@@ -71,6 +78,7 @@ public class CachedPage implements ICachedPageInternal {
         this.dpid = dpid;
         dirty.set(false);
         valid = false;
+        pendingRead = null;
         confiscated.set(false);
         pageReplacementStrategy.notifyCachePageReset(this);
         queueInfo = null;
@@ -99,6 +107,34 @@ public class CachedPage implements ICachedPageInternal {
         }
     }
 
+    /**
+     * Pins the page unless it is being evicted. Callers that found the page without holding a lock
+     * must re-check the dpid after a successful pin.
+     */
+    boolean pinIfNotEvicting() {
+        while (true) {
+            int count = pinCount.get();
+            if (count < 0) {
+                return false;
+            }
+            if (pinCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Moves a victim pinned only by the caller into the evicting state, so that optimistic
+     * pinners skip it. Fails if someone else pinned the page in the meantime.
+     */
+    boolean beginEviction() {
+        return pinCount.compareAndSet(1, EVICTING);
+    }
+
+    void endEviction() {
+        pinCount.set(1);
+    }
+
     @Override
     public int getCachedPageId() {
         return cpid;
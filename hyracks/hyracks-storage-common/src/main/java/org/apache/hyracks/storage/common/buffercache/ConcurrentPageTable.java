@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * Page table mapping dpids to cached pages, split into lock-striped segments. Each segment is an
+ * open-addressing (linear probing) table. Lookups never lock: they probe the slots, pin a matching
+ * page optimistically and validate the probe against the segment's sequence number. Inserts and
+ * removals lock their segment and use backward-shift deletion, so no tombstones accumulate.
+ */
+class ConcurrentPageTable {
+    private static final int MAX_SEGMENTS = 64;
+    private static final int PAGES_PER_SEGMENT = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    ConcurrentPageTable(int numPages) {
+        int nSegments = 1;
+        while (nSegments < MAX_SEGMENTS && nSegments * PAGES_PER_SEGMENT < numPages) {
+            nSegments <<= 1;
+        }
+        segments = new Segment[nSegments];
+        segmentShift = 32 - Integer.numberOfTrailingZeros(nSegments);
+        // keep each segment at most half full while the cache is evenly spread
+        int capacity = MIN_SEGMENT_CAPACITY;
+        while (capacity < 2 * ((numPages + nSegments - 1) / nSegments)) {
+            capacity <<= 1;
+        }
+        for (int i = 0; i < nSegments; ++i) {
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    private static int hash(long dpid) {
+        long h = dpid * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private Segment segmentFor(int hash) {
+        return segmentShift == 32 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    /**
+     * @return the page for dpid, pinned, or null if no pinnable page with that dpid is mapped.
+     */
+    CachedPage pin(long dpid) {
+        int h = hash(dpid);
+        Segment seg = segmentFor(h);
+        while (true) {
+            int seq = seg.seq;
+            if ((seq & 1) == 0) {
+                AtomicReferenceArray<CachedPage> slots = seg.slots;
+                int mask = slots.length() - 1;
+                int idx = h & mask;
+                for (int n = 0; n <= mask; ++n) {
+                    CachedPage cPage = slots.get(idx);
+                    if (cPage == null) {
+                        break;
+                    }
+                    if (cPage.dpid == dpid && cPage.pinIfNotEvicting()) {
+                        if (cPage.dpid == dpid) {
+                            return cPage;
+                        }
+                        // the page was recycled between the probe and the pin
+                        cPage.pinCount.decrementAndGet();
+                    }
+                    idx = (idx + 1) & mask;
+                }
+                if (seg.seq == seq) {
+                    return null;
+                }
+            }
+            // a writer moved entries while we were probing; retry
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Maps cPage under its current dpid unless a pinnable page with the same dpid is already mapped.
+     *
+     * @return the existing page, pinned, or null if cPage was inserted.
+     */
+    CachedPage putIfAbsent(CachedPage cPage) {
+        long dpid = cPage.dpid;
+        int h = hash(dpid);
+        Segment seg = segmentFor(h);
+        seg.lock.lock();
+        try {
+            AtomicReferenceArray<CachedPage> slots = seg.slots;
+            int mask = slots.length() - 1;
+            int idx = h & mask;
+            CachedPage existing;
+            while ((existing = slots.get(idx)) != null) {
+                if (existing.dpid == dpid && existing.pinIfNotEvicting()) {
+                    return existing;
+                }
+                idx = (idx + 1) & mask;
+            }
+            seg.insert(cPage, h);
+            return null;
+        } finally {
+            seg.lock.unlock();
+        }
+    }
+
+    /**
+     * Maps cPage under its current dpid. An older page with the same dpid stays mapped, but is
+     * shadowed by cPage for lookups.
+     */
+    void put(CachedPage cPage) {
+        int h = hash(cPage.dpid);
+        Segment seg = segmentFor(h);
+        seg.lock.lock();
+        try {
+            seg.insert(cPage, h);
+        } finally {
+            seg.lock.unlock();
+        }
+    }
+
+    /**
+     * Unmaps cPage, which must still carry the dpid it was mapped under.
+     *
+     * @return false if cPage was not mapped.
+     */
+    boolean remove(CachedPage cPage) {
+        int h = hash(cPage.dpid);
+        Segment seg = segmentFor(h);
+        seg.lock.lock();
+        try {
+            int idx = seg.indexOf(cPage, h);
+            if (idx < 0) {
+                return false;
+            }
+            seg.delete(idx);
+            return true;
+        } finally {
+            seg.lock.unlock();
+        }
+    }
+
+    /**
+     * Unmaps all pages of fileId and hands each of them to the buffer cache for invalidation while
+     * the segment is still locked, so that a concurrent eviction never sees a half-swept page.
+     */
+    void sweep(int fileId, BufferCache bufferCache, boolean flushDirtyPages)
+            throws HyracksDataException {
+        List<CachedPage> matches = new ArrayList<CachedPage>();
+        for (Segment seg : segments) {
+            seg.lock.lock();
+            try {
+                matches.clear();
+                AtomicReferenceArray<CachedPage> slots = seg.slots;
+                for (int i = 0; i < slots.length(); ++i) {
+                    CachedPage cPage = slots.get(i);
+                    if (cPage != null && BufferedFileHandle.getFileId(cPage.dpid) == fileId) {
+                        matches.add(cPage);
+                    }
+                }
+                for (CachedPage cPage : matches) {
+                    seg.delete(seg.indexOf(cPage, hash(cPage.dpid)));
+                    bufferCache.invalidateIfFileIdMatch(fileId, cPage, flushDirtyPages);
+                }
+            } finally {
+                seg.lock.unlock();
+            }
+        }
+    }
+
+    boolean contains(long dpid) {
+        int h = hash(dpid);
+        Segment seg = segmentFor(h);
+        seg.lock.lock();
+        try {
+            AtomicReferenceArray<CachedPage> slots = seg.slots;
+            int mask = slots.length() - 1;
+            for (int idx = h & mask; slots.get(idx) != null; idx = (idx + 1) & mask) {
+                if (slots.get(idx).dpid == dpid) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            seg.lock.unlock();
+        }
+    }
+
+    void dump(StringBuilder buffer) {
+        for (int s = 0; s < segments.length; ++s) {
+            Segment seg = segments[s];
+            seg.lock.lock();
+            try {
+                buffer.append("   segment ").append(s).append(" (").append(seg.size).append('/')
+                        .append(seg.slots.length()).append(")\n");
+                AtomicReferenceArray<CachedPage> slots = seg.slots;
+                for (int i = 0; i < slots.length(); ++i) {
+                    CachedPage cp = slots.get(i);
+                    if (cp != null) {
+                        buffer.append("      ").append(cp.cpid).append(" -> [")
+                                .append(BufferedFileHandle.getFileId(cp.dpid)).append(':')
+                                .append(BufferedFileHandle.getPageId(cp.dpid)).append(", ")
+                                .append(cp.pinCount.get()).append(", ").append(cp.valid ? "valid" : "invalid")
+                                .append(", ").append(cp.dirty.get() ? "dirty" : "clean").append("]\n");
+                    }
+                }
+            } finally {
+                seg.lock.unlock();
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment seg : segments) {
+            size += seg.size;
+        }
+        return size;
+    }
+
+    int getNumSegments() {
+        return segments.length;
+    }
+
+    private static class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        // odd while a writer is moving entries
+        private volatile int seq;
+        private volatile AtomicReferenceArray<CachedPage> slots;
+        private int size;
+
+        Segment(int capacity) {
+            slots = new AtomicReferenceArray<CachedPage>(capacity);
+        }
+
+        // all methods below require the lock
+
+        int indexOf(CachedPage cPage, int h) {
+            int mask = slots.length() - 1;
+            for (int idx = h & mask; slots.get(idx) != null; idx = (idx + 1) & mask) {
+                if (slots.get(idx) == cPage) {
+                    return idx;
+                }
+            }
+            return -1;
+        }
+
+        void insert(CachedPage cPage, int h) {
+            if ((size + 1) * 4 > slots.length() * 3) {
+                grow();
+            }
+            int mask = slots.length() - 1;
+            int idx = h & mask;
+            CachedPage displaced = null;
+            while (slots.get(idx) != null) {
+                if (displaced == null && slots.get(idx).dpid == cPage.dpid) {
+                    // take over the position of the shadowed page and re-append that one
+                    seq++;
+                    displaced = slots.get(idx);
+                    slots.set(idx, cPage);
+                    cPage = displaced;
+                }
+                idx = (idx + 1) & mask;
+            }
+            slots.set(idx, cPage);
+            if (displaced != null) {
+                seq++;
+            }
+            ++size;
+        }
+
+        void delete(int idx) {
+            AtomicReferenceArray<CachedPage> slots = this.slots;
+            int mask = slots.length() - 1;
+            seq++;
+            try {
+                int hole = idx;
+                int next = (hole + 1) & mask;
+                CachedPage cPage;
+                while ((cPage = slots.get(next)) != null) {
+                    int home = hash(cPage.dpid) & mask;
+                    // move the entry back if the hole lies cyclically between its home and its slot
+                    if (((next - home) & mask) >= ((next - hole) & mask)) {
+                        slots.set(hole, cPage);
+                        hole = next;
+                    }
+                    next = (next + 1) & mask;
+                }
+                slots.set(hole, null);
+                --size;
+            } finally {
+                seq++;
+            }
+        }
+
+        private void grow() {
+            AtomicReferenceArray<CachedPage> oldSlots = slots;
+            AtomicReferenceArray<CachedPage> newSlots = new AtomicReferenceArray<CachedPage>(oldSlots.length() * 2);
+            int mask = newSlots.length() - 1;
+            for (int i = 0; i < oldSlots.length(); ++i) {
+                CachedPage cPage = oldSlots.get(i);
+                if (cPage != null) {
+                    int idx = hash(cPage.dpid) & mask;
+                    while (newSlots.get(idx) != null) {
+                        idx = (idx + 1) & mask;
+                    }
+                    newSlots.set(idx, cPage);
+                }
+            }
+            seq++;
+            slots = newSlots;
+            seq++;
+        }
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.hyracks.storage.common.buffercache;
 
+import java.io.PrintStream;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -45,6 +46,8 @@ public class DebugBufferCache implements IBufferCache {
     private AtomicLong deleteFileCount = new AtomicLong();
     private AtomicLong openFileCount = new AtomicLong();
     private AtomicLong closeFileCount = new AtomicLong();
+    // If set, the dpid of every pin and tryPin is logged here, one per line.
+    private volatile PrintStream accessTrace;
 
     public DebugBufferCache(IBufferCache bufferCache) {
         this.bufferCache = bufferCache;
@@ -77,16 +80,32 @@ public class DebugBufferCache implements IBufferCache {
 
     @Override
     public ICachedPage tryPin(long dpid) throws HyracksDataException {
+        traceAccess(dpid);
         return bufferCache.tryPin(dpid);
     }
 
     @Override
     public ICachedPage pin(long dpid, boolean newPage) throws HyracksDataException {
+        traceAccess(dpid);
         ICachedPage page = bufferCache.pin(dpid, newPage);
         pinCount.addAndGet(1);
         return page;
     }
 
+    @Override
+    public void pinAll(long[] dpids, ICachedPage[] pages, int count) throws HyracksDataException {
+        for (int i = 0; i < count; ++i) {
+            traceAccess(dpids[i]);
+        }
+        bufferCache.pinAll(dpids, pages, count);
+        pinCount.addAndGet(count);
+    }
+
+    @Override
+    public void prefetch(long dpid, int count) throws HyracksDataException {
+        bufferCache.prefetch(dpid, count);
+    }
+
     @Override
     public void unpin(ICachedPage page) throws HyracksDataException {
         bufferCache.unpin(page);
@@ -108,6 +127,21 @@ public class DebugBufferCache implements IBufferCache {
         bufferCache.close();
     }
 
+    /**
+     * Records the dpids of all subsequent pins to the given stream, e.g. as input for a replacement
+     * policy simulation. Pass null to stop recording.
+     */
+    public void setAccessTrace(PrintStream accessTrace) {
+        this.accessTrace = accessTrace;
+    }
+
+    private void traceAccess(long dpid) {
+        PrintStream trace = accessTrace;
+        if (trace != null) {
+            trace.println(dpid);
+        }
+    }
+
     public void resetCounters() {
         pinCount.set(0);
         unpinCount.set(0);
@@ -44,6 +44,19 @@ public interface IBufferCache {
 
     public ICachedPage pin(long dpid, boolean newPage) throws HyracksDataException;
 
+    /**
+     * Pins the pages of dpids[0..count) into pages[0..count). The reads of all pages that are not
+     * cached are started before waiting on any of them, so that they are serviced concurrently. If
+     * an exception is thrown, none of the pages is left pinned.
+     */
+    public void pinAll(long[] dpids, ICachedPage[] pages, int count) throws HyracksDataException;
+
+    /**
+     * Starts asynchronous reads of those of the pages dpid, dpid + 1, ..., dpid + count - 1 that are
+     * not cached, without pinning them. Pages past the end of the file are ignored.
+     */
+    public void prefetch(long dpid, int count) throws HyracksDataException;
+
     public void unpin(ICachedPage page) throws HyracksDataException;
 
     public void flushDirtyPage(ICachedPage page) throws HyracksDataException;
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.replication.IIOReplicationManager;
+import org.apache.hyracks.storage.common.file.IFileMapManager;
+
+/**
+ * A {@link BufferCache} whose page table is a {@link ConcurrentPageTable} instead of the bucket
+ * chains guarded by per-bucket locks. Cache hits in pin() and tryPin() take no lock: the page is
+ * pinned optimistically and the pin fails only if the page is being evicted at the same time.
+ * File handling, the cleaner thread and the FIFO writer are shared with {@link BufferCache}.
+ */
+public class LockFreeBufferCache extends BufferCache {
+    private final ConcurrentPageTable pageTable;
+
+    public LockFreeBufferCache(IIOManager ioManager, IPageReplacementStrategy pageReplacementStrategy,
+            IPageCleanerPolicy pageCleanerPolicy, IFileMapManager fileMapManager, int maxOpenFiles,
+            ThreadFactory threadFactory) {
+        super(ioManager, pageReplacementStrategy, pageCleanerPolicy, fileMapManager, maxOpenFiles, threadFactory, 0);
+        pageTable = new ConcurrentPageTable(pageReplacementStrategy.getMaxAllowedNumPages());
+    }
+
+    public LockFreeBufferCache(IIOManager ioManager, IPageReplacementStrategy pageReplacementStrategy,
+            IPageCleanerPolicy pageCleanerPolicy, IFileMapManager fileMapManager, int maxOpenFiles,
+            ThreadFactory threadFactory, IIOReplicationManager ioReplicationManager) {
+        this(ioManager, pageReplacementStrategy, pageCleanerPolicy, fileMapManager, maxOpenFiles, threadFactory);
+        this.ioReplicationManager = ioReplicationManager;
+    }
+
+    @Override
+    public ICachedPage tryPin(long dpid) throws HyracksDataException {
+        if (DEBUG) {
+            pinSanityCheck(dpid);
+        }
+        CachedPage cPage = pageTable.pin(dpid);
+        if (cPage != null) {
+            pageReplacementStrategy.notifyCachePageAccess(cPage);
+        }
+        return cPage;
+    }
+
+    @Override
+    protected CachedPage findPage(long dpid, boolean virtual) throws HyracksDataException {
+        while (true) {
+            int startCleanedCount = getCleanedCount();
+            CachedPage cPage = pageTable.pin(dpid);
+            if (cPage != null) {
+                return cPage;
+            }
+            /*
+             * Not mapped. The victim comes back pinned once by us. If it still holds another
+             * page, fence off optimistic pinners before unmapping it; if someone pinned it in the
+             * meantime it is in use for its old contents, so drop it and retry.
+             */
+            CachedPage victim = (CachedPage) pageReplacementStrategy.findVictim();
+            if (victim == null) {
+                waitForCleanedPages(startCleanedCount);
+                continue;
+            }
+            if (victim.dpid >= 0) {
+                if (!victim.beginEviction()) {
+                    victim.pinCount.decrementAndGet();
+                    continue;
+                }
+                // A false return means a concurrent sweep already unmapped and invalidated it.
+                pageTable.remove(victim);
+                /*
+                 * Retag the page before optimistic pinners can get in again, so that a pinner that
+                 * probed it under its old dpid fails the recheck in ConcurrentPageTable.pin().
+                 */
+                victim.reset(dpid);
+                victim.endEviction();
+            } else {
+                victim.reset(dpid);
+            }
+            CachedPage winner = pageTable.putIfAbsent(victim);
+            if (winner != null) {
+                // someone else mapped dpid first
+                victim.invalidate();
+                victim.pinCount.decrementAndGet();
+                return winner;
+            }
+            return victim;
+        }
+    }
+
+    @Override
+    public ICachedPage confiscatePage(long dpid) throws HyracksDataException {
+        while (true) {
+            int startCleanedCount = getCleanedCount();
+            CachedPage victim = (CachedPage) pageReplacementStrategy.findVictim();
+            if (victim == null) {
+                waitForCleanedPages(startCleanedCount);
+                continue;
+            }
+            if (victim.dpid >= 0) {
+                if (!victim.beginEviction()) {
+                    victim.pinCount.decrementAndGet();
+                    continue;
+                }
+                pageTable.remove(victim);
+                // as in findPage, retag the page while it is still fenced off
+                victim.dpid = dpid;
+                victim.confiscated.set(true);
+                victim.endEviction();
+                return victim;
+            } else if (victim.pinCount.get() != 1) {
+                victim.pinCount.decrementAndGet();
+                continue;
+            }
+            victim.dpid = dpid;
+            victim.confiscated.set(true);
+            return victim;
+        }
+    }
+
+    @Override
+    public void returnPage(ICachedPage page, boolean reinsert) {
+        CachedPage cPage = (CachedPage) page;
+        if (!page.confiscated()) {
+            return;
+        }
+        if (reinsert) {
+            cPage.reset(cPage.dpid);
+            cPage.valid = true;
+            pageTable.put(cPage);
+        } else {
+            cPage.invalidate();
+        }
+        cPage.pinCount.decrementAndGet();
+        pageReplacementStrategy.adviseWontNeed(cPage);
+    }
+
+    @Override
+    protected void sweepAndFlush(int fileId, boolean flushDirtyPages) throws HyracksDataException {
+        pageTable.sweep(fileId, this, flushDirtyPages);
+    }
+
+    @Override
+    protected boolean canFindValidCachedPage(long dpid) {
+        return pageTable.contains(dpid);
+    }
+
+    @Override
+    protected String dumpState() {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append("Buffer cache state\n");
+        buffer.append("Page Size: ").append(getPageSize()).append('\n');
+        buffer.append("Number of physical pages: ").append(pageReplacementStrategy.getMaxAllowedNumPages())
+                .append('\n');
+        buffer.append("Page table segments: ").append(pageTable.getNumSegments()).append('\n');
+        buffer.append("Page Map:\n");
+        buffer.append("cpid -> [fileId:pageId, pinCount, valid/invalid, dirty/clean]\n");
+        pageTable.dump(buffer);
+        buffer.append("Number of cached pages: ").append(pageTable.size()).append('\n');
+        return buffer.toString();
+    }
+}
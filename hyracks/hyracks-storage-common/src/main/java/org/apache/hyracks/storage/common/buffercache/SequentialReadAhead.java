@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * Adaptive read-ahead for a cursor that walks the pages of one file. The cursor reports every page
+ * it is about to pin. Once it has moved to the next page id a few times in a row, the following
+ * pages are prefetched through {@link IBufferCache#prefetch(long, int)}. Every time the cursor has
+ * consumed half of the prefetched window, the window is doubled (up to {@link #MAX_WINDOW}) and
+ * extended. Any non-sequential access drops the window, so cursors over non-contiguous pages
+ * cause no extra I/O.
+ */
+public class SequentialReadAhead {
+    public static final int MIN_SEQUENTIAL_RUN = 2;
+    public static final int INITIAL_WINDOW = 4;
+    public static final int MAX_WINDOW = 64;
+
+    private int lastPageId = -1;
+    private int sequentialRun;
+    private int window;
+    // the last page id that has been prefetched
+    private int prefetchedUpTo;
+
+    /**
+     * Starts tracking a new walk at the given page, which the cursor has already pinned.
+     */
+    public void reset(int pageId) {
+        lastPageId = pageId;
+        sequentialRun = 0;
+        window = 0;
+        prefetchedUpTo = pageId;
+    }
+
+    public void notifyAccess(IBufferCache bufferCache, int fileId, int pageId) throws HyracksDataException {
+        if (lastPageId >= 0 && pageId == lastPageId + 1) {
+            ++sequentialRun;
+        } else {
+            sequentialRun = 0;
+            window = 0;
+            prefetchedUpTo = pageId;
+        }
+        lastPageId = pageId;
+        if (sequentialRun < MIN_SEQUENTIAL_RUN || prefetchedUpTo - pageId > window / 2) {
+            return;
+        }
+        window = window == 0 ? INITIAL_WINDOW : Math.min(window * 2, MAX_WINDOW);
+        int start = Math.max(prefetchedUpTo, pageId) + 1;
+        int end = pageId + window;
+        if (end >= start) {
+            bufferCache.prefetch(BufferedFileHandle.getDiskPageId(fileId, start), end - start + 1);
+            prefetchedUpTo = end;
+        }
+    }
+
+    public int getWindow() {
+        return window;
+    }
+}
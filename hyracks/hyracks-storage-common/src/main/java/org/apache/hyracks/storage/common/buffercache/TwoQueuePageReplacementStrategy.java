@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A scan-resistant replacement strategy in the spirit of 2Q, implemented with a single clock hand.
+ * Newly loaded pages start cold (probationary, 2Q's A1in). A cold page that is referenced again
+ * before the hand reaches it is promoted to hot (Am); a cold page referenced only once is evicted
+ * the first time the hand reaches it, so a large scan only ever recycles cold pages. Hot pages get
+ * the usual clock second chance, but an unreferenced hot page is only demoted to cold while the hot
+ * set exceeds its share of the cache or when no cold page could be evicted.
+ * The dpids of recently evicted cold pages are remembered in a small ghost table (A1out), and a page
+ * that is loaded again while still in it starts hot. Pages passed to adviseWontNeed are made cold
+ * and are not remembered when evicted.
+ */
+public class TwoQueuePageReplacementStrategy implements IPageReplacementStrategy {
+    private static final int MAX_UNSUCCESSFUL_CYCLE_COUNT = 3;
+    public static final double DEFAULT_HOT_FRACTION = 0.75;
+    public static final double DEFAULT_GHOST_FRACTION = 0.5;
+
+    // per-page state: a saturating reference count plus flags
+    private static final int REF_MASK = 0x3;
+    private static final int HOT = 0x4;
+    private static final int WONT_NEED = 0x8;
+
+    private static final long NO_GHOST = -1L;
+
+    private IBufferCacheInternal bufferCache;
+    private final AtomicInteger clockPtr;
+    private final ICacheMemoryAllocator allocator;
+    private final AtomicInteger numPages;
+    private final AtomicInteger cpIdCounter;
+    private final AtomicInteger hotCount;
+    private final AtomicLongArray ghosts;
+    private final int pageSize;
+    private final int maxAllowedNumPages;
+    private final int maxHotPages;
+
+    public TwoQueuePageReplacementStrategy(ICacheMemoryAllocator allocator, int pageSize, int maxAllowedNumPages) {
+        this(allocator, pageSize, maxAllowedNumPages, DEFAULT_HOT_FRACTION, DEFAULT_GHOST_FRACTION);
+    }
+
+    public TwoQueuePageReplacementStrategy(ICacheMemoryAllocator allocator, int pageSize, int maxAllowedNumPages,
+            double hotFraction, double ghostFraction) {
+        this.allocator = allocator;
+        this.pageSize = pageSize;
+        this.maxAllowedNumPages = maxAllowedNumPages;
+        this.maxHotPages = Math.max(1, (int) (maxAllowedNumPages * hotFraction));
+        this.clockPtr = new AtomicInteger(0);
+        this.numPages = new AtomicInteger(0);
+        this.cpIdCounter = new AtomicInteger(0);
+        this.hotCount = new AtomicInteger(0);
+        int ghostSlots = 1;
+        while (ghostSlots < maxAllowedNumPages * ghostFraction) {
+            ghostSlots <<= 1;
+        }
+        ghosts = new AtomicLongArray(ghostSlots);
+        for (int i = 0; i < ghostSlots; ++i) {
+            ghosts.set(i, NO_GHOST);
+        }
+    }
+
+    @Override
+    public Object createPerPageStrategyObject(int cpid) {
+        return new AtomicInteger();
+    }
+
+    @Override
+    public void setBufferCache(IBufferCacheInternal bufferCache) {
+        this.bufferCache = bufferCache;
+    }
+
+    @Override
+    public void notifyCachePageReset(ICachedPageInternal cPage) {
+        long dpid = cPage.getDiskPageId();
+        int newState = dpid >= 0 && removeGhost(dpid) ? HOT : 0;
+        setState(getPerPageObject(cPage), newState);
+    }
+
+    @Override
+    public void notifyCachePageAccess(ICachedPageInternal cPage) {
+        AtomicInteger state = getPerPageObject(cPage);
+        while (true) {
+            int s = state.get();
+            if ((s & REF_MASK) == REF_MASK || state.compareAndSet(s, s + 1)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void adviseWontNeed(ICachedPageInternal cPage) {
+        setState(getPerPageObject(cPage), WONT_NEED);
+    }
+
+    @Override
+    public ICachedPageInternal findVictim() {
+        ICachedPageInternal cachedPage = null;
+        if (numPages.get() >= maxAllowedNumPages) {
+            cachedPage = findVictimByEviction();
+        } else {
+            cachedPage = allocatePage();
+        }
+        return cachedPage;
+    }
+
+    private ICachedPageInternal findVictimByEviction() {
+        assert (maxAllowedNumPages > 0);
+        int startClockPtr = clockPtr.get();
+        int cycleCount = 0;
+        do {
+            ICachedPageInternal cPage = bufferCache.getPage(clockPtr.get());
+            AtomicInteger state = getPerPageObject(cPage);
+            int s = state.get();
+            if ((s & HOT) != 0) {
+                // Hot pages are only demoted while the hot set is over its share, or once a whole
+                // cycle found no evictable cold page.
+                boolean demote = hotCount.get() > maxHotPages || cycleCount > 0;
+                if ((s & REF_MASK) != 0) {
+                    // second chance
+                    state.compareAndSet(s, HOT);
+                } else if (demote && state.compareAndSet(s, 0)) {
+                    hotCount.decrementAndGet();
+                }
+            } else if ((s & REF_MASK) > 1) {
+                // re-referenced while on probation
+                if (state.compareAndSet(s, HOT)) {
+                    hotCount.incrementAndGet();
+                }
+            } else if (cPage.pinIfGoodVictim()) {
+                long dpid = cPage.getDiskPageId();
+                if (dpid >= 0 && (s & WONT_NEED) == 0) {
+                    addGhost(dpid);
+                }
+                advanceClock();
+                return cPage;
+            }
+            advanceClock();
+            if (clockPtr.get() == startClockPtr) {
+                ++cycleCount;
+            }
+        } while (cycleCount < MAX_UNSUCCESSFUL_CYCLE_COUNT);
+        return null;
+    }
+
+    private ICachedPageInternal allocatePage() {
+        CachedPage cPage = new CachedPage(cpIdCounter.getAndIncrement(), allocator.allocate(pageSize, 1)[0], this);
+        bufferCache.addPage(cPage);
+        numPages.incrementAndGet();
+        if (cPage.pinIfGoodVictim()) {
+            return cPage;
+        }
+        return null;
+    }
+
+    private void advanceClock() {
+        while (true) {
+            int currClockPtr = clockPtr.get();
+            if (clockPtr.compareAndSet(currClockPtr, (currClockPtr + 1) % numPages.get())) {
+                return;
+            }
+        }
+    }
+
+    private void setState(AtomicInteger state, int newState) {
+        while (true) {
+            int s = state.get();
+            if (state.compareAndSet(s, newState)) {
+                if ((s & HOT) != 0 && (newState & HOT) == 0) {
+                    hotCount.decrementAndGet();
+                } else if ((s & HOT) == 0 && (newState & HOT) != 0) {
+                    hotCount.incrementAndGet();
+                }
+                return;
+            }
+        }
+    }
+
+    private int ghostSlot(long dpid) {
+        long h = dpid * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (ghosts.length() - 1);
+    }
+
+    // The ghost table is direct-mapped: a newer entry simply overwrites an older one.
+    private void addGhost(long dpid) {
+        ghosts.set(ghostSlot(dpid), dpid);
+    }
+
+    private boolean removeGhost(long dpid) {
+        return ghosts.compareAndSet(ghostSlot(dpid), dpid, NO_GHOST);
+    }
+
+    private AtomicInteger getPerPageObject(ICachedPageInternal cPage) {
+        return (AtomicInteger) cPage.getReplacementStrategyObject();
+    }
+
+    @Override
+    public int getNumPages() {
+        return numPages.get();
+    }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public int getMaxAllowedNumPages() {
+        return maxAllowedNumPages;
+    }
+
+    public int getNumHotPages() {
+        return hotCount.get();
+    }
+}
@@ -19,6 +19,8 @@
 package org.apache.hyracks.test.support;
 
 import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.hyracks.api.application.INCApplicationContext;
 import org.apache.hyracks.api.context.IHyracksJobletContext;
@@ -39,6 +41,9 @@ public class TestJobletContext implements IHyracksJobletContext {
     private final FrameManager frameManger;
     private JobId jobId;
     private WorkspaceFileFactory fileFactory;
+    private int maxThreadsPerTask = 1;
+    private boolean compressRunFiles = false;
+    private final Map<String, byte[]> jobParameters = new HashMap<String, byte[]>();
 
     public TestJobletContext(int frameSize, INCApplicationContext appContext, JobId jobId) throws HyracksException {
         this.frameSize = frameSize;
@@ -112,6 +117,33 @@ public class TestJobletContext implements IHyracksJobletContext {
         return null;
     }
 
+    @Override
+    public int getMaxThreadsPerTask() {
+        return maxThreadsPerTask;
+    }
+
+    public void setMaxThreadsPerTask(int maxThreadsPerTask) {
+        this.maxThreadsPerTask = maxThreadsPerTask;
+    }
+
+    @Override
+    public boolean isCompressRunFiles() {
+        return compressRunFiles;
+    }
+
+    public void setCompressRunFiles(boolean compressRunFiles) {
+        this.compressRunFiles = compressRunFiles;
+    }
+
+    @Override
+    public byte[] getJobParameter(String name) {
+        return jobParameters.get(name);
+    }
+
+    public void setJobParameter(String name, byte[] value) {
+        jobParameters.put(name, value);
+    }
+
     @Override
     public Class<?> loadClass(String className) {
         try {
@@ -21,7 +21,6 @@ package org.apache.hyracks.test.support;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 
 import org.apache.hyracks.api.context.IHyracksTaskContext;
@@ -102,7 +101,7 @@ public class TestStorageManagerComponentHolder {
         if (ioManager == null) {
             List<IODeviceHandle> devices = new ArrayList<IODeviceHandle>();
             devices.add(new IODeviceHandle(new File(System.getProperty("java.io.tmpdir")), "iodev_test_wa"));
-            ioManager = new IOManager(devices, Executors.newCachedThreadPool());
+            ioManager = new IOManager(devices);
         }
         return ioManager;
     }
@@ -168,4 +168,70 @@ public class BloomFilterTest extends AbstractBloomFilterTest {
         bf.deactivate();
         bf.destroy();
     }
+
+    @Test
+    public void blockedFilterTest() throws Exception {
+        if (LOGGER.isLoggable(Level.INFO)) {
+            LOGGER.info("TESTING BLOCKED BLOOM FILTER");
+        }
+        checkVersionAndFalsePositives(true);
+    }
+
+    @Test
+    public void classicFilterVersionTest() throws Exception {
+        checkVersionAndFalsePositives(false);
+    }
+
+    private void checkVersionAndFalsePositives(boolean blocked) throws Exception {
+        IBufferCache bufferCache = harness.getBufferCache();
+
+        int numElements = 10000;
+        int[] keyFields = { 0 };
+
+        BloomFilter bf = new BloomFilter(bufferCache, harness.getFileMapProvider(), harness.getFileReference(),
+                keyFields, blocked);
+
+        double acceptanleFalsePositiveRate = 0.05;
+        int maxBucketsPerElement = BloomCalculations.maxBucketsPerElement(numElements);
+        BloomFilterSpecification bloomFilterSpec = BloomCalculations.computeBloomSpec(maxBucketsPerElement,
+                acceptanleFalsePositiveRate);
+
+        bf.create();
+        bf.activate();
+        IIndexBulkLoader builder = bf.createBuilder(numElements, bloomFilterSpec.getNumHashes(),
+                bloomFilterSpec.getNumBucketsPerElements());
+
+        ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(2);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+
+        // even keys are inserted, odd keys are not
+        for (int i = 0; i < numElements; ++i) {
+            TupleUtils.createIntegerTuple(tupleBuilder, tuple, 2 * i, i);
+            builder.add(tuple);
+        }
+        builder.end();
+
+        // the layout must survive reopening the filter
+        bf.deactivate();
+        bf.activate();
+        Assert.assertEquals(blocked ? BloomFilter.VERSION_BLOCKED : BloomFilter.VERSION_CLASSIC, bf.getVersion());
+
+        long[] hashes = new long[2];
+        for (int i = 0; i < numElements; ++i) {
+            TupleUtils.createIntegerTuple(tupleBuilder, tuple, 2 * i, i);
+            Assert.assertTrue(bf.contains(tuple, hashes));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < numElements; ++i) {
+            TupleUtils.createIntegerTuple(tupleBuilder, tuple, 2 * i + 1, i);
+            if (bf.contains(tuple, hashes)) {
+                ++falsePositives;
+            }
+        }
+        // allow for the blocked layout being somewhat worse than the specification
+        Assert.assertTrue(falsePositives < numElements * acceptanleFalsePositiveRate * 2);
+
+        bf.deactivate();
+        bf.destroy();
+    }
 }
@@ -33,8 +33,8 @@ import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.util.MurmurHash128Bit;
 import org.apache.hyracks.dataflow.common.util.TupleUtils;
-import org.apache.hyracks.storage.am.bloomfilter.impls.MurmurHash128Bit;
 import org.apache.hyracks.storage.am.bloomfilter.util.AbstractBloomFilterTest;
 
 @SuppressWarnings("rawtypes")
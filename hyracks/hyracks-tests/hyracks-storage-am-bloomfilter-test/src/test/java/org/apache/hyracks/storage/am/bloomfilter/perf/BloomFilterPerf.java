@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.bloomfilter.perf;
+
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.util.TupleUtils;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomCalculations;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilterSpecification;
+import org.apache.hyracks.storage.am.bloomfilter.util.BloomFilterTestHarness;
+import org.apache.hyracks.storage.am.common.api.IIndexBulkLoader;
+
+/**
+ * Compares the classic and the cache-line-blocked bloom filter layouts: for a number of bits per element, it
+ * builds both filters over the same keys and reports the measured false positive rate and the average cost of
+ * a negative lookup. Both filters fit in the buffer cache, so the lookup cost is dominated by the pin/unpin
+ * calls and memory accesses rather than by I/O.
+ * Usage: BloomFilterPerf [numElements] [numLookups]
+ */
+public class BloomFilterPerf {
+    private static final int[] BITS_PER_ELEMENT = new int[] { 4, 8, 10, 12, 16 };
+
+    public static void main(String[] args) throws Exception {
+        int numElements = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int numLookups = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        BloomFilterTestHarness harness = new BloomFilterTestHarness(32768, 4096, 10, 32768);
+
+        System.out.println("bitsPerElement\thashes\tclassicFpr\tclassicNs\tblockedFpr\tblockedNs");
+        for (int bitsPerElement : BITS_PER_ELEMENT) {
+            BloomFilterSpecification spec = BloomCalculations.computeBloomSpec(bitsPerElement);
+            StringBuilder line = new StringBuilder();
+            line.append(bitsPerElement).append('\t').append(spec.getNumHashes());
+            for (boolean blocked : new boolean[] { false, true }) {
+                harness.setUp();
+                try {
+                    run(harness, blocked, spec, numElements, numLookups, line);
+                } finally {
+                    harness.tearDown();
+                }
+            }
+            System.out.println(line);
+        }
+        System.exit(0);
+    }
+
+    private static void run(BloomFilterTestHarness harness, boolean blocked, BloomFilterSpecification spec,
+            int numElements, int numLookups, StringBuilder line) throws Exception {
+        BloomFilter bf = new BloomFilter(harness.getBufferCache(), harness.getFileMapProvider(),
+                harness.getFileReference(), new int[] { 0 }, blocked);
+        bf.create();
+        bf.activate();
+        ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(1);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        IIndexBulkLoader builder = bf.createBuilder(numElements, spec.getNumHashes(),
+                spec.getNumBucketsPerElements());
+        for (int i = 0; i < numElements; ++i) {
+            TupleUtils.createIntegerTuple(tupleBuilder, tuple, i);
+            builder.add(tuple);
+        }
+        builder.end();
+
+        long[] hashes = new long[2];
+        // warm up the buffer cache and the JIT with lookups of inserted keys
+        for (int i = 0; i < Math.min(numElements, numLookups); ++i) {
+            TupleUtils.createIntegerTuple(tupleBuilder, tuple, i);
+            bf.contains(tuple, hashes);
+        }
+        int falsePositives = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < numLookups; ++i) {
+            TupleUtils.createIntegerTuple(tupleBuilder, tuple, numElements + i);
+            if (bf.contains(tuple, hashes)) {
+                ++falsePositives;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        line.append('\t').append(String.format("%.5f", falsePositives / (double) numLookups));
+        line.append('\t').append(elapsed / numLookups);
+        bf.deactivate();
+        bf.destroy();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.btree;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.HyracksException;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.util.SerdeUtils;
+import org.apache.hyracks.dataflow.common.util.TupleUtils;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.common.api.IIndexCursor;
+import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeUtils;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicy;
+import org.apache.hyracks.storage.am.lsm.common.impls.AbstractDiskLSMComponent;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexStatistics;
+import org.apache.hyracks.storage.am.lsm.common.impls.LeveledMergePolicy;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoOpIOOperationCallback;
+import org.apache.hyracks.storage.am.lsm.common.impls.SizeTieredMergePolicy;
+import org.apache.hyracks.test.support.CounterContext;
+
+@SuppressWarnings("rawtypes")
+public class LSMBTreeMergePolicyTest {
+    private static final int NUM_FLUSHES = 40;
+    private static final int TUPLES_PER_FLUSH = 200;
+
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+
+    @Before
+    public void setUp() throws HyracksException {
+        harness.setUp();
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        harness.tearDown();
+    }
+
+    @Test
+    public void sizeTieredMergePolicyTest() throws Exception {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("min-merge-component-count", "4");
+        properties.put("max-merge-component-count", "10");
+        properties.put("size-ratio", "2.0");
+        ILSMMergePolicy mergePolicy = new SizeTieredMergePolicy();
+        mergePolicy.configure(properties);
+        LSMBTree lsmTree = runFlushes(mergePolicy);
+
+        LSMIndexStatistics stats = lsmTree.getStatistics();
+        Assert.assertTrue(stats.getCounter(LSMIndexStatistics.MERGE_COUNT, false).get() > 0);
+        Assert.assertTrue(stats.getWriteAmplification() > 1);
+        // four tiers of fewer than four components each cover the 40 flushed components
+        Assert.assertTrue(lsmTree.getImmutableComponents().size() < 12);
+        lsmTree.deactivate();
+        lsmTree.destroy();
+    }
+
+    @Test
+    public void leveledMergePolicyTest() throws Exception {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("level-0-component-count", "3");
+        properties.put("size-ratio", "4.0");
+        ILSMMergePolicy mergePolicy = new LeveledMergePolicy();
+        mergePolicy.configure(properties);
+        LSMBTree lsmTree = runFlushes(mergePolicy);
+
+        // fewer than three level-0 components, then every component is a level
+        List<ILSMComponent> components = lsmTree.getImmutableComponents();
+        long newerSize = 0;
+        int level0Count = 0;
+        for (int i = 0; i < components.size(); i++) {
+            long size = ((AbstractDiskLSMComponent) components.get(i)).getComponentSize();
+            if (i > 0 && size >= 4.0 * newerSize) {
+                break;
+            }
+            level0Count++;
+            newerSize += size;
+        }
+        Assert.assertTrue(level0Count < 3);
+        Assert.assertTrue(lsmTree.getStatistics().getWriteAmplification() > 1);
+        lsmTree.deactivate();
+        lsmTree.destroy();
+    }
+
+    private LSMBTree runFlushes(ILSMMergePolicy mergePolicy) throws Exception {
+        ISerializerDeserializer[] fieldSerdes = { IntegerSerializerDeserializer.INSTANCE,
+                IntegerSerializerDeserializer.INSTANCE };
+        ITypeTraits[] typeTraits = SerdeUtils.serdesToTypeTraits(fieldSerdes);
+        IBinaryComparatorFactory[] cmpFactories = SerdeUtils.serdesToComparatorFactories(fieldSerdes, 1);
+        LSMBTree lsmTree = LSMBTreeUtils.createLSMTree(harness.getVirtualBufferCaches(), harness.getFileReference(),
+                harness.getDiskBufferCache(), harness.getDiskFileMapProvider(), typeTraits, cmpFactories,
+                new int[] { 0 }, harness.getBoomFilterFalsePositiveRate(), mergePolicy,
+                harness.getOperationTracker(), harness.getIOScheduler(), harness.getIOOperationCallback(), true, null,
+                null, null, null, true);
+        lsmTree.create();
+        lsmTree.activate();
+        ILSMIndexAccessor accessor = lsmTree.createAccessor(NoOpOperationCallback.INSTANCE,
+                NoOpOperationCallback.INSTANCE);
+        for (int i = 0; i < NUM_FLUSHES; i++) {
+            for (int j = 0; j < TUPLES_PER_FLUSH; j++) {
+                int key = i * TUPLES_PER_FLUSH + j;
+                accessor.insert(TupleUtils.createIntegerTuple(key, key));
+            }
+            accessor.scheduleFlush(NoOpIOOperationCallback.INSTANCE);
+        }
+        LSMIndexStatistics stats = lsmTree.getStatistics();
+        Assert.assertEquals(NUM_FLUSHES, stats.getCounter(LSMIndexStatistics.FLUSH_COUNT, false).get());
+        Assert.assertTrue(stats.getCounter(LSMIndexStatistics.BYTES_FLUSHED, false).get() > 0);
+
+        // merges must not lose or duplicate any key
+        long[] beforeSearch = lsmTree.getStatistics().snapshot();
+        IIndexCursor cursor = accessor.createSearchCursor(false);
+        accessor.search(cursor, new RangePredicate(null, null, true, true, null, null));
+        int count = 0;
+        try {
+            while (cursor.hasNext()) {
+                cursor.next();
+                count++;
+            }
+        } finally {
+            cursor.close();
+        }
+        Assert.assertEquals(NUM_FLUSHES * TUPLES_PER_FLUSH, count);
+        Assert.assertEquals(1, stats.getCounter(LSMIndexStatistics.SEARCH_COUNT, false).get());
+        // the search also reads the memory component
+        Assert.assertEquals(lsmTree.getImmutableComponents().size() + 1,
+                stats.getCounter(LSMIndexStatistics.COMPONENTS_ENTERED, false).get());
+
+        // a task's counters get only what happened since it took its snapshot
+        CounterContext taskCounters = new CounterContext("task");
+        stats.addDeltasTo(beforeSearch, taskCounters);
+        Assert.assertEquals(1, taskCounters.getCounter(LSMIndexStatistics.SEARCH_COUNT, false).get());
+        Assert.assertNull(taskCounters.getCounter(LSMIndexStatistics.FLUSH_COUNT, false));
+        return lsmTree;
+    }
+}
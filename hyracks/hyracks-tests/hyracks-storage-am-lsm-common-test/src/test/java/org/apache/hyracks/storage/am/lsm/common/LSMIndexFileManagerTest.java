@@ -20,6 +20,7 @@
 package org.apache.hyracks.storage.am.lsm.common;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.io.File;
 import java.io.FilenameFilter;
@@ -31,7 +32,6 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.Executors;
 
 import org.junit.After;
 import org.junit.Before;
@@ -213,6 +213,23 @@ public class LSMIndexFileManagerTest {
         }
     }
 
+    @Test
+    public void flushAndMergeFilesKeepDeviceTest() throws HyracksDataException {
+        IODeviceHandle device = ioManager.getIODevices().get(DEFAULT_IO_DEVICE_ID);
+        FileReference indexFile = ioManager.getAbsoluteFileRef(DEFAULT_IO_DEVICE_ID,
+                "lsm_tree_device" + simpleDateFormat.format(new Date()));
+        ILSMIndexFileManager fileManager = new DummyLSMIndexFileManager(fileMapProvider, indexFile,
+                new DummyTreeFactory());
+
+        // the I/O scheduler queues the operations on component files by their device
+        FileReference flushFile = fileManager.getRelFlushFileReference().getInsertIndexFileReference();
+        assertSame(device, flushFile.getDeviceHandle());
+        assertEquals(new File(indexFile.getFile(), flushFile.getFile().getName()), flushFile.getFile());
+        FileReference mergeFile = simulateMerge(fileManager, flushFile, flushFile);
+        assertSame(device, mergeFile.getDeviceHandle());
+        assertEquals(new File(indexFile.getFile(), mergeFile.getFile().getName()), mergeFile.getFile());
+    }
+
     @Test
     public void singleIODeviceTest() throws InterruptedException, IOException, IndexException {
         IOManager singleDeviceIOManager = createIOManager(1);
@@ -241,7 +258,7 @@ public class LSMIndexFileManagerTest {
             String iodevPath = System.getProperty("java.io.tmpdir") + sep + "test_iodev" + i;
             devices.add(new IODeviceHandle(new File(iodevPath), "wa"));
         }
-        return new IOManager(devices, Executors.newCachedThreadPool());
+        return new IOManager(devices);
     }
 
     private FileReference simulateMerge(ILSMIndexFileManager fileManager, FileReference a, FileReference b)
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOpertionType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallback;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMMergeThrottle;
+import org.apache.hyracks.storage.am.lsm.common.impls.PrioritizedIOScheduler;
+
+public class PrioritizedIOSchedulerTest {
+    private static final int TUPLE_SIZE = 1024;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final List<String> started = Collections.synchronizedList(new ArrayList<String>());
+    private PrioritizedIOScheduler scheduler;
+
+    @After
+    public void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testFlushesRunBeforeMerges() throws Exception {
+        scheduler = new PrioritizedIOScheduler(Executors.defaultThreadFactory(), 1, 0);
+        TestOperation first = new TestOperation("flush-a", "a", LSMIOOpertionType.FLUSH, 0);
+        TestOperation merge = new TestOperation("merge-a", "a", LSMIOOpertionType.MERGE, 0);
+        TestOperation flush = new TestOperation("flush-b", "b", LSMIOOpertionType.FLUSH, 0);
+        scheduler.scheduleOperation(first);
+        first.awaitStarted();
+        scheduler.scheduleOperation(merge);
+        scheduler.scheduleOperation(flush);
+
+        // the device allows one operation at a time
+        assertEquals(1, scheduler.getRunningOperationCount());
+        assertEquals(1, scheduler.getQueuedFlushCount());
+        assertEquals(1, scheduler.getQueuedMergeCount());
+
+        first.finish();
+        flush.awaitStarted();
+        assertEquals(0, scheduler.getQueuedFlushCount());
+        assertEquals(1, scheduler.getQueuedMergeCount());
+        flush.finish();
+        merge.awaitStarted();
+        merge.finish();
+        merge.awaitFinished();
+        assertEquals("[flush-a, flush-b, merge-a]", started.toString());
+    }
+
+    @Test
+    public void testFlushesOfOneIndexAreSerialized() throws Exception {
+        scheduler = new PrioritizedIOScheduler(Executors.defaultThreadFactory(), 2, 0);
+        TestOperation first = new TestOperation("flush-a1", "a", LSMIOOpertionType.FLUSH, 0);
+        TestOperation second = new TestOperation("flush-a2", "a", LSMIOOpertionType.FLUSH, 0);
+        TestOperation other = new TestOperation("flush-b", "b", LSMIOOpertionType.FLUSH, 0);
+        scheduler.scheduleOperation(first);
+        scheduler.scheduleOperation(second);
+        scheduler.scheduleOperation(other);
+        first.awaitStarted();
+        other.awaitStarted();
+        assertEquals(2, scheduler.getRunningOperationCount());
+        assertEquals(1, scheduler.getQueuedFlushCount());
+
+        other.finish();
+        other.awaitFinished();
+        awaitRunningOperations(1);
+        // a slot is free, but the index is still flushing
+        assertEquals(1, scheduler.getQueuedFlushCount());
+        first.finish();
+        second.awaitStarted();
+        second.finish();
+        second.awaitFinished();
+    }
+
+    @Test
+    public void testMergePausesForFlush() throws Exception {
+        scheduler = new PrioritizedIOScheduler(Executors.defaultThreadFactory(), 1, 0);
+        TestOperation merge = new TestOperation("merge-a", "a", LSMIOOpertionType.MERGE, Long.MAX_VALUE);
+        TestOperation flush = new TestOperation("flush-b", "b", LSMIOOpertionType.FLUSH, 0);
+        scheduler.scheduleOperation(merge);
+        merge.awaitStarted();
+        scheduler.scheduleOperation(flush);
+
+        // the flush takes the merge's slot while the merge is still in progress
+        flush.awaitStarted();
+        assertEquals(1, scheduler.getPausedMergeCount());
+        assertEquals(1, scheduler.getRunningOperationCount());
+        flush.finish();
+        flush.awaitFinished();
+
+        merge.finish();
+        merge.awaitFinished();
+        awaitRunningOperations(0);
+        assertEquals(0, scheduler.getPausedMergeCount());
+    }
+
+    @Test
+    public void testMergeBandwidth() throws Exception {
+        long bytesPerSecond = 1024 * 1024;
+        scheduler = new PrioritizedIOScheduler(Executors.defaultThreadFactory(), 1, bytesPerSecond);
+        TestOperation merge = new TestOperation("merge-a", "a", LSMIOOpertionType.MERGE, bytesPerSecond / 2);
+        long start = System.nanoTime();
+        scheduler.scheduleOperation(merge);
+        merge.finish();
+        merge.awaitFinished();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        // the first checkpoint is free, so allow for one checkpoint's worth of bytes
+        assertTrue("merge took " + elapsedMillis + "ms", elapsedMillis >= 400);
+    }
+
+    @Test
+    public void testDevicesAreLimitedSeparately() throws Exception {
+        scheduler = new PrioritizedIOScheduler(Executors.defaultThreadFactory(), 1, 0);
+        IODeviceHandle device0 = new IODeviceHandle(new File("iodev0"), "wa");
+        IODeviceHandle device1 = new IODeviceHandle(new File("iodev1"), "wa");
+        TestOperation merge0 = new TestOperation("merge-a", "a", LSMIOOpertionType.MERGE, 0, device0);
+        TestOperation flush0 = new TestOperation("flush-b", "b", LSMIOOpertionType.FLUSH, 0, device0);
+        TestOperation merge1 = new TestOperation("merge-c", "c", LSMIOOpertionType.MERGE, 0, device1);
+        scheduler.scheduleOperation(merge0);
+        merge0.awaitStarted();
+        scheduler.scheduleOperation(flush0);
+        scheduler.scheduleOperation(merge1);
+
+        // the merge on the other device gets that device's slot, while the flush waits for its own device
+        merge1.awaitStarted();
+        assertEquals(2, scheduler.getRunningOperationCount());
+        assertEquals(1, scheduler.getQueuedFlushCount());
+
+        merge0.finish();
+        flush0.awaitStarted();
+        flush0.finish();
+        merge1.finish();
+        flush0.awaitFinished();
+        merge1.awaitFinished();
+        awaitRunningOperations(0);
+    }
+
+    private void awaitRunningOperations(int count) throws InterruptedException {
+        // the scheduler releases a slot right after the operation returns
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (scheduler.getRunningOperationCount() != count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, scheduler.getRunningOperationCount());
+    }
+
+    private class TestOperation implements ILSMIOOperation {
+        private final String name;
+        private final String indexId;
+        private final LSMIOOpertionType type;
+        private final long mergeBytes;
+        private final Set<IODeviceHandle> devices;
+        private final CountDownLatch startLatch = new CountDownLatch(1);
+        private final CountDownLatch finishLatch = new CountDownLatch(1);
+        private final CountDownLatch finishedLatch = new CountDownLatch(1);
+
+        /**
+         * @param mergeBytes
+         *            the number of bytes a merge writes, or {@link Long#MAX_VALUE} to keep merging until finished
+         */
+        TestOperation(String name, String indexId, LSMIOOpertionType type, long mergeBytes) {
+            this(name, indexId, type, mergeBytes, null);
+        }
+
+        TestOperation(String name, String indexId, LSMIOOpertionType type, long mergeBytes, IODeviceHandle device) {
+            this.name = name;
+            this.indexId = indexId;
+            this.type = type;
+            this.mergeBytes = mergeBytes;
+            this.devices = device == null ? Collections.<IODeviceHandle> emptySet() : Collections.singleton(device);
+        }
+
+        @Override
+        public Boolean call() throws HyracksDataException {
+            started.add(name);
+            startLatch.countDown();
+            try {
+                ITupleReference tuple = new TestTuple();
+                for (long written = 0; written < mergeBytes; written += TUPLE_SIZE) {
+                    if (mergeBytes == Long.MAX_VALUE && finishLatch.getCount() == 0) {
+                        break;
+                    }
+                    LSMMergeThrottle.tupleMerged(tuple);
+                }
+                assertTrue(finishLatch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new HyracksDataException(e);
+            } finally {
+                finishedLatch.countDown();
+            }
+            return true;
+        }
+
+        void awaitStarted() throws InterruptedException {
+            assertTrue(name + " did not start", startLatch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+
+        void finish() {
+            finishLatch.countDown();
+        }
+
+        void awaitFinished() throws InterruptedException {
+            assertTrue(name + " did not finish", finishedLatch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+
+        @Override
+        public Set<IODeviceHandle> getReadDevices() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Set<IODeviceHandle> getWriteDevices() {
+            return devices;
+        }
+
+        @Override
+        public ILSMIOOperationCallback getCallback() {
+            return null;
+        }
+
+        @Override
+        public String getIndexUniqueIdentifier() {
+            return indexId;
+        }
+
+        @Override
+        public LSMIOOpertionType getIOOpertionType() {
+            return type;
+        }
+    }
+
+    private static class TestTuple implements ITupleReference {
+        private final byte[] data = new byte[TUPLE_SIZE];
+
+        @Override
+        public int getFieldCount() {
+            return 1;
+        }
+
+        @Override
+        public byte[] getFieldData(int fIdx) {
+            return data;
+        }
+
+        @Override
+        public int getFieldStart(int fIdx) {
+            return 0;
+        }
+
+        @Override
+        public int getFieldLength(int fIdx) {
+            return TUPLE_SIZE;
+        }
+    }
+}
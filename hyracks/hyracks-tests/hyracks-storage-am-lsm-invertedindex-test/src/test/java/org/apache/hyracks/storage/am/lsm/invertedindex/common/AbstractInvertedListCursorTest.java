@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.util.TupleUtils;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestUtils;
+import org.apache.hyracks.storage.am.common.CheckTuple;
+import org.apache.hyracks.storage.am.common.api.IIndex;
+import org.apache.hyracks.storage.am.common.api.IIndexBulkLoader;
+import org.apache.hyracks.storage.am.common.api.IndexException;
+import org.apache.hyracks.storage.am.common.ophelpers.MultiComparator;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndex;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListCursor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.FixedSizeFrameTupleAccessor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.FixedSizeTupleReference;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.InvertedListMerger;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.SearchResult;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestContext;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestContext.InvertedIndexType;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestUtils;
+
+/**
+ * Drives IInvertedListCursor.skipTo() directly, and merges inverted lists with galloping forced for every suffix
+ * list. The documents are the ids 0 to NUM_DOCS - 1, and each contains the tokens of the lists the id belongs to.
+ */
+public abstract class AbstractInvertedListCursorTest extends AbstractInvertedIndexTest {
+    protected static final int NUM_DOCS = 10000;
+
+    // the tokens, and the ids in their lists
+    protected static final String EVEN = "even";
+    protected static final String THIRD = "third";
+    protected static final String SPARSE = "sparse";
+
+    protected final boolean bulkLoad;
+
+    private IInvertedIndex invIndex;
+    private IInvertedIndexAccessor accessor;
+    private MultiComparator invListCmp;
+
+    public AbstractInvertedListCursorTest(InvertedIndexType invIndexType, boolean bulkLoad) {
+        super(invIndexType);
+        this.bulkLoad = bulkLoad;
+    }
+
+    protected static boolean contains(String token, int id) {
+        if (token.equals(EVEN)) {
+            return id % 2 == 0;
+        } else if (token.equals(THIRD)) {
+            return id % 3 == 0;
+        } else {
+            return id % 500 == 7;
+        }
+    }
+
+    private void createIndex() throws IOException, IndexException {
+        LSMInvertedIndexTestContext testCtx = LSMInvertedIndexTestUtils.createWordInvIndexTestContext(harness,
+                invIndexType);
+        invIndex = (IInvertedIndex) testCtx.getIndex();
+        invIndex.create();
+        invIndex.activate();
+        ISerializerDeserializer[] docSerdes = new ISerializerDeserializer[] {
+                new UTF8StringSerializerDeserializer(), IntegerSerializerDeserializer.INSTANCE };
+        SortedSet<CheckTuple> checkTuples = new TreeSet<CheckTuple>();
+        for (int id = 0; id < NUM_DOCS; id++) {
+            StringBuilder doc = new StringBuilder();
+            for (String token : new String[] { EVEN, THIRD, SPARSE }) {
+                if (contains(token, id)) {
+                    doc.append(token).append(' ');
+                }
+            }
+            if (doc.length() == 0) {
+                continue;
+            }
+            ITupleReference docTuple = TupleUtils.createTuple(docSerdes, doc.toString().trim(), id);
+            if (bulkLoad) {
+                testCtx.insertCheckTuples(docTuple, checkTuples);
+            } else {
+                testCtx.getIndexAccessor().insert(docTuple);
+            }
+        }
+        if (bulkLoad) {
+            IIndexBulkLoader bulkLoader = invIndex.createBulkLoader(1.0f, false, NUM_DOCS, true, false);
+            ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(testCtx.getFieldSerdes().length);
+            ArrayTupleReference tuple = new ArrayTupleReference();
+            Iterator<CheckTuple> checkTupleIter = checkTuples.iterator();
+            while (checkTupleIter.hasNext()) {
+                OrderedIndexTestUtils.createTupleFromCheckTuple(checkTupleIter.next(), tupleBuilder, tuple,
+                        testCtx.getFieldSerdes());
+                bulkLoader.add(tuple);
+            }
+            bulkLoader.end();
+        }
+        accessor = (IInvertedIndexAccessor) testCtx.getIndexAccessor();
+        invListCmp = MultiComparator.create(invIndex.getInvListCmpFactories());
+    }
+
+    private void destroyIndex() throws IndexException, IOException {
+        invIndex.deactivate();
+        invIndex.destroy();
+    }
+
+    private IInvertedListCursor openList(String token) throws IndexException, IOException {
+        IInvertedListCursor cursor = accessor.createInvertedListCursor();
+        accessor.openInvertedListCursor(cursor,
+                TupleUtils.createTuple(new ISerializerDeserializer[] { new UTF8StringSerializerDeserializer() },
+                        token));
+        return cursor;
+    }
+
+    private static int getId(IInvertedListCursor cursor) {
+        ITupleReference tuple = cursor.getTuple();
+        return IntegerPointable.getInteger(tuple.getFieldData(0), tuple.getFieldStart(0));
+    }
+
+    private static void next(IInvertedListCursor cursor) throws IndexException, IOException {
+        Assert.assertTrue(cursor.hasNext());
+        cursor.next();
+    }
+
+    private boolean skipTo(IInvertedListCursor cursor, int id) throws IndexException, IOException {
+        return cursor.skipTo(TupleUtils.createIntegerTuple(id), invListCmp);
+    }
+
+    private void assertSkipTo(IInvertedListCursor cursor, int id, int expected) throws IndexException, IOException {
+        Assert.assertTrue("skipTo(" + id + ")", skipTo(cursor, id));
+        Assert.assertEquals("skipTo(" + id + ")", expected, getId(cursor));
+    }
+
+    @Test
+    public void skipToFromStart() throws IOException, IndexException {
+        createIndex();
+        IInvertedListCursor cursor = openList(EVEN);
+        cursor.pinPages();
+        try {
+            assertSkipTo(cursor, 0, 0);
+            // inside the first block
+            assertSkipTo(cursor, 11, 12);
+            next(cursor);
+            Assert.assertEquals(14, getId(cursor));
+        } finally {
+            cursor.unpinPages();
+        }
+        destroyIndex();
+    }
+
+    @Test
+    public void skipToBeforeCurrent() throws IOException, IndexException {
+        createIndex();
+        IInvertedListCursor cursor = openList(EVEN);
+        cursor.pinPages();
+        try {
+            for (int i = 0; i < 600; i++) {
+                next(cursor);
+            }
+            Assert.assertEquals(1198, getId(cursor));
+            // the cursor stays on the current element
+            assertSkipTo(cursor, 3, 1198);
+            assertSkipTo(cursor, 1198, 1198);
+            next(cursor);
+            Assert.assertEquals(1200, getId(cursor));
+        } finally {
+            cursor.unpinPages();
+        }
+        destroyIndex();
+    }
+
+    @Test
+    public void skipToAcrossBlocks() throws IOException, IndexException {
+        createIndex();
+        IInvertedListCursor cursor = openList(THIRD);
+        cursor.pinPages();
+        try {
+            next(cursor);
+            assertSkipTo(cursor, 1000, 1002);
+            // a few elements ahead, then far ahead
+            assertSkipTo(cursor, 1010, 1011);
+            assertSkipTo(cursor, 7000, 7002);
+            next(cursor);
+            Assert.assertEquals(7005, getId(cursor));
+            assertSkipTo(cursor, NUM_DOCS - 1, 9999);
+            Assert.assertFalse(cursor.hasNext());
+        } finally {
+            cursor.unpinPages();
+        }
+        destroyIndex();
+    }
+
+    @Test
+    public void skipToPastEnd() throws IOException, IndexException {
+        createIndex();
+        IInvertedListCursor cursor = openList(EVEN);
+        cursor.pinPages();
+        try {
+            assertSkipTo(cursor, 5000, 5000);
+            Assert.assertFalse(skipTo(cursor, NUM_DOCS));
+        } finally {
+            cursor.unpinPages();
+        }
+        cursor = openList(SPARSE);
+        cursor.pinPages();
+        try {
+            Assert.assertFalse(skipTo(cursor, NUM_DOCS));
+        } finally {
+            cursor.unpinPages();
+        }
+        destroyIndex();
+    }
+
+    @Test
+    public void skipToMatchesScan() throws IOException, IndexException {
+        createIndex();
+        for (String token : new String[] { EVEN, THIRD, SPARSE }) {
+            IInvertedListCursor cursor = openList(token);
+            cursor.pinPages();
+            try {
+                int id = 0;
+                while (true) {
+                    id += harness.getRandom().nextInt(40);
+                    int expected = id;
+                    while (expected < NUM_DOCS && !contains(token, expected)) {
+                        expected++;
+                    }
+                    if (expected >= NUM_DOCS) {
+                        Assert.assertFalse(token + ": skipTo(" + id + ")", skipTo(cursor, id));
+                        break;
+                    }
+                    assertSkipTo(cursor, id, expected);
+                }
+            } finally {
+                cursor.unpinPages();
+            }
+        }
+        destroyIndex();
+    }
+
+    @Test
+    public void gallopMergeMatchesScanMerge() throws IOException, IndexException {
+        createIndex();
+        for (int occurrenceThreshold = 1; occurrenceThreshold <= 3; occurrenceThreshold++) {
+            Assert.assertEquals("occurrence threshold " + occurrenceThreshold, merge(occurrenceThreshold, false),
+                    merge(occurrenceThreshold, true));
+        }
+        destroyIndex();
+    }
+
+    /**
+     * Merges the three lists and returns the results as "id:count" strings. All suffix lists are either scanned or
+     * galloped through.
+     */
+    private List<String> merge(int occurrenceThreshold, final boolean gallop) throws IOException, IndexException {
+        final int[] numSuffixLists = new int[1];
+        InvertedListMerger merger = new InvertedListMerger(harness.getHyracksTastContext(), invIndex) {
+            @Override
+            protected void mergeSuffixList(IInvertedListCursor invListCursor, SearchResult prevSearchResult,
+                    SearchResult newSearchResult, int invListIx, int numInvLists, int occurrenceThreshold)
+                    throws HyracksDataException, IndexException {
+                numSuffixLists[0]++;
+                if (gallop) {
+                    mergeSuffixListGallop(invListCursor, prevSearchResult, newSearchResult, invListIx,
+                            numInvLists, occurrenceThreshold);
+                } else {
+                    mergeSuffixListScan(invListCursor, prevSearchResult, newSearchResult, invListIx, numInvLists,
+                            occurrenceThreshold);
+                }
+            }
+        };
+        ArrayList<IInvertedListCursor> cursors = new ArrayList<IInvertedListCursor>();
+        for (String token : new String[] { EVEN, THIRD, SPARSE }) {
+            cursors.add(openList(token));
+        }
+        SearchResult result = new SearchResult(invIndex.getInvListTypeTraits(), harness.getHyracksTastContext());
+        result.reset();
+        int numPrefixLists = cursors.size() - occurrenceThreshold + 1;
+        merger.merge(cursors, occurrenceThreshold, numPrefixLists, result);
+        Assert.assertEquals(cursors.size() - numPrefixLists, numSuffixLists[0]);
+
+        List<String> results = new ArrayList<String>();
+        FixedSizeFrameTupleAccessor resultAccessor = result.getAccessor();
+        FixedSizeTupleReference resultTuple = result.getTuple();
+        for (int i = 0; i <= result.getCurrentBufferIndex(); i++) {
+            ByteBuffer buffer = result.getBuffers().get(i);
+            resultAccessor.reset(buffer);
+            for (int j = 0; j < resultAccessor.getTupleCount(); j++) {
+                resultTuple.reset(buffer.array(), resultAccessor.getTupleStartOffset(j));
+                results.add(IntegerPointable.getInteger(resultTuple.getFieldData(0), resultTuple.getFieldStart(0))
+                        + ":" + IntegerPointable.getInteger(resultTuple.getFieldData(1), resultTuple.getFieldStart(1)));
+            }
+        }
+        Assert.assertEquals(result.getNumResults(), results.size());
+        return results;
+    }
+}
@@ -63,6 +63,7 @@ public class LSMInvertedIndexTestHarness {
     protected final int hyracksFrameSize;
     protected final double bloomFilterFalsePositiveRate;
     protected final int numMutableComponents;
+    protected boolean compressInvLists = false;
 
     protected IOManager ioManager;
     protected int ioDeviceId;
@@ -192,6 +193,14 @@ public class LSMInvertedIndexTestHarness {
         return bloomFilterFalsePositiveRate;
     }
 
+    public boolean getCompressInvLists() {
+        return compressInvLists;
+    }
+
+    public void setCompressInvLists(boolean compressInvLists) {
+        this.compressInvLists = compressInvLists;
+    }
+
     public IHyracksTaskContext getHyracksTastContext() {
         return ctx;
     }
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.ondisk;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.primitive.UTF8StringPointable;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.util.TupleUtils;
+import org.apache.hyracks.storage.am.common.api.IIndexBulkLoader;
+import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListCursor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.common.LSMInvertedIndexTestHarness;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.InvertedIndexUtils;
+
+/**
+ * Checks that an on-disk inverted index reads its lists in the layout they were written in, whatever layout the
+ * index that opens the files is configured to write.
+ */
+public class OnDiskInvertedIndexListFormatTest {
+    private static final int NUM_KEYS = 5000;
+
+    @SuppressWarnings("rawtypes")
+    private final ISerializerDeserializer[] fieldSerdes = new ISerializerDeserializer[] {
+            new UTF8StringSerializerDeserializer(), IntegerSerializerDeserializer.INSTANCE };
+    @SuppressWarnings("rawtypes")
+    private final ISerializerDeserializer[] tokenSerdes = new ISerializerDeserializer[] {
+            new UTF8StringSerializerDeserializer() };
+    private final ITypeTraits[] tokenTypeTraits = new ITypeTraits[] { UTF8StringPointable.TYPE_TRAITS };
+    private final IBinaryComparatorFactory[] tokenCmpFactories = new IBinaryComparatorFactory[] {
+            PointableBinaryComparatorFactory.of(UTF8StringPointable.FACTORY) };
+    private final ITypeTraits[] invListTypeTraits = new ITypeTraits[] { IntegerPointable.TYPE_TRAITS };
+    private final IBinaryComparatorFactory[] invListCmpFactories = new IBinaryComparatorFactory[] {
+            PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY) };
+
+    private final LSMInvertedIndexTestHarness harness = new LSMInvertedIndexTestHarness();
+
+    @Before
+    public void setUp() throws Exception {
+        harness.setUp();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        harness.tearDown();
+    }
+
+    @Test
+    public void compressedListsReadByUncompressedIndex() throws Exception {
+        runTest(true, false);
+    }
+
+    @Test
+    public void uncompressedListsReadByCompressedIndex() throws Exception {
+        runTest(false, true);
+    }
+
+    private void runTest(boolean writeCompressed, boolean readCompressed) throws Exception {
+        OnDiskInvertedIndex writer = createIndex(writeCompressed);
+        writer.create();
+        writer.activate();
+        IIndexBulkLoader bulkLoader = writer.createBulkLoader(1.0f, false, 0L, false);
+        // "all" holds every key, "even" every other one, so that both lists span several pages
+        for (int i = 0; i < NUM_KEYS; i++) {
+            bulkLoader.add(TupleUtils.createTuple(fieldSerdes, "all", i));
+        }
+        for (int i = 0; i < NUM_KEYS; i += 2) {
+            bulkLoader.add(TupleUtils.createTuple(fieldSerdes, "even", i));
+        }
+        bulkLoader.end();
+        int expectedFormat = writeCompressed ? OnDiskInvertedIndex.LIST_FORMAT_COMPRESSED_INTEGER
+                : OnDiskInvertedIndex.LIST_FORMAT_FIXED_SIZE;
+        Assert.assertEquals(expectedFormat, writer.getListFormat());
+        writer.deactivate();
+
+        OnDiskInvertedIndex reader = createIndex(readCompressed);
+        reader.activate();
+        try {
+            Assert.assertEquals(expectedFormat, reader.getListFormat());
+            IInvertedIndexAccessor accessor = (IInvertedIndexAccessor) reader.createAccessor(
+                    NoOpOperationCallback.INSTANCE, NoOpOperationCallback.INSTANCE);
+            IInvertedListCursor listCursor = accessor.createInvertedListCursor();
+            Assert.assertEquals(writeCompressed, listCursor instanceof CompressedIntegerInvertedListCursor);
+            checkList(accessor, listCursor, "all", 1);
+            checkList(accessor, listCursor, "even", 2);
+        } finally {
+            reader.deactivate();
+            reader.destroy();
+        }
+    }
+
+    private void checkList(IInvertedIndexAccessor accessor, IInvertedListCursor listCursor, String token, int step)
+            throws Exception {
+        accessor.openInvertedListCursor(listCursor, TupleUtils.createTuple(tokenSerdes, token));
+        listCursor.pinPages();
+        try {
+            Assert.assertEquals((NUM_KEYS + step - 1) / step, listCursor.size());
+            for (int i = 0; i < NUM_KEYS; i += step) {
+                Assert.assertTrue(listCursor.hasNext());
+                listCursor.next();
+                Assert.assertEquals(i, IntegerPointable.getInteger(listCursor.getTuple().getFieldData(0), listCursor
+                        .getTuple().getFieldStart(0)));
+            }
+            Assert.assertFalse(listCursor.hasNext());
+        } finally {
+            listCursor.unpinPages();
+        }
+    }
+
+    private OnDiskInvertedIndex createIndex(boolean compressInvLists) throws Exception {
+        return InvertedIndexUtils.createOnDiskInvertedIndex(harness.getDiskBufferCache(),
+                harness.getDiskFileMapProvider(), invListTypeTraits, invListCmpFactories, tokenTypeTraits,
+                tokenCmpFactories, harness.getInvListsFileRef(), compressInvLists);
+    }
+}
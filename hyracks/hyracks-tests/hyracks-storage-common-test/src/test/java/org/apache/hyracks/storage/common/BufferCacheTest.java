@@ -19,6 +19,8 @@
 package org.apache.hyracks.storage.common;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -319,6 +321,92 @@ public class BufferCacheTest {
         bufferCache.close();
     }
 
+    @Test
+    public void pinAllTest() throws Exception {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES, MAX_OPEN_FILES);
+        IBufferCache bufferCache = TestStorageManagerComponentHolder.getBufferCache(ctx);
+        IFileMapProvider fmp = TestStorageManagerComponentHolder.getFileMapProvider(ctx);
+        String fileName = getFileName();
+        FileReference file = new FileReference(new File(fileName));
+        bufferCache.createFile(file);
+        int fileId = fmp.lookupFileId(file);
+        int numTestPages = NUM_PAGES - 2;
+        int num = 10;
+
+        // write the file behind the cache's back, so that every page has to be read from disk
+        ByteBuffer buffer = ByteBuffer.allocate(numTestPages * PAGE_SIZE);
+        for (int p = 0; p < numTestPages; p++) {
+            for (int i = 0; i < num; i++) {
+                buffer.putInt(p * PAGE_SIZE + i * 4, p * num + i);
+            }
+        }
+        try (FileOutputStream out = new FileOutputStream(fileName)) {
+            out.write(buffer.array());
+        }
+        bufferCache.openFile(fileId);
+
+        // pin the pages in a shuffled order; all of them have to be read from disk
+        long[] dpids = new long[numTestPages];
+        for (int p = 0; p < numTestPages; p++) {
+            dpids[p] = BufferedFileHandle.getDiskPageId(fileId, (p * 3) % numTestPages);
+        }
+        ICachedPage[] pages = new ICachedPage[numTestPages];
+        bufferCache.pinAll(dpids, pages, numTestPages);
+        for (int p = 0; p < numTestPages; p++) {
+            int pageId = BufferedFileHandle.getPageId(dpids[p]);
+            pages[p].acquireReadLatch();
+            try {
+                for (int i = 0; i < num; i++) {
+                    Assert.assertEquals(pageId * num + i, pages[p].getBuffer().getInt(i * 4));
+                }
+            } finally {
+                pages[p].releaseReadLatch();
+                bufferCache.unpin(pages[p]);
+            }
+        }
+
+        bufferCache.closeFile(fileId);
+        bufferCache.close();
+    }
+
+    @Test
+    public void pinAllReadFailureTest() throws Exception {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES, MAX_OPEN_FILES);
+        IBufferCache bufferCache = TestStorageManagerComponentHolder.getBufferCache(ctx);
+        IFileMapProvider fmp = TestStorageManagerComponentHolder.getFileMapProvider(ctx);
+        FileReference file = new FileReference(new File(getFileName()));
+        bufferCache.createFile(file);
+        int fileId = fmp.lookupFileId(file);
+        bufferCache.openFile(fileId);
+        for (int p = 0; p < 2; p++) {
+            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, p), true);
+            bufferCache.unpin(page);
+        }
+        // a file that is not open, so that starting the read of its page fails
+        FileReference closedFile = new FileReference(new File(getFileName()));
+        bufferCache.createFile(closedFile);
+        int closedFileId = fmp.lookupFileId(closedFile);
+
+        long[] dpids = new long[] { BufferedFileHandle.getDiskPageId(fileId, 0),
+                BufferedFileHandle.getDiskPageId(fileId, 1), BufferedFileHandle.getDiskPageId(closedFileId, 0) };
+        ICachedPage[] pages = new ICachedPage[dpids.length];
+        try {
+            bufferCache.pinAll(dpids, pages, dpids.length);
+            Assert.fail("pinAll() read a page of a file that is not open");
+        } catch (HyracksDataException e) {
+            // expected
+        }
+        for (ICachedPage page : pages) {
+            Assert.assertNull(page);
+        }
+
+        // deleting a file fails if any of its pages is still pinned
+        bufferCache.deleteFile(closedFileId, false);
+        bufferCache.closeFile(fileId);
+        bufferCache.deleteFile(fileId, false);
+        bufferCache.close();
+    }
+
     @AfterClass
     public static void cleanup() throws Exception {
         for (String s : openedFiles) {
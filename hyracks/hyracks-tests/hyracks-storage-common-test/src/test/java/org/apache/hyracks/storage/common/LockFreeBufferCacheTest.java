@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.storage.common.buffercache.ClockPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.DelayPageCleanerPolicy;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.LockFreeBufferCache;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.storage.common.file.TransientFileMapManager;
+import org.apache.hyracks.test.support.TestUtils;
+
+public class LockFreeBufferCacheTest {
+    private static final String tmpDir = System.getProperty("java.io.tmpdir");
+    private static final String sep = System.getProperty("file.separator");
+
+    private static final int PAGE_SIZE = 256;
+    private static final int NUM_PAGES = 10;
+    private static final int MAX_OPEN_FILES = 20;
+    private static final int NUM_FILE_PAGES = 100;
+    private IHyracksTaskContext ctx = TestUtils.create(PAGE_SIZE);
+
+    private final static ThreadFactory threadFactory = new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+            return new Thread(r);
+        }
+    };
+
+    private final TransientFileMapManager fileMapManager = new TransientFileMapManager();
+
+    private IBufferCache createBufferCache() {
+        return new LockFreeBufferCache(ctx.getIOManager(), new ClockPageReplacementStrategy(
+                new HeapBufferAllocator(), PAGE_SIZE, NUM_PAGES), new DelayPageCleanerPolicy(1000), fileMapManager,
+                MAX_OPEN_FILES, threadFactory);
+    }
+
+    private int createFile(IBufferCache bufferCache, String name) throws HyracksDataException {
+        File f = new File(tmpDir + sep + name);
+        f.deleteOnExit();
+        FileReference file = new FileReference(f);
+        bufferCache.createFile(file);
+        int fileId = fileMapManager.lookupFileId(file);
+        bufferCache.openFile(fileId);
+        return fileId;
+    }
+
+    private void writePages(IBufferCache bufferCache, int fileId) throws HyracksDataException {
+        for (int i = 0; i < NUM_FILE_PAGES; i++) {
+            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), true);
+            page.acquireWriteLatch();
+            try {
+                page.getBuffer().putInt(0, i);
+            } finally {
+                page.releaseWriteLatch(true);
+                bufferCache.unpin(page);
+            }
+        }
+    }
+
+    @Test
+    public void evictionRoundTripTest() throws HyracksDataException {
+        IBufferCache bufferCache = createBufferCache();
+        int fileId = createFile(bufferCache, "lockFreeBufferCacheEviction");
+
+        // the file is ten times larger than the cache, so pages get evicted and read back
+        writePages(bufferCache, fileId);
+        for (int i = NUM_FILE_PAGES - 1; i >= 0; i--) {
+            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), false);
+            page.acquireReadLatch();
+            try {
+                Assert.assertEquals(i, page.getBuffer().getInt(0));
+            } finally {
+                page.releaseReadLatch();
+                bufferCache.unpin(page);
+            }
+        }
+
+        // the last page pinned must still be cached
+        ICachedPage page = bufferCache.tryPin(BufferedFileHandle.getDiskPageId(fileId, 0));
+        Assert.assertNotNull(page);
+        bufferCache.unpin(page);
+
+        bufferCache.closeFile(fileId);
+        bufferCache.deleteFile(fileId, false);
+        Assert.assertNull(bufferCache.tryPin(BufferedFileHandle.getDiskPageId(fileId, 0)));
+        bufferCache.close();
+    }
+
+    @Test
+    public void concurrentPinTest() throws Exception {
+        runConcurrentPins("lockFreeBufferCacheConcurrent", false);
+    }
+
+    @Test
+    public void concurrentPinAndConfiscateTest() throws Exception {
+        // confiscations evict pages that the pinning threads may be probing under their old ids
+        runConcurrentPins("lockFreeBufferCacheConfiscate", true);
+    }
+
+    private void runConcurrentPins(String fileName, boolean confiscate) throws Exception {
+        final IBufferCache bufferCache = createBufferCache();
+        final int fileId = createFile(bufferCache, fileName);
+        writePages(bufferCache, fileId);
+
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[confiscate ? 5 : 4];
+        if (confiscate) {
+            threads[4] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < 5000; i++) {
+                            ICachedPage page = bufferCache.confiscatePage(
+                                    BufferedFileHandle.getDiskPageId(fileId, NUM_FILE_PAGES + i));
+                            page.getBuffer().putInt(0, -1);
+                            bufferCache.returnPage(page, false);
+                        }
+                    } catch (Throwable th) {
+                        failure.compareAndSet(null, th);
+                    }
+                }
+            };
+            threads[4].start();
+        }
+        for (int t = 0; t < 4; t++) {
+            final Random rnd = new Random(t);
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < 5000; i++) {
+                            int pageId = rnd.nextInt(NUM_FILE_PAGES);
+                            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId),
+                                    false);
+                            page.acquireReadLatch();
+                            try {
+                                if (page.getBuffer().getInt(0) != pageId) {
+                                    throw new IllegalStateException("Pinned the wrong page for " + pageId);
+                                }
+                            } finally {
+                                page.releaseReadLatch();
+                                bufferCache.unpin(page);
+                            }
+                        }
+                    } catch (Throwable th) {
+                        failure.compareAndSet(null, th);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        bufferCache.closeFile(fileId);
+        bufferCache.deleteFile(fileId, false);
+        bufferCache.close();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.SequentialReadAhead;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.storage.common.file.IFileMapProvider;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+import org.apache.hyracks.test.support.TestUtils;
+
+public class SequentialReadAheadTest {
+    private static final SimpleDateFormat simpleDateFormat = new SimpleDateFormat("ddMMyy-hhmmssSS");
+    private static final String tmpDir = System.getProperty("java.io.tmpdir");
+    private static final String sep = System.getProperty("file.separator");
+
+    private static final int PAGE_SIZE = 256;
+    private static final int NUM_PAGES = 64;
+    private static final int MAX_OPEN_FILES = 10;
+    private static final int NUM_FILE_PAGES = 48;
+    private IHyracksTaskContext ctx = TestUtils.create(PAGE_SIZE);
+
+    private int createFile(IBufferCache bufferCache) throws IOException, HyracksDataException {
+        IFileMapProvider fmp = TestStorageManagerComponentHolder.getFileMapProvider(ctx);
+        File f = new File(tmpDir + sep + "readahead" + simpleDateFormat.format(new Date()));
+        f.deleteOnExit();
+        // write the file behind the cache's back, so that every page has to be read from disk
+        ByteBuffer buffer = ByteBuffer.allocate(NUM_FILE_PAGES * PAGE_SIZE);
+        for (int i = 0; i < NUM_FILE_PAGES; i++) {
+            buffer.putInt(i * PAGE_SIZE, i);
+        }
+        try (FileOutputStream out = new FileOutputStream(f)) {
+            out.write(buffer.array());
+        }
+        FileReference file = new FileReference(f);
+        bufferCache.createFile(file);
+        int fileId = fmp.lookupFileId(file);
+        bufferCache.openFile(fileId);
+        return fileId;
+    }
+
+    private boolean isCached(IBufferCache bufferCache, int fileId, int pageId) throws HyracksDataException {
+        ICachedPage page = bufferCache.tryPin(BufferedFileHandle.getDiskPageId(fileId, pageId));
+        if (page == null) {
+            return false;
+        }
+        bufferCache.unpin(page);
+        return true;
+    }
+
+    private void access(IBufferCache bufferCache, SequentialReadAhead readAhead, int fileId, int pageId)
+            throws HyracksDataException {
+        readAhead.notifyAccess(bufferCache, fileId, pageId);
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+        try {
+            Assert.assertEquals(pageId, page.getBuffer().getInt(0));
+        } finally {
+            bufferCache.unpin(page);
+        }
+    }
+
+    @Test
+    public void sequentialScanTest() throws Exception {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES, MAX_OPEN_FILES);
+        IBufferCache bufferCache = TestStorageManagerComponentHolder.getBufferCache(ctx);
+        int fileId = createFile(bufferCache);
+        SequentialReadAhead readAhead = new SequentialReadAhead();
+
+        access(bufferCache, readAhead, fileId, 0);
+        readAhead.reset(0);
+        access(bufferCache, readAhead, fileId, 1);
+        Assert.assertFalse(isCached(bufferCache, fileId, 3));
+        access(bufferCache, readAhead, fileId, 2);
+        Assert.assertEquals(SequentialReadAhead.INITIAL_WINDOW, readAhead.getWindow());
+        for (int i = 3; i <= 2 + SequentialReadAhead.INITIAL_WINDOW; i++) {
+            Assert.assertTrue(isCached(bufferCache, fileId, i));
+        }
+        // the window grows while the scan goes on, and prefetching stops at the end of the file
+        for (int i = 3; i < NUM_FILE_PAGES; i++) {
+            access(bufferCache, readAhead, fileId, i);
+        }
+        Assert.assertTrue(readAhead.getWindow() > SequentialReadAhead.INITIAL_WINDOW);
+
+        bufferCache.closeFile(fileId);
+        bufferCache.close();
+    }
+
+    @Test
+    public void stridedAccessTest() throws Exception {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES, MAX_OPEN_FILES);
+        IBufferCache bufferCache = TestStorageManagerComponentHolder.getBufferCache(ctx);
+        int fileId = createFile(bufferCache);
+        SequentialReadAhead readAhead = new SequentialReadAhead();
+
+        readAhead.reset(0);
+        for (int i = 0; i < NUM_FILE_PAGES; i += 2) {
+            access(bufferCache, readAhead, fileId, i);
+        }
+        Assert.assertEquals(0, readAhead.getWindow());
+        for (int i = 1; i < NUM_FILE_PAGES; i += 2) {
+            Assert.assertFalse(isCached(bufferCache, fileId, i));
+        }
+
+        bufferCache.closeFile(fileId);
+        bufferCache.close();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.util.Random;
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.common.buffercache.BufferCache;
+import org.apache.hyracks.storage.common.buffercache.ClockPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.DelayPageCleanerPolicy;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.TwoQueuePageReplacementStrategy;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.storage.common.file.TransientFileMapManager;
+import org.apache.hyracks.storage.common.perf.PageReplacementSimulator;
+import org.apache.hyracks.test.support.TestUtils;
+
+public class TwoQueuePageReplacementStrategyTest {
+    private static final int PAGE_SIZE = 256;
+    private static final int NUM_PAGES = 20;
+    private static final int HOT_PAGES = 5;
+    private static final int SCAN_PAGES = 200;
+    private IHyracksTaskContext ctx = TestUtils.create(PAGE_SIZE);
+
+    private final static ThreadFactory threadFactory = new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+            return new Thread(r);
+        }
+    };
+
+    private IBufferCache createBufferCache(IPageReplacementStrategy prs) {
+        return new BufferCache(ctx.getIOManager(), prs, new DelayPageCleanerPolicy(1000),
+                new TransientFileMapManager(), 10, threadFactory);
+    }
+
+    // Pages are pinned as new pages, so no file needs to exist for the replacement decisions.
+    private void access(IBufferCache bufferCache, int fileId, int pageId) throws HyracksDataException {
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), true);
+        bufferCache.unpin(page);
+    }
+
+    @Test
+    public void hotPagesSurviveScanTest() throws HyracksDataException {
+        IBufferCache bufferCache = createBufferCache(new TwoQueuePageReplacementStrategy(new HeapBufferAllocator(),
+                PAGE_SIZE, NUM_PAGES));
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < HOT_PAGES; i++) {
+                access(bufferCache, 0, i);
+            }
+        }
+        for (int i = 0; i < SCAN_PAGES; i++) {
+            access(bufferCache, 1, i);
+        }
+        for (int i = 0; i < HOT_PAGES; i++) {
+            ICachedPage page = bufferCache.tryPin(BufferedFileHandle.getDiskPageId(0, i));
+            Assert.assertNotNull("Hot page " + i + " was evicted by the scan", page);
+            bufferCache.unpin(page);
+        }
+        bufferCache.close();
+    }
+
+    @Test
+    public void wontNeedPagesAreEvictedFirstTest() throws HyracksDataException {
+        IBufferCache bufferCache = createBufferCache(new TwoQueuePageReplacementStrategy(new HeapBufferAllocator(),
+                PAGE_SIZE, NUM_PAGES));
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < NUM_PAGES; i++) {
+                access(bufferCache, 0, i);
+            }
+        }
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(0, 0), true);
+        bufferCache.adviseWontNeed(page);
+        bufferCache.unpin(page);
+        // one more page forces one eviction, which must hit the advised page
+        access(bufferCache, 1, 0);
+        Assert.assertNull(bufferCache.tryPin(BufferedFileHandle.getDiskPageId(0, 0)));
+        bufferCache.close();
+    }
+
+    @Test
+    public void simulatedHitRatioTest() throws Exception {
+        long[] trace = PageReplacementSimulator.syntheticTrace(64, new Random(17));
+        double clock = PageReplacementSimulator.simulate(ctx.getIOManager(), new ClockPageReplacementStrategy(
+                new HeapBufferAllocator(), PAGE_SIZE, 64), trace);
+        double twoQueue = PageReplacementSimulator.simulate(ctx.getIOManager(), new TwoQueuePageReplacementStrategy(
+                new HeapBufferAllocator(), PAGE_SIZE, 64), trace);
+        Assert.assertTrue("2Q hit ratio " + twoQueue + " not above clock " + clock, twoQueue > clock);
+    }
+}
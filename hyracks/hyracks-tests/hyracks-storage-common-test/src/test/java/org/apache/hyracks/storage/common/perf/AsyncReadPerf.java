@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.perf;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IFileHandle;
+import org.apache.hyracks.api.io.IIOCallback;
+import org.apache.hyracks.api.io.IIOFuture;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.io.IIOManager.FileReadWriteMode;
+import org.apache.hyracks.api.io.IIOManager.FileSyncMode;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+
+/**
+ * Measures random read throughput of {@link IIOManager#asyncRead} for read sizes of 4K to 128K at
+ * queue depths of 1 to 64. A single submitter keeps queueDepth reads outstanding at all times.
+ * Unless the file is larger than the OS page cache, this mostly measures the overhead of the I/O
+ * path rather than the device.
+ * Usage: AsyncReadPerf [fileSizeMB] [millisPerRun]
+ */
+public class AsyncReadPerf {
+    private static final int[] READ_SIZES = new int[] { 4096, 16384, 65536, 131072 };
+    private static final int[] QUEUE_DEPTHS = new int[] { 1, 2, 4, 8, 16, 32, 64 };
+
+    public static void main(String[] args) throws Exception {
+        long fileSize = (args.length > 0 ? Long.parseLong(args[0]) : 256) * 1024 * 1024;
+        long millisPerRun = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+
+        File f = File.createTempFile("asyncreadperf", ".dat");
+        f.deleteOnExit();
+        IFileHandle fHandle = ioManager.open(new FileReference(f), FileReadWriteMode.READ_WRITE,
+                FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
+        try {
+            ByteBuffer chunk = ByteBuffer.allocate(1024 * 1024);
+            new Random(0).nextBytes(chunk.array());
+            for (long offset = 0; offset < fileSize; offset += chunk.capacity()) {
+                chunk.clear();
+                ioManager.syncWrite(fHandle, offset, chunk);
+            }
+            ioManager.sync(fHandle, false);
+
+            System.out.print("readSize\\queueDepth");
+            for (int queueDepth : QUEUE_DEPTHS) {
+                System.out.print("\t" + queueDepth);
+            }
+            System.out.println("\t(reads/s)");
+            for (int readSize : READ_SIZES) {
+                System.out.print(readSize);
+                for (int queueDepth : QUEUE_DEPTHS) {
+                    System.out.print("\t" + run(ioManager, fHandle, fileSize, readSize, queueDepth, millisPerRun));
+                }
+                System.out.println();
+            }
+        } finally {
+            ioManager.close(fHandle);
+            f.delete();
+        }
+        System.exit(0);
+    }
+
+    private static long run(IIOManager ioManager, IFileHandle fHandle, long fileSize, int readSize, int queueDepth,
+            long millisPerRun) throws Exception {
+        final BlockingQueue<ByteBuffer> freeBuffers = new ArrayBlockingQueue<ByteBuffer>(queueDepth);
+        for (int i = 0; i < queueDepth; i++) {
+            freeBuffers.add(ByteBuffer.allocateDirect(readSize));
+        }
+        final AtomicLong completed = new AtomicLong();
+        long nBlocks = fileSize / readSize;
+        Random rnd = new Random(readSize + queueDepth);
+        long start = System.currentTimeMillis();
+        long end = start + millisPerRun;
+        while (System.currentTimeMillis() < end) {
+            final ByteBuffer buffer = freeBuffers.take();
+            buffer.clear();
+            long offset = (long) (rnd.nextDouble() * nBlocks) * readSize;
+            ioManager.asyncRead(fHandle, offset, buffer, new IIOCallback() {
+                @Override
+                public void completed(IIOFuture future) {
+                    completed.incrementAndGet();
+                    freeBuffers.add(buffer);
+                }
+            });
+        }
+        // drain the outstanding reads
+        for (int i = 0; i < queueDepth; i++) {
+            freeBuffers.take();
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        return completed.get() * 1000 / elapsed;
+    }
+}
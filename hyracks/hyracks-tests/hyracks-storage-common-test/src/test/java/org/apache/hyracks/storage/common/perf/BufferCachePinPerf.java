@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.perf;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.storage.common.buffercache.BufferCache;
+import org.apache.hyracks.storage.common.buffercache.ClockPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.DelayPageCleanerPolicy;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.LockFreeBufferCache;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.storage.common.file.TransientFileMapManager;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+
+/**
+ * Measures pin/unpin throughput of {@link BufferCache} and {@link LockFreeBufferCache} on a fully
+ * cached, read-only working set (point-lookup-like access) at 1 to 64 threads.
+ * Usage: BufferCachePinPerf [numPages] [millisPerRun]
+ */
+public class BufferCachePinPerf {
+    private static final int PAGE_SIZE = 4096;
+    private static final int MAX_OPEN_FILES = 10;
+    private static final int[] THREAD_COUNTS = new int[] { 1, 2, 4, 8, 16, 32, 64 };
+
+    private final static ThreadFactory threadFactory = new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+            return new Thread(r);
+        }
+    };
+
+    public static void main(String[] args) throws Exception {
+        Logger.getLogger("org.apache.hyracks").setLevel(Level.OFF);
+        int numPages = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        long millisPerRun = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+
+        System.out.println("threads\tBufferCache(ops/s)\tLockFreeBufferCache(ops/s)");
+        for (int numThreads : THREAD_COUNTS) {
+            long locking = run(ioManager, false, numPages, numThreads, millisPerRun);
+            long lockFree = run(ioManager, true, numPages, numThreads, millisPerRun);
+            System.out.println(numThreads + "\t" + locking + "\t" + lockFree);
+        }
+        System.exit(0);
+    }
+
+    private static long run(IIOManager ioManager, boolean lockFree, final int numPages, int numThreads,
+            long millisPerRun) throws Exception {
+        TransientFileMapManager fileMapManager = new TransientFileMapManager();
+        IPageReplacementStrategy prs = new ClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE,
+                numPages);
+        final IBufferCache bufferCache = lockFree ? new LockFreeBufferCache(ioManager, prs,
+                new DelayPageCleanerPolicy(1000), fileMapManager, MAX_OPEN_FILES, threadFactory) : new BufferCache(
+                ioManager, prs, new DelayPageCleanerPolicy(1000), fileMapManager, MAX_OPEN_FILES, threadFactory);
+
+        File f = File.createTempFile("pinperf", ".dat");
+        f.deleteOnExit();
+        FileReference fileRef = new FileReference(f);
+        bufferCache.createFile(fileRef);
+        final int fileId = fileMapManager.lookupFileId(fileRef);
+        bufferCache.openFile(fileId);
+        // Populate the whole working set so the measured loop only sees cache hits.
+        for (int i = 0; i < numPages; i++) {
+            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), true);
+            bufferCache.unpin(page);
+        }
+
+        final long[] counts = new long[numThreads];
+        final AtomicBoolean stop = new AtomicBoolean(false);
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            final int threadIdx = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    Random rnd = new Random(threadIdx);
+                    long ops = 0;
+                    try {
+                        while (!stop.get()) {
+                            for (int i = 0; i < 1000; i++) {
+                                long dpid = BufferedFileHandle.getDiskPageId(fileId, rnd.nextInt(numPages));
+                                ICachedPage page = bufferCache.pin(dpid, false);
+                                bufferCache.unpin(page);
+                            }
+                            ops += 1000;
+                        }
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                    counts[threadIdx] = ops;
+                }
+            };
+        }
+        long start = System.currentTimeMillis();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        Thread.sleep(millisPerRun);
+        stop.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        bufferCache.closeFile(fileId);
+        bufferCache.deleteFile(fileId, false);
+        bufferCache.close();
+
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total * 1000 / elapsed;
+    }
+}
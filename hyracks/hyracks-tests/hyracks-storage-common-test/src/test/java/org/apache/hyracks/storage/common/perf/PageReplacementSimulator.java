@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.perf;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.util.Random;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.storage.common.buffercache.BufferCache;
+import org.apache.hyracks.storage.common.buffercache.ClockPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.DebugBufferCache;
+import org.apache.hyracks.storage.common.buffercache.DelayPageCleanerPolicy;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.TwoQueuePageReplacementStrategy;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.storage.common.file.TransientFileMapManager;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+
+/**
+ * Replays a dpid access trace against a buffer cache with the clock strategy and with the 2Q
+ * strategy and prints the hit ratio of each. Pages are pinned as new pages, so the replay does not
+ * touch the disk; only the replacement decisions are exercised.
+ * Usage: PageReplacementSimulator numPages [traceFile]
+ * The trace has one dpid per line, either as a long (as recorded by
+ * {@link DebugBufferCache#setAccessTrace}) or as fileId:pageId. Without a trace file a synthetic
+ * workload is used: point lookups over a hot set interleaved with full scans of a large file.
+ */
+public class PageReplacementSimulator {
+    private static final int PAGE_SIZE = 8;
+    private static final int MAX_OPEN_FILES = 10;
+
+    private final static ThreadFactory threadFactory = new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+            return new Thread(r);
+        }
+    };
+
+    public static void main(String[] args) throws Exception {
+        Logger.getLogger("org.apache.hyracks").setLevel(Level.OFF);
+        int numPages = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+        long[] trace = args.length > 1 ? readTrace(args[1]) : syntheticTrace(numPages, new Random(17));
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+
+        System.out.println("accesses: " + trace.length + ", cache pages: " + numPages);
+        System.out.println("clock hit ratio: "
+                + simulate(ioManager, new ClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE,
+                        numPages), trace));
+        System.out.println("2q hit ratio:    "
+                + simulate(ioManager, new TwoQueuePageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE,
+                        numPages), trace));
+        System.exit(0);
+    }
+
+    public static double simulate(IIOManager ioManager, IPageReplacementStrategy prs, long[] trace)
+            throws Exception {
+        IBufferCache bufferCache = new BufferCache(ioManager, prs, new DelayPageCleanerPolicy(1000),
+                new TransientFileMapManager(), MAX_OPEN_FILES, threadFactory);
+        long hits = 0;
+        try {
+            for (long dpid : trace) {
+                ICachedPage page = bufferCache.tryPin(dpid);
+                if (page != null) {
+                    ++hits;
+                } else {
+                    page = bufferCache.pin(dpid, true);
+                }
+                bufferCache.unpin(page);
+            }
+        } finally {
+            bufferCache.close();
+        }
+        return trace.length == 0 ? 0 : (double) hits / trace.length;
+    }
+
+    private static long[] readTrace(String fileName) throws Exception {
+        long[] trace = new long[1024];
+        int size = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                int colon = line.indexOf(':');
+                long dpid = colon < 0 ? Long.parseLong(line) : BufferedFileHandle.getDiskPageId(
+                        Integer.parseInt(line.substring(0, colon)), Integer.parseInt(line.substring(colon + 1)));
+                if (size == trace.length) {
+                    long[] newTrace = new long[trace.length * 2];
+                    System.arraycopy(trace, 0, newTrace, 0, size);
+                    trace = newTrace;
+                }
+                trace[size++] = dpid;
+            }
+        }
+        long[] result = new long[size];
+        System.arraycopy(trace, 0, result, 0, size);
+        return result;
+    }
+
+    /**
+     * Point lookups over a hot set of half the cache (file 0), with a sequential scan of a file
+     * four times the cache size (file 1) after every 10 lookups per hot page.
+     */
+    public static long[] syntheticTrace(int numPages, Random rnd) {
+        int hotPages = numPages / 2;
+        int scanPages = numPages * 4;
+        int lookupsPerRound = hotPages * 10;
+        int rounds = 5;
+        long[] trace = new long[rounds * (lookupsPerRound + scanPages)];
+        int pos = 0;
+        for (int r = 0; r < rounds; r++) {
+            for (int i = 0; i < lookupsPerRound; i++) {
+                trace[pos++] = BufferedFileHandle.getDiskPageId(0, rnd.nextInt(hotPages));
+            }
+            for (int i = 0; i < scanPages; i++) {
+                trace[pos++] = BufferedFileHandle.getDiskPageId(1, i);
+            }
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.util.compression;
+
+import java.util.Arrays;
+
+/**
+ * A byte-oriented LZ77 block codec in the style of LZ4, meant for compressing frames on the fly.
+ * A compressed block is a sequence of (literals, match) pairs. Each pair starts with a token byte whose high
+ * nibble is the literal length and whose low nibble is the match length minus {@link #MIN_MATCH}; a nibble of 15
+ * is extended by the following bytes, which are added to it until one of them is less than 255. The literals
+ * come next, followed by the match offset as two little-endian bytes and the extension of the match length, if
+ * any. The last pair only has literals.
+ * Matches are found through a hash table of the last positions of 4-byte sequences, so compression runs in a
+ * single pass and decompression is a sequence of array copies.
+ * An instance holds the hash table and is not thread-safe; decompression is static.
+ */
+public class LZBlockCodec {
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 65535;
+    // the last literals and the minimum distance of the last match from the end of the block
+    private static final int LAST_LITERALS = 5;
+    private static final int MATCH_FIND_LIMIT = 12;
+    private static final int HASH_LOG = 12;
+    // the step of the scan grows by one every 2^SKIP_STRENGTH bytes without a match
+    private static final int SKIP_STRENGTH = 6;
+    private static final int RUN_MASK = 15;
+
+    private final int[] hashTable = new int[1 << HASH_LOG];
+
+    /**
+     * @return the largest size that a block of the given length can have once compressed.
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses a block.
+     *
+     * @param src
+     *            - the bytes to compress
+     * @param srcOffset
+     *            - the offset of the block in src
+     * @param length
+     *            - the length of the block
+     * @param dest
+     *            - the array that receives the compressed block; it must have room for
+     *            {@link #maxCompressedLength(int)} bytes from destOffset
+     * @param destOffset
+     *            - the offset of the compressed block in dest
+     * @return the length of the compressed block.
+     */
+    public int compress(byte[] src, int srcOffset, int length, byte[] dest, int destOffset) {
+        int end = srcOffset + length;
+        int anchor = srcOffset;
+        int op = destOffset;
+        if (length >= MATCH_FIND_LIMIT + 1) {
+            // the table keeps positions relative to the block, plus one, so that zero means empty
+            Arrays.fill(hashTable, 0);
+            int matchLimit = end - LAST_LITERALS;
+            int findLimit = end - MATCH_FIND_LIMIT;
+            int ip = srcOffset + 1;
+            int searchCount = 1 << SKIP_STRENGTH;
+            while (ip < findLimit) {
+                int sequence = readInt(src, ip);
+                int h = hash(sequence);
+                int ref = srcOffset + hashTable[h] - 1;
+                hashTable[h] = ip - srcOffset + 1;
+                if (ref < srcOffset || ip - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                    ip += searchCount++ >>> SKIP_STRENGTH;
+                    continue;
+                }
+                searchCount = 1 << SKIP_STRENGTH;
+                while (ip > anchor && ref > srcOffset && src[ip - 1] == src[ref - 1]) {
+                    --ip;
+                    --ref;
+                }
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchLimit && src[ip + matchLength] == src[ref + matchLength]) {
+                    ++matchLength;
+                }
+                op = writeSequence(src, anchor, ip - anchor, ip - ref, matchLength, dest, op);
+                ip += matchLength;
+                anchor = ip;
+                if (ip < findLimit) {
+                    hashTable[hash(readInt(src, ip - 2))] = ip - 2 - srcOffset + 1;
+                }
+            }
+        }
+        op = writeLiterals(src, anchor, end - anchor, 0, dest, op);
+        return op - destOffset;
+    }
+
+    /**
+     * Decompresses a block.
+     *
+     * @param src
+     *            - the compressed block
+     * @param srcOffset
+     *            - the offset of the compressed block in src
+     * @param length
+     *            - the length of the compressed block
+     * @param dest
+     *            - the array that receives the decompressed bytes
+     * @param destOffset
+     *            - the offset of the decompressed bytes in dest
+     * @param maxLength
+     *            - the most bytes that may be written to dest
+     * @return the length of the decompressed block.
+     * @throws IllegalArgumentException
+     *             if the block is corrupt or decompresses to more than maxLength bytes.
+     */
+    public static int decompress(byte[] src, int srcOffset, int length, byte[] dest, int destOffset, int maxLength) {
+        int ip = srcOffset;
+        int end = srcOffset + length;
+        int op = destOffset;
+        int destEnd = destOffset + maxLength;
+        while (true) {
+            if (ip >= end) {
+                throw new IllegalArgumentException("Corrupt compressed block at " + (ip - srcOffset));
+            }
+            int token = src[ip++] & 0xff;
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK) {
+                int b;
+                do {
+                    if (ip >= end) {
+                        throw new IllegalArgumentException("Corrupt compressed block at " + (ip - srcOffset));
+                    }
+                    b = src[ip++] & 0xff;
+                    literalLength += b;
+                } while (b == 255);
+            }
+            if (literalLength > end - ip || literalLength > destEnd - op) {
+                throw new IllegalArgumentException("Corrupt compressed block at " + (ip - srcOffset));
+            }
+            System.arraycopy(src, ip, dest, op, literalLength);
+            ip += literalLength;
+            op += literalLength;
+            if (ip == end) {
+                return op - destOffset;
+            }
+            if (end - ip < 2) {
+                throw new IllegalArgumentException("Corrupt compressed block at " + (ip - srcOffset));
+            }
+            int offset = (src[ip] & 0xff) | ((src[ip + 1] & 0xff) << 8);
+            ip += 2;
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK) {
+                int b;
+                do {
+                    if (ip >= end) {
+                        throw new IllegalArgumentException("Corrupt compressed block at " + (ip - srcOffset));
+                    }
+                    b = src[ip++] & 0xff;
+                    matchLength += b;
+                } while (b == 255);
+            }
+            matchLength += MIN_MATCH;
+            int ref = op - offset;
+            if (offset == 0 || ref < destOffset || matchLength > destEnd - op) {
+                throw new IllegalArgumentException("Corrupt compressed block at " + (ip - srcOffset));
+            }
+            if (offset >= matchLength) {
+                System.arraycopy(dest, ref, dest, op, matchLength);
+                op += matchLength;
+            } else {
+                // the match overlaps the bytes it produces, e.g. a run of one repeated byte
+                for (int i = 0; i < matchLength; ++i) {
+                    dest[op++] = dest[ref++];
+                }
+            }
+        }
+    }
+
+    private static int writeSequence(byte[] src, int literalOffset, int literalLength, int offset, int matchLength,
+            byte[] dest, int op) {
+        op = writeLiterals(src, literalOffset, literalLength, matchLength - MIN_MATCH, dest, op);
+        dest[op++] = (byte) offset;
+        dest[op++] = (byte) (offset >>> 8);
+        int remaining = matchLength - MIN_MATCH;
+        if (remaining >= RUN_MASK) {
+            op = writeLengthExtension(remaining - RUN_MASK, dest, op);
+        }
+        return op;
+    }
+
+    private static int writeLiterals(byte[] src, int literalOffset, int literalLength, int matchNibble, byte[] dest,
+            int op) {
+        dest[op++] = (byte) ((Math.min(literalLength, RUN_MASK) << 4) | Math.min(matchNibble, RUN_MASK));
+        if (literalLength >= RUN_MASK) {
+            op = writeLengthExtension(literalLength - RUN_MASK, dest, op);
+        }
+        System.arraycopy(src, literalOffset, dest, op, literalLength);
+        return op + literalLength;
+    }
+
+    private static int writeLengthExtension(int length, byte[] dest, int op) {
+        while (length >= 255) {
+            dest[op++] = (byte) 255;
+            length -= 255;
+        }
+        dest[op++] = (byte) length;
+        return op;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) | ((bytes[offset + 1] & 0xff) << 8) | ((bytes[offset + 2] & 0xff) << 16)
+                | ((bytes[offset + 3] & 0xff) << 24);
+    }
+}
@@ -25,6 +25,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UTFDataFormatException;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.hyracks.util.encoding.VarLenIntEncoderDecoder;
 
@@ -232,6 +233,28 @@ public class UTF8StringUtil {
         return (int) (nk >> 1); // make it always positive.
     }
 
+    /**
+     * Compute a multi-word normalized key of the UTF8 string: the first 2 * numWords chars, two per
+     * int, padded with zeros. The words are meant to be compared as unsigned ints, most significant
+     * first.
+     */
+    public static void normalize(byte[] bytes, int start, int[] keys, int keyStart, int numWords) {
+        int len = getUTFLength(bytes, start);
+        int offset = start + getNumBytesToStoreLength(len);
+        int end = offset + len;
+        for (int w = 0; w < numWords; ++w) {
+            int word = 0;
+            for (int i = 0; i < 2; ++i) {
+                word <<= 16;
+                if (offset < end) {
+                    word |= charAt(bytes, offset) & 0xffff;
+                    offset += charSize(bytes, offset);
+                }
+            }
+            keys[keyStart + w] = word;
+        }
+    }
+
     public static int compareTo(byte[] thisBytes, int thisStart, byte[] thatBytes, int thatStart) {
         return compareTo(thisBytes, thisStart, thatBytes, thatStart, false, false);
     }
@@ -603,6 +626,62 @@ public class UTF8StringUtil {
         out.write(tempBytes, 0, count);
     }
 
+    /**
+     * Writes a string given as standard UTF-8 bytes. Well-formed bytes without NUL and supplementary characters
+     * are copied as they are, since their modified UTF-8 encoding is the same. Anything else is decoded, with
+     * malformed sequences replaced by U+FFFD, and re-encoded.
+     */
+    static void writeUTF8(byte[] utf8, int start, int length, DataOutput out, UTF8StringWriter writer)
+            throws IOException {
+        if (!isModifiedUTF8(utf8, start, length)) {
+            writeUTF8(new String(utf8, start, length, StandardCharsets.UTF_8), out, writer);
+            return;
+        }
+        writeUTF8Length(length, getTempBytes(writer, 0), out);
+        out.write(utf8, start, length);
+    }
+
+    /**
+     * @return true if the bytes are well-formed UTF-8 of characters other than NUL in the basic multilingual plane,
+     *         excluding encoded surrogates
+     */
+    private static boolean isModifiedUTF8(byte[] utf8, int start, int length) {
+        int end = start + length;
+        int i = start;
+        while (i < end) {
+            int b = utf8[i] & 0xFF;
+            if (b < 0x80) {
+                if (b == 0) {
+                    return false;
+                }
+                ++i;
+            } else if (b >= 0xC2 && b <= 0xDF) {
+                if (i + 1 >= end || !isContinuation(utf8[i + 1])) {
+                    return false;
+                }
+                i += 2;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                if (i + 2 >= end || !isContinuation(utf8[i + 1]) || !isContinuation(utf8[i + 2])) {
+                    return false;
+                }
+                int b1 = utf8[i + 1] & 0xFF;
+                // overlong encodings and encoded surrogates
+                if ((b == 0xE0 && b1 < 0xA0) || (b == 0xED && b1 >= 0xA0)) {
+                    return false;
+                }
+                i += 3;
+            } else {
+                // stray continuation bytes, overlong 0xC0/0xC1 leads and supplementary characters
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
     private static int writeToBytes(byte[] tempBytes, int count, char c) {
         int orig = count;
         if ((c >= 0x0001) && (c <= 0x007F)) {
@@ -32,4 +32,11 @@ public class UTF8StringWriter {
         UTF8StringUtil.writeUTF8(buffer, start, length, out, this);
     }
 
+    /**
+     * Writes a string given as standard UTF-8 bytes, such as a field of a UTF-8 encoded text file.
+     */
+    public final void writeUTF8(byte[] utf8, int start, int length, DataOutput out) throws IOException {
+        UTF8StringUtil.writeUTF8(utf8, start, length, out, this);
+    }
+
 }
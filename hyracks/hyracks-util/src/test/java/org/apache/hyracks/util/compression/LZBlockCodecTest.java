@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.util.compression;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LZBlockCodecTest {
+    private static final int FRAME_SIZE = 32768;
+
+    private final LZBlockCodec codec = new LZBlockCodec();
+
+    @Test
+    public void testEmptyAndTinyBlocks() {
+        for (int length = 0; length < 20; ++length) {
+            byte[] block = new byte[length];
+            Arrays.fill(block, (byte) 'a');
+            roundTrip(block, 0, length);
+        }
+    }
+
+    @Test
+    public void testPaddedFrame() {
+        // a frame whose tuples take only part of it, followed by zeros and the tuple offsets at the end
+        byte[] frame = new byte[FRAME_SIZE];
+        byte[] record = "12345|Customer#000012345|IVhzIApeRb ot,c,E|15|25-989-741-2988|711.56|BUILDING|"
+                .getBytes(StandardCharsets.UTF_8);
+        int offset = 0;
+        int nTuples = 0;
+        while (offset + record.length < FRAME_SIZE / 2) {
+            System.arraycopy(record, 0, frame, offset, record.length);
+            offset += record.length;
+            ++nTuples;
+        }
+        for (int i = 0; i < nTuples; ++i) {
+            int end = (i + 1) * record.length;
+            int slot = FRAME_SIZE - 8 - 4 * i;
+            frame[slot] = (byte) (end >>> 24);
+            frame[slot + 1] = (byte) (end >>> 16);
+            frame[slot + 2] = (byte) (end >>> 8);
+            frame[slot + 3] = (byte) end;
+        }
+        int compressedLength = roundTrip(frame, 0, FRAME_SIZE);
+        assertTrue("compressed length: " + compressedLength, compressedLength < FRAME_SIZE / 8);
+    }
+
+    @Test
+    public void testRandomBytes() {
+        Random rnd = new Random(17);
+        byte[] block = new byte[FRAME_SIZE];
+        rnd.nextBytes(block);
+        int compressedLength = roundTrip(block, 0, FRAME_SIZE);
+        assertTrue(compressedLength <= LZBlockCodec.maxCompressedLength(FRAME_SIZE));
+    }
+
+    @Test
+    public void testMixedContent() {
+        Random rnd = new Random(31);
+        for (int round = 0; round < 200; ++round) {
+            int length = rnd.nextInt(4 * FRAME_SIZE);
+            int offset = rnd.nextInt(64);
+            byte[] block = new byte[offset + length];
+            int i = offset;
+            while (i < block.length) {
+                int run = Math.min(block.length - i, 1 + rnd.nextInt(300));
+                switch (rnd.nextInt(3)) {
+                    case 0:
+                        // random literals
+                        for (int j = 0; j < run; ++j) {
+                            block[i + j] = (byte) rnd.nextInt();
+                        }
+                        break;
+                    case 1:
+                        // a run of one byte
+                        Arrays.fill(block, i, i + run, (byte) rnd.nextInt());
+                        break;
+                    default:
+                        // a copy of earlier bytes, possibly further back than a match can reach
+                        if (i - offset > 0) {
+                            int from = offset + rnd.nextInt(i - offset);
+                            for (int j = 0; j < run; ++j) {
+                                block[i + j] = block[from + j];
+                            }
+                        }
+                        break;
+                }
+                i += run;
+            }
+            roundTrip(block, offset, length);
+        }
+    }
+
+    @Test
+    public void testCorruptBlock() {
+        byte[] block = new byte[FRAME_SIZE];
+        Arrays.fill(block, (byte) 7);
+        byte[] compressed = new byte[LZBlockCodec.maxCompressedLength(FRAME_SIZE)];
+        int compressedLength = codec.compress(block, 0, FRAME_SIZE, compressed, 0);
+        byte[] restored = new byte[FRAME_SIZE];
+        try {
+            LZBlockCodec.decompress(compressed, 0, compressedLength, restored, 0, FRAME_SIZE - 1);
+            fail("decompressed beyond the end of the destination");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            LZBlockCodec.decompress(compressed, 0, compressedLength - 1, restored, 0, FRAME_SIZE);
+            fail("decompressed a truncated block");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private int roundTrip(byte[] block, int offset, int length) {
+        byte[] compressed = new byte[3 + LZBlockCodec.maxCompressedLength(length)];
+        int compressedLength = codec.compress(block, offset, length, compressed, 3);
+        assertTrue(compressedLength <= LZBlockCodec.maxCompressedLength(length));
+        byte[] restored = new byte[length + 5];
+        int restoredLength = LZBlockCodec.decompress(compressed, 3, compressedLength, restored, 5, length);
+        assertEquals(length, restoredLength);
+        assertArrayEquals(Arrays.copyOfRange(block, offset, offset + length), Arrays.copyOfRange(restored, 5,
+                5 + length));
+        return compressedLength;
+    }
+}
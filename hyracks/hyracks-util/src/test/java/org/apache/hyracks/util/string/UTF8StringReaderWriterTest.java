@@ -36,6 +36,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import org.junit.Test;
 
@@ -71,6 +72,37 @@ public class UTF8StringReaderWriterTest {
         writeAndReadOneString(STRING_UTF8_MIX);
     }
 
+    @Test
+    public void testNulAndSupplementaryCharacters() throws IOException {
+        writeAndReadOneString("a\u0000b");
+        writeAndReadOneString("x\uD83D\uDE00y");
+    }
+
+    @Test
+    public void testMalformedBytes() throws IOException {
+        byte[][] inputs = { { 'a', (byte) 0x80, 'b' }, // stray continuation byte
+                { 'a', (byte) 0xBF }, // stray continuation byte at the end
+                { 'a', (byte) 0xC3 }, // truncated 2-byte sequence
+                { 'a', (byte) 0xE4, (byte) 0xB8 }, // truncated 3-byte sequence
+                { (byte) 0xE4, 'x', 'y' }, // lead byte without continuations
+                { (byte) 0xC0, (byte) 0x80 }, // overlong NUL
+                { (byte) 0xC1, (byte) 0xBF }, // overlong 2-byte sequence
+                { (byte) 0xE0, (byte) 0x80, (byte) 0xAF }, // overlong 3-byte sequence
+                { (byte) 0xED, (byte) 0xA0, (byte) 0x80 }, // encoded surrogate
+                { 'c', 'a', 'f', (byte) 0xE9 }, // Latin-1 "café"
+                { (byte) 0xF0, (byte) 0x9F, (byte) 0x98 }, // truncated 4-byte sequence
+                { (byte) 0xF8, (byte) 0x88, (byte) 0x80, (byte) 0x80, (byte) 0x80 } }; // 5-byte lead
+        for (byte[] input : inputs) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            writer.writeUTF8(input, 0, input.length, new DataOutputStream(bos));
+            String expected = new String(input, StandardCharsets.UTF_8);
+            byte[] written = bos.toByteArray();
+            assertEquals(expected, reader.readUTF(new DataInputStream(new ByteArrayInputStream(written))));
+            // the stored string must be walkable character by character
+            assertEquals(expected.length(), UTF8StringUtil.getStringLength(written, 0));
+        }
+    }
+
     private void writeAndReadOneString(String testString) throws IOException {
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
         DataOutputStream dos = new DataOutputStream(bos);
@@ -85,6 +117,13 @@ public class UTF8StringReaderWriterTest {
 
         bis = new ByteArrayInputStream(bos.toByteArray(), lastOffset, bos.size());
         assertEquals(testString, reader.readUTF(new DataInputStream(bis)));
+
+        lastOffset = bos.size();
+        byte[] utf8 = testString.getBytes(StandardCharsets.UTF_8);
+        writer.writeUTF8(utf8, 0, utf8.length, dos);
+
+        bis = new ByteArrayInputStream(bos.toByteArray(), lastOffset, bos.size());
+        assertEquals(testString, reader.readUTF(new DataInputStream(bis)));
     }
 
 }